@@ -7,6 +7,25 @@ import algorithm.util.iostream.StdOut;
 import java.util.Arrays;
 
 // java BinarySearch tinyW.txt < tinyT.txt
+/**
+ * 二分查找
+ * <p>
+ * 除了经典的indexOf()以外, 提供了以下几种查找方式, 都支持下界(lowerBound: 第一个不小于key的位置),
+ * 上界(upperBound: 第一个大于key的位置)和精确查找(indexOf: 不存在时为-1), 返回的都是在有序数组中的位置:
+ * <p>
+ * - 1.无分支的二分查找(branchless*): 每次只根据比较结果移动base, 循环次数只与数组长度有关,
+ * 比较结果使用条件赋值而不是分支, 不会因为分支预测失败而清空流水线
+ * <p>
+ * - 2.Eytzinger布局: 按照二叉堆(BFS)的顺序存放元素, 节点k的子节点为2k和2k+1; 查找路径上前几层的节点集中在数组开头,
+ * 经常命中缓存, 且每一层的下一个位置是连续的, 便于硬件预取
+ * <p>
+ * - 3.S-tree布局(静态B树): 每个节点存放BLOCK_SIZE个键(正好占一个64字节的缓存行), 有BLOCK_SIZE + 1个子节点,
+ * 每层只访问一个缓存行, 树高为log(BLOCK_SIZE + 1)N
+ * <p>
+ * 后两种布局需要预先构建, 适用于构建一次、查找多次的场景(例如白名单); 为了返回在有序数组中的位置, 额外保存了每个位置对应的下标
+ *
+ * @author zk
+ */
 public class BinarySearch {
 
     public static void main(String[] args) {
@@ -40,4 +59,269 @@ public class BinarySearch {
         return -1;
     }
 
+    /**
+     * 有序数组a中第一个不小于key的位置, 不存在时为a.length
+     */
+    public static int lowerBound(int key, int[] a) {
+        int lo = 0, hi = a.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * 有序数组a中第一个大于key的位置, 不存在时为a.length
+     */
+    public static int upperBound(int key, int[] a) {
+        int lo = 0, hi = a.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] <= key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * 无分支的下界查找
+     * <p>
+     * 保持待查找区间为a[base...base+n-1], 每次与a[base+half]比较后只移动base, 区间长度n -= half,
+     * 直到只剩一个元素
+     */
+    public static int branchlessLowerBound(int key, int[] a) {
+        int n = a.length;
+        if (n == 0) return 0;
+        int base = 0;
+        while (n > 1) {
+            int half = n >>> 1;
+            base = a[base + half] < key ? base + half : base;
+            n -= half;
+        }
+        return base + (a[base] < key ? 1 : 0);
+    }
+
+    /**
+     * 无分支的上界查找
+     */
+    public static int branchlessUpperBound(int key, int[] a) {
+        int n = a.length;
+        if (n == 0) return 0;
+        int base = 0;
+        while (n > 1) {
+            int half = n >>> 1;
+            base = a[base + half] <= key ? base + half : base;
+            n -= half;
+        }
+        return base + (a[base] <= key ? 1 : 0);
+    }
+
+    /**
+     * 无分支的精确查找, 存在重复元素时返回第一个的位置
+     */
+    public static int branchlessIndexOf(int key, int[] a) {
+        int i = branchlessLowerBound(key, a);
+        return i < a.length && a[i] == key ? i : -1;
+    }
+
+    /**
+     * Eytzinger(BFS顺序)布局的有序数组
+     * <p>
+     * 下标从1开始: tree[1]为根, 节点k的子节点为2k和2k+1; 按中序遍历依次填入有序数组的元素即得到该布局
+     * <p>
+     * 查找时一直下降到叶子之下: 向右走的步对应二进制的1, 最后一次向左走的位置就是下界,
+     * 因此结果为去掉k末尾的连续1以及再后面一位之后的值(k >>= ffs(~k)), 为0时说明不存在
+     */
+    public static final class Eytzinger {
+
+        private final int n;
+
+        private final int[] tree;
+
+        /**
+         * tree[k]在原有序数组中的下标, index[0] = n表示不存在
+         */
+        private final int[] index;
+
+        /**
+         * @param sorted 有序数组
+         */
+        public Eytzinger(int[] sorted) {
+            if (sorted.length >= 1 << 30) {
+                throw new IllegalArgumentException("array too large for Eytzinger layout: " + sorted.length);
+            }
+            n = sorted.length;
+            tree = new int[n + 1];
+            index = new int[n + 1];
+            index[0] = n;
+            build(sorted, 0, 1);
+        }
+
+        /**
+         * 中序遍历以k为根的子树, 从sorted[i]开始依次填入
+         *
+         * @return 下一个待填入的元素下标
+         */
+        private int build(int[] sorted, int i, int k) {
+            if (k <= n) {
+                i = build(sorted, i, 2 * k);
+                tree[k] = sorted[i];
+                index[k] = i++;
+                i = build(sorted, i, 2 * k + 1);
+            }
+            return i;
+        }
+
+        /**
+         * 第一个不小于key的节点, 不存在时为0
+         */
+        private int lowerNode(int key) {
+            int k = 1;
+            while (k <= n) {
+                k = 2 * k + (tree[k] < key ? 1 : 0);
+            }
+            return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+        }
+
+        public int lowerBound(int key) {
+            return index[lowerNode(key)];
+        }
+
+        public int upperBound(int key) {
+            int k = 1;
+            while (k <= n) {
+                k = 2 * k + (tree[k] <= key ? 1 : 0);
+            }
+            return index[k >>> (Integer.numberOfTrailingZeros(~k) + 1)];
+        }
+
+        /**
+         * key在原有序数组中的位置(存在重复元素时为第一个), 不存在时为-1
+         */
+        public int indexOf(int key) {
+            int k = lowerNode(key);
+            return k != 0 && tree[k] == key ? index[k] : -1;
+        }
+
+        public boolean contains(int key) {
+            int k = lowerNode(key);
+            return k != 0 && tree[k] == key;
+        }
+
+        public int size() {
+            return n;
+        }
+    }
+
+    /**
+     * S-tree(静态B树)布局的有序数组
+     * <p>
+     * 第k个节点的键为keys[k * BLOCK_SIZE ... k * BLOCK_SIZE + BLOCK_SIZE - 1], 第i个子节点为k * (BLOCK_SIZE + 1) + i + 1;
+     * 与Eytzinger布局相同, 按中序遍历依次填入有序数组的元素, 最后一个节点中不足的位置填入Integer.MAX_VALUE
+     * (填充的位置在中序遍历中位于所有元素之后, 因此不影响查找结果)
+     * <p>
+     * 查找时在每个节点中统计小于key的键的个数i(固定比较BLOCK_SIZE次, 没有分支), 第i个键即为该节点中的候选下界,
+     * 然后进入第i个子节点; 越深的候选在中序遍历中越靠前, 因此最后一个候选就是下界
+     */
+    public static final class STree {
+
+        /**
+         * 每个节点的键个数: 16个int正好占一个64字节的缓存行
+         */
+        static final int BLOCK_SIZE = 16;
+
+        private final int n;
+
+        private final int blocks;
+
+        private final int[] keys;
+
+        /**
+         * keys[j]在原有序数组中的下标, 填充的位置为n
+         */
+        private final int[] index;
+
+        /**
+         * @param sorted 有序数组
+         */
+        public STree(int[] sorted) {
+            n = sorted.length;
+            blocks = (n + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            keys = new int[blocks * BLOCK_SIZE];
+            index = new int[blocks * BLOCK_SIZE];
+            build(sorted, 0, 0);
+        }
+
+        private static int child(int k, int i) {
+            return k * (BLOCK_SIZE + 1) + i + 1;
+        }
+
+        /**
+         * 中序遍历以k为根的子树, 从sorted[i]开始依次填入
+         *
+         * @return 下一个待填入的元素下标
+         */
+        private int build(int[] sorted, int i, int k) {
+            if (k >= blocks) return i;
+            for (int c = 0; c < BLOCK_SIZE; c++) {
+                i = build(sorted, i, child(k, c));
+                int j = k * BLOCK_SIZE + c;
+                if (i < n) {
+                    keys[j] = sorted[i];
+                    index[j] = i++;
+                } else {
+                    keys[j] = Integer.MAX_VALUE;
+                    index[j] = n;
+                }
+            }
+            return build(sorted, i, child(k, BLOCK_SIZE));
+        }
+
+        /**
+         * 第一个不小于key(strict为false)或大于key(strict为true)的键在keys中的位置, 不存在时为-1
+         */
+        private int search(int key, boolean strict) {
+            int k = 0, result = -1;
+            while (k < blocks) {
+                int base = k * BLOCK_SIZE, i = 0;
+                if (strict) {
+                    for (int j = base; j < base + BLOCK_SIZE; j++) i += keys[j] <= key ? 1 : 0;
+                } else {
+                    for (int j = base; j < base + BLOCK_SIZE; j++) i += keys[j] < key ? 1 : 0;
+                }
+                if (i < BLOCK_SIZE) result = base + i;
+                k = child(k, i);
+            }
+            return result;
+        }
+
+        public int lowerBound(int key) {
+            int j = search(key, false);
+            return j < 0 ? n : index[j];
+        }
+
+        public int upperBound(int key) {
+            int j = search(key, true);
+            return j < 0 ? n : index[j];
+        }
+
+        /**
+         * key在原有序数组中的位置(存在重复元素时为第一个), 不存在时为-1
+         */
+        public int indexOf(int key) {
+            int j = search(key, false);
+            return j >= 0 && index[j] < n && keys[j] == key ? index[j] : -1;
+        }
+
+        public boolean contains(int key) {
+            return indexOf(key) >= 0;
+        }
+
+        public int size() {
+            return n;
+        }
+    }
+
 }
@@ -3,14 +3,30 @@ package algorithm.sort;
 import algorithm.util.iostream.StdOut;
 
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 排序类的例子
  *
  * 主要实现了比较less()方法, 交换exch()方法
  *
- * 以及输出数组show(), 排序验证isSorted()方法
+ * 其中less()方法提供了使用Comparator比较的重载, 用于按照记录的某个字段进行排序
+ *
+ * 以及输出数组show(), 排序验证isSorted()方法, 按排列重排数组permute()方法
+ *
+ * 排序验证:
+ *
+ * - isSorted(): 基本类型直接使用<比较, 不装箱; double和float要求NaN全部在末尾
+ *
+ * - parallelIsSorted(): 使用ForkJoin将数组分块并行检查, 相邻的块重叠一个元素以检查块的边界; 任意一块发现逆序后其余的块尽快停止
+ *
+ * - checksum()/isSortedPermutation(): 对每个元素的位模式(对象为hashCode())做64位混合后求和, 与顺序无关;
+ * 排序前记录校验和, 排序后同时确认结果有序且为原数组的排列(丢失、重复或篡改元素时校验和以极高的概率改变)
  *
  * @author zk
  */
@@ -33,6 +49,18 @@ public abstract class BaseSort {
         return v.compareTo(w) < 0;
     }
 
+    /**
+     * 使用比较器c比较v和w, 返回v是否比w小
+     *
+     * @param v 比较值v
+     * @param w 比较值w
+     * @param c 比较器
+     * @return v < w返回true, v >= w返回false
+     */
+    public static <T> boolean less(T v, T w, Comparator<? super T> c) {
+        return c.compare(v, w) < 0;
+    }
+
     /**
      * 在数组a中交换索引i, j对应元素
      *
@@ -40,12 +68,142 @@ public abstract class BaseSort {
      * @param i 索引i
      * @param j 索引j
      */
-    public static <K extends Comparable<K>> void exch(K[] a, int i, int j) {
-        K t = a[i];
+    public static <T> void exch(T[] a, int i, int j) {
+        T t = a[i];
         a[i] = a[j];
         a[j] = t;
     }
 
+    /**
+     * 在int数组a中交换索引i, j对应元素
+     */
+    public static void exch(int[] a, int i, int j) {
+        int t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    /**
+     * 在long数组a中交换索引i, j对应元素
+     */
+    public static void exch(long[] a, int i, int j) {
+        long t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    /**
+     * 在double数组a中交换索引i, j对应元素
+     */
+    public static void exch(double[] a, int i, int j) {
+        double t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    /**
+     * 在float数组a中交换索引i, j对应元素
+     */
+    public static void exch(float[] a, int i, int j) {
+        float t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    /**
+     * 把NaN视为大于其他所有值(且NaN之间相等)的v < w, 其余与<相同(-0.0与0.0相等)
+     * <p>
+     * 与<不同, 任意两个值都可以比较且满足传递性, 因此可以用于二分查找等依赖单调性的场合
+     */
+    static boolean lessNaNLast(double v, double w) {
+        return v < w || (w != w && v == v);
+    }
+
+    /**
+     * 把NaN视为大于其他所有值的float比较
+     */
+    static boolean lessNaNLast(float v, float w) {
+        return v < w || (w != w && v == v);
+    }
+
+    /**
+     * 将a[lo...hi]中的NaN与区间末尾的元素交换, 移到区间末尾(与Arrays.sort()相同), 供排序前预处理
+     *
+     * @return 最后一个非NaN元素的位置, 全部为NaN时为lo - 1
+     */
+    static int moveNaNsToEnd(double[] a, int lo, int hi) {
+        while (hi >= lo && Double.isNaN(a[hi])) hi--;
+        for (int i = hi - 1; i >= lo; i--) {
+            double x = a[i];
+            if (x != x) {
+                a[i] = a[hi];
+                a[hi--] = x;
+            }
+        }
+        return hi;
+    }
+
+    /**
+     * 将float数组a[lo...hi]中的NaN移到区间末尾
+     *
+     * @return 最后一个非NaN元素的位置, 全部为NaN时为lo - 1
+     */
+    static int moveNaNsToEnd(float[] a, int lo, int hi) {
+        while (hi >= lo && Float.isNaN(a[hi])) hi--;
+        for (int i = hi - 1; i >= lo; i--) {
+            float x = a[i];
+            if (x != x) {
+                a[i] = a[hi];
+                a[hi--] = x;
+            }
+        }
+        return hi;
+    }
+
+    /**
+     * 按照排列perm重排数组a: 重排后的a[i]为重排前的a[perm[i]]
+     * <p>
+     * 用于将键排序得到的排列应用到与键平行的数据数组上
+     */
+    public static void permute(int[] a, int[] perm) {
+        checkPermutationLength(a.length, perm);
+        int[] t = new int[a.length];
+        for (int i = 0; i < t.length; i++) {
+            t[i] = a[perm[i]];
+        }
+        System.arraycopy(t, 0, a, 0, t.length);
+    }
+
+    /**
+     * 按照排列perm重排long数组a
+     */
+    public static void permute(long[] a, int[] perm) {
+        checkPermutationLength(a.length, perm);
+        long[] t = new long[a.length];
+        for (int i = 0; i < t.length; i++) {
+            t[i] = a[perm[i]];
+        }
+        System.arraycopy(t, 0, a, 0, t.length);
+    }
+
+    /**
+     * 按照排列perm重排数组a
+     */
+    public static <T> void permute(T[] a, int[] perm) {
+        checkPermutationLength(a.length, perm);
+        Object[] t = new Object[a.length];
+        for (int i = 0; i < t.length; i++) {
+            t[i] = a[perm[i]];
+        }
+        System.arraycopy(t, 0, a, 0, t.length);
+    }
+
+    private static void checkPermutationLength(int length, int[] perm) {
+        if (perm.length != length) {
+            throw new IllegalArgumentException("permutation length " + perm.length + " != array length " + length);
+        }
+    }
+
     public static <K extends Comparable<K>> void show(K[] a) {
         Arrays.stream(a).forEach(x -> System.out.print(x + " "));
         StdOut.println();
@@ -73,6 +231,30 @@ public abstract class BaseSort {
         return isSorted(a, 0, a.length - 1);
     }
 
+    public static boolean isSorted(long[] a) {
+        return isSorted(a, 0, a.length - 1);
+    }
+
+    public static boolean isSorted(float[] a) {
+        return isSorted(a, 0, a.length - 1);
+    }
+
+    /**
+     * 判断数组a是否按照比较器c有序
+     */
+    public static <T> boolean isSorted(T[] a, Comparator<? super T> c) {
+        return isSorted(a, 0, a.length - 1, c);
+    }
+
+    /**
+     * 判断数组a[lo...hi]区间是否按照比较器c有序
+     */
+    public static <T> boolean isSorted(T[] a, int lo, int hi, Comparator<? super T> c) {
+        for (int i = lo + 1; i <= hi; i++)
+            if (less(a[i], a[i-1], c)) return false;
+        return true;
+    }
+
     /**
      * 判断数组a[lo...hi]区间是否有序
      */
@@ -90,14 +272,259 @@ public abstract class BaseSort {
 
     public static boolean isSorted(int[] a, int lo, int hi) {
         for (int i = lo + 1; i <= hi; i++)
-            if (less(a[i], a[i-1])) return false;
+            if (a[i] < a[i-1]) return false;
         return true;
     }
 
+    /**
+     * 判断double数组a[lo...hi]区间是否有序: NaN必须全部在末尾(与Arrays.sort()相同), -0.0与0.0视为相等
+     * <p>
+     * 若直接使用<, 与NaN的比较总是false, {3.0, NaN, 1.0}也会被当作有序
+     */
     public static boolean isSorted(double[] a, int lo, int hi) {
         for (int i = lo + 1; i <= hi; i++)
-            if (less(a[i], a[i-1])) return false;
+            if (lessNaNLast(a[i], a[i-1])) return false;
         return true;
     }
 
+    public static boolean isSorted(long[] a, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++)
+            if (a[i] < a[i-1]) return false;
+        return true;
+    }
+
+    public static boolean isSorted(float[] a, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++)
+            if (lessNaNLast(a[i], a[i-1])) return false;
+        return true;
+    }
+
+    /**
+     * 并行检查时每一块的最小长度
+     */
+    static final int PARALLEL_CHECK_THRESHOLD = 1 << 16;
+
+    /**
+     * 检查[lo...hi]区间的函数
+     */
+    @FunctionalInterface
+    interface RangeCheck {
+        boolean test(int lo, int hi);
+    }
+
+    /**
+     * 使用线程池pool并行检查[0...n-1]: 各块在分界处重叠一个元素
+     */
+    static boolean parallelCheck(int n, ForkJoinPool pool, RangeCheck check) {
+        if (n <= PARALLEL_CHECK_THRESHOLD) {
+            return check.test(0, n - 1);
+        }
+        return pool.invoke(new CheckTask(check, 0, n - 1, new AtomicBoolean()));
+    }
+
+    private static class CheckTask extends RecursiveTask<Boolean> {
+
+        private final RangeCheck check;
+
+        private final int lo, hi;
+
+        /**
+         * 已有一块检查失败
+         */
+        private final AtomicBoolean failed;
+
+        CheckTask(RangeCheck check, int lo, int hi, AtomicBoolean failed) {
+            this.check = check;
+            this.lo = lo;
+            this.hi = hi;
+            this.failed = failed;
+        }
+
+        @Override
+        protected Boolean compute() {
+            if (failed.get()) {
+                return false;
+            }
+            if (hi - lo < PARALLEL_CHECK_THRESHOLD) {
+                boolean ok = check.test(lo, hi);
+                if (!ok) failed.set(true);
+                return ok;
+            }
+            // 左右两块共享a[mid], 因此a[mid]与a[mid+1]的边界也会被检查
+            int mid = (lo + hi) >>> 1;
+            CheckTask right = new CheckTask(check, mid, hi, failed);
+            right.fork();
+            boolean left = new CheckTask(check, lo, mid, failed).compute();
+            return right.join() && left;
+        }
+    }
+
+    /**
+     * 使用公共线程池并行判断数组a是否按照比较器c有序
+     */
+    public static <T> boolean parallelIsSorted(T[] a, Comparator<? super T> c) {
+        return parallelIsSorted(a, c, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 使用线程池pool并行判断数组a是否按照比较器c有序
+     */
+    public static <T> boolean parallelIsSorted(T[] a, Comparator<? super T> c, ForkJoinPool pool) {
+        return parallelCheck(a.length, pool, (lo, hi) -> isSorted(a, lo, hi, c));
+    }
+
+    /**
+     * 使用公共线程池并行判断int数组a是否有序
+     */
+    public static boolean parallelIsSorted(int[] a) {
+        return parallelIsSorted(a, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 使用线程池pool并行判断int数组a是否有序
+     */
+    public static boolean parallelIsSorted(int[] a, ForkJoinPool pool) {
+        return parallelCheck(a.length, pool, (lo, hi) -> isSorted(a, lo, hi));
+    }
+
+    /**
+     * int数组a的校验和: 与元素的顺序无关, 排序前后不变
+     */
+    public static long checksum(int[] a) {
+        long sum = 0;
+        for (int x : a) sum += mix(x);
+        return sum;
+    }
+
+    /**
+     * 判断int数组a是否有序, 且为校验和为checksum的原数组的一个排列
+     *
+     * @param checksum 排序前由checksum(a)得到的校验和
+     */
+    public static boolean isSortedPermutation(int[] a, long checksum) {
+        return isSorted(a) && checksum(a) == checksum;
+    }
+
+    /**
+     * 使用公共线程池并行判断long数组a是否有序
+     */
+    public static boolean parallelIsSorted(long[] a) {
+        return parallelIsSorted(a, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 使用线程池pool并行判断long数组a是否有序
+     */
+    public static boolean parallelIsSorted(long[] a, ForkJoinPool pool) {
+        return parallelCheck(a.length, pool, (lo, hi) -> isSorted(a, lo, hi));
+    }
+
+    /**
+     * long数组a的校验和: 与元素的顺序无关, 排序前后不变
+     */
+    public static long checksum(long[] a) {
+        long sum = 0;
+        for (long x : a) sum += mix(x);
+        return sum;
+    }
+
+    /**
+     * 判断long数组a是否有序, 且为校验和为checksum的原数组的一个排列
+     *
+     * @param checksum 排序前由checksum(a)得到的校验和
+     */
+    public static boolean isSortedPermutation(long[] a, long checksum) {
+        return isSorted(a) && checksum(a) == checksum;
+    }
+
+    /**
+     * 使用公共线程池并行判断double数组a是否有序
+     */
+    public static boolean parallelIsSorted(double[] a) {
+        return parallelIsSorted(a, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 使用线程池pool并行判断double数组a是否有序
+     */
+    public static boolean parallelIsSorted(double[] a, ForkJoinPool pool) {
+        return parallelCheck(a.length, pool, (lo, hi) -> isSorted(a, lo, hi));
+    }
+
+    /**
+     * double数组a的校验和: 与元素的顺序无关, 排序前后不变
+     */
+    public static long checksum(double[] a) {
+        long sum = 0;
+        for (double x : a) sum += mix(Double.doubleToRawLongBits(x));
+        return sum;
+    }
+
+    /**
+     * 判断double数组a是否有序, 且为校验和为checksum的原数组的一个排列
+     *
+     * @param checksum 排序前由checksum(a)得到的校验和
+     */
+    public static boolean isSortedPermutation(double[] a, long checksum) {
+        return isSorted(a) && checksum(a) == checksum;
+    }
+
+    /**
+     * 使用公共线程池并行判断float数组a是否有序
+     */
+    public static boolean parallelIsSorted(float[] a) {
+        return parallelIsSorted(a, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 使用线程池pool并行判断float数组a是否有序
+     */
+    public static boolean parallelIsSorted(float[] a, ForkJoinPool pool) {
+        return parallelCheck(a.length, pool, (lo, hi) -> isSorted(a, lo, hi));
+    }
+
+    /**
+     * float数组a的校验和: 与元素的顺序无关, 排序前后不变
+     */
+    public static long checksum(float[] a) {
+        long sum = 0;
+        for (float x : a) sum += mix(Float.floatToRawIntBits(x));
+        return sum;
+    }
+
+    /**
+     * 判断float数组a是否有序, 且为校验和为checksum的原数组的一个排列
+     *
+     * @param checksum 排序前由checksum(a)得到的校验和
+     */
+    public static boolean isSortedPermutation(float[] a, long checksum) {
+        return isSorted(a) && checksum(a) == checksum;
+    }
+
+    /**
+     * 数组a的校验和: 使用元素的hashCode(), 因此hashCode()相等的不同元素无法区分
+     */
+    public static <T> long checksum(T[] a) {
+        long sum = 0;
+        for (T x : a) sum += mix(Objects.hashCode(x));
+        return sum;
+    }
+
+    /**
+     * 判断数组a是否按照比较器c有序, 且为校验和为checksum的原数组的一个排列
+     */
+    public static <T> boolean isSortedPermutation(T[] a, Comparator<? super T> c, long checksum) {
+        return isSorted(a, c) && checksum(a) == checksum;
+    }
+
+    /**
+     * 64位混合函数(SplitMix64的终结步骤), 先与常数异或使0不映射为0
+     */
+    private static long mix(long x) {
+        long z = x ^ 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
 }
@@ -1,5 +1,7 @@
 package algorithm.sort;
 
+import java.util.Comparator;
+
 /**
  * 冒泡排序
  * <p>
@@ -131,4 +133,26 @@ public class BubbleSort extends BaseSort {
             leftVar = leftBound;
         }
     }
+
+    /**
+     * 使用比较器c的冒泡排序(带有序标记)
+     *
+     * @param a 待排序数组
+     * @param c 比较器
+     */
+    public static <T> void sort(T[] a, Comparator<? super T> c) {
+        for (int i = 0, len = a.length; i < len - 1; i++) {
+            boolean finished = true;
+            for (int j = 0; j < len - 1 - i; j++) {
+                if (less(a[j + 1], a[j], c)) {
+                    exch(a, j, j + 1);
+                    finished = false;
+                }
+            }
+            if (finished) {
+                return;
+            }
+        }
+    }
+
 }
@@ -1,9 +1,10 @@
 package algorithm.sort;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * 桶排序（Bucket Sort）
@@ -39,6 +40,18 @@ import java.util.ListIterator;
  * 极端情况下，区间小到只有1，即桶内只存放一种元素
  * <p>
  * 此时桶内的元素不再需要排序，因为它们都是相同的元素，这时桶排序差不多就和计数排序一样了
+ * <p>
+ * 实现:
+ * <p>
+ * - 1.先求出最小值和最大值, 将[min, max]平均映射到指定数量的桶中(默认每个桶平均4个元素)
+ * <p>
+ * - 2.第一遍统计每个桶的元素个数, 计算每个桶的起始位置; 第二遍将元素分配到一个扁平的double[]中, 不使用链表, 也不装箱
+ * <p>
+ * - 3.每个桶使用基本类型的排序: 小桶使用插入排序, 大桶使用归并排序(数据分布不均匀时也不会退化为O(N^2))
+ * <p>
+ * - 4.parallelSort()将各个桶按元素个数分组后并行排序
+ * <p>
+ * 与其他基本类型的排序相同, 先将NaN移到末尾(与Arrays.sort()相同), 其余元素之间直接使用<比较
  *
  * @author zk
  */
@@ -50,72 +63,162 @@ public class BucketSort extends BaseSort {
     private static final int DEFAULT_BUCKET_SIZE = 5;
 
     /**
-     * 这里仅仅作为演示, 排序要求:
-     * <p>
-     * 输入的桶大小bucketSize, 应当大于待排序浮点数的整数部分, 且浮点数均大于零才行!
-     * <p>
-     * (因为在getBucketIndex方法中仅仅取了浮点数的整数部分作为桶的index)
+     * 默认情况下每个桶平均分到的元素个数
+     */
+    private static final int DEFAULT_BUCKET_LOAD = 4;
+
+    /**
+     * 桶内元素个数不超过该值时使用插入排序
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    /**
+     * 并行排序时每个任务至少处理的元素个数
+     */
+    private static final int MIN_PARALLEL_SIZE = 1 << 14;
+
+    /**
+     * 桶排序, 桶的数量根据数组长度自动确定
+     */
+    public static void sort(double[] arr) {
+        sort(arr, defaultBucketCount(arr.length));
+    }
+
+    /**
+     * 桶排序
      *
      * @param arr        待排序数组
-     * @param bucketSize 桶大小(在本例中为浮点数整数部分最大值+1)
+     * @param bucketSize 桶的数量(不少于5个), 桶将[min, max]平均划分
      */
     public static void sort(double[] arr, int bucketSize) {
-        // 新建一个桶的集合
-        ArrayList<LinkedList<Double>> buckets = new ArrayList<>();
+        double[] aux = new double[arr.length];
+        int[] start = scatter(arr, aux, bucketSize);
+        if (start == null) {
+            return;
+        }
+        sortBuckets(aux, arr, start, 0, start.length - 1);
+    }
 
-        bucketSize = Math.max(bucketSize, DEFAULT_BUCKET_SIZE);
+    /**
+     * 并行桶排序(使用公共线程池), 桶的数量根据数组长度自动确定
+     */
+    public static void parallelSort(double[] arr) {
+        parallelSort(arr, defaultBucketCount(arr.length), ForkJoinPool.commonPool());
+    }
 
-        for (int i = 0; i < bucketSize; i++) {
-            // 新建一个桶，并将其添加到桶的集合中去
-            // 由于桶内元素会频繁的插入，所以选择 LinkedList作为桶的数据结构
-            buckets.add(new LinkedList<>());
+    /**
+     * 并行桶排序: 分配完成后, 按元素个数将连续的桶分组, 各组并行排序
+     *
+     * @param arr        待排序数组
+     * @param bucketSize 桶的数量(不少于5个)
+     * @param pool       执行排序的线程池
+     */
+    public static void parallelSort(double[] arr, int bucketSize, ForkJoinPool pool) {
+        double[] aux = new double[arr.length];
+        int[] start = scatter(arr, aux, bucketSize);
+        if (start == null) {
+            return;
         }
 
-        // 将输入数据全部放入桶中并完成排序
-        for (double data : arr) {
-            int index = getBucketIndex(data);
-            insertSort(buckets.get(index), data);
+        int buckets = start.length - 1, n = start[buckets];
+        int parts = Math.max(1, Math.min(pool.getParallelism() * 4, n / MIN_PARALLEL_SIZE));
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(parts);
+        // 每组的桶尽可能包含n / parts个元素
+        for (int b = 0, part = 1; b < buckets; part++) {
+            long target = (long) n * part / parts;
+            int from = b;
+            while (b < buckets && (b == from || start[b + 1] <= target)) {
+                b++;
+            }
+            int to = b;
+            tasks.add(ForkJoinTask.adapt(() -> sortBuckets(aux, arr, start, from, to)));
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        });
+    }
+
+    private static int defaultBucketCount(int n) {
+        return Math.max(DEFAULT_BUCKET_SIZE, n / DEFAULT_BUCKET_LOAD);
+    }
+
+    /**
+     * 将NaN移到末尾并求最值后, 将arr中其余的元素按桶分配到aux中, 返回每个桶的起始位置(最后一个元素为非NaN元素的个数)
+     * <p>
+     * 非NaN元素少于2个或都相等时无需排序, 返回null
+     */
+    private static int[] scatter(double[] arr, double[] aux, int bucketSize) {
+        // NaN不参与求最值和分配: 否则以NaN为初值的min, max始终为NaN
+        int n = moveNaNsToEnd(arr, 0, arr.length - 1) + 1;
+        if (n < 2) {
+            return null;
         }
+        bucketSize = Math.max(bucketSize, DEFAULT_BUCKET_SIZE);
 
-        // 将桶中元素全部取出来并放入arr中输出
-        int index = 0;
-        for (LinkedList<Double> bucket : buckets) {
-            for (Double data : bucket) {
-                arr[index++] = data;
+        double min = arr[0], max = arr[0];
+        for (int i = 1; i < n; i++) {
+            double v = arr[i];
+            if (v < min) {
+                min = v;
             }
+            if (v > max) {
+                max = v;
+            }
+        }
+        if (!(min < max)) {
+            return null;
+        }
+        // 值域溢出为无穷大时scale为0, 所有元素都进入第一个桶
+        double scale = bucketSize / (max - min);
+
+        // 第一遍: 统计每个桶中元素的个数, start[b + 1]为第b个桶的元素个数
+        int[] start = new int[bucketSize + 1];
+        for (int i = 0; i < n; i++) {
+            start[getBucketIndex(arr[i], min, scale, bucketSize) + 1]++;
+        }
+        for (int b = 0; b < bucketSize; b++) {
+            start[b + 1] += start[b];
         }
+
+        // 第二遍: 分配到扁平数组aux中
+        int[] next = start.clone();
+        for (int i = 0; i < n; i++) {
+            double v = arr[i];
+            aux[next[getBucketIndex(v, min, scale, bucketSize)]++] = v;
+        }
+        return start;
     }
 
     /**
      * 计算得到输入元素应该放到哪个桶内
+     * <p>
+     * (v - min) * scale随v单调不减, 因此编号较小的桶中的元素都不大于编号较大的桶中的元素
      */
-    private static int getBucketIndex(double data) {
-        // 这里例子写的比较简单，仅使用浮点数的整数部分作为其桶的索引值
-        // 实际开发中需要根据场景具体设计
-        return (int) data;
+    private static int getBucketIndex(double data, double min, double scale, int bucketSize) {
+        int index = (int) ((data - min) * scale);
+        // data == max时index == bucketSize
+        return Math.min(index, bucketSize - 1);
     }
 
     /**
-     * 我们选择插入排序作为桶内元素排序的方法
-     * <p>
-     * 每当有一个新元素到来时，我们都调用该方法将其插入到恰当的位置
+     * 将aux中第[from, to)个桶排序, 结果放入arr中的相同位置
      */
-    private static void insertSort(List<Double> bucket, double data) {
-        ListIterator<Double> it = bucket.listIterator();
-        boolean insertFlag = true;
-        while (it.hasNext()) {
-            if (data <= it.next()) {
-                // 把迭代器的位置偏移回上一个位置
-                it.previous();
-                // 把数据插入到迭代器的当前位置
-                it.add(data);
-                insertFlag = false;
-                break;
+    private static void sortBuckets(double[] aux, double[] arr, int[] start, int from, int to) {
+        for (int b = from; b < to; b++) {
+            int lo = start[b], hi = start[b + 1] - 1;
+            if (lo > hi) {
+                continue;
+            }
+            System.arraycopy(aux, lo, arr, lo, hi - lo + 1);
+            if (hi - lo < INSERTION_SORT_THRESHOLD) {
+                InsertionSort.sort(arr, lo, hi);
+            } else {
+                // 两个数组中的数据相同, 归并排序的结果放入arr中
+                MergeSort.advancedSort(aux, arr, lo, hi);
             }
-        }
-        if (insertFlag) {
-            // 否则把数据插入到链表末端
-            bucket.add(data);
         }
     }
 
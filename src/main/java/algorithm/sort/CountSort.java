@@ -1,5 +1,13 @@
 package algorithm.sort;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
 /**
  * 计数排序（Counting Sort）
  * <p>
@@ -23,12 +31,59 @@ package algorithm.sort;
  * - 当输入的元素是n个0到k之间的整数时: 时间复杂度是O(n+k),空间复杂度也是O(n+k),其排序速度快于任何比较排序算法
  * <p>
  * - 当k不是很大并且序列比较集中时，计数排序是一个很有效的排序算法
+ * <p>
+ * 为避免值域过大时计数数组溢出或耗尽内存, sort()会检查值域: 值域超过数组长度的4倍(且超过4096)或超出内存预算时, 自动改为基数排序;
+ * 计数完成后按每个值出现的次数整段填充(Arrays.fill), 而不是逐个写入
+ * <p>
+ * byte[], short[], char[]的直方图大小固定, 不需要求最值; parallelSort()使用多线程分块统计直方图
+ * <p>
+ * sort(keys, values)在对键排序的同时按相同的方式重排平行的数据数组, sortedPermutation(keys)则只返回排序排列:
+ * 统计完成后将每个元素的下标(而不是值本身)按计数分配到对应位置
  *
  * @author zk
  */
 public class CountSort extends BaseSort {
 
+    /**
+     * 值域不超过该值时, 无论数组多短都可以使用计数排序
+     */
+    private static final int MIN_RANGE = 1 << 12;
+
+    /**
+     * 值域不超过数组长度的RANGE_FACTOR倍时使用计数排序, 否则计数数组的遍历代价会超过基数排序
+     */
+    private static final int RANGE_FACTOR = 4;
+
+    /**
+     * 计数数组的最大长度: 一些虚拟机在数组头部保留若干字, 更长的数组可能分配失败; 同时保证max - min + 1不溢出int
+     */
+    private static final int MAX_RANGE = Integer.MAX_VALUE - 8;
+
+    /**
+     * 计数数组默认的内存预算(字节)
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+
+    /**
+     * 并行统计直方图时每一块的最小长度
+     */
+    private static final int MIN_CHUNK = 1 << 16;
+
     public static void sort(int[] a) {
+        sort(a, DEFAULT_MEMORY_BUDGET);
+    }
+
+    /**
+     * 计数排序, 值域过大时自动改为基数排序
+     *
+     * @param a            待排序数组
+     * @param memoryBudget 计数数组最多占用的字节数
+     */
+    public static void sort(int[] a, long memoryBudget) {
+        if (a.length < 2) {
+            return;
+        }
+
         // 一：求取最大值和最小值，计算中间数组的长度
         // 中间数组是用来记录原始数据中每个值出现的频率
         int max = a[0], min = a[0];
@@ -41,7 +96,11 @@ public class CountSort extends BaseSort {
             }
         }
 
-        // 二：有了最大值和最小值能够确定中间数组的长度
+        // 二：值域过大(int溢出, 超出内存预算或远大于数组长度)时使用基数排序
+        if (!countable(min, max, a.length, memoryBudget)) {
+            RadixSort.sort(a);
+            return;
+        }
         int[] aux = new int[max - min + 1];
 
         // 三.循环遍历旧数组计数排序: 统计原始数组值出现的频率到中间数组B中
@@ -50,20 +109,311 @@ public class CountSort extends BaseSort {
             aux[i - min] += 1;
         }
 
-        // 四.遍历输出
-        // 创建最终数组，就是返回的数组，和原始数组长度相等，但是排序完成的
+        // 四.按出现的次数整段填充回原数组
+        fill(a, aux, min);
+    }
+
+    /**
+     * 值域[min, max]是否适合使用计数排序
+     */
+    static boolean countable(int min, int max, int n, long memoryBudget) {
+        long range = (long) max - min + 1;
+        return range <= MAX_RANGE
+                && range <= Math.max((long) n * RANGE_FACTOR, MIN_RANGE)
+                && range * Integer.BYTES <= memoryBudget;
+    }
+
+    /**
+     * 按照计数数组count将min, min+1, ...依次整段填充到a中
+     */
+    private static void fill(int[] a, int[] count, int min) {
+        for (int i = 0, index = 0; i < count.length; i++) {
+            if (count[i] > 0) {
+                Arrays.fill(a, index, index + count[i], min + i);
+                index += count[i];
+            }
+        }
+    }
+
+    /**
+     * byte数组的计数排序: 直方图固定为256个计数器
+     */
+    public static void sort(byte[] a) {
+        int[] count = new int[1 << Byte.SIZE];
+        for (byte v : a) {
+            count[v - Byte.MIN_VALUE]++;
+        }
+        for (int i = 0, index = 0; i < count.length; i++) {
+            Arrays.fill(a, index, index + count[i], (byte) (i + Byte.MIN_VALUE));
+            index += count[i];
+        }
+    }
+
+    /**
+     * short数组的计数排序: 直方图固定为65536个计数器
+     */
+    public static void sort(short[] a) {
+        int[] count = new int[1 << Short.SIZE];
+        for (short v : a) {
+            count[v - Short.MIN_VALUE]++;
+        }
+        for (int i = 0, index = 0; i < count.length; i++) {
+            if (count[i] > 0) {
+                Arrays.fill(a, index, index + count[i], (short) (i + Short.MIN_VALUE));
+                index += count[i];
+            }
+        }
+    }
+
+    /**
+     * char数组的计数排序: 直方图固定为65536个计数器
+     */
+    public static void sort(char[] a) {
+        int[] count = new int[1 << Character.SIZE];
+        for (char v : a) {
+            count[v]++;
+        }
+        for (int i = 0, index = 0; i < count.length; i++) {
+            if (count[i] > 0) {
+                Arrays.fill(a, index, index + count[i], (char) i);
+                index += count[i];
+            }
+        }
+    }
+
+    /**
+     * 并行计数排序(使用公共线程池)
+     */
+    public static void parallelSort(int[] a) {
+        parallelSort(a, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 并行计数排序(使用默认的内存预算)
+     */
+    public static void parallelSort(int[] a, ForkJoinPool pool) {
+        parallelSort(a, pool, DEFAULT_MEMORY_BUDGET);
+    }
+
+    /**
+     * 并行计数排序: 值域过大时改为并行基数排序
+     * <p>
+     * - 1.将数组切分为多块, 每个线程统计自己那一块的最值和直方图
+     * <p>
+     * - 2.将值域切分为多段, 每段并行地汇总各块的计数
+     * <p>
+     * - 3.计算每一段在结果中的起始位置后, 各段并行地整段填充
+     * <p>
+     * 每块各有一个直方图, 因此统计直方图的块数受内存预算限制: 所有直方图的总大小不超过memoryBudget,
+     * 总长度也不超过数组长度的RANGE_FACTOR倍; 块数不足时统计阶段的并行度降低, 汇总和填充仍按线程数分段
+     *
+     * @param a            待排序数组
+     * @param pool         执行排序的线程池
+     * @param memoryBudget 所有计数数组最多占用的字节数
+     */
+    public static void parallelSort(int[] a, ForkJoinPool pool, long memoryBudget) {
+        int n = a.length;
+        int p = Math.max(1, Math.min(pool.getParallelism(), n / MIN_CHUNK));
+        if (p == 1) {
+            sort(a, memoryBudget);
+            return;
+        }
+
+        // 一：每块各自求最值
+        int[] mins = new int[p], maxs = new int[p];
+        parallelFor(pool, p, c -> {
+            int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+            for (int i = from(n, p, c), to = from(n, p, c + 1); i < to; i++) {
+                min = Math.min(min, a[i]);
+                max = Math.max(max, a[i]);
+            }
+            mins[c] = min;
+            maxs[c] = max;
+        });
+        int min = Arrays.stream(mins).min().getAsInt(), max = Arrays.stream(maxs).max().getAsInt();
+        if (!countable(min, max, n, memoryBudget)) {
+            ParallelRadixSort.parallelSort(a, pool);
+            return;
+        }
+
+        // 二：每块各自统计直方图, 块数q使直方图的总大小不超过预算(countable()保证至少能放下一个)
+        int range = max - min + 1;
+        long limit = Math.min(memoryBudget / Integer.BYTES, Math.max((long) n * RANGE_FACTOR, MIN_RANGE));
+        int q = (int) Math.max(1, Math.min(p, limit / range));
+        int[][] counts = new int[q][range];
+        parallelFor(pool, q, c -> {
+            int[] count = counts[c];
+            for (int i = from(n, q, c), to = from(n, q, c + 1); i < to; i++) {
+                count[a[i] - min]++;
+            }
+        });
+
+        // 三：按值域分段汇总到counts[0]中, 并计算每段的元素个数
+        long[] sizes = new long[p + 1];
+        parallelFor(pool, p, s -> {
+            int[] total = counts[0];
+            long size = 0;
+            for (int v = from(range, p, s), to = from(range, p, s + 1); v < to; v++) {
+                for (int c = 1; c < q; c++) {
+                    total[v] += counts[c][v];
+                }
+                size += total[v];
+            }
+            sizes[s + 1] = size;
+        });
+        for (int s = 0; s < p; s++) {
+            sizes[s + 1] += sizes[s];
+        }
+
+        // 四：各段并行整段填充
+        parallelFor(pool, p, s -> {
+            int[] total = counts[0];
+            int index = (int) sizes[s];
+            for (int v = from(range, p, s), to = from(range, p, s + 1); v < to; v++) {
+                if (total[v] > 0) {
+                    Arrays.fill(a, index, index + total[v], min + v);
+                    index += total[v];
+                }
+            }
+        });
+    }
+
+    /**
+     * 将长度为n的区间平均切分为p段时, 第c段的起始位置
+     */
+    private static int from(int n, int p, int c) {
+        return (int) ((long) n * c / p);
+    }
+
+    /**
+     * 在pool中并行执行body(0), body(1), ..., body(parts-1)
+     */
+    private static void parallelFor(ForkJoinPool pool, int parts, IntConsumer body) {
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                List<ForkJoinTask<?>> tasks = new ArrayList<>(parts);
+                for (int i = 0; i < parts; i++) {
+                    int part = i;
+                    tasks.add(ForkJoinTask.adapt(() -> body.accept(part)));
+                }
+                invokeAll(tasks);
+            }
+        });
+    }
+
+    /**
+     * 返回keys的排序排列perm(稳定): keys[perm[0]] <= keys[perm[1]] <= ..., keys本身不变
+     */
+    public static int[] sortedPermutation(int[] keys) {
+        return countable(keys) ? sortWithIndex(keys.clone()) : RadixSort.sortedPermutation(keys);
+    }
+
+    /**
+     * keys的值域是否适合使用计数排序(使用默认的内存预算)
+     */
+    private static boolean countable(int[] keys) {
+        if (keys.length == 0) {
+            return true;
+        }
+        int max = keys[0], min = keys[0];
+        for (int k : keys) {
+            if (k > max) {
+                max = k;
+            }
+            if (k < min) {
+                min = k;
+            }
+        }
+        return countable(min, max, keys.length, DEFAULT_MEMORY_BUDGET);
+    }
+
+    /**
+     * 按键排序: 对keys排序, 同时将平行的int数组values按相同的方式重排(稳定)
+     */
+    public static void sort(int[] keys, int[] values) {
+        checkLength(keys.length, values.length);
+        if (!countable(keys)) {
+            RadixSort.sort(keys, values);
+            return;
+        }
+        permute(values, sortWithIndex(keys));
+    }
+
+    /**
+     * 按键排序: 对keys排序, 同时将平行的long数组values按相同的方式重排(稳定)
+     */
+    public static void sort(int[] keys, long[] values) {
+        checkLength(keys.length, values.length);
+        if (!countable(keys)) {
+            RadixSort.sort(keys, values);
+            return;
+        }
+        permute(values, sortWithIndex(keys));
+    }
+
+    /**
+     * 按键排序: 对keys排序, 同时将平行的数组values按相同的方式重排(稳定)
+     */
+    public static <T> void sort(int[] keys, T[] values) {
+        checkLength(keys.length, values.length);
+        if (!countable(keys)) {
+            RadixSort.sort(keys, values);
+            return;
+        }
+        permute(values, sortWithIndex(keys));
+    }
+
+    /**
+     * 对keys计数排序并返回排序排列
+     */
+    private static int[] sortWithIndex(int[] keys) {
+        int n = keys.length;
+        int[] perm = new int[n];
+        if (n == 0) {
+            return perm;
+        }
+
+        int max = keys[0], min = keys[0];
+        for (int k : keys) {
+            if (k > max) {
+                max = k;
+            }
+            if (k < min) {
+                min = k;
+            }
+        }
+
+        // count[k - min]为值k的起始位置
+        int[] count = new int[max - min + 2];
+        for (int k : keys) {
+            count[k - min + 1]++;
+        }
+        for (int i = 1; i < count.length; i++) {
+            count[i] += count[i - 1];
+        }
 
-        // 记录最终数组的下标
-        int index = 0;
-        // 先循环每一个元素, 在计数排序器的下标中
-        for (int i = 0; i < aux.length; i++) {
-            // 循环出现的次数
-            // aux[i]:这个数出现的频率
-            for (int j = 0; j < aux[i]; j++) {
-                // 原来减少了min现在加上min，值就变成了原来的值
-                a[index++] = i + min;
+        // 从前向后分配下标, 相等的键保持原有顺序
+        for (int i = 0; i < n; i++) {
+            perm[count[keys[i] - min]++] = i;
+        }
+
+        // 此时count[k - min]为值k的结束位置
+        for (int k = min, from = 0; k <= max; k++) {
+            int to = count[k - min];
+            Arrays.fill(keys, from, to, k);
+            from = to;
+            if (k == max) {
+                break;
             }
         }
+        return perm;
+    }
+
+    private static void checkLength(int keys, int values) {
+        if (keys != values) {
+            throw new IllegalArgumentException("keys length " + keys + " != values length " + values);
+        }
     }
 
 }
@@ -0,0 +1,389 @@
+package algorithm.sort;
+
+import algorithm.util.iostream.BinaryIn;
+import algorithm.util.iostream.BinaryOut;
+import algorithm.util.iostream.In;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * 外部排序: 数据量超过内存时的归并排序
+ * <p>
+ * - 1.分块: 每次从输入流(BinaryIn或In)中读入runLength个元素, 使用内存中的排序(RadixSort)排好序
+ * <p>
+ * - 2.溢写: 将每个排好序的块作为一个有序段(run)通过BinaryOut写入临时文件
+ * <p>
+ * - 3.归并: 使用KWayMerge(败者树)对有序段进行多路归并, 每输出一个元素只需要lgK次比较;
+ * 有序段超过fanIn个时先分组归并成更长的有序段, 直到不超过fanIn个, 再归并到输出流
+ * <p>
+ * 读写临时文件时使用IO_BUFFER_SIZE大小的缓冲, 使磁盘以大块顺序读写为主
+ * <p>
+ * 内存: 排序一个块需要约2 * runLength个元素的空间(RadixSort需要同样大小的辅助数组), 归并时需要fanIn * IO_BUFFER_SIZE字节的缓冲
+ * <p>
+ * 只有一个块时直接输出, 不产生临时文件
+ * <p>
+ * BinaryIn/BinaryOut遇到IOException时只打印异常, 因此每个有序段记录元素个数, 溢写后检查文件长度, 归并后检查元素个数,
+ * 不一致时抛出IOException, 避免磁盘写满等错误导致结果静默丢失数据; 每趟归并结束(包括失败)后立即删除该趟的输入文件
+ * <p>
+ * 数据均以BinaryIn/BinaryOut的格式(大端序)读写
+ *
+ * @author zk
+ */
+public class ExternalSort extends BaseSort {
+
+    /**
+     * 默认每个有序段的元素个数
+     */
+    public static final int DEFAULT_RUN_LENGTH = 1 << 24;
+
+    /**
+     * 默认每次归并的有序段个数上限
+     */
+    public static final int DEFAULT_FAN_IN = 128;
+
+    /**
+     * 读写每个临时文件的缓冲大小(字节)
+     */
+    static final int IO_BUFFER_SIZE = 1 << 20;
+
+    private ExternalSort() {
+    }
+
+    /**
+     * 外部排序: 从二进制输入流in读入全部int, 排序后写入out
+     *
+     * @return 排序的元素个数
+     */
+    public static long sortInts(BinaryIn in, BinaryOut out) throws IOException {
+        return sortInts(in, out, DEFAULT_RUN_LENGTH, DEFAULT_FAN_IN, null);
+    }
+
+    /**
+     * 外部排序: 从文本输入流in读入全部int(以空白分隔), 排序后以二进制写入out
+     *
+     * @return 排序的元素个数
+     */
+    public static long sortInts(In in, BinaryOut out) throws IOException {
+        return sortInts(in, out, DEFAULT_RUN_LENGTH, DEFAULT_FAN_IN, null);
+    }
+
+    /**
+     * 外部排序: 从二进制输入流in读入全部int, 排序后写入out
+     *
+     * @param runLength 每个有序段的元素个数(内存中排序的块大小)
+     * @param fanIn     每次归并的有序段个数上限
+     * @param tmpDir    临时文件目录, 为null时使用系统临时目录
+     * @return 排序的元素个数
+     */
+    public static long sortInts(BinaryIn in, BinaryOut out, int runLength, int fanIn, File tmpDir) throws IOException {
+        return sortInts(() -> !in.isEmpty(), in::readInt, out, runLength, fanIn, tmpDir);
+    }
+
+    /**
+     * 外部排序: 从文本输入流in读入全部int(以空白分隔), 排序后以二进制写入out
+     */
+    public static long sortInts(In in, BinaryOut out, int runLength, int fanIn, File tmpDir) throws IOException {
+        return sortInts(() -> !in.isEmpty(), in::readInt, out, runLength, fanIn, tmpDir);
+    }
+
+    private static long sortInts(BooleanSupplier hasNext, IntSupplier next, BinaryOut out,
+                               int runLength, int fanIn, File tmpDir) throws IOException {
+        checkArguments(runLength, fanIn);
+        Deque<Run> runs = new ArrayDeque<>();
+        int[] buf = new int[runLength];
+        long total = 0;
+        try {
+            while (true) {
+                int n = 0;
+                while (n < runLength && hasNext.getAsBoolean()) {
+                    buf[n++] = next.getAsInt();
+                }
+                total += n;
+
+                int[] run = n == runLength ? buf : Arrays.copyOf(buf, n);
+                RadixSort.sort(run);
+
+                // 只有一个块: 不需要临时文件, 直接输出
+                if (runs.isEmpty() && !hasNext.getAsBoolean()) {
+                    for (int i = 0; i < n; i++) out.write(run[i]);
+                    out.flush();
+                    return total;
+                }
+
+                if (n > 0) {
+                    runs.add(spill(run, n, tmpDir));
+                }
+                if (!hasNext.getAsBoolean()) break;
+            }
+            buf = null;
+
+            // 有序段过多时多趟归并, 每趟最多归并fanIn个
+            while (runs.size() > fanIn) {
+                List<Run> group = new ArrayList<>();
+                for (int i = 0; i < fanIn; i++) group.add(runs.poll());
+                try {
+                    // 先加入runs, 归并失败时由外层的finally删除
+                    Run merged = new Run(File.createTempFile("run", ".bin", tmpDir), count(group));
+                    runs.add(merged);
+                    BinaryOut runOut = openOut(merged.file);
+                    try {
+                        mergeInts(group, runOut);
+                    } finally {
+                        runOut.close();
+                    }
+                    merged.checkLength(Integer.BYTES);
+                } finally {
+                    for (Run r : group) r.delete();
+                }
+            }
+            mergeInts(new ArrayList<>(runs), out);
+            out.flush();
+            return total;
+        } finally {
+            for (Run r : runs) r.delete();
+        }
+    }
+
+    /**
+     * 将有序段run[0...n-1]写入临时文件
+     */
+    private static Run spill(int[] run, int n, File tmpDir) throws IOException {
+        Run r = new Run(File.createTempFile("run", ".bin", tmpDir), n);
+        try {
+            BinaryOut runOut = openOut(r.file);
+            for (int i = 0; i < n; i++) runOut.write(run[i]);
+            runOut.close();
+            r.checkLength(Integer.BYTES);
+        } catch (IOException | RuntimeException e) {
+            r.delete();
+            throw e;
+        }
+        return r;
+    }
+
+    /**
+     * 使用KWayMerge将多个有序段文件归并后写入out
+     * <p>
+     * BinaryIn读取失败时只打印异常并视为读到末尾, 因此归并后检查元素个数, 与各有序段的个数之和不同时抛出IOException
+     *
+     * @return 归并的元素个数
+     */
+    private static long mergeInts(List<Run> runs, BinaryOut out) throws IOException {
+        List<InputStream> streams = new ArrayList<>();
+        try {
+            List<BinaryIn> ins = new ArrayList<>();
+            for (Run r : runs) {
+                InputStream s = new BufferedInputStream(new FileInputStream(r.file), IO_BUFFER_SIZE);
+                streams.add(s);
+                ins.add(new BinaryIn(s));
+            }
+            return checkCount(KWayMerge.mergeInts(ins, out), count(runs));
+        } finally {
+            for (InputStream s : streams) s.close();
+        }
+    }
+
+    /**
+     * 外部排序: 从二进制输入流in读入全部long, 排序后写入out
+     *
+     * @return 排序的元素个数
+     */
+    public static long sortLongs(BinaryIn in, BinaryOut out) throws IOException {
+        return sortLongs(in, out, DEFAULT_RUN_LENGTH, DEFAULT_FAN_IN, null);
+    }
+
+    /**
+     * 外部排序: 从文本输入流in读入全部long(以空白分隔), 排序后以二进制写入out
+     *
+     * @return 排序的元素个数
+     */
+    public static long sortLongs(In in, BinaryOut out) throws IOException {
+        return sortLongs(in, out, DEFAULT_RUN_LENGTH, DEFAULT_FAN_IN, null);
+    }
+
+    /**
+     * 外部排序: 从二进制输入流in读入全部long, 排序后写入out
+     *
+     * @param runLength 每个有序段的元素个数(内存中排序的块大小)
+     * @param fanIn     每次归并的有序段个数上限
+     * @param tmpDir    临时文件目录, 为null时使用系统临时目录
+     * @return 排序的元素个数
+     */
+    public static long sortLongs(BinaryIn in, BinaryOut out, int runLength, int fanIn, File tmpDir) throws IOException {
+        return sortLongs(() -> !in.isEmpty(), in::readLong, out, runLength, fanIn, tmpDir);
+    }
+
+    /**
+     * 外部排序: 从文本输入流in读入全部long(以空白分隔), 排序后以二进制写入out
+     */
+    public static long sortLongs(In in, BinaryOut out, int runLength, int fanIn, File tmpDir) throws IOException {
+        return sortLongs(() -> !in.isEmpty(), in::readLong, out, runLength, fanIn, tmpDir);
+    }
+
+    private static long sortLongs(BooleanSupplier hasNext, LongSupplier next, BinaryOut out,
+                               int runLength, int fanIn, File tmpDir) throws IOException {
+        checkArguments(runLength, fanIn);
+        Deque<Run> runs = new ArrayDeque<>();
+        long[] buf = new long[runLength];
+        long total = 0;
+        try {
+            while (true) {
+                int n = 0;
+                while (n < runLength && hasNext.getAsBoolean()) {
+                    buf[n++] = next.getAsLong();
+                }
+                total += n;
+
+                long[] run = n == runLength ? buf : Arrays.copyOf(buf, n);
+                RadixSort.sort(run);
+
+                // 只有一个块: 不需要临时文件, 直接输出
+                if (runs.isEmpty() && !hasNext.getAsBoolean()) {
+                    for (int i = 0; i < n; i++) out.write(run[i]);
+                    out.flush();
+                    return total;
+                }
+
+                if (n > 0) {
+                    runs.add(spill(run, n, tmpDir));
+                }
+                if (!hasNext.getAsBoolean()) break;
+            }
+            buf = null;
+
+            // 有序段过多时多趟归并, 每趟最多归并fanIn个
+            while (runs.size() > fanIn) {
+                List<Run> group = new ArrayList<>();
+                for (int i = 0; i < fanIn; i++) group.add(runs.poll());
+                try {
+                    // 先加入runs, 归并失败时由外层的finally删除
+                    Run merged = new Run(File.createTempFile("run", ".bin", tmpDir), count(group));
+                    runs.add(merged);
+                    BinaryOut runOut = openOut(merged.file);
+                    try {
+                        mergeLongs(group, runOut);
+                    } finally {
+                        runOut.close();
+                    }
+                    merged.checkLength(Long.BYTES);
+                } finally {
+                    for (Run r : group) r.delete();
+                }
+            }
+            mergeLongs(new ArrayList<>(runs), out);
+            out.flush();
+            return total;
+        } finally {
+            for (Run r : runs) r.delete();
+        }
+    }
+
+    /**
+     * 将有序段run[0...n-1]写入临时文件
+     */
+    private static Run spill(long[] run, int n, File tmpDir) throws IOException {
+        Run r = new Run(File.createTempFile("run", ".bin", tmpDir), n);
+        try {
+            BinaryOut runOut = openOut(r.file);
+            for (int i = 0; i < n; i++) runOut.write(run[i]);
+            runOut.close();
+            r.checkLength(Long.BYTES);
+        } catch (IOException | RuntimeException e) {
+            r.delete();
+            throw e;
+        }
+        return r;
+    }
+
+    /**
+     * 使用KWayMerge将多个有序段文件归并后写入out
+     * <p>
+     * BinaryIn读取失败时只打印异常并视为读到末尾, 因此归并后检查元素个数, 与各有序段的个数之和不同时抛出IOException
+     *
+     * @return 归并的元素个数
+     */
+    private static long mergeLongs(List<Run> runs, BinaryOut out) throws IOException {
+        List<InputStream> streams = new ArrayList<>();
+        try {
+            List<BinaryIn> ins = new ArrayList<>();
+            for (Run r : runs) {
+                InputStream s = new BufferedInputStream(new FileInputStream(r.file), IO_BUFFER_SIZE);
+                streams.add(s);
+                ins.add(new BinaryIn(s));
+            }
+            return checkCount(KWayMerge.mergeLongs(ins, out), count(runs));
+        } finally {
+            for (InputStream s : streams) s.close();
+        }
+    }
+
+    private static void checkArguments(int runLength, int fanIn) {
+        if (runLength <= 0) {
+            throw new IllegalArgumentException("runLength must be positive: " + runLength);
+        }
+        if (fanIn < 2) {
+            throw new IllegalArgumentException("fanIn must be at least 2: " + fanIn);
+        }
+    }
+
+    private static long count(List<Run> runs) {
+        long count = 0;
+        for (Run r : runs) count += r.count;
+        return count;
+    }
+
+    private static long checkCount(long actual, long expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("merged " + actual + " elements from runs holding " + expected);
+        }
+        return actual;
+    }
+
+    private static BinaryOut openOut(File file) throws IOException {
+        return new BinaryOut(new BufferedOutputStream(new FileOutputStream(file), IO_BUFFER_SIZE));
+    }
+
+    /**
+     * 临时文件中的一个有序段
+     * <p>
+     * 记录元素个数count: BinaryOut写入失败时只打印异常而不抛出, 写完后通过文件长度确认没有丢失数据
+     */
+    private static final class Run {
+        private final File file;
+
+        private final long count;
+
+        private Run(File file, long count) {
+            this.file = file;
+            this.count = count;
+        }
+
+        /**
+         * 确认文件长度为count个bytes字节的元素
+         */
+        private void checkLength(int bytes) throws IOException {
+            if (file.length() != count * bytes) {
+                throw new IOException("run " + file + " holds " + file.length() + " bytes, expected " + count * bytes);
+            }
+        }
+
+        private void delete() {
+            file.delete();
+        }
+    }
+
+}
@@ -0,0 +1,144 @@
+package algorithm.sort;
+
+import java.util.Arrays;
+
+/**
+ * 希尔排序的递增序列(步长序列)
+ * <p>
+ * 对象不可变, 构造时即生成int范围内的全部步长(升序, 第一个为1), 排序时只需从小于数组长度的最大步长开始倒序遍历,
+ * 因此可以被多个线程共享, 且每次排序都不需要重新计算或分配:
+ * <p>
+ * - CIURA: 1, 4, 10, 23, 57, 132, 301, 701, 1750, 之后按h * 2.25扩展(实验得到的平均比较次数最少的序列)
+ * <p>
+ * - TOKUDA: ceil((9^k - 4^k) / (5 * 4^(k-1))): 1, 4, 9, 20, 46, 103, 233, 525, ...
+ * <p>
+ * - SEDGEWICK: 9 * 4^k - 9 * 2^k + 1与4^k - 3 * 2^k + 1交替: 1, 5, 19, 41, 109, 209, 505, ..., 最坏时间O(N^(4/3))
+ * <p>
+ * - PRATT: 所有2^p * 3^q: 1, 2, 3, 4, 6, 8, 9, 12, ..., 最坏时间O(N(lgN)^2), 但步长数量较多, 实际较慢
+ * <p>
+ * - ofFactor(step): h = step * h + 1: step = 3时即为Knuth序列1, 4, 13, 40, 121, ...
+ *
+ * @author zk
+ */
+public final class GapSequence {
+
+    public static final GapSequence CIURA = new GapSequence("Ciura", ciuraGaps());
+
+    public static final GapSequence TOKUDA = new GapSequence("Tokuda", tokudaGaps());
+
+    public static final GapSequence SEDGEWICK = new GapSequence("Sedgewick", sedgewickGaps());
+
+    public static final GapSequence PRATT = new GapSequence("Pratt", prattGaps());
+
+    public static final GapSequence KNUTH = ofFactor(3);
+
+    private final String name;
+
+    /**
+     * 升序的步长, gaps[0] = 1
+     * <p>
+     * 仅供本包中的排序方法直接读取, 不能修改
+     */
+    final int[] gaps;
+
+    private GapSequence(String name, int[] gaps) {
+        this.name = name;
+        this.gaps = gaps;
+    }
+
+    /**
+     * 按照h = step * h + 1生成的序列
+     *
+     * @param step 步长系数, 至少为2
+     */
+    public static GapSequence ofFactor(int step) {
+        if (step < 2) {
+            throw new IllegalArgumentException("step must be at least 2: " + step);
+        }
+        int[] gaps = new int[32];
+        int n = 0;
+        for (long h = 1; h <= Integer.MAX_VALUE; h = step * h + 1) {
+            gaps[n++] = (int) h;
+        }
+        return new GapSequence("Factor(" + step + ")", Arrays.copyOf(gaps, n));
+    }
+
+    /**
+     * 长度为n的数组所使用的最大步长在gaps中的索引: 小于n的最大步长, n <= 1时为0
+     */
+    int start(int n) {
+        int lo = 0, hi = gaps.length - 1;
+        while (lo < hi) {
+            int m = (lo + hi + 1) >>> 1;
+            if (gaps[m] < n) lo = m;
+            else hi = m - 1;
+        }
+        return lo;
+    }
+
+    /**
+     * 长度为n的数组排序时依次使用的步长(降序, 最后一个为1)
+     */
+    public int[] gaps(int n) {
+        int k = start(n);
+        int[] result = new int[k + 1];
+        for (int i = 0; i <= k; i++) {
+            result[i] = gaps[k - i];
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static int[] ciuraGaps() {
+        int[] gaps = new int[64];
+        int[] known = {1, 4, 10, 23, 57, 132, 301, 701, 1750};
+        System.arraycopy(known, 0, gaps, 0, known.length);
+        int n = known.length;
+        for (long h = (long) (gaps[n - 1] * 2.25); h <= Integer.MAX_VALUE; h = (long) (h * 2.25)) {
+            gaps[n++] = (int) h;
+        }
+        return Arrays.copyOf(gaps, n);
+    }
+
+    private static int[] tokudaGaps() {
+        int[] gaps = new int[64];
+        int n = 0;
+        // h(k) = 2.25 * h(k-1) + 1的实数序列取上整
+        for (double h = 1; Math.ceil(h) <= Integer.MAX_VALUE; h = 2.25 * h + 1) {
+            gaps[n++] = (int) Math.ceil(h);
+        }
+        return Arrays.copyOf(gaps, n);
+    }
+
+    private static int[] sedgewickGaps() {
+        int[] gaps = new int[64];
+        int n = 0;
+        for (int k = 0; ; k++) {
+            long even = 9 * ((1L << (2 * k)) - (1L << k)) + 1;
+            if (even > Integer.MAX_VALUE) break;
+            gaps[n++] = (int) even;
+            long odd = (1L << (2 * k + 4)) - 3 * (1L << (k + 2)) + 1;
+            if (odd > Integer.MAX_VALUE) break;
+            gaps[n++] = (int) odd;
+        }
+        return Arrays.copyOf(gaps, n);
+    }
+
+    private static int[] prattGaps() {
+        int[] gaps = new int[1024];
+        int n = 0;
+        for (long p = 1; p <= Integer.MAX_VALUE; p *= 2) {
+            for (long h = p; h <= Integer.MAX_VALUE; h *= 3) {
+                gaps[n++] = (int) h;
+            }
+        }
+        gaps = Arrays.copyOf(gaps, n);
+        Arrays.sort(gaps);
+        return gaps;
+    }
+
+}
@@ -1,5 +1,7 @@
 package algorithm.sort;
 
+import java.util.Comparator;
+
 /**
  * 堆排序
  * <p>
@@ -9,60 +11,763 @@ package algorithm.sort;
  * <p>
  * 然后以类似于每次在堆中将头元素(当前堆中最大值)放入末尾并删除的操作完成排序
  * <p>
- * 时间: < O(2NlgN + 2N) 2N来自于堆的构造, 2NlgN来自于每次下沉操作最大可能需要2lgN次比较
+ * 时间: < O(NlgN + 2N) 2N来自于堆的构造, NlgN来自于排序阶段每次Floyd下沉约lgN次比较(普通下沉最多需要2lgN次比较)
  * <p>
  * 空间: O(1)
  * <p>
  * 堆排序的空间复杂度是O(1), 这在嵌入式等内存要求严格的场景下很有用!!!
+ * <p>
+ * 实现上的优化:
+ * <p>
+ * - 1.堆调整使用迭代而不是递归, 下沉时使用覆盖代替交换
+ * <p>
+ * - 2.建堆从最后一个非叶子结点len/2-1开始
+ * <p>
+ * - 3.排序阶段使用Floyd的自底向上下沉: 从堆顶取出的空位沿较大的孩子直接下沉到叶子, 再把原末尾元素从叶子处上浮;
+ * 原末尾元素通常很小, 最终会回到接近叶子的位置, 因此每层只需要比较两个孩子, 比较次数从约2NlgN降到约NlgN
+ * <p>
+ * - 4.可选的d叉堆(sort(a, arity)): 4叉或8叉堆的高度更低, 同一结点的孩子在内存中连续, 下沉时访问的缓存行更少
+ * <p>
+ * 另外为int[], long[], double[], float[]提供了基本类型的重载: 直接使用<比较, 不装箱也不调用compareTo;
+ * double[]和float[]排序前先将NaN移到末尾(与Arrays.sort()相同), 其余元素之间才使用<比较
  *
  * @author zk
  */
 public class HeapSort extends BaseSort {
 
     public static <K extends Comparable<K>> void sort(K[] a) {
-        int len = a.length;
+        sort(a, 0, a.length - 1, Comparator.naturalOrder());
+    }
+
+    /**
+     * d叉堆排序
+     *
+     * @param a     排序数组
+     * @param arity 堆中每个结点的孩子数(2, 4或8较为合适)
+     */
+    public static <K extends Comparable<K>> void sort(K[] a, int arity) {
+        sort(a, 0, a.length - 1, checkArity(arity), Comparator.naturalOrder());
+    }
+
+    /**
+     * 使用比较器c的堆排序
+     *
+     * @param a 待排序数组
+     * @param c 比较器
+     */
+    public static <T> void sort(T[] a, Comparator<? super T> c) {
+        sort(a, 0, a.length - 1, c);
+    }
+
+    /**
+     * 使用比较器c的d叉堆排序
+     */
+    public static <T> void sort(T[] a, int arity, Comparator<? super T> c) {
+        sort(a, 0, a.length - 1, checkArity(arity), c);
+    }
+
+    /**
+     * 大小为bound的d叉堆中有孩子的结点个数: 第0 ... (bound - 2) / arity个结点
+     * <p>
+     * 只对小于该值的结点计算孩子的下标arity * i + 1, 保证不会超过int的范围
+     */
+    private static int parents(int bound, int arity) {
+        return (int) (((long) bound + arity - 2) / arity);
+    }
+
+    private static int checkArity(int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("heap arity must be at least 2: " + arity);
+        }
+        return arity;
+    }
+
+    /**
+     * 使用比较器c对子区间a[lo...hi]进行堆排序, 堆顶为a[lo]
+     */
+    static <T> void sort(T[] a, int lo, int hi, Comparator<? super T> c) {
+        int len = hi - lo + 1;
+        for (int i = len / 2 - 1; i >= 0; i--) {
+            heapify(a, lo, i, len, c);
+        }
+        for (int n = len - 1; n > 0; n--) {
+            // 堆顶移到末尾, 原末尾元素从堆顶的空位处重新插入
+            T last = a[lo + n];
+            a[lo + n] = a[lo];
+            sinkToLeaf(a, lo, last, n, c);
+        }
+    }
+
+    /**
+     * 堆调整(迭代实现): 将第i个元素下沉, 使用覆盖代替交换
+     *
+     * @param a     堆数组
+     * @param lo    堆顶在数组中的位置
+     * @param i     针对第i个元素重建堆(相对堆顶)
+     * @param bound 堆的边界(不包括, 相对堆顶)
+     */
+    static <T> void heapify(T[] a, int lo, int i, int bound, Comparator<? super T> c) {
+        T cur = a[lo + i];
+        // 只有i < bound / 2的结点才有孩子: 先比较再计算孩子的下标, 避免2 * i + 1溢出
+        int child, half = bound >>> 1;
+        while (i < half) {
+            child = 2 * i + 1;
+            if (child + 1 < bound && less(a[lo + child], a[lo + child + 1], c)) child++;
+            if (!less(cur, a[lo + child], c)) break;
+            a[lo + i] = a[lo + child];
+            i = child;
+        }
+        a[lo + i] = cur;
+    }
+
+    /**
+     * Floyd下沉: 堆顶为空位, 空位沿较大的孩子一直下沉到叶子(每层只比较孩子), 再将x从该叶子处上浮
+     *
+     * @param a     堆数组
+     * @param lo    堆顶在数组中的位置
+     * @param x     待插入的元素
+     * @param bound 堆的边界(不包括, 相对堆顶)
+     */
+    private static <T> void sinkToLeaf(T[] a, int lo, T x, int bound, Comparator<? super T> c) {
+        int hole = 0, child, half = bound >>> 1;
+        while (hole < half) {
+            child = 2 * hole + 1;
+            if (child + 1 < bound && less(a[lo + child], a[lo + child + 1], c)) child++;
+            a[lo + hole] = a[lo + child];
+            hole = child;
+        }
+        int parent;
+        while (hole > 0 && less(a[lo + (parent = (hole - 1) >>> 1)], x, c)) {
+            a[lo + hole] = a[lo + parent];
+            hole = parent;
+        }
+        a[lo + hole] = x;
+    }
+
+    /**
+     * 使用比较器c对子区间a[lo...hi]进行d叉堆排序, 堆顶为a[lo]
+     */
+    static <T> void sort(T[] a, int lo, int hi, int arity, Comparator<? super T> c) {
+        if (arity == 2) {
+            sort(a, lo, hi, c);
+            return;
+        }
+        int len = hi - lo + 1;
+        // (len - 2) / arity在len < 2时会截断为0, 需要单独处理
+        if (len < 2) return;
+        for (int i = (len - 2) / arity; i >= 0; i--) {
+            heapify(a, lo, i, len, arity, c);
+        }
+        for (int n = len - 1; n > 0; n--) {
+            T last = a[lo + n];
+            a[lo + n] = a[lo];
+            sinkToLeaf(a, lo, last, n, arity, c);
+        }
+    }
+
+    /**
+     * d叉堆的堆调整: 第i个结点的孩子为arity * i + 1 ... arity * i + arity
+     */
+    private static <T> void heapify(T[] a, int lo, int i, int bound, int arity, Comparator<? super T> c) {
+        T cur = a[lo + i];
+        int child, parents = parents(bound, arity);
+        while (i < parents) {
+            child = arity * i + 1;
+            int max = child;
+            for (int k = child + 1, end = (int) Math.min((long) child + arity, bound); k < end; k++) {
+                if (less(a[lo + max], a[lo + k], c)) max = k;
+            }
+            if (!less(cur, a[lo + max], c)) break;
+            a[lo + i] = a[lo + max];
+            i = max;
+        }
+        a[lo + i] = cur;
+    }
+
+    /**
+     * d叉堆的Floyd下沉
+     */
+    private static <T> void sinkToLeaf(T[] a, int lo, T x, int bound, int arity, Comparator<? super T> c) {
+        int hole = 0, child, parents = parents(bound, arity);
+        while (hole < parents) {
+            child = arity * hole + 1;
+            int max = child;
+            for (int k = child + 1, end = (int) Math.min((long) child + arity, bound); k < end; k++) {
+                if (less(a[lo + max], a[lo + k], c)) max = k;
+            }
+            a[lo + hole] = a[lo + max];
+            hole = max;
+        }
+        int parent;
+        while (hole > 0 && less(a[lo + (parent = (hole - 1) / arity)], x, c)) {
+            a[lo + hole] = a[lo + parent];
+            hole = parent;
+        }
+        a[lo + hole] = x;
+    }
+
+    /**
+     * int数组的堆排序
+     */
+    public static void sort(int[] a) {
+        sort(a, 0, a.length - 1);
+    }
+
+    /**
+     * int数组的d叉堆排序
+     *
+     * @param a     排序数组
+     * @param arity 堆中每个结点的孩子数(2, 4或8较为合适)
+     */
+    public static void sort(int[] a, int arity) {
+        sort(a, 0, a.length - 1, checkArity(arity));
+    }
+
+    /**
+     * 对int数组的子区间a[lo...hi]进行堆排序, 堆顶为a[lo]
+     */
+    static void sort(int[] a, int lo, int hi) {
+        int len = hi - lo + 1;
+        for (int i = len / 2 - 1; i >= 0; i--) {
+            heapify(a, lo, i, len);
+        }
+        for (int n = len - 1; n > 0; n--) {
+            // 堆顶移到末尾, 原末尾元素从堆顶的空位处重新插入
+            int last = a[lo + n];
+            a[lo + n] = a[lo];
+            sinkToLeaf(a, lo, last, n);
+        }
+    }
+
+    /**
+     * 堆调整(迭代实现): 将第i个元素下沉, 使用覆盖代替交换
+     *
+     * @param a     堆数组
+     * @param lo    堆顶在数组中的位置
+     * @param i     针对第i个元素重建堆(相对堆顶)
+     * @param bound 堆的边界(不包括, 相对堆顶)
+     */
+    private static void heapify(int[] a, int lo, int i, int bound) {
+        int cur = a[lo + i];
+        // 只有i < bound / 2的结点才有孩子: 先比较再计算孩子的下标, 避免2 * i + 1溢出
+        int child, half = bound >>> 1;
+        while (i < half) {
+            child = 2 * i + 1;
+            if (child + 1 < bound && a[lo + child] < a[lo + child + 1]) child++;
+            if (!(cur < a[lo + child])) break;
+            a[lo + i] = a[lo + child];
+            i = child;
+        }
+        a[lo + i] = cur;
+    }
+
+    /**
+     * Floyd下沉: 堆顶为空位, 空位沿较大的孩子一直下沉到叶子(每层只比较孩子), 再将x从该叶子处上浮
+     *
+     * @param a     堆数组
+     * @param lo    堆顶在数组中的位置
+     * @param x     待插入的元素
+     * @param bound 堆的边界(不包括, 相对堆顶)
+     */
+    private static void sinkToLeaf(int[] a, int lo, int x, int bound) {
+        int hole = 0, child, half = bound >>> 1;
+        while (hole < half) {
+            child = 2 * hole + 1;
+            if (child + 1 < bound && a[lo + child] < a[lo + child + 1]) child++;
+            a[lo + hole] = a[lo + child];
+            hole = child;
+        }
+        int parent;
+        while (hole > 0 && a[lo + (parent = (hole - 1) >>> 1)] < x) {
+            a[lo + hole] = a[lo + parent];
+            hole = parent;
+        }
+        a[lo + hole] = x;
+    }
+
+    /**
+     * 对int数组的子区间a[lo...hi]进行d叉堆排序, 堆顶为a[lo]
+     */
+    static void sort(int[] a, int lo, int hi, int arity) {
+        if (arity == 2) {
+            sort(a, lo, hi);
+            return;
+        }
+        int len = hi - lo + 1;
+        // (len - 2) / arity在len < 2时会截断为0, 需要单独处理
+        if (len < 2) return;
+        for (int i = (len - 2) / arity; i >= 0; i--) {
+            heapify(a, lo, i, len, arity);
+        }
+        for (int n = len - 1; n > 0; n--) {
+            int last = a[lo + n];
+            a[lo + n] = a[lo];
+            sinkToLeaf(a, lo, last, n, arity);
+        }
+    }
+
+    /**
+     * d叉堆的堆调整: 第i个结点的孩子为arity * i + 1 ... arity * i + arity
+     */
+    private static void heapify(int[] a, int lo, int i, int bound, int arity) {
+        int cur = a[lo + i];
+        int child, parents = parents(bound, arity);
+        while (i < parents) {
+            child = arity * i + 1;
+            int max = child;
+            for (int k = child + 1, end = (int) Math.min((long) child + arity, bound); k < end; k++) {
+                if (a[lo + max] < a[lo + k]) max = k;
+            }
+            if (!(cur < a[lo + max])) break;
+            a[lo + i] = a[lo + max];
+            i = max;
+        }
+        a[lo + i] = cur;
+    }
+
+    /**
+     * d叉堆的Floyd下沉
+     */
+    private static void sinkToLeaf(int[] a, int lo, int x, int bound, int arity) {
+        int hole = 0, child, parents = parents(bound, arity);
+        while (hole < parents) {
+            child = arity * hole + 1;
+            int max = child;
+            for (int k = child + 1, end = (int) Math.min((long) child + arity, bound); k < end; k++) {
+                if (a[lo + max] < a[lo + k]) max = k;
+            }
+            a[lo + hole] = a[lo + max];
+            hole = max;
+        }
+        int parent;
+        while (hole > 0 && a[lo + (parent = (hole - 1) / arity)] < x) {
+            a[lo + hole] = a[lo + parent];
+            hole = parent;
+        }
+        a[lo + hole] = x;
+    }
+
+    /**
+     * long数组的堆排序
+     */
+    public static void sort(long[] a) {
+        sort(a, 0, a.length - 1);
+    }
+
+    /**
+     * long数组的d叉堆排序
+     *
+     * @param a     排序数组
+     * @param arity 堆中每个结点的孩子数(2, 4或8较为合适)
+     */
+    public static void sort(long[] a, int arity) {
+        sort(a, 0, a.length - 1, checkArity(arity));
+    }
 
-        buildMaxHeap(a);
-        for (int i = len - 1; i > 0; i--) {
-            exch(a, 0, i);
-            len--;
-            heapify(a, 0, len);
+    /**
+     * 对long数组的子区间a[lo...hi]进行堆排序, 堆顶为a[lo]
+     */
+    static void sort(long[] a, int lo, int hi) {
+        int len = hi - lo + 1;
+        for (int i = len / 2 - 1; i >= 0; i--) {
+            heapify(a, lo, i, len);
+        }
+        for (int n = len - 1; n > 0; n--) {
+            // 堆顶移到末尾, 原末尾元素从堆顶的空位处重新插入
+            long last = a[lo + n];
+            a[lo + n] = a[lo];
+            sinkToLeaf(a, lo, last, n);
+        }
+    }
+
+    /**
+     * 堆调整(迭代实现): 将第i个元素下沉, 使用覆盖代替交换
+     *
+     * @param a     堆数组
+     * @param lo    堆顶在数组中的位置
+     * @param i     针对第i个元素重建堆(相对堆顶)
+     * @param bound 堆的边界(不包括, 相对堆顶)
+     */
+    private static void heapify(long[] a, int lo, int i, int bound) {
+        long cur = a[lo + i];
+        // 只有i < bound / 2的结点才有孩子: 先比较再计算孩子的下标, 避免2 * i + 1溢出
+        int child, half = bound >>> 1;
+        while (i < half) {
+            child = 2 * i + 1;
+            if (child + 1 < bound && a[lo + child] < a[lo + child + 1]) child++;
+            if (!(cur < a[lo + child])) break;
+            a[lo + i] = a[lo + child];
+            i = child;
         }
+        a[lo + i] = cur;
     }
 
     /**
-     * 建立最大堆
+     * Floyd下沉: 堆顶为空位, 空位沿较大的孩子一直下沉到叶子(每层只比较孩子), 再将x从该叶子处上浮
      *
-     * @param a 原始数组
+     * @param a     堆数组
+     * @param lo    堆顶在数组中的位置
+     * @param x     待插入的元素
+     * @param bound 堆的边界(不包括, 相对堆顶)
+     */
+    private static void sinkToLeaf(long[] a, int lo, long x, int bound) {
+        int hole = 0, child, half = bound >>> 1;
+        while (hole < half) {
+            child = 2 * hole + 1;
+            if (child + 1 < bound && a[lo + child] < a[lo + child + 1]) child++;
+            a[lo + hole] = a[lo + child];
+            hole = child;
+        }
+        int parent;
+        while (hole > 0 && a[lo + (parent = (hole - 1) >>> 1)] < x) {
+            a[lo + hole] = a[lo + parent];
+            hole = parent;
+        }
+        a[lo + hole] = x;
+    }
+
+    /**
+     * 对long数组的子区间a[lo...hi]进行d叉堆排序, 堆顶为a[lo]
+     */
+    static void sort(long[] a, int lo, int hi, int arity) {
+        if (arity == 2) {
+            sort(a, lo, hi);
+            return;
+        }
+        int len = hi - lo + 1;
+        // (len - 2) / arity在len < 2时会截断为0, 需要单独处理
+        if (len < 2) return;
+        for (int i = (len - 2) / arity; i >= 0; i--) {
+            heapify(a, lo, i, len, arity);
+        }
+        for (int n = len - 1; n > 0; n--) {
+            long last = a[lo + n];
+            a[lo + n] = a[lo];
+            sinkToLeaf(a, lo, last, n, arity);
+        }
+    }
+
+    /**
+     * d叉堆的堆调整: 第i个结点的孩子为arity * i + 1 ... arity * i + arity
+     */
+    private static void heapify(long[] a, int lo, int i, int bound, int arity) {
+        long cur = a[lo + i];
+        int child, parents = parents(bound, arity);
+        while (i < parents) {
+            child = arity * i + 1;
+            int max = child;
+            for (int k = child + 1, end = (int) Math.min((long) child + arity, bound); k < end; k++) {
+                if (a[lo + max] < a[lo + k]) max = k;
+            }
+            if (!(cur < a[lo + max])) break;
+            a[lo + i] = a[lo + max];
+            i = max;
+        }
+        a[lo + i] = cur;
+    }
+
+    /**
+     * d叉堆的Floyd下沉
      */
-    private static <K extends Comparable<K>> void buildMaxHeap(K[] a) {
-        for (int len = a.length, i = len >> 1; i >= 0; i--) {
-            heapify(a, i, a.length);
+    private static void sinkToLeaf(long[] a, int lo, long x, int bound, int arity) {
+        int hole = 0, child, parents = parents(bound, arity);
+        while (hole < parents) {
+            child = arity * hole + 1;
+            int max = child;
+            for (int k = child + 1, end = (int) Math.min((long) child + arity, bound); k < end; k++) {
+                if (a[lo + max] < a[lo + k]) max = k;
+            }
+            a[lo + hole] = a[lo + max];
+            hole = max;
         }
+        int parent;
+        while (hole > 0 && a[lo + (parent = (hole - 1) / arity)] < x) {
+            a[lo + hole] = a[lo + parent];
+            hole = parent;
+        }
+        a[lo + hole] = x;
     }
 
     /**
-     * 堆调整, 针对第i个元素重建堆
+     * double数组的堆排序
+     */
+    public static void sort(double[] a) {
+        sort(a, 0, moveNaNsToEnd(a, 0, a.length - 1));
+    }
+
+    /**
+     * double数组的d叉堆排序
      *
-     * @param a 堆数组
-     * @param i 针对第i个元素重建堆
+     * @param a     排序数组
+     * @param arity 堆中每个结点的孩子数(2, 4或8较为合适)
      */
-    private static <K extends Comparable<K>> void heapify(K[] a, int i, int bound) {
-        int largest = i;
-        int left = 2 * i + 1, right = 2 * i + 2;
+    public static void sort(double[] a, int arity) {
+        sort(a, 0, moveNaNsToEnd(a, 0, a.length - 1), checkArity(arity));
+    }
 
-        if (left < bound && less(a[largest], a[left])) {
-            largest = left;
+    /**
+     * 对double数组的子区间a[lo...hi]进行堆排序, 堆顶为a[lo]
+     */
+    static void sort(double[] a, int lo, int hi) {
+        int len = hi - lo + 1;
+        for (int i = len / 2 - 1; i >= 0; i--) {
+            heapify(a, lo, i, len);
         }
+        for (int n = len - 1; n > 0; n--) {
+            // 堆顶移到末尾, 原末尾元素从堆顶的空位处重新插入
+            double last = a[lo + n];
+            a[lo + n] = a[lo];
+            sinkToLeaf(a, lo, last, n);
+        }
+    }
 
-        if (right < bound && less(a[largest], a[right])) {
-            largest = right;
+    /**
+     * 堆调整(迭代实现): 将第i个元素下沉, 使用覆盖代替交换
+     *
+     * @param a     堆数组
+     * @param lo    堆顶在数组中的位置
+     * @param i     针对第i个元素重建堆(相对堆顶)
+     * @param bound 堆的边界(不包括, 相对堆顶)
+     */
+    private static void heapify(double[] a, int lo, int i, int bound) {
+        double cur = a[lo + i];
+        // 只有i < bound / 2的结点才有孩子: 先比较再计算孩子的下标, 避免2 * i + 1溢出
+        int child, half = bound >>> 1;
+        while (i < half) {
+            child = 2 * i + 1;
+            if (child + 1 < bound && a[lo + child] < a[lo + child + 1]) child++;
+            if (!(cur < a[lo + child])) break;
+            a[lo + i] = a[lo + child];
+            i = child;
+        }
+        a[lo + i] = cur;
+    }
+
+    /**
+     * Floyd下沉: 堆顶为空位, 空位沿较大的孩子一直下沉到叶子(每层只比较孩子), 再将x从该叶子处上浮
+     *
+     * @param a     堆数组
+     * @param lo    堆顶在数组中的位置
+     * @param x     待插入的元素
+     * @param bound 堆的边界(不包括, 相对堆顶)
+     */
+    private static void sinkToLeaf(double[] a, int lo, double x, int bound) {
+        int hole = 0, child, half = bound >>> 1;
+        while (hole < half) {
+            child = 2 * hole + 1;
+            if (child + 1 < bound && a[lo + child] < a[lo + child + 1]) child++;
+            a[lo + hole] = a[lo + child];
+            hole = child;
+        }
+        int parent;
+        while (hole > 0 && a[lo + (parent = (hole - 1) >>> 1)] < x) {
+            a[lo + hole] = a[lo + parent];
+            hole = parent;
         }
+        a[lo + hole] = x;
+    }
 
-        if (largest != i) {
-            exch(a, i, largest);
-            heapify(a, largest, bound);
+    /**
+     * 对double数组的子区间a[lo...hi]进行d叉堆排序, 堆顶为a[lo]
+     */
+    static void sort(double[] a, int lo, int hi, int arity) {
+        if (arity == 2) {
+            sort(a, lo, hi);
+            return;
+        }
+        int len = hi - lo + 1;
+        // (len - 2) / arity在len < 2时会截断为0, 需要单独处理
+        if (len < 2) return;
+        for (int i = (len - 2) / arity; i >= 0; i--) {
+            heapify(a, lo, i, len, arity);
+        }
+        for (int n = len - 1; n > 0; n--) {
+            double last = a[lo + n];
+            a[lo + n] = a[lo];
+            sinkToLeaf(a, lo, last, n, arity);
+        }
+    }
+
+    /**
+     * d叉堆的堆调整: 第i个结点的孩子为arity * i + 1 ... arity * i + arity
+     */
+    private static void heapify(double[] a, int lo, int i, int bound, int arity) {
+        double cur = a[lo + i];
+        int child, parents = parents(bound, arity);
+        while (i < parents) {
+            child = arity * i + 1;
+            int max = child;
+            for (int k = child + 1, end = (int) Math.min((long) child + arity, bound); k < end; k++) {
+                if (a[lo + max] < a[lo + k]) max = k;
+            }
+            if (!(cur < a[lo + max])) break;
+            a[lo + i] = a[lo + max];
+            i = max;
+        }
+        a[lo + i] = cur;
+    }
+
+    /**
+     * d叉堆的Floyd下沉
+     */
+    private static void sinkToLeaf(double[] a, int lo, double x, int bound, int arity) {
+        int hole = 0, child, parents = parents(bound, arity);
+        while (hole < parents) {
+            child = arity * hole + 1;
+            int max = child;
+            for (int k = child + 1, end = (int) Math.min((long) child + arity, bound); k < end; k++) {
+                if (a[lo + max] < a[lo + k]) max = k;
+            }
+            a[lo + hole] = a[lo + max];
+            hole = max;
+        }
+        int parent;
+        while (hole > 0 && a[lo + (parent = (hole - 1) / arity)] < x) {
+            a[lo + hole] = a[lo + parent];
+            hole = parent;
+        }
+        a[lo + hole] = x;
+    }
+
+    /**
+     * float数组的堆排序
+     */
+    public static void sort(float[] a) {
+        sort(a, 0, moveNaNsToEnd(a, 0, a.length - 1));
+    }
+
+    /**
+     * float数组的d叉堆排序
+     *
+     * @param a     排序数组
+     * @param arity 堆中每个结点的孩子数(2, 4或8较为合适)
+     */
+    public static void sort(float[] a, int arity) {
+        sort(a, 0, moveNaNsToEnd(a, 0, a.length - 1), checkArity(arity));
+    }
+
+    /**
+     * 对float数组的子区间a[lo...hi]进行堆排序, 堆顶为a[lo]
+     */
+    static void sort(float[] a, int lo, int hi) {
+        int len = hi - lo + 1;
+        for (int i = len / 2 - 1; i >= 0; i--) {
+            heapify(a, lo, i, len);
+        }
+        for (int n = len - 1; n > 0; n--) {
+            // 堆顶移到末尾, 原末尾元素从堆顶的空位处重新插入
+            float last = a[lo + n];
+            a[lo + n] = a[lo];
+            sinkToLeaf(a, lo, last, n);
+        }
+    }
+
+    /**
+     * 堆调整(迭代实现): 将第i个元素下沉, 使用覆盖代替交换
+     *
+     * @param a     堆数组
+     * @param lo    堆顶在数组中的位置
+     * @param i     针对第i个元素重建堆(相对堆顶)
+     * @param bound 堆的边界(不包括, 相对堆顶)
+     */
+    private static void heapify(float[] a, int lo, int i, int bound) {
+        float cur = a[lo + i];
+        // 只有i < bound / 2的结点才有孩子: 先比较再计算孩子的下标, 避免2 * i + 1溢出
+        int child, half = bound >>> 1;
+        while (i < half) {
+            child = 2 * i + 1;
+            if (child + 1 < bound && a[lo + child] < a[lo + child + 1]) child++;
+            if (!(cur < a[lo + child])) break;
+            a[lo + i] = a[lo + child];
+            i = child;
+        }
+        a[lo + i] = cur;
+    }
+
+    /**
+     * Floyd下沉: 堆顶为空位, 空位沿较大的孩子一直下沉到叶子(每层只比较孩子), 再将x从该叶子处上浮
+     *
+     * @param a     堆数组
+     * @param lo    堆顶在数组中的位置
+     * @param x     待插入的元素
+     * @param bound 堆的边界(不包括, 相对堆顶)
+     */
+    private static void sinkToLeaf(float[] a, int lo, float x, int bound) {
+        int hole = 0, child, half = bound >>> 1;
+        while (hole < half) {
+            child = 2 * hole + 1;
+            if (child + 1 < bound && a[lo + child] < a[lo + child + 1]) child++;
+            a[lo + hole] = a[lo + child];
+            hole = child;
+        }
+        int parent;
+        while (hole > 0 && a[lo + (parent = (hole - 1) >>> 1)] < x) {
+            a[lo + hole] = a[lo + parent];
+            hole = parent;
+        }
+        a[lo + hole] = x;
+    }
+
+    /**
+     * 对float数组的子区间a[lo...hi]进行d叉堆排序, 堆顶为a[lo]
+     */
+    static void sort(float[] a, int lo, int hi, int arity) {
+        if (arity == 2) {
+            sort(a, lo, hi);
+            return;
+        }
+        int len = hi - lo + 1;
+        // (len - 2) / arity在len < 2时会截断为0, 需要单独处理
+        if (len < 2) return;
+        for (int i = (len - 2) / arity; i >= 0; i--) {
+            heapify(a, lo, i, len, arity);
+        }
+        for (int n = len - 1; n > 0; n--) {
+            float last = a[lo + n];
+            a[lo + n] = a[lo];
+            sinkToLeaf(a, lo, last, n, arity);
+        }
+    }
+
+    /**
+     * d叉堆的堆调整: 第i个结点的孩子为arity * i + 1 ... arity * i + arity
+     */
+    private static void heapify(float[] a, int lo, int i, int bound, int arity) {
+        float cur = a[lo + i];
+        int child, parents = parents(bound, arity);
+        while (i < parents) {
+            child = arity * i + 1;
+            int max = child;
+            for (int k = child + 1, end = (int) Math.min((long) child + arity, bound); k < end; k++) {
+                if (a[lo + max] < a[lo + k]) max = k;
+            }
+            if (!(cur < a[lo + max])) break;
+            a[lo + i] = a[lo + max];
+            i = max;
+        }
+        a[lo + i] = cur;
+    }
+
+    /**
+     * d叉堆的Floyd下沉
+     */
+    private static void sinkToLeaf(float[] a, int lo, float x, int bound, int arity) {
+        int hole = 0, child, parents = parents(bound, arity);
+        while (hole < parents) {
+            child = arity * hole + 1;
+            int max = child;
+            for (int k = child + 1, end = (int) Math.min((long) child + arity, bound); k < end; k++) {
+                if (a[lo + max] < a[lo + k]) max = k;
+            }
+            a[lo + hole] = a[lo + max];
+            hole = max;
+        }
+        int parent;
+        while (hole > 0 && a[lo + (parent = (hole - 1) / arity)] < x) {
+            a[lo + hole] = a[lo + parent];
+            hole = parent;
         }
+        a[lo + hole] = x;
     }
 
 }
@@ -0,0 +1,334 @@
+package algorithm.sort;
+
+import java.util.Comparator;
+
+/**
+ * 输入的有序程度和分布概况, 供Sorts选择排序算法
+ * <p>
+ * analyze()对数组只遍历一次, 并在一个固定大小的等距样本上做少量额外统计, 总时间为O(N):
+ * <p>
+ * - runs(): 非递减run的个数, 即a[i] < a[i-1]的次数(下降次数) + 1, 为1时数组已经有序(同BaseSort.isSorted())
+ * <p>
+ * - inversionRatio(): 样本中逆序对占全部元素对的比例, 有序为0, 随机约为0.5, 逆序为1; 由样本按归并排序统计
+ * <p>
+ * - duplicateRatio(): 样本排序后与前一个元素相等的元素比例, 接近1时说明只有少量不同的键
+ * <p>
+ * - min()/max(): 键的最值(只对基本类型统计, 对象数组为NaN); long键超过2^53时为近似值
+ * <p>
+ * 局部的乱序(例如窗口内乱序到达的事件)由runs()反映, 全局的乱序由inversionRatio()反映
+ *
+ * @author zk
+ * @see Sorts
+ */
+public final class InputProfile {
+
+    /**
+     * 取样的元素个数, 统计样本的代价为O(SAMPLE_SIZE * lg(SAMPLE_SIZE))
+     */
+    static final int SAMPLE_SIZE = 1 << 10;
+
+    private final int length;
+
+    private final int descents;
+
+    private final double inversionRatio;
+
+    private final double duplicateRatio;
+
+    private final double min;
+
+    private final double max;
+
+    InputProfile(int length, int descents, double inversionRatio, double duplicateRatio, double min, double max) {
+        this.length = length;
+        this.descents = descents;
+        this.inversionRatio = inversionRatio;
+        this.duplicateRatio = duplicateRatio;
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * 未分析时假定的概况: 随机, 没有重复元素, 值域未知
+     */
+    static InputProfile unknown(int length) {
+        return new InputProfile(length, Math.max(length - 1, 0), 0.5, 0, Double.NaN, Double.NaN);
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public int runs() {
+        return length == 0 ? 0 : descents + 1;
+    }
+
+    public boolean isSorted() {
+        return descents == 0;
+    }
+
+    public double inversionRatio() {
+        return inversionRatio;
+    }
+
+    /**
+     * 按样本比例估计的整个数组的逆序对数
+     */
+    public long estimatedInversions() {
+        return (long) (inversionRatio * ((double) length * (length - 1) / 2));
+    }
+
+    public double duplicateRatio() {
+        return duplicateRatio;
+    }
+
+    public double min() {
+        return min;
+    }
+
+    public double max() {
+        return max;
+    }
+
+    /**
+     * 键的值域max - min, 未知时为NaN
+     */
+    public double range() {
+        return max - min;
+    }
+
+    /**
+     * 使用比较器c分析数组a
+     */
+    public static <T> InputProfile analyze(T[] a, Comparator<? super T> c) {
+        int n = a.length;
+        if (n == 0) {
+            return new InputProfile(0, 0, 0, 0, Double.NaN, Double.NaN);
+        }
+
+        int descents = 0;
+        for (int i = 1; i < n; i++) {
+            if (c.compare(a[i], a[i - 1]) < 0) descents++;
+        }
+
+        int m = Math.min(n, SAMPLE_SIZE);
+        Object[] sample = new Object[m];
+        for (int i = 0; i < m; i++) {
+            sample[i] = a[(int) ((long) i * n / m)];
+        }
+        long inversions = countInversions(sample, new Object[m], 0, m - 1, c);
+        int duplicates = 0;
+        for (int i = 1; i < m; i++) {
+            if (compare(sample[i], sample[i - 1], c) == 0) duplicates++;
+        }
+        return new InputProfile(n, descents, inversionRatio(inversions, m), duplicateRatio(duplicates, m),
+                Double.NaN, Double.NaN);
+    }
+
+    public static <K extends Comparable<K>> InputProfile analyze(K[] a) {
+        return analyze(a, Comparator.naturalOrder());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> int compare(Object v, Object w, Comparator<? super T> c) {
+        return c.compare((T) v, (T) w);
+    }
+
+    /**
+     * 使用比较器c归并排序a[lo...hi], 并返回其中的逆序对数
+     */
+    private static <T> long countInversions(Object[] a, Object[] aux, int lo, int hi, Comparator<? super T> c) {
+        if (hi <= lo) return 0;
+        int mid = (lo + hi) >>> 1;
+        long count = countInversions(a, aux, lo, mid, c) + countInversions(a, aux, mid + 1, hi, c);
+        System.arraycopy(a, lo, aux, lo, hi - lo + 1);
+        int i = lo, j = mid + 1;
+        for (int k = lo; k <= hi; k++) {
+            if (i > mid) a[k] = aux[j++];
+            else if (j > hi) a[k] = aux[i++];
+            else if (compare(aux[j], aux[i], c) < 0) {
+                count += mid - i + 1;
+                a[k] = aux[j++];
+            } else a[k] = aux[i++];
+        }
+        return count;
+    }
+
+    /**
+     * 分析int数组a
+     */
+    public static InputProfile analyze(int[] a) {
+        int n = a.length;
+        if (n == 0) {
+            return new InputProfile(0, 0, 0, 0, Double.NaN, Double.NaN);
+        }
+
+        // 一次遍历: 下降次数和最值
+        int descents = 0;
+        int min = a[0], max = a[0];
+        for (int i = 1; i < n; i++) {
+            int x = a[i];
+            if (x < a[i - 1]) descents++;
+            if (x < min) min = x;
+            else if (x > max) max = x;
+        }
+
+        // 等距取样: 统计样本中的逆序对后样本已经有序, 再统计相邻的相等元素
+        int m = Math.min(n, SAMPLE_SIZE);
+        int[] sample = new int[m];
+        for (int i = 0; i < m; i++) {
+            sample[i] = a[(int) ((long) i * n / m)];
+        }
+        long inversions = countInversions(sample, new int[m], 0, m - 1);
+        int duplicates = 0;
+        for (int i = 1; i < m; i++) {
+            if (sample[i] == sample[i - 1]) duplicates++;
+        }
+        return new InputProfile(n, descents, inversionRatio(inversions, m), duplicateRatio(duplicates, m), min, max);
+    }
+
+    /**
+     * 归并排序int数组a[lo...hi], 并返回其中的逆序对数
+     */
+    private static long countInversions(int[] a, int[] aux, int lo, int hi) {
+        if (hi <= lo) return 0;
+        int mid = (lo + hi) >>> 1;
+        long count = countInversions(a, aux, lo, mid) + countInversions(a, aux, mid + 1, hi);
+        System.arraycopy(a, lo, aux, lo, hi - lo + 1);
+        int i = lo, j = mid + 1;
+        for (int k = lo; k <= hi; k++) {
+            if (i > mid) a[k] = aux[j++];
+            else if (j > hi) a[k] = aux[i++];
+            else if (aux[j] < aux[i]) {
+                // aux[i...mid]都与aux[j]构成逆序对
+                count += mid - i + 1;
+                a[k] = aux[j++];
+            } else a[k] = aux[i++];
+        }
+        return count;
+    }
+
+    /**
+     * 分析long数组a
+     */
+    public static InputProfile analyze(long[] a) {
+        int n = a.length;
+        if (n == 0) {
+            return new InputProfile(0, 0, 0, 0, Double.NaN, Double.NaN);
+        }
+
+        // 一次遍历: 下降次数和最值
+        int descents = 0;
+        long min = a[0], max = a[0];
+        for (int i = 1; i < n; i++) {
+            long x = a[i];
+            if (x < a[i - 1]) descents++;
+            if (x < min) min = x;
+            else if (x > max) max = x;
+        }
+
+        // 等距取样: 统计样本中的逆序对后样本已经有序, 再统计相邻的相等元素
+        int m = Math.min(n, SAMPLE_SIZE);
+        long[] sample = new long[m];
+        for (int i = 0; i < m; i++) {
+            sample[i] = a[(int) ((long) i * n / m)];
+        }
+        long inversions = countInversions(sample, new long[m], 0, m - 1);
+        int duplicates = 0;
+        for (int i = 1; i < m; i++) {
+            if (sample[i] == sample[i - 1]) duplicates++;
+        }
+        return new InputProfile(n, descents, inversionRatio(inversions, m), duplicateRatio(duplicates, m), min, max);
+    }
+
+    /**
+     * 归并排序long数组a[lo...hi], 并返回其中的逆序对数
+     */
+    private static long countInversions(long[] a, long[] aux, int lo, int hi) {
+        if (hi <= lo) return 0;
+        int mid = (lo + hi) >>> 1;
+        long count = countInversions(a, aux, lo, mid) + countInversions(a, aux, mid + 1, hi);
+        System.arraycopy(a, lo, aux, lo, hi - lo + 1);
+        int i = lo, j = mid + 1;
+        for (int k = lo; k <= hi; k++) {
+            if (i > mid) a[k] = aux[j++];
+            else if (j > hi) a[k] = aux[i++];
+            else if (aux[j] < aux[i]) {
+                // aux[i...mid]都与aux[j]构成逆序对
+                count += mid - i + 1;
+                a[k] = aux[j++];
+            } else a[k] = aux[i++];
+        }
+        return count;
+    }
+
+    /**
+     * 分析double数组a
+     */
+    public static InputProfile analyze(double[] a) {
+        int n = a.length;
+        if (n == 0) {
+            return new InputProfile(0, 0, 0, 0, Double.NaN, Double.NaN);
+        }
+
+        // 一次遍历: 下降次数和最值; 与排序结果一致, NaN视为大于其余所有元素, 且不参与最值
+        int descents = 0;
+        double min = Double.NaN, max = Double.NaN;
+        for (int i = 0; i < n; i++) {
+            double x = a[i];
+            if (i > 0 && BaseSort.lessNaNLast(x, a[i - 1])) descents++;
+            if (x != x) continue;
+            if (min != min || x < min) min = x;
+            if (max != max || x > max) max = x;
+        }
+
+        // 等距取样: 统计样本中的逆序对后样本已经有序, 再统计相邻的相等元素
+        int m = Math.min(n, SAMPLE_SIZE);
+        double[] sample = new double[m];
+        for (int i = 0; i < m; i++) {
+            sample[i] = a[(int) ((long) i * n / m)];
+        }
+        long inversions = countInversions(sample, new double[m], 0, m - 1);
+        int duplicates = 0;
+        for (int i = 1; i < m; i++) {
+            if (sample[i] == sample[i - 1]) duplicates++;
+        }
+        return new InputProfile(n, descents, inversionRatio(inversions, m), duplicateRatio(duplicates, m), min, max);
+    }
+
+    /**
+     * 归并排序double数组a[lo...hi], 并返回其中的逆序对数
+     */
+    private static long countInversions(double[] a, double[] aux, int lo, int hi) {
+        if (hi <= lo) return 0;
+        int mid = (lo + hi) >>> 1;
+        long count = countInversions(a, aux, lo, mid) + countInversions(a, aux, mid + 1, hi);
+        System.arraycopy(a, lo, aux, lo, hi - lo + 1);
+        int i = lo, j = mid + 1;
+        for (int k = lo; k <= hi; k++) {
+            if (i > mid) a[k] = aux[j++];
+            else if (j > hi) a[k] = aux[i++];
+            else if (BaseSort.lessNaNLast(aux[j], aux[i])) {
+                // aux[i...mid]都与aux[j]构成逆序对
+                count += mid - i + 1;
+                a[k] = aux[j++];
+            } else a[k] = aux[i++];
+        }
+        return count;
+    }
+
+    private static double inversionRatio(long inversions, int m) {
+        return m < 2 ? 0 : inversions / ((double) m * (m - 1) / 2);
+    }
+
+    private static double duplicateRatio(int duplicates, int m) {
+        return m < 2 ? 0 : (double) duplicates / (m - 1);
+    }
+
+    @Override
+    public String toString() {
+        return "InputProfile{length=" + length + ", runs=" + runs() + ", inversionRatio=" + inversionRatio
+                + ", duplicateRatio=" + duplicateRatio + ", min=" + min + ", max=" + max + '}';
+    }
+
+}
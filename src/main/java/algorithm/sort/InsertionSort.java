@@ -1,5 +1,7 @@
 package algorithm.sort;
 
+import java.util.Comparator;
+
 /**
  * 插入排序
  * <p>
@@ -14,6 +16,9 @@ package algorithm.sort;
  * 最好时间: O(N) N-1次比较 + 0次交换
  * <p>
  * 空间: O(1)
+ * <p>
+ * 另外为int[], long[], double[], float[]提供了基本类型的重载: 直接使用<比较, 不装箱也不调用compareTo;
+ * double[]和float[]排序前先将NaN移到末尾(与Arrays.sort()相同), 其余元素之间才使用<比较
  *
  * @author zk
  */
@@ -179,4 +184,182 @@ public class InsertionSort extends BaseSort {
         ShellSort.sort(a);
     }
 
+    /**
+     * 使用比较器c的插入排序(覆盖式插入)
+     *
+     * @param a 待排序数组
+     * @param c 比较器
+     */
+    public static <T> void sort(T[] a, Comparator<? super T> c) {
+        sort(a, 0, a.length - 1, c);
+    }
+
+    /**
+     * 使用比较器c排序a[lo...hi]子区间
+     */
+    static <T> void sort(T[] a, int lo, int hi, Comparator<? super T> c) {
+        for (int i = lo + 1; i <= hi; i++) {
+            T cur = a[i];
+            int j = i;
+            for (; j > lo && less(cur, a[j - 1], c); j--) {
+                a[j] = a[j - 1];
+            }
+            a[j] = cur;
+        }
+    }
+
+    /**
+     * 使用比较器c的折半插入排序: a[lo...start-1]已经有序, 将a[start...hi]依次插入
+     * <p>
+     * 插入位置为最后一个不大于待插入元素的元素之后, 因此是稳定的; 移动元素使用System.arraycopy()
+     */
+    static <T> void binaryInsertSort(T[] a, int lo, int hi, int start, Comparator<? super T> c) {
+        if (start == lo) start++;
+        for (int i = start; i <= hi; i++) {
+            T cur = a[i];
+            int left = lo, right = i;
+            while (left < right) {
+                int m = (left + right) >>> 1;
+                if (less(cur, a[m], c)) right = m;
+                else left = m + 1;
+            }
+            System.arraycopy(a, left, a, left + 1, i - left);
+            a[left] = cur;
+        }
+    }
+
+    /**
+     * int数组的插入排序(覆盖式插入, 不装箱)
+     */
+    public static void sort(int[] a) {
+        sort(a, 0, a.length - 1);
+    }
+
+    /**
+     * 使用插排排序int数组a[lo...hi]子区间
+     *
+     * @param a  排序数组
+     * @param lo 排序左边界
+     * @param hi 排序右边界(包括)
+     */
+    static void sort(int[] a, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            int cur = a[i];
+            int j = i;
+            for (; j > lo && cur < a[j - 1]; j--) {
+                a[j] = a[j - 1];
+            }
+            a[j] = cur;
+        }
+    }
+
+    /**
+     * long数组的插入排序(覆盖式插入, 不装箱)
+     */
+    public static void sort(long[] a) {
+        sort(a, 0, a.length - 1);
+    }
+
+    /**
+     * 使用插排排序long数组a[lo...hi]子区间
+     *
+     * @param a  排序数组
+     * @param lo 排序左边界
+     * @param hi 排序右边界(包括)
+     */
+    static void sort(long[] a, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            long cur = a[i];
+            int j = i;
+            for (; j > lo && cur < a[j - 1]; j--) {
+                a[j] = a[j - 1];
+            }
+            a[j] = cur;
+        }
+    }
+
+    /**
+     * double数组的插入排序(覆盖式插入, 不装箱)
+     */
+    public static void sort(double[] a) {
+        sort(a, 0, moveNaNsToEnd(a, 0, a.length - 1));
+    }
+
+    /**
+     * 使用插排排序double数组a[lo...hi]子区间
+     *
+     * @param a  排序数组
+     * @param lo 排序左边界
+     * @param hi 排序右边界(包括)
+     */
+    static void sort(double[] a, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            double cur = a[i];
+            int j = i;
+            for (; j > lo && cur < a[j - 1]; j--) {
+                a[j] = a[j - 1];
+            }
+            a[j] = cur;
+        }
+    }
+
+    /**
+     * float数组的插入排序(覆盖式插入, 不装箱)
+     */
+    public static void sort(float[] a) {
+        sort(a, 0, moveNaNsToEnd(a, 0, a.length - 1));
+    }
+
+    /**
+     * 使用插排排序float数组a[lo...hi]子区间
+     *
+     * @param a  排序数组
+     * @param lo 排序左边界
+     * @param hi 排序右边界(包括)
+     */
+    static void sort(float[] a, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            float cur = a[i];
+            int j = i;
+            for (; j > lo && cur < a[j - 1]; j--) {
+                a[j] = a[j - 1];
+            }
+            a[j] = cur;
+        }
+    }
+
+    /**
+     * 按照int键数组keys排序a[lo...hi]子区间, 记录数组a随键一起移动(稳定)
+     */
+    static void sort(int[] keys, Object[] a, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            int k = keys[i];
+            Object cur = a[i];
+            int j = i;
+            for (; j > lo && k < keys[j - 1]; j--) {
+                keys[j] = keys[j - 1];
+                a[j] = a[j - 1];
+            }
+            keys[j] = k;
+            a[j] = cur;
+        }
+    }
+
+    /**
+     * 按照long键数组keys排序a[lo...hi]子区间, 记录数组a随键一起移动(稳定)
+     */
+    static void sort(long[] keys, Object[] a, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            long k = keys[i];
+            Object cur = a[i];
+            int j = i;
+            for (; j > lo && k < keys[j - 1]; j--) {
+                keys[j] = keys[j - 1];
+                a[j] = a[j - 1];
+            }
+            keys[j] = k;
+            a[j] = cur;
+        }
+    }
+
 }
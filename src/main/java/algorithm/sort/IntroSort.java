@@ -0,0 +1,232 @@
+package algorithm.sort;
+
+import java.util.Comparator;
+
+/**
+ * 内省排序(IntroSort): 快速排序, 堆排序和插入排序的混合
+ * <p>
+ * QuickSort.advancedSort()没有限制递归深度, 对于特殊构造的输入(包括逆序数组)会退化为O(N^2), 甚至栈溢出;
+ * 内省排序在快排的基础上保证了最坏情况下的时间和栈空间:
+ * <p>
+ * - 1.以三取样中位数的值为轴进行Hoare切分, 左右指针遇到等于轴的元素都会停下交换, 因此有序、逆序以及大量重复的元素都能被均匀切分
+ * <p>
+ * - 2.记录切分的深度, 超过2lgN时说明切分已经严重不平衡, 对该子数组改用HeapSort, 保证最坏时间为O(NlgN)
+ * <p>
+ * - 3.先递归较小的一侧, 较大的一侧在循环中继续切分, 保证栈深度不超过O(lgN)
+ * <p>
+ * - 4.子数组长度不超过INSERTION_SORT_THRESHOLD时使用插入排序
+ * <p>
+ * 内省排序不是稳定的排序
+ * <p>
+ * 另外为int[], long[], double[], float[]提供了基本类型的重载: 直接使用<比较, 不装箱也不调用compareTo;
+ * double[]和float[]排序前先将NaN移到末尾(与Arrays.sort()相同), 其余元素之间才使用<比较
+ *
+ * @author zk
+ */
+public class IntroSort extends BaseSort {
+
+    /**
+     * 子数组切换为插排的阈值
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private IntroSort() {
+    }
+
+    /**
+     * 切分深度的上限: 2lgN
+     */
+    static int depthLimit(int n) {
+        return 2 * (31 - Integer.numberOfLeadingZeros(Math.max(n, 1)));
+    }
+
+    public static <K extends Comparable<K>> void sort(K[] a) {
+        sort(a, Comparator.naturalOrder());
+    }
+
+    /**
+     * 使用比较器c的内省排序
+     *
+     * @param a 待排序数组
+     * @param c 比较器
+     */
+    public static <T> void sort(T[] a, Comparator<? super T> c) {
+        sort(a, 0, a.length - 1, depthLimit(a.length), c);
+    }
+
+    /**
+     * 对a[lo...hi]进行内省排序
+     *
+     * @param depth 剩余的切分深度, 用尽后改用堆排序
+     */
+    static <T> void sort(T[] a, int lo, int hi, int depth, Comparator<? super T> c) {
+        while (hi - lo + 1 > INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                HeapSort.sort(a, lo, hi, c);
+                return;
+            }
+
+            T key = a[median3(a, lo, lo + (hi - lo) / 2, hi, c)];
+            int i = lo - 1, j = hi + 1;
+            while (true) {
+                while (less(a[++i], key, c)) ;
+                while (less(key, a[--j], c)) ;
+                if (i >= j) break;
+                exch(a, i, j);
+            }
+
+            // 此时, a[lo .. j] <= key <= a[j+1 .. hi]
+            if (j - lo < hi - j) {
+                sort(a, lo, j, depth, c);
+                lo = j + 1;
+            } else {
+                sort(a, j + 1, hi, depth, c);
+                hi = j;
+            }
+        }
+        InsertionSort.sort(a, lo, hi, c);
+    }
+
+    private static <T> int median3(T[] a, int i, int j, int k, Comparator<? super T> c) {
+        return (less(a[i], a[j], c) ?
+                (less(a[j], a[k], c) ? j : less(a[i], a[k], c) ? k : i) :
+                (less(a[k], a[j], c) ? j : less(a[k], a[i], c) ? k : i));
+    }
+
+    /**
+     * int数组的内省排序
+     */
+    public static void sort(int[] a) {
+        sort(a, 0, a.length - 1, depthLimit(a.length));
+    }
+
+    static void sort(int[] a, int lo, int hi, int depth) {
+        while (hi - lo + 1 > INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                HeapSort.sort(a, lo, hi);
+                return;
+            }
+
+            int key = a[QuickSort.median3(a, lo, lo + (hi - lo) / 2, hi)];
+            int i = lo - 1, j = hi + 1;
+            while (true) {
+                while (a[++i] < key) ;
+                while (key < a[--j]) ;
+                if (i >= j) break;
+                exch(a, i, j);
+            }
+
+            if (j - lo < hi - j) {
+                sort(a, lo, j, depth);
+                lo = j + 1;
+            } else {
+                sort(a, j + 1, hi, depth);
+                hi = j;
+            }
+        }
+        InsertionSort.sort(a, lo, hi);
+    }
+
+    /**
+     * long数组的内省排序
+     */
+    public static void sort(long[] a) {
+        sort(a, 0, a.length - 1, depthLimit(a.length));
+    }
+
+    static void sort(long[] a, int lo, int hi, int depth) {
+        while (hi - lo + 1 > INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                HeapSort.sort(a, lo, hi);
+                return;
+            }
+
+            long key = a[QuickSort.median3(a, lo, lo + (hi - lo) / 2, hi)];
+            int i = lo - 1, j = hi + 1;
+            while (true) {
+                while (a[++i] < key) ;
+                while (key < a[--j]) ;
+                if (i >= j) break;
+                exch(a, i, j);
+            }
+
+            if (j - lo < hi - j) {
+                sort(a, lo, j, depth);
+                lo = j + 1;
+            } else {
+                sort(a, j + 1, hi, depth);
+                hi = j;
+            }
+        }
+        InsertionSort.sort(a, lo, hi);
+    }
+
+    /**
+     * double数组的内省排序
+     */
+    public static void sort(double[] a) {
+        sort(a, 0, moveNaNsToEnd(a, 0, a.length - 1), depthLimit(a.length));
+    }
+
+    static void sort(double[] a, int lo, int hi, int depth) {
+        while (hi - lo + 1 > INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                HeapSort.sort(a, lo, hi);
+                return;
+            }
+
+            double key = a[QuickSort.median3(a, lo, lo + (hi - lo) / 2, hi)];
+            int i = lo - 1, j = hi + 1;
+            while (true) {
+                while (a[++i] < key) ;
+                while (key < a[--j]) ;
+                if (i >= j) break;
+                exch(a, i, j);
+            }
+
+            if (j - lo < hi - j) {
+                sort(a, lo, j, depth);
+                lo = j + 1;
+            } else {
+                sort(a, j + 1, hi, depth);
+                hi = j;
+            }
+        }
+        InsertionSort.sort(a, lo, hi);
+    }
+
+    /**
+     * float数组的内省排序
+     */
+    public static void sort(float[] a) {
+        sort(a, 0, moveNaNsToEnd(a, 0, a.length - 1), depthLimit(a.length));
+    }
+
+    static void sort(float[] a, int lo, int hi, int depth) {
+        while (hi - lo + 1 > INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                HeapSort.sort(a, lo, hi);
+                return;
+            }
+
+            float key = a[QuickSort.median3(a, lo, lo + (hi - lo) / 2, hi)];
+            int i = lo - 1, j = hi + 1;
+            while (true) {
+                while (a[++i] < key) ;
+                while (key < a[--j]) ;
+                if (i >= j) break;
+                exch(a, i, j);
+            }
+
+            if (j - lo < hi - j) {
+                sort(a, lo, j, depth);
+                lo = j + 1;
+            } else {
+                sort(a, j + 1, hi, depth);
+                hi = j;
+            }
+        }
+        InsertionSort.sort(a, lo, hi);
+    }
+
+}
@@ -0,0 +1,341 @@
+package algorithm.sort;
+
+import algorithm.util.iostream.BinaryIn;
+import algorithm.util.iostream.BinaryOut;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 多路归并: 将K个有序的数组, 迭代器或二进制输入流归并为一个有序序列
+ * <p>
+ * 使用败者树(LoserTree)选出当前最小的元素: 每输出一个元素只需要lgK次比较, 且只在初始化时分配空间, 归并过程中不会为每个元素分配对象
+ * <p>
+ * 元素相等时, 来自下标较小的有序源的元素先输出, 因此归并是稳定的
+ * <p>
+ * ParallelMerge.merge(T[]...)使用两两归并lgK轮, 适合多核; 这里的归并是顺序的, 且支持流式的有序源(如外部排序的有序段文件)
+ * <p>
+ * 另外为int[], long[], double[], float[]提供了基本类型的重载: 直接使用<比较, 不装箱也不调用compareTo;
+ * double[]和float[]中的NaN视为大于其余所有元素(与Arrays.sort()相同), 各有序源也应将NaN排在末尾
+ *
+ * @author zk
+ */
+@SuppressWarnings("unchecked")
+public class KWayMerge {
+
+    private KWayMerge() {
+    }
+
+    @SafeVarargs
+    public static <K extends Comparable<K>> K[] merge(K[]... runs) {
+        List<K[]> list = new ArrayList<>(runs.length);
+        for (K[] run : runs) list.add(run);
+        return mergeRuns(Comparator.naturalOrder(), list);
+    }
+
+    /**
+     * 使用比较器c归并多个有序数组, 返回新数组
+     * <p>
+     * 返回数组的类型与第一个有序数组相同
+     */
+    @SafeVarargs
+    public static <T> T[] merge(Comparator<? super T> c, T[]... runs) {
+        List<T[]> list = new ArrayList<>(runs.length);
+        for (T[] run : runs) list.add(run);
+        return mergeRuns(c, list);
+    }
+
+    /**
+     * 两个merge()的实现: 可变参数数组只在各自的方法内逐个读取, 不直接传给其他方法(否则有堆污染的警告)
+     */
+    private static <T> T[] mergeRuns(Comparator<? super T> c, List<T[]> list) {
+        if (list.isEmpty()) {
+            throw new IllegalArgumentException("at least one run is required");
+        }
+        Object[][] runs = list.toArray(new Object[0][]);
+        int k = runs.length, total = 0;
+        for (Object[] run : runs) total = Math.addExact(total, run.length);
+        T[] dst = (T[]) Array.newInstance(runs[0].getClass().getComponentType(), total);
+
+        int[] pos = new int[k];
+        LoserTree tree = new LoserTree(k) {
+            @Override
+            boolean beats(int i, int j) {
+                if (pos[i] == runs[i].length) return false;
+                if (pos[j] == runs[j].length) return true;
+                int cmp = c.compare((T) runs[i][pos[i]], (T) runs[j][pos[j]]);
+                return cmp < 0 || cmp == 0 && i < j;
+            }
+        };
+        tree.init();
+        for (int d = 0; d < total; d++) {
+            int w = tree.winner();
+            dst[d] = (T) runs[w][pos[w]++];
+            tree.replay();
+        }
+        return dst;
+    }
+
+    public static <K extends Comparable<K>> Iterator<K> merge(List<? extends Iterator<? extends K>> sources) {
+        return merge(sources, Comparator.naturalOrder());
+    }
+
+    /**
+     * 使用比较器c归并多个有序迭代器, 返回惰性的迭代器: 每次next()才从有序源中取出下一个元素
+     */
+    public static <T> Iterator<T> merge(List<? extends Iterator<? extends T>> sources, Comparator<? super T> c) {
+        if (sources.isEmpty()) {
+            return Collections.emptyIterator();
+        }
+        return new MergingIterator<>(sources, c);
+    }
+
+    /**
+     * 归并多个有序迭代器的迭代器, 每个有序源预读一个元素作为当前元素
+     */
+    private static final class MergingIterator<T> implements Iterator<T> {
+        private final List<? extends Iterator<? extends T>> sources;
+        private final T[] heads;
+        private final boolean[] exhausted;
+        private final LoserTree tree;
+
+        private MergingIterator(List<? extends Iterator<? extends T>> sources, Comparator<? super T> c) {
+            int k = sources.size();
+            this.sources = sources;
+            this.heads = (T[]) new Object[k];
+            this.exhausted = new boolean[k];
+            for (int i = 0; i < k; i++) {
+                advance(i);
+            }
+            this.tree = new LoserTree(k) {
+                @Override
+                boolean beats(int i, int j) {
+                    if (exhausted[i]) return false;
+                    if (exhausted[j]) return true;
+                    int cmp = c.compare(heads[i], heads[j]);
+                    return cmp < 0 || cmp == 0 && i < j;
+                }
+            };
+            tree.init();
+        }
+
+        private void advance(int i) {
+            Iterator<? extends T> it = sources.get(i);
+            if (it.hasNext()) {
+                heads[i] = it.next();
+            } else {
+                heads[i] = null;
+                exhausted[i] = true;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !exhausted[tree.winner()];
+        }
+
+        @Override
+        public T next() {
+            int w = tree.winner();
+            if (exhausted[w]) {
+                throw new NoSuchElementException();
+            }
+            T x = heads[w];
+            advance(w);
+            tree.replay();
+            return x;
+        }
+    }
+
+    /**
+     * 归并多个有序的int数组, 返回新数组
+     */
+    public static int[] merge(int[]... runs) {
+        int k = runs.length, total = 0;
+        for (int[] run : runs) total = Math.addExact(total, run.length);
+        int[] dst = new int[total];
+        if (k == 0) return dst;
+
+        int[] pos = new int[k];
+        LoserTree tree = new LoserTree(k) {
+            @Override
+            boolean beats(int i, int j) {
+                if (pos[i] == runs[i].length) return false;
+                if (pos[j] == runs[j].length) return true;
+                int x = runs[i][pos[i]], y = runs[j][pos[j]];
+                return x < y || x == y && i < j;
+            }
+        };
+        tree.init();
+        for (int d = 0; d < total; d++) {
+            int w = tree.winner();
+            dst[d] = runs[w][pos[w]++];
+            tree.replay();
+        }
+        return dst;
+    }
+
+    /**
+     * 归并多个有序的long数组, 返回新数组
+     */
+    public static long[] merge(long[]... runs) {
+        int k = runs.length, total = 0;
+        for (long[] run : runs) total = Math.addExact(total, run.length);
+        long[] dst = new long[total];
+        if (k == 0) return dst;
+
+        int[] pos = new int[k];
+        LoserTree tree = new LoserTree(k) {
+            @Override
+            boolean beats(int i, int j) {
+                if (pos[i] == runs[i].length) return false;
+                if (pos[j] == runs[j].length) return true;
+                long x = runs[i][pos[i]], y = runs[j][pos[j]];
+                return x < y || x == y && i < j;
+            }
+        };
+        tree.init();
+        for (int d = 0; d < total; d++) {
+            int w = tree.winner();
+            dst[d] = runs[w][pos[w]++];
+            tree.replay();
+        }
+        return dst;
+    }
+
+    /**
+     * 归并多个有序的double数组, 返回新数组
+     */
+    public static double[] merge(double[]... runs) {
+        int k = runs.length, total = 0;
+        for (double[] run : runs) total = Math.addExact(total, run.length);
+        double[] dst = new double[total];
+        if (k == 0) return dst;
+
+        int[] pos = new int[k];
+        LoserTree tree = new LoserTree(k) {
+            @Override
+            boolean beats(int i, int j) {
+                if (pos[i] == runs[i].length) return false;
+                if (pos[j] == runs[j].length) return true;
+                double x = runs[i][pos[i]], y = runs[j][pos[j]];
+                return BaseSort.lessNaNLast(x, y) || !BaseSort.lessNaNLast(y, x) && i < j;
+            }
+        };
+        tree.init();
+        for (int d = 0; d < total; d++) {
+            int w = tree.winner();
+            dst[d] = runs[w][pos[w]++];
+            tree.replay();
+        }
+        return dst;
+    }
+
+    /**
+     * 归并多个有序的float数组, 返回新数组
+     */
+    public static float[] merge(float[]... runs) {
+        int k = runs.length, total = 0;
+        for (float[] run : runs) total = Math.addExact(total, run.length);
+        float[] dst = new float[total];
+        if (k == 0) return dst;
+
+        int[] pos = new int[k];
+        LoserTree tree = new LoserTree(k) {
+            @Override
+            boolean beats(int i, int j) {
+                if (pos[i] == runs[i].length) return false;
+                if (pos[j] == runs[j].length) return true;
+                float x = runs[i][pos[i]], y = runs[j][pos[j]];
+                return BaseSort.lessNaNLast(x, y) || !BaseSort.lessNaNLast(y, x) && i < j;
+            }
+        };
+        tree.init();
+        for (int d = 0; d < total; d++) {
+            int w = tree.winner();
+            dst[d] = runs[w][pos[w]++];
+            tree.replay();
+        }
+        return dst;
+    }
+
+    /**
+     * 归并多个有序的二进制int输入流(直到各自为空), 结果写入out
+     *
+     * @return 归并的元素个数
+     */
+    public static long mergeInts(List<BinaryIn> ins, BinaryOut out) {
+        int k = ins.size();
+        if (k == 0) return 0;
+
+        int[] heads = new int[k];
+        boolean[] exhausted = new boolean[k];
+        for (int i = 0; i < k; i++) {
+            if (ins.get(i).isEmpty()) exhausted[i] = true;
+            else heads[i] = ins.get(i).readInt();
+        }
+        LoserTree tree = new LoserTree(k) {
+            @Override
+            boolean beats(int i, int j) {
+                if (exhausted[i]) return false;
+                if (exhausted[j]) return true;
+                return heads[i] < heads[j] || heads[i] == heads[j] && i < j;
+            }
+        };
+        tree.init();
+
+        long count = 0;
+        for (int w = tree.winner(); !exhausted[w]; w = tree.winner()) {
+            out.write(heads[w]);
+            count++;
+            BinaryIn in = ins.get(w);
+            if (in.isEmpty()) exhausted[w] = true;
+            else heads[w] = in.readInt();
+            tree.replay();
+        }
+        return count;
+    }
+
+    /**
+     * 归并多个有序的二进制long输入流(直到各自为空), 结果写入out
+     *
+     * @return 归并的元素个数
+     */
+    public static long mergeLongs(List<BinaryIn> ins, BinaryOut out) {
+        int k = ins.size();
+        if (k == 0) return 0;
+
+        long[] heads = new long[k];
+        boolean[] exhausted = new boolean[k];
+        for (int i = 0; i < k; i++) {
+            if (ins.get(i).isEmpty()) exhausted[i] = true;
+            else heads[i] = ins.get(i).readLong();
+        }
+        LoserTree tree = new LoserTree(k) {
+            @Override
+            boolean beats(int i, int j) {
+                if (exhausted[i]) return false;
+                if (exhausted[j]) return true;
+                return heads[i] < heads[j] || heads[i] == heads[j] && i < j;
+            }
+        };
+        tree.init();
+
+        long count = 0;
+        for (int w = tree.winner(); !exhausted[w]; w = tree.winner()) {
+            out.write(heads[w]);
+            count++;
+            BinaryIn in = ins.get(w);
+            if (in.isEmpty()) exhausted[w] = true;
+            else heads[w] = in.readLong();
+            tree.replay();
+        }
+        return count;
+    }
+
+}
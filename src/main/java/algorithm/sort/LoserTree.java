@@ -0,0 +1,76 @@
+package algorithm.sort;
+
+/**
+ * 败者树: 多路归并时选出k个有序源中当前最小元素的锦标赛树
+ * <p>
+ * 完全二叉树的叶子k...2k-1对应k个有序源, 内部结点1...k-1记录该结点比赛的败者, tree[0]记录最终的胜者
+ * <p>
+ * 胜者的有序源前进一个元素后, 只需沿其叶子到根的路径与各结点记录的败者重新比赛(lgK次比较);
+ * 而堆每下沉一层需要比较两个孩子, 约2lgK次比较
+ * <p>
+ * 树中只保存有序源的下标, 元素的比较由子类的beats()完成, 因此基本类型也不需要装箱; 已用尽的有序源应当视为无穷大
+ *
+ * @author zk
+ */
+abstract class LoserTree {
+
+    private final int k;
+
+    private final int[] tree;
+
+    LoserTree(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("at least one source is required: " + k);
+        }
+        this.k = k;
+        this.tree = new int[k];
+    }
+
+    /**
+     * 第i个有序源的当前元素是否应当排在第j个之前
+     * <p>
+     * 元素相等时应当让下标小的胜出, 从而保证归并是稳定的
+     */
+    abstract boolean beats(int i, int j);
+
+    /**
+     * 所有有序源的当前元素就绪后, 自底向上进行初始比赛
+     */
+    void init() {
+        tree[0] = build(1);
+    }
+
+    /**
+     * 当前胜者(最小元素)所在的有序源
+     */
+    int winner() {
+        return tree[0];
+    }
+
+    /**
+     * 胜者的当前元素改变(前进或用尽)后, 沿其叶子到根的路径重新比赛
+     */
+    void replay() {
+        int s = tree[0];
+        for (int t = (s + k) >>> 1; t > 0; t >>>= 1) {
+            if (beats(tree[t], s)) {
+                int loser = s;
+                s = tree[t];
+                tree[t] = loser;
+            }
+        }
+        tree[0] = s;
+    }
+
+    private int build(int node) {
+        if (node >= k) return node - k;
+        int l = build(2 * node), r = build(2 * node + 1);
+        if (beats(r, l)) {
+            tree[node] = l;
+            return r;
+        }
+        tree[node] = r;
+        return l;
+    }
+
+}
@@ -1,6 +1,9 @@
 package algorithm.sort;
 
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 /**
  * 归并排序
@@ -17,7 +20,15 @@ import java.util.Arrays;
  * <p>
  * 最好时间: O(N) 数组元素全部相同
  * <p>
- * 空间: O(N) 开辟了一个和排序数组相同大小的数组用于归并
+ * 空间: O(N) 使用一个和排序数组相同大小的辅助数组用于归并
+ * <p>
+ * 辅助数组不再是静态成员变量: 默认使用当前线程缓存的辅助数组(按需扩容, 多次排序复用), 也可以由调用者传入,
+ * 因此多个线程可以同时排序
+ * <p>
+ * 另外为int[], long[], double[], float[]提供了基本类型的重载: 直接使用<比较, 不装箱也不调用compareTo;
+ * double[]和float[]排序前先将NaN移到末尾(与Arrays.sort()相同), 其余元素之间才使用<比较
+ * <p>
+ * 记录可以通过Comparator排序; 若能提取出int/long键, 使用sortByIntKey()/sortByLongKey()仅比较基本类型键, 速度更快
  *
  * @author zk
  */
@@ -30,22 +41,63 @@ public class MergeSort extends BaseSort {
     private static final int THRESHOLD = 7;
 
     /**
-     * 使用成员变量防止使用递归过多的创建数组!
+     * 超过该长度的辅助数组不缓存到线程中, 避免长期占用大块内存
+     */
+    static final int MAX_CACHED_SCRATCH = 1 << 20;
+
+    /**
+     * 每个线程各自的辅助数组: 按需扩容, 在多次排序之间复用
+     * <p>
+     * 原先使用静态成员变量Comparable[] aux, 多个线程同时排序时会互相覆盖对方的归并结果, 并且每次排序都要重新创建
      */
-    private static Comparable[] aux;
+    private static final ThreadLocal<Object[]> SCRATCH = ThreadLocal.withInitial(() -> new Object[0]);
 
     private MergeSort() {
     }
 
     public static <K extends Comparable<K>> void sortTopDown(K[] a) {
-        aux = new Comparable[a.length];
-        sortTopDown(a, 0, a.length - 1);
+        Object[] aux = scratch(a.length);
+        try {
+            sortTopDown(a, aux, 0, a.length - 1);
+        } finally {
+            release(aux, a.length);
+        }
+    }
+
+    /**
+     * 使用调用者提供的辅助数组aux进行自顶向下的归并排序
+     *
+     * @param a   待排序数组
+     * @param aux 辅助数组, 为null或长度小于a.length时新建
+     * @return 本次使用的辅助数组, 可以传给下一次排序继续复用(其中的内容没有意义)
+     */
+    public static <K extends Comparable<K>> Object[] sortTopDown(K[] a, Object[] aux) {
+        aux = ensureCapacity(aux, a.length);
+        sortTopDown(a, aux, 0, a.length - 1);
+        return aux;
     }
 
     public static <K extends Comparable<K>> void advancedSort(K[] a) {
-        // 此次未使用成员变量的辅助数组
-        var helper = Arrays.copyOf(a, a.length);
-        advancedSort(helper, a, 0, a.length - 1);
+        Object[] aux = scratch(a.length);
+        try {
+            advancedSort(a, aux);
+        } finally {
+            release(aux, a.length);
+        }
+    }
+
+    /**
+     * 使用调用者提供的辅助数组aux进行优化的归并排序
+     *
+     * @param a   待排序数组
+     * @param aux 辅助数组, 为null或长度小于a.length时新建
+     * @return 本次使用的辅助数组, 可以传给下一次排序继续复用(其中的内容没有意义)
+     */
+    public static <K extends Comparable<K>> Object[] advancedSort(K[] a, Object[] aux) {
+        aux = ensureCapacity(aux, a.length);
+        System.arraycopy(a, 0, aux, 0, a.length);
+        advancedSort(aux, a, 0, a.length - 1);
+        return aux;
     }
 
     /**
@@ -62,30 +114,78 @@ public class MergeSort extends BaseSort {
      * @param a 待排序数组
      */
     public static <K extends Comparable<K>> void sortBottomUp(K[] a) {
-        aux = new Comparable[a.length];
+        Object[] aux = scratch(a.length);
+        try {
+            sortBottomUp(a, aux);
+        } finally {
+            release(aux, a.length);
+        }
+    }
+
+    /**
+     * 使用调用者提供的辅助数组aux进行自底向上的归并排序
+     *
+     * @param a   待排序数组
+     * @param aux 辅助数组, 为null或长度小于a.length时新建
+     * @return 本次使用的辅助数组, 可以传给下一次排序继续复用(其中的内容没有意义)
+     */
+    public static <K extends Comparable<K>> Object[] sortBottomUp(K[] a, Object[] aux) {
+        aux = ensureCapacity(aux, a.length);
         for (int sz = 1, len = a.length; sz < len; sz *= 2)
             for (int lo = 0; lo < len - sz; lo += sz + sz)
-                merge(a, lo, lo + sz - 1, Math.min(lo + sz + sz - 1, len - 1));
+                merge(a, aux, lo, lo + sz - 1, Math.min(lo + sz + sz - 1, len - 1));
+        return aux;
+    }
+
+    /**
+     * 取得当前线程的辅助数组, 长度不足时扩容(至少扩大1.5倍, 减少反复扩容)
+     * <p>
+     * 超过MAX_CACHED_SCRATCH的数组仅本次使用, 不缓存
+     *
+     * @param n 需要的最小长度
+     * @return 长度不小于n的辅助数组
+     */
+    static Object[] scratch(int n) {
+        Object[] aux = SCRATCH.get();
+        if (aux.length < n) {
+            aux = new Object[Math.max(n, aux.length + (aux.length >> 1))];
+            if (aux.length <= MAX_CACHED_SCRATCH) {
+                SCRATCH.set(aux);
+            }
+        }
+        return aux;
+    }
+
+    /**
+     * 清空辅助数组中使用过的部分, 避免线程缓存的数组继续引用已排序的元素
+     */
+    private static void release(Object[] aux, int n) {
+        Arrays.fill(aux, 0, n, null);
+    }
+
+    private static Object[] ensureCapacity(Object[] aux, int n) {
+        return aux != null && aux.length >= n ? aux : new Object[n];
     }
 
     /**
      * 自顶向下的归并排序(lo...hi)区间
      *
-     * @param a  待排序数组
-     * @param lo 排序左边界
-     * @param hi 排序右边界(包括)
+     * @param a   待排序数组
+     * @param aux 辅助数组
+     * @param lo  排序左边界
+     * @param hi  排序右边界(包括)
      */
-    private static <K extends Comparable<K>> void sortTopDown(K[] a, int lo, int hi) {
+    private static <K extends Comparable<K>> void sortTopDown(K[] a, Object[] aux, int lo, int hi) {
         if (hi <= lo) return;
 
         int mid = lo + (hi - lo) / 2;
         // 将左半边排序
-        sortTopDown(a, lo, mid);
+        sortTopDown(a, aux, lo, mid);
         // 将右半边排序
-        sortTopDown(a, mid + 1, hi);
+        sortTopDown(a, aux, mid + 1, hi);
 
         // 归并结果
-        merge(a, lo, mid, hi);
+        merge(a, aux, lo, mid, hi);
     }
 
     /**
@@ -99,23 +199,25 @@ public class MergeSort extends BaseSort {
      * <p>
      * 3.不将元素复制到辅助数组aux
      * - 调用两种排序方法: 一种将数据从输入数组排序到辅助数组, 另一个方法反之;
+     * <p>
+     * (src和dst中一个是待排序数组, 另一个是辅助数组, 因此都声明为Object[], 比较时再转换为K)
      *
      * @param src 源数组
      * @param dst 目标数组(当前递归中的辅助数组)
      * @param lo  排序左边界
      * @param hi  排序右边界(包括)
      */
-    private static <K extends Comparable<K>> void advancedSort(K[] src, K[] dst, int lo, int hi) {
+    private static <K extends Comparable<K>> void advancedSort(Object[] src, Object[] dst, int lo, int hi) {
         // 1.当排序大小小于THRESHOLD, 使用插排
         if (hi <= lo + THRESHOLD) {
-            insertionSort(dst, lo, hi);
+            MergeSort.<K>insertionSort(dst, lo, hi);
             return;
         }
 
         // 归并
         int mid = lo + (hi - lo) / 2;
-        advancedSort(dst, src, lo, mid);
-        advancedSort(dst, src, mid + 1, hi);
+        MergeSort.<K>advancedSort(dst, src, lo, mid);
+        MergeSort.<K>advancedSort(dst, src, mid + 1, hi);
 
 //         if (!less(src[mid+1], src[mid])) {
 //            for (int i = lo; i <= hi; i++) dst[i] = src[i];
@@ -124,12 +226,12 @@ public class MergeSort extends BaseSort {
 
         // 2.测试数组是否已经有序, 跳过归并
         // 使用System.arraycopy()比上述循环略快
-        if (!less(src[mid + 1], src[mid])) {
+        if (!less((K) src[mid + 1], (K) src[mid])) {
             System.arraycopy(src, lo, dst, lo, hi - lo + 1);
             return;
         }
 
-        merge(src, dst, lo, mid, hi);
+        MergeSort.<K>merge(src, dst, lo, mid, hi);
     }
 
     /**
@@ -140,11 +242,12 @@ public class MergeSort extends BaseSort {
      * 并将结果放在a[lo...hi]中
      *
      * @param a   待归并数组
+     * @param aux 辅助数组
      * @param lo  左边界
      * @param mid 中间
      * @param hi  右边界
      */
-    private static <K extends Comparable<K>> void merge(K[] a, int lo, int mid, int hi) {
+    private static <K extends Comparable<K>> void merge(K[] a, Object[] aux, int lo, int mid, int hi) {
         int i = lo, j = mid + 1;
 
         // 将a[lo...hi]复制到aux[lo...hi]
@@ -152,14 +255,14 @@ public class MergeSort extends BaseSort {
             System.arraycopy(a, lo, aux, lo, hi + 1 - lo);
         }
 
-        // 在这里由于Java不允许创建静态泛型, 所以采用了强制类型转换: 父类 -> 子类
+        // 辅助数组为Object[], 所以采用了强制类型转换: 父类 -> 子类
         for (int k = lo; k <= hi; k++) {
             // 左半边用尽
             if (i > mid) a[k] = (K) aux[j++];
                 // 右半边用尽
             else if (j > hi) a[k] = (K) aux[i++];
                 // 右半边小于左半边
-            else if (less(aux[j], aux[i])) a[k] = (K) aux[j++];
+            else if (less((K) aux[j], (K) aux[i])) a[k] = (K) aux[j++];
                 // 右半边大于等于左半边
             else a[k] = (K) aux[i++];
         }
@@ -173,7 +276,7 @@ public class MergeSort extends BaseSort {
      * @param lo  归并左边界
      * @param hi  归并右边界
      */
-    private static <K extends Comparable<K>> void merge(K[] src, K[] dst, int lo, int mid, int hi) {
+    private static <K extends Comparable<K>> void merge(Object[] src, Object[] dst, int lo, int mid, int hi) {
 //        assert isSorted(src, lo, mid);
 //        assert isSorted(src, mid + 1, hi);
 
@@ -182,7 +285,7 @@ public class MergeSort extends BaseSort {
             if (i > mid) dst[k] = src[j++];
             else if (j > hi) dst[k] = src[i++];
                 // 保证稳定性
-            else if (less(src[j], src[i])) dst[k] = src[j++];
+            else if (less((K) src[j], (K) src[i])) dst[k] = src[j++];
             else dst[k] = src[i++];
         }
 
@@ -197,10 +300,344 @@ public class MergeSort extends BaseSort {
      * @param lo 排序左边界
      * @param hi 排序右边界
      */
-    private static void insertionSort(Comparable[] a, int lo, int hi) {
+    private static <K extends Comparable<K>> void insertionSort(Object[] a, int lo, int hi) {
         for (int i = lo; i <= hi; i++)
-            for (int j = i; j > lo && less(a[j], a[j - 1]); j--)
+            for (int j = i; j > lo && less((K) a[j], (K) a[j - 1]); j--)
                 exch(a, j, j - 1);
     }
 
+    /**
+     * 使用比较器c的优化归并排序(稳定)
+     *
+     * @param a 待排序数组
+     * @param c 比较器
+     */
+    public static <T> void advancedSort(T[] a, Comparator<? super T> c) {
+        Object[] aux = scratch(a.length);
+        try {
+            advancedSort(a, aux, c);
+        } finally {
+            release(aux, a.length);
+        }
+    }
+
+    /**
+     * 使用调用者提供的辅助数组aux和比较器c进行优化的归并排序
+     *
+     * @param a   待排序数组
+     * @param aux 辅助数组, 为null或长度小于a.length时新建
+     * @param c   比较器
+     * @return 本次使用的辅助数组, 可以传给下一次排序继续复用(其中的内容没有意义)
+     */
+    public static <T> Object[] advancedSort(T[] a, Object[] aux, Comparator<? super T> c) {
+        aux = ensureCapacity(aux, a.length);
+        System.arraycopy(a, 0, aux, 0, a.length);
+        advancedSort((T[]) aux, a, 0, a.length - 1, c);
+        return aux;
+    }
+
+    /**
+     * 以aux作为辅助空间, 使用比较器c排序a[lo...hi]子区间
+     */
+    static <T> void sort(T[] a, T[] aux, int lo, int hi, Comparator<? super T> c) {
+        System.arraycopy(a, lo, aux, lo, hi - lo + 1);
+        advancedSort(aux, a, lo, hi, c);
+    }
+
+    static <T> void advancedSort(T[] src, T[] dst, int lo, int hi, Comparator<? super T> c) {
+        if (hi <= lo + THRESHOLD) {
+            InsertionSort.sort(dst, lo, hi, c);
+            return;
+        }
+
+        int mid = lo + (hi - lo) / 2;
+        advancedSort(dst, src, lo, mid, c);
+        advancedSort(dst, src, mid + 1, hi, c);
+
+        if (!less(src[mid + 1], src[mid], c)) {
+            System.arraycopy(src, lo, dst, lo, hi - lo + 1);
+            return;
+        }
+
+        int i = lo, j = mid + 1;
+        for (int k = lo; k <= hi; k++) {
+            if (i > mid) dst[k] = src[j++];
+            else if (j > hi) dst[k] = src[i++];
+            else if (less(src[j], src[i], c)) dst[k] = src[j++];
+            else dst[k] = src[i++];
+        }
+    }
+
+    /**
+     * 按照记录的int键进行稳定排序
+     * <p>
+     * 预先将每个记录的键提取到int数组中, 排序时仅比较基本类型的键, 记录随键一起移动
+     * <p>
+     * 避免了每次比较时的compareTo虚调用, 也不需要为每个记录创建适配对象
+     *
+     * @param a   待排序数组
+     * @param key 键提取函数
+     */
+    public static <T> void sortByIntKey(T[] a, ToIntFunction<? super T> key) {
+        int len = a.length;
+        int[] keys = new int[len];
+        for (int i = 0; i < len; i++) {
+            keys[i] = key.applyAsInt(a[i]);
+        }
+        advancedSort(keys.clone(), a.clone(), keys, a, 0, len - 1);
+    }
+
+    private static void advancedSort(int[] srcKeys, Object[] src, int[] dstKeys, Object[] dst, int lo, int hi) {
+        if (hi <= lo + THRESHOLD) {
+            InsertionSort.sort(dstKeys, dst, lo, hi);
+            return;
+        }
+
+        int mid = lo + (hi - lo) / 2;
+        advancedSort(dstKeys, dst, srcKeys, src, lo, mid);
+        advancedSort(dstKeys, dst, srcKeys, src, mid + 1, hi);
+
+        if (!(srcKeys[mid + 1] < srcKeys[mid])) {
+            System.arraycopy(srcKeys, lo, dstKeys, lo, hi - lo + 1);
+            System.arraycopy(src, lo, dst, lo, hi - lo + 1);
+            return;
+        }
+
+        int i = lo, j = mid + 1;
+        for (int k = lo; k <= hi; k++) {
+            if (i > mid || (j <= hi && srcKeys[j] < srcKeys[i])) {
+                dstKeys[k] = srcKeys[j];
+                dst[k] = src[j++];
+            } else {
+                dstKeys[k] = srcKeys[i];
+                dst[k] = src[i++];
+            }
+        }
+    }
+
+    /**
+     * 按照记录的long键进行稳定排序
+     * <p>
+     * 预先将每个记录的键提取到long数组中, 排序时仅比较基本类型的键, 记录随键一起移动
+     * <p>
+     * 避免了每次比较时的compareTo虚调用, 也不需要为每个记录创建适配对象
+     *
+     * @param a   待排序数组
+     * @param key 键提取函数
+     */
+    public static <T> void sortByLongKey(T[] a, ToLongFunction<? super T> key) {
+        int len = a.length;
+        long[] keys = new long[len];
+        for (int i = 0; i < len; i++) {
+            keys[i] = key.applyAsLong(a[i]);
+        }
+        advancedSort(keys.clone(), a.clone(), keys, a, 0, len - 1);
+    }
+
+    private static void advancedSort(long[] srcKeys, Object[] src, long[] dstKeys, Object[] dst, int lo, int hi) {
+        if (hi <= lo + THRESHOLD) {
+            InsertionSort.sort(dstKeys, dst, lo, hi);
+            return;
+        }
+
+        int mid = lo + (hi - lo) / 2;
+        advancedSort(dstKeys, dst, srcKeys, src, lo, mid);
+        advancedSort(dstKeys, dst, srcKeys, src, mid + 1, hi);
+
+        if (!(srcKeys[mid + 1] < srcKeys[mid])) {
+            System.arraycopy(srcKeys, lo, dstKeys, lo, hi - lo + 1);
+            System.arraycopy(src, lo, dst, lo, hi - lo + 1);
+            return;
+        }
+
+        int i = lo, j = mid + 1;
+        for (int k = lo; k <= hi; k++) {
+            if (i > mid || (j <= hi && srcKeys[j] < srcKeys[i])) {
+                dstKeys[k] = srcKeys[j];
+                dst[k] = src[j++];
+            } else {
+                dstKeys[k] = srcKeys[i];
+                dst[k] = src[i++];
+            }
+        }
+    }
+
+    /**
+     * int数组的优化归并排序
+     */
+    public static void advancedSort(int[] a) {
+        int[] helper = Arrays.copyOf(a, a.length);
+        advancedSort(helper, a, 0, a.length - 1);
+    }
+
+    /**
+     * 以aux作为辅助空间, 排序int数组a[lo...hi]子区间
+     */
+    static void sort(int[] a, int[] aux, int lo, int hi) {
+        System.arraycopy(a, lo, aux, lo, hi - lo + 1);
+        advancedSort(aux, a, lo, hi);
+    }
+
+    static void advancedSort(int[] src, int[] dst, int lo, int hi) {
+        if (hi <= lo + THRESHOLD) {
+            InsertionSort.sort(dst, lo, hi);
+            return;
+        }
+
+        int mid = lo + (hi - lo) / 2;
+        advancedSort(dst, src, lo, mid);
+        advancedSort(dst, src, mid + 1, hi);
+
+        if (!(src[mid + 1] < src[mid])) {
+            System.arraycopy(src, lo, dst, lo, hi - lo + 1);
+            return;
+        }
+
+        merge(src, dst, lo, mid, hi);
+    }
+
+    private static void merge(int[] src, int[] dst, int lo, int mid, int hi) {
+        int i = lo, j = mid + 1;
+        for (int k = lo; k <= hi; k++) {
+            if (i > mid) dst[k] = src[j++];
+            else if (j > hi) dst[k] = src[i++];
+            else if (src[j] < src[i]) dst[k] = src[j++];
+            else dst[k] = src[i++];
+        }
+    }
+
+    /**
+     * long数组的优化归并排序
+     */
+    public static void advancedSort(long[] a) {
+        long[] helper = Arrays.copyOf(a, a.length);
+        advancedSort(helper, a, 0, a.length - 1);
+    }
+
+    /**
+     * 以aux作为辅助空间, 排序long数组a[lo...hi]子区间
+     */
+    static void sort(long[] a, long[] aux, int lo, int hi) {
+        System.arraycopy(a, lo, aux, lo, hi - lo + 1);
+        advancedSort(aux, a, lo, hi);
+    }
+
+    static void advancedSort(long[] src, long[] dst, int lo, int hi) {
+        if (hi <= lo + THRESHOLD) {
+            InsertionSort.sort(dst, lo, hi);
+            return;
+        }
+
+        int mid = lo + (hi - lo) / 2;
+        advancedSort(dst, src, lo, mid);
+        advancedSort(dst, src, mid + 1, hi);
+
+        if (!(src[mid + 1] < src[mid])) {
+            System.arraycopy(src, lo, dst, lo, hi - lo + 1);
+            return;
+        }
+
+        merge(src, dst, lo, mid, hi);
+    }
+
+    private static void merge(long[] src, long[] dst, int lo, int mid, int hi) {
+        int i = lo, j = mid + 1;
+        for (int k = lo; k <= hi; k++) {
+            if (i > mid) dst[k] = src[j++];
+            else if (j > hi) dst[k] = src[i++];
+            else if (src[j] < src[i]) dst[k] = src[j++];
+            else dst[k] = src[i++];
+        }
+    }
+
+    /**
+     * double数组的优化归并排序
+     */
+    public static void advancedSort(double[] a) {
+        int hi = moveNaNsToEnd(a, 0, a.length - 1);
+        double[] helper = Arrays.copyOf(a, a.length);
+        advancedSort(helper, a, 0, hi);
+    }
+
+    /**
+     * 以aux作为辅助空间, 排序double数组a[lo...hi]子区间
+     */
+    static void sort(double[] a, double[] aux, int lo, int hi) {
+        System.arraycopy(a, lo, aux, lo, hi - lo + 1);
+        advancedSort(aux, a, lo, hi);
+    }
+
+    static void advancedSort(double[] src, double[] dst, int lo, int hi) {
+        if (hi <= lo + THRESHOLD) {
+            InsertionSort.sort(dst, lo, hi);
+            return;
+        }
+
+        int mid = lo + (hi - lo) / 2;
+        advancedSort(dst, src, lo, mid);
+        advancedSort(dst, src, mid + 1, hi);
+
+        if (!(src[mid + 1] < src[mid])) {
+            System.arraycopy(src, lo, dst, lo, hi - lo + 1);
+            return;
+        }
+
+        merge(src, dst, lo, mid, hi);
+    }
+
+    private static void merge(double[] src, double[] dst, int lo, int mid, int hi) {
+        int i = lo, j = mid + 1;
+        for (int k = lo; k <= hi; k++) {
+            if (i > mid) dst[k] = src[j++];
+            else if (j > hi) dst[k] = src[i++];
+            else if (src[j] < src[i]) dst[k] = src[j++];
+            else dst[k] = src[i++];
+        }
+    }
+
+    /**
+     * float数组的优化归并排序
+     */
+    public static void advancedSort(float[] a) {
+        int hi = moveNaNsToEnd(a, 0, a.length - 1);
+        float[] helper = Arrays.copyOf(a, a.length);
+        advancedSort(helper, a, 0, hi);
+    }
+
+    /**
+     * 以aux作为辅助空间, 排序float数组a[lo...hi]子区间
+     */
+    static void sort(float[] a, float[] aux, int lo, int hi) {
+        System.arraycopy(a, lo, aux, lo, hi - lo + 1);
+        advancedSort(aux, a, lo, hi);
+    }
+
+    static void advancedSort(float[] src, float[] dst, int lo, int hi) {
+        if (hi <= lo + THRESHOLD) {
+            InsertionSort.sort(dst, lo, hi);
+            return;
+        }
+
+        int mid = lo + (hi - lo) / 2;
+        advancedSort(dst, src, lo, mid);
+        advancedSort(dst, src, mid + 1, hi);
+
+        if (!(src[mid + 1] < src[mid])) {
+            System.arraycopy(src, lo, dst, lo, hi - lo + 1);
+            return;
+        }
+
+        merge(src, dst, lo, mid, hi);
+    }
+
+    private static void merge(float[] src, float[] dst, int lo, int mid, int hi) {
+        int i = lo, j = mid + 1;
+        for (int k = lo; k <= hi; k++) {
+            if (i > mid) dst[k] = src[j++];
+            else if (j > hi) dst[k] = src[i++];
+            else if (src[j] < src[i]) dst[k] = src[j++];
+            else dst[k] = src[i++];
+        }
+    }
+
 }
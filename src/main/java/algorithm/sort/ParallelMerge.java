@@ -0,0 +1,875 @@
+package algorithm.sort;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 并行归并: 基于co-ranking将两段有序数组的归并拆分为P段互不相关的归并
+ * <p>
+ * 对于输出中的位置k, co-rank(k)返回一个i, 使得第一段的前i个元素与第二段的前k-i个元素恰好是归并结果的前k个元素,
+ * 只需在第一段中二分查找, 时间复杂度为O(log n)
+ * <p>
+ * - 1.将输出按长度平均切分为P段(P不超过线程池并行度的4倍, 且每段不少于MIN_SEGMENT个元素)
+ * <p>
+ * - 2.每段在各自的任务中计算两端的co-rank, 然后独立地顺序归并, 各段之间没有任何同步
+ * <p>
+ * - 3.两段中相等的元素, 第一段的始终排在前面, 因此归并是稳定的
+ * <p>
+ * 另外提供k路归并mergeRuns(): 每轮将相邻的两个有序段两两归并(交替使用源数组和辅助数组), 共log k轮
+ * <p>
+ * 在ForkJoinPool的工作线程中调用时(例如ParallelMergeSort的子任务), 直接在当前线程池中执行;
+ * 否则使用调用方传入的线程池, 默认为ForkJoinPool.commonPool()
+ * <p>
+ * double[]和float[]的归并使用lessNaNLast()比较: NaN视为大于其他所有值, 因此NaN已经排在末尾的有序段(例如Arrays.sort()的结果)
+ * 也能正确归并; 若直接使用<, 含NaN的有序段上co-rank的二分查找不再单调, 各段的归并范围会重叠或越界
+ * <p>
+ * 区间均为闭区间[lo...hi], 与MergeSort中的约定一致
+ *
+ * @author zk
+ */
+public class ParallelMerge extends BaseSort {
+
+    /**
+     * 每一段归并的最小长度, 总长度小于该值的两倍时直接顺序归并
+     */
+    private static final int MIN_SEGMENT = 1 << 13;
+
+    /**
+     * 每个工作线程平均分到的段数, 用于平衡各段之间的负载
+     */
+    private static final int SEGMENTS_PER_THREAD = 4;
+
+    private ParallelMerge() {
+    }
+
+    /**
+     * 执行任务: 在工作线程中直接执行, 否则提交到pool中
+     */
+    private static void invoke(ForkJoinTask<?> task, ForkJoinPool pool) {
+        if (ForkJoinTask.inForkJoinPool()) {
+            task.invoke();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    /**
+     * 计算长度为n的归并需要切分的段数
+     */
+    private static int segments(int n, ForkJoinPool pool) {
+        ForkJoinPool current = ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool() : pool;
+        int max = current.getParallelism() * SEGMENTS_PER_THREAD;
+        return Math.max(1, Math.min(max, n / MIN_SEGMENT));
+    }
+
+    /**
+     * 每轮两两归并后的段边界: 保留偶数位置的边界
+     */
+    private static int[] halve(int[] runs) {
+        int m = runs.length - 1;
+        int[] next = new int[(m + 1) / 2 + 1];
+        for (int r = 0; r < next.length - 1; r++) {
+            next[r] = runs[2 * r];
+        }
+        next[next.length - 1] = runs[m];
+        return next;
+    }
+
+    /**
+     * 检查k路归并的段边界: runs[0] = 0, 单调不减, 最后一个等于数组长度
+     */
+    private static void checkRuns(int[] runs, int length) {
+        if (runs.length < 1 || runs[0] != 0 || runs[runs.length - 1] != length) {
+            throw new IllegalArgumentException("runs must start with 0 and end with " + length);
+        }
+        for (int r = 1; r < runs.length; r++) {
+            if (runs[r] < runs[r - 1]) {
+                throw new IllegalArgumentException("runs must be non-decreasing at " + r);
+            }
+        }
+    }
+
+    /**
+     * 将多个数组首尾相连, 并返回每个数组的起始位置(最后一个为总长度)
+     */
+    private static int[] bounds(int[] lengths) {
+        int[] runs = new int[lengths.length + 1];
+        for (int r = 0; r < lengths.length; r++) {
+            runs[r + 1] = Math.addExact(runs[r], lengths[r]);
+        }
+        return runs;
+    }
+
+    /**
+     * 归并两个有序数组, 返回新数组(稳定, 使用公共线程池)
+     */
+    public static <T> T[] merge(T[] a, T[] b, Comparator<? super T> c) {
+        T[] dst = Arrays.copyOf(a, a.length + b.length);
+        merge(a, 0, a.length - 1, b, 0, b.length - 1, dst, 0, c, ForkJoinPool.commonPool());
+        return dst;
+    }
+
+    /**
+     * 将a[aLo...aHi]和b[bLo...bHi]归并到dst[k...]中(稳定, 使用公共线程池)
+     */
+    public static <T> void merge(T[] a, int aLo, int aHi, T[] b, int bLo, int bHi, T[] dst, int k,
+                                 Comparator<? super T> c) {
+        merge(a, aLo, aHi, b, bLo, bHi, dst, k, c, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 将a[aLo...aHi]和b[bLo...bHi]并行归并到dst[k...]中(稳定)
+     * <p>
+     * dst中的输出区间不能与两段输入重叠
+     *
+     * @param pool 执行归并的线程池, 在工作线程中调用时使用当前线程池
+     */
+    public static <T> void merge(T[] a, int aLo, int aHi, T[] b, int bLo, int bHi, T[] dst, int k,
+                                 Comparator<? super T> c, ForkJoinPool pool) {
+        int n1 = aHi - aLo + 1, n2 = bHi - bLo + 1;
+        int p = segments(n1 + n2, pool);
+        if (p == 1) {
+            sequentialMerge(a, aLo, n1, b, bLo, n2, dst, k, c);
+            return;
+        }
+        invoke(new MergeTask<>(a, aLo, n1, b, bLo, n2, dst, k, c, p, 0, p), pool);
+    }
+
+    /**
+     * k路归并(使用公共线程池), 返回新数组
+     */
+    @SafeVarargs
+    public static <T> T[] merge(Comparator<? super T> c, T[]... runs) {
+        int[] lengths = new int[runs.length];
+        for (int r = 0; r < runs.length; r++) {
+            lengths[r] = runs[r].length;
+        }
+        int[] bounds = bounds(lengths);
+        // runs为T[][], 元素类型为其组件类型的组件类型
+        Class<?> type = runs.getClass().getComponentType().getComponentType();
+        @SuppressWarnings("unchecked")
+        T[] a = (T[]) Array.newInstance(type, bounds[runs.length]);
+        for (int r = 0; r < runs.length; r++) {
+            System.arraycopy(runs[r], 0, a, bounds[r], lengths[r]);
+        }
+        mergeRuns(a, bounds, c, ForkJoinPool.commonPool());
+        return a;
+    }
+
+    /**
+     * k路归并: a[runs[r]...runs[r+1]-1]均为有序段, 将a整体归并为有序(稳定)
+     * <p>
+     * 每轮将相邻的两段两两并行归并, 各对之间也并行执行, 共需log k轮
+     *
+     * @param a    待归并数组
+     * @param runs 有序段的边界: runs[0] = 0, 最后一个元素为a.length
+     * @param pool 执行归并的线程池
+     */
+    public static <T> void mergeRuns(T[] a, int[] runs, Comparator<? super T> c, ForkJoinPool pool) {
+        checkRuns(runs, a.length);
+        T[] src = a, dst = a.clone();
+        while (runs.length > 2) {
+            List<RecursiveAction> tasks = new ArrayList<>();
+            int m = runs.length - 1;
+            for (int r = 0; r < m; r += 2) {
+                int lo = runs[r], mid = runs[r + 1], hi = r + 2 <= m ? runs[r + 2] : mid;
+                tasks.add(pairTask(src, lo, mid, hi, dst, c, pool));
+            }
+            invoke(allOf(tasks), pool);
+            T[] t = src;
+            src = dst;
+            dst = t;
+            runs = halve(runs);
+        }
+        if (src != a) {
+            System.arraycopy(src, 0, a, 0, a.length);
+        }
+    }
+
+    /**
+     * 将src[lo...mid-1]和src[mid...hi-1]归并到dst[lo...hi-1]的任务
+     */
+    private static <T> RecursiveAction pairTask(T[] src, int lo, int mid, int hi, T[] dst,
+                                                Comparator<? super T> c, ForkJoinPool pool) {
+        return new RecursiveAction() {
+            @Override
+            protected void compute() {
+                if (lo == mid || mid == hi || !less(src[mid], src[mid - 1], c)) {
+                    System.arraycopy(src, lo, dst, lo, hi - lo);
+                } else {
+                    merge(src, lo, mid - 1, src, mid, hi - 1, dst, lo, c, pool);
+                }
+            }
+        };
+    }
+
+    /**
+     * 同时执行一组任务
+     */
+    private static RecursiveAction allOf(List<RecursiveAction> tasks) {
+        return new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        };
+    }
+
+    /**
+     * co-rank: 返回i, 使得a[aLo...]的前i个元素与b[bLo...]的前k-i个元素恰好为归并结果的前k个元素
+     * <p>
+     * 相等的元素优先取a中的, 从而保证稳定性
+     */
+    static <T> int coRank(int k, T[] a, int aLo, int n1, T[] b, int bLo, int n2, Comparator<? super T> c) {
+        int lo = Math.max(0, k - n2), hi = Math.min(k, n1);
+        while (lo < hi) {
+            int i = (lo + hi) >>> 1;
+            // b中已取的最后一个元素不小于a中未取的第一个元素, 说明a取少了
+            if (!less(b[bLo + k - i - 1], a[aLo + i], c)) lo = i + 1;
+            else hi = i;
+        }
+        return lo;
+    }
+
+    /**
+     * 将a[aLo...aLo+n1-1]和b[bLo...bLo+n2-1]顺序归并到dst[k...]中(稳定)
+     */
+    private static <T> void sequentialMerge(T[] a, int i, int n1, T[] b, int j, int n2, T[] dst, int k,
+                                            Comparator<? super T> c) {
+        int iEnd = i + n1, jEnd = j + n2;
+        while (i < iEnd && j < jEnd) {
+            dst[k++] = less(b[j], a[i], c) ? b[j++] : a[i++];
+        }
+        System.arraycopy(a, i, dst, k, iEnd - i);
+        System.arraycopy(b, j, dst, k + iEnd - i, jEnd - j);
+    }
+
+    /**
+     * 处理第[from, to)段的归并任务: 多于一段时对半拆分, 否则计算本段两端的co-rank后顺序归并
+     */
+    private static class MergeTask<T> extends RecursiveAction {
+
+        private final T[] a, b, dst;
+
+        private final int aLo, n1, bLo, n2, k;
+
+        private final Comparator<? super T> c;
+
+        /**
+         * 总段数, 以及本任务负责的段[from, to)
+         */
+        private final int p, from, to;
+
+        MergeTask(T[] a, int aLo, int n1, T[] b, int bLo, int n2, T[] dst, int k,
+                  Comparator<? super T> c, int p, int from, int to) {
+            this.a = a;
+            this.aLo = aLo;
+            this.n1 = n1;
+            this.b = b;
+            this.bLo = bLo;
+            this.n2 = n2;
+            this.dst = dst;
+            this.k = k;
+            this.c = c;
+            this.p = p;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                MergeTask<T> left = new MergeTask<>(a, aLo, n1, b, bLo, n2, dst, k, c, p, from, mid);
+                left.fork();
+                new MergeTask<>(a, aLo, n1, b, bLo, n2, dst, k, c, p, mid, to).compute();
+                left.join();
+                return;
+            }
+
+            int n = n1 + n2;
+            int k0 = (int) ((long) n * from / p), k1 = (int) ((long) n * to / p);
+            int i0 = coRank(k0, a, aLo, n1, b, bLo, n2, c), i1 = coRank(k1, a, aLo, n1, b, bLo, n2, c);
+            sequentialMerge(a, aLo + i0, i1 - i0, b, bLo + k0 - i0, (k1 - i1) - (k0 - i0), dst, k + k0, c);
+        }
+    }
+
+    /**
+     * 归并两个有序int数组, 返回新数组(使用公共线程池)
+     */
+    public static int[] merge(int[] a, int[] b) {
+        int[] dst = new int[a.length + b.length];
+        merge(a, 0, a.length - 1, b, 0, b.length - 1, dst, 0, ForkJoinPool.commonPool());
+        return dst;
+    }
+
+    /**
+     * 将a[aLo...aHi]和b[bLo...bHi]归并到dst[k...]中(使用公共线程池)
+     */
+    public static void merge(int[] a, int aLo, int aHi, int[] b, int bLo, int bHi, int[] dst, int k) {
+        merge(a, aLo, aHi, b, bLo, bHi, dst, k, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 将a[aLo...aHi]和b[bLo...bHi]并行归并到dst[k...]中
+     */
+    public static void merge(int[] a, int aLo, int aHi, int[] b, int bLo, int bHi, int[] dst, int k,
+                             ForkJoinPool pool) {
+        int n1 = aHi - aLo + 1, n2 = bHi - bLo + 1;
+        int p = segments(n1 + n2, pool);
+        if (p == 1) {
+            sequentialMerge(a, aLo, n1, b, bLo, n2, dst, k);
+            return;
+        }
+        invoke(new IntMergeTask(a, aLo, n1, b, bLo, n2, dst, k, p, 0, p), pool);
+    }
+
+    /**
+     * int数组的k路归并(使用公共线程池), 返回新数组
+     */
+    public static int[] merge(int[]... runs) {
+        int[] lengths = new int[runs.length];
+        for (int r = 0; r < runs.length; r++) {
+            lengths[r] = runs[r].length;
+        }
+        int[] bounds = bounds(lengths);
+        int[] a = new int[bounds[runs.length]];
+        for (int r = 0; r < runs.length; r++) {
+            System.arraycopy(runs[r], 0, a, bounds[r], lengths[r]);
+        }
+        mergeRuns(a, bounds, ForkJoinPool.commonPool());
+        return a;
+    }
+
+    /**
+     * int数组的k路归并: a[runs[r]...runs[r+1]-1]均为有序段, 将a整体归并为有序
+     */
+    public static void mergeRuns(int[] a, int[] runs, ForkJoinPool pool) {
+        checkRuns(runs, a.length);
+        int[] src = a, dst = a.clone();
+        while (runs.length > 2) {
+            List<RecursiveAction> tasks = new ArrayList<>();
+            int m = runs.length - 1;
+            for (int r = 0; r < m; r += 2) {
+                int lo = runs[r], mid = runs[r + 1], hi = r + 2 <= m ? runs[r + 2] : mid;
+                tasks.add(pairTask(src, lo, mid, hi, dst, pool));
+            }
+            invoke(allOf(tasks), pool);
+            int[] t = src;
+            src = dst;
+            dst = t;
+            runs = halve(runs);
+        }
+        if (src != a) {
+            System.arraycopy(src, 0, a, 0, a.length);
+        }
+    }
+
+    private static RecursiveAction pairTask(int[] src, int lo, int mid, int hi, int[] dst, ForkJoinPool pool) {
+        return new RecursiveAction() {
+            @Override
+            protected void compute() {
+                if (lo == mid || mid == hi || !(src[mid] < src[mid - 1])) {
+                    System.arraycopy(src, lo, dst, lo, hi - lo);
+                } else {
+                    merge(src, lo, mid - 1, src, mid, hi - 1, dst, lo, pool);
+                }
+            }
+        };
+    }
+
+    static int coRank(int k, int[] a, int aLo, int n1, int[] b, int bLo, int n2) {
+        int lo = Math.max(0, k - n2), hi = Math.min(k, n1);
+        while (lo < hi) {
+            int i = (lo + hi) >>> 1;
+            if (!(b[bLo + k - i - 1] < a[aLo + i])) lo = i + 1;
+            else hi = i;
+        }
+        return lo;
+    }
+
+    private static void sequentialMerge(int[] a, int i, int n1, int[] b, int j, int n2, int[] dst, int k) {
+        int iEnd = i + n1, jEnd = j + n2;
+        while (i < iEnd && j < jEnd) {
+            dst[k++] = b[j] < a[i] ? b[j++] : a[i++];
+        }
+        System.arraycopy(a, i, dst, k, iEnd - i);
+        System.arraycopy(b, j, dst, k + iEnd - i, jEnd - j);
+    }
+
+    private static class IntMergeTask extends RecursiveAction {
+
+        private final int[] a, b, dst;
+
+        private final int aLo, n1, bLo, n2, k;
+
+        private final int p, from, to;
+
+        IntMergeTask(int[] a, int aLo, int n1, int[] b, int bLo, int n2, int[] dst, int k, int p, int from, int to) {
+            this.a = a;
+            this.aLo = aLo;
+            this.n1 = n1;
+            this.b = b;
+            this.bLo = bLo;
+            this.n2 = n2;
+            this.dst = dst;
+            this.k = k;
+            this.p = p;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                IntMergeTask left = new IntMergeTask(a, aLo, n1, b, bLo, n2, dst, k, p, from, mid);
+                left.fork();
+                new IntMergeTask(a, aLo, n1, b, bLo, n2, dst, k, p, mid, to).compute();
+                left.join();
+                return;
+            }
+
+            int n = n1 + n2;
+            int k0 = (int) ((long) n * from / p), k1 = (int) ((long) n * to / p);
+            int i0 = coRank(k0, a, aLo, n1, b, bLo, n2), i1 = coRank(k1, a, aLo, n1, b, bLo, n2);
+            sequentialMerge(a, aLo + i0, i1 - i0, b, bLo + k0 - i0, (k1 - i1) - (k0 - i0), dst, k + k0);
+        }
+    }
+
+    /**
+     * 归并两个有序long数组, 返回新数组(使用公共线程池)
+     */
+    public static long[] merge(long[] a, long[] b) {
+        long[] dst = new long[a.length + b.length];
+        merge(a, 0, a.length - 1, b, 0, b.length - 1, dst, 0, ForkJoinPool.commonPool());
+        return dst;
+    }
+
+    /**
+     * 将a[aLo...aHi]和b[bLo...bHi]归并到dst[k...]中(使用公共线程池)
+     */
+    public static void merge(long[] a, int aLo, int aHi, long[] b, int bLo, int bHi, long[] dst, int k) {
+        merge(a, aLo, aHi, b, bLo, bHi, dst, k, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 将a[aLo...aHi]和b[bLo...bHi]并行归并到dst[k...]中
+     */
+    public static void merge(long[] a, int aLo, int aHi, long[] b, int bLo, int bHi, long[] dst, int k,
+                             ForkJoinPool pool) {
+        int n1 = aHi - aLo + 1, n2 = bHi - bLo + 1;
+        int p = segments(n1 + n2, pool);
+        if (p == 1) {
+            sequentialMerge(a, aLo, n1, b, bLo, n2, dst, k);
+            return;
+        }
+        invoke(new LongMergeTask(a, aLo, n1, b, bLo, n2, dst, k, p, 0, p), pool);
+    }
+
+    /**
+     * long数组的k路归并(使用公共线程池), 返回新数组
+     */
+    public static long[] merge(long[]... runs) {
+        int[] lengths = new int[runs.length];
+        for (int r = 0; r < runs.length; r++) {
+            lengths[r] = runs[r].length;
+        }
+        int[] bounds = bounds(lengths);
+        long[] a = new long[bounds[runs.length]];
+        for (int r = 0; r < runs.length; r++) {
+            System.arraycopy(runs[r], 0, a, bounds[r], lengths[r]);
+        }
+        mergeRuns(a, bounds, ForkJoinPool.commonPool());
+        return a;
+    }
+
+    /**
+     * long数组的k路归并: a[runs[r]...runs[r+1]-1]均为有序段, 将a整体归并为有序
+     */
+    public static void mergeRuns(long[] a, int[] runs, ForkJoinPool pool) {
+        checkRuns(runs, a.length);
+        long[] src = a, dst = a.clone();
+        while (runs.length > 2) {
+            List<RecursiveAction> tasks = new ArrayList<>();
+            int m = runs.length - 1;
+            for (int r = 0; r < m; r += 2) {
+                int lo = runs[r], mid = runs[r + 1], hi = r + 2 <= m ? runs[r + 2] : mid;
+                tasks.add(pairTask(src, lo, mid, hi, dst, pool));
+            }
+            invoke(allOf(tasks), pool);
+            long[] t = src;
+            src = dst;
+            dst = t;
+            runs = halve(runs);
+        }
+        if (src != a) {
+            System.arraycopy(src, 0, a, 0, a.length);
+        }
+    }
+
+    private static RecursiveAction pairTask(long[] src, int lo, int mid, int hi, long[] dst, ForkJoinPool pool) {
+        return new RecursiveAction() {
+            @Override
+            protected void compute() {
+                if (lo == mid || mid == hi || !(src[mid] < src[mid - 1])) {
+                    System.arraycopy(src, lo, dst, lo, hi - lo);
+                } else {
+                    merge(src, lo, mid - 1, src, mid, hi - 1, dst, lo, pool);
+                }
+            }
+        };
+    }
+
+    static int coRank(int k, long[] a, int aLo, int n1, long[] b, int bLo, int n2) {
+        int lo = Math.max(0, k - n2), hi = Math.min(k, n1);
+        while (lo < hi) {
+            int i = (lo + hi) >>> 1;
+            if (!(b[bLo + k - i - 1] < a[aLo + i])) lo = i + 1;
+            else hi = i;
+        }
+        return lo;
+    }
+
+    private static void sequentialMerge(long[] a, int i, int n1, long[] b, int j, int n2, long[] dst, int k) {
+        int iEnd = i + n1, jEnd = j + n2;
+        while (i < iEnd && j < jEnd) {
+            dst[k++] = b[j] < a[i] ? b[j++] : a[i++];
+        }
+        System.arraycopy(a, i, dst, k, iEnd - i);
+        System.arraycopy(b, j, dst, k + iEnd - i, jEnd - j);
+    }
+
+    private static class LongMergeTask extends RecursiveAction {
+
+        private final long[] a, b, dst;
+
+        private final int aLo, n1, bLo, n2, k;
+
+        private final int p, from, to;
+
+        LongMergeTask(long[] a, int aLo, int n1, long[] b, int bLo, int n2, long[] dst, int k, int p, int from, int to) {
+            this.a = a;
+            this.aLo = aLo;
+            this.n1 = n1;
+            this.b = b;
+            this.bLo = bLo;
+            this.n2 = n2;
+            this.dst = dst;
+            this.k = k;
+            this.p = p;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                LongMergeTask left = new LongMergeTask(a, aLo, n1, b, bLo, n2, dst, k, p, from, mid);
+                left.fork();
+                new LongMergeTask(a, aLo, n1, b, bLo, n2, dst, k, p, mid, to).compute();
+                left.join();
+                return;
+            }
+
+            int n = n1 + n2;
+            int k0 = (int) ((long) n * from / p), k1 = (int) ((long) n * to / p);
+            int i0 = coRank(k0, a, aLo, n1, b, bLo, n2), i1 = coRank(k1, a, aLo, n1, b, bLo, n2);
+            sequentialMerge(a, aLo + i0, i1 - i0, b, bLo + k0 - i0, (k1 - i1) - (k0 - i0), dst, k + k0);
+        }
+    }
+
+    /**
+     * 归并两个有序double数组, 返回新数组(使用公共线程池)
+     */
+    public static double[] merge(double[] a, double[] b) {
+        double[] dst = new double[a.length + b.length];
+        merge(a, 0, a.length - 1, b, 0, b.length - 1, dst, 0, ForkJoinPool.commonPool());
+        return dst;
+    }
+
+    /**
+     * 将a[aLo...aHi]和b[bLo...bHi]归并到dst[k...]中(使用公共线程池)
+     */
+    public static void merge(double[] a, int aLo, int aHi, double[] b, int bLo, int bHi, double[] dst, int k) {
+        merge(a, aLo, aHi, b, bLo, bHi, dst, k, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 将a[aLo...aHi]和b[bLo...bHi]并行归并到dst[k...]中
+     */
+    public static void merge(double[] a, int aLo, int aHi, double[] b, int bLo, int bHi, double[] dst, int k,
+                             ForkJoinPool pool) {
+        int n1 = aHi - aLo + 1, n2 = bHi - bLo + 1;
+        int p = segments(n1 + n2, pool);
+        if (p == 1) {
+            sequentialMerge(a, aLo, n1, b, bLo, n2, dst, k);
+            return;
+        }
+        invoke(new DoubleMergeTask(a, aLo, n1, b, bLo, n2, dst, k, p, 0, p), pool);
+    }
+
+    /**
+     * double数组的k路归并(使用公共线程池), 返回新数组
+     */
+    public static double[] merge(double[]... runs) {
+        int[] lengths = new int[runs.length];
+        for (int r = 0; r < runs.length; r++) {
+            lengths[r] = runs[r].length;
+        }
+        int[] bounds = bounds(lengths);
+        double[] a = new double[bounds[runs.length]];
+        for (int r = 0; r < runs.length; r++) {
+            System.arraycopy(runs[r], 0, a, bounds[r], lengths[r]);
+        }
+        mergeRuns(a, bounds, ForkJoinPool.commonPool());
+        return a;
+    }
+
+    /**
+     * double数组的k路归并: a[runs[r]...runs[r+1]-1]均为有序段, 将a整体归并为有序
+     */
+    public static void mergeRuns(double[] a, int[] runs, ForkJoinPool pool) {
+        checkRuns(runs, a.length);
+        double[] src = a, dst = a.clone();
+        while (runs.length > 2) {
+            List<RecursiveAction> tasks = new ArrayList<>();
+            int m = runs.length - 1;
+            for (int r = 0; r < m; r += 2) {
+                int lo = runs[r], mid = runs[r + 1], hi = r + 2 <= m ? runs[r + 2] : mid;
+                tasks.add(pairTask(src, lo, mid, hi, dst, pool));
+            }
+            invoke(allOf(tasks), pool);
+            double[] t = src;
+            src = dst;
+            dst = t;
+            runs = halve(runs);
+        }
+        if (src != a) {
+            System.arraycopy(src, 0, a, 0, a.length);
+        }
+    }
+
+    private static RecursiveAction pairTask(double[] src, int lo, int mid, int hi, double[] dst, ForkJoinPool pool) {
+        return new RecursiveAction() {
+            @Override
+            protected void compute() {
+                if (lo == mid || mid == hi || !lessNaNLast(src[mid], src[mid - 1])) {
+                    System.arraycopy(src, lo, dst, lo, hi - lo);
+                } else {
+                    merge(src, lo, mid - 1, src, mid, hi - 1, dst, lo, pool);
+                }
+            }
+        };
+    }
+
+    static int coRank(int k, double[] a, int aLo, int n1, double[] b, int bLo, int n2) {
+        int lo = Math.max(0, k - n2), hi = Math.min(k, n1);
+        while (lo < hi) {
+            int i = (lo + hi) >>> 1;
+            if (!lessNaNLast(b[bLo + k - i - 1], a[aLo + i])) lo = i + 1;
+            else hi = i;
+        }
+        return lo;
+    }
+
+    private static void sequentialMerge(double[] a, int i, int n1, double[] b, int j, int n2, double[] dst, int k) {
+        int iEnd = i + n1, jEnd = j + n2;
+        while (i < iEnd && j < jEnd) {
+            dst[k++] = lessNaNLast(b[j], a[i]) ? b[j++] : a[i++];
+        }
+        System.arraycopy(a, i, dst, k, iEnd - i);
+        System.arraycopy(b, j, dst, k + iEnd - i, jEnd - j);
+    }
+
+    private static class DoubleMergeTask extends RecursiveAction {
+
+        private final double[] a, b, dst;
+
+        private final int aLo, n1, bLo, n2, k;
+
+        private final int p, from, to;
+
+        DoubleMergeTask(double[] a, int aLo, int n1, double[] b, int bLo, int n2, double[] dst, int k, int p, int from, int to) {
+            this.a = a;
+            this.aLo = aLo;
+            this.n1 = n1;
+            this.b = b;
+            this.bLo = bLo;
+            this.n2 = n2;
+            this.dst = dst;
+            this.k = k;
+            this.p = p;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                DoubleMergeTask left = new DoubleMergeTask(a, aLo, n1, b, bLo, n2, dst, k, p, from, mid);
+                left.fork();
+                new DoubleMergeTask(a, aLo, n1, b, bLo, n2, dst, k, p, mid, to).compute();
+                left.join();
+                return;
+            }
+
+            int n = n1 + n2;
+            int k0 = (int) ((long) n * from / p), k1 = (int) ((long) n * to / p);
+            int i0 = coRank(k0, a, aLo, n1, b, bLo, n2), i1 = coRank(k1, a, aLo, n1, b, bLo, n2);
+            sequentialMerge(a, aLo + i0, i1 - i0, b, bLo + k0 - i0, (k1 - i1) - (k0 - i0), dst, k + k0);
+        }
+    }
+
+    /**
+     * 归并两个有序float数组, 返回新数组(使用公共线程池)
+     */
+    public static float[] merge(float[] a, float[] b) {
+        float[] dst = new float[a.length + b.length];
+        merge(a, 0, a.length - 1, b, 0, b.length - 1, dst, 0, ForkJoinPool.commonPool());
+        return dst;
+    }
+
+    /**
+     * 将a[aLo...aHi]和b[bLo...bHi]归并到dst[k...]中(使用公共线程池)
+     */
+    public static void merge(float[] a, int aLo, int aHi, float[] b, int bLo, int bHi, float[] dst, int k) {
+        merge(a, aLo, aHi, b, bLo, bHi, dst, k, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 将a[aLo...aHi]和b[bLo...bHi]并行归并到dst[k...]中
+     */
+    public static void merge(float[] a, int aLo, int aHi, float[] b, int bLo, int bHi, float[] dst, int k,
+                             ForkJoinPool pool) {
+        int n1 = aHi - aLo + 1, n2 = bHi - bLo + 1;
+        int p = segments(n1 + n2, pool);
+        if (p == 1) {
+            sequentialMerge(a, aLo, n1, b, bLo, n2, dst, k);
+            return;
+        }
+        invoke(new FloatMergeTask(a, aLo, n1, b, bLo, n2, dst, k, p, 0, p), pool);
+    }
+
+    /**
+     * float数组的k路归并(使用公共线程池), 返回新数组
+     */
+    public static float[] merge(float[]... runs) {
+        int[] lengths = new int[runs.length];
+        for (int r = 0; r < runs.length; r++) {
+            lengths[r] = runs[r].length;
+        }
+        int[] bounds = bounds(lengths);
+        float[] a = new float[bounds[runs.length]];
+        for (int r = 0; r < runs.length; r++) {
+            System.arraycopy(runs[r], 0, a, bounds[r], lengths[r]);
+        }
+        mergeRuns(a, bounds, ForkJoinPool.commonPool());
+        return a;
+    }
+
+    /**
+     * float数组的k路归并: a[runs[r]...runs[r+1]-1]均为有序段, 将a整体归并为有序
+     */
+    public static void mergeRuns(float[] a, int[] runs, ForkJoinPool pool) {
+        checkRuns(runs, a.length);
+        float[] src = a, dst = a.clone();
+        while (runs.length > 2) {
+            List<RecursiveAction> tasks = new ArrayList<>();
+            int m = runs.length - 1;
+            for (int r = 0; r < m; r += 2) {
+                int lo = runs[r], mid = runs[r + 1], hi = r + 2 <= m ? runs[r + 2] : mid;
+                tasks.add(pairTask(src, lo, mid, hi, dst, pool));
+            }
+            invoke(allOf(tasks), pool);
+            float[] t = src;
+            src = dst;
+            dst = t;
+            runs = halve(runs);
+        }
+        if (src != a) {
+            System.arraycopy(src, 0, a, 0, a.length);
+        }
+    }
+
+    private static RecursiveAction pairTask(float[] src, int lo, int mid, int hi, float[] dst, ForkJoinPool pool) {
+        return new RecursiveAction() {
+            @Override
+            protected void compute() {
+                if (lo == mid || mid == hi || !lessNaNLast(src[mid], src[mid - 1])) {
+                    System.arraycopy(src, lo, dst, lo, hi - lo);
+                } else {
+                    merge(src, lo, mid - 1, src, mid, hi - 1, dst, lo, pool);
+                }
+            }
+        };
+    }
+
+    static int coRank(int k, float[] a, int aLo, int n1, float[] b, int bLo, int n2) {
+        int lo = Math.max(0, k - n2), hi = Math.min(k, n1);
+        while (lo < hi) {
+            int i = (lo + hi) >>> 1;
+            if (!lessNaNLast(b[bLo + k - i - 1], a[aLo + i])) lo = i + 1;
+            else hi = i;
+        }
+        return lo;
+    }
+
+    private static void sequentialMerge(float[] a, int i, int n1, float[] b, int j, int n2, float[] dst, int k) {
+        int iEnd = i + n1, jEnd = j + n2;
+        while (i < iEnd && j < jEnd) {
+            dst[k++] = lessNaNLast(b[j], a[i]) ? b[j++] : a[i++];
+        }
+        System.arraycopy(a, i, dst, k, iEnd - i);
+        System.arraycopy(b, j, dst, k + iEnd - i, jEnd - j);
+    }
+
+    private static class FloatMergeTask extends RecursiveAction {
+
+        private final float[] a, b, dst;
+
+        private final int aLo, n1, bLo, n2, k;
+
+        private final int p, from, to;
+
+        FloatMergeTask(float[] a, int aLo, int n1, float[] b, int bLo, int n2, float[] dst, int k, int p, int from, int to) {
+            this.a = a;
+            this.aLo = aLo;
+            this.n1 = n1;
+            this.b = b;
+            this.bLo = bLo;
+            this.n2 = n2;
+            this.dst = dst;
+            this.k = k;
+            this.p = p;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                FloatMergeTask left = new FloatMergeTask(a, aLo, n1, b, bLo, n2, dst, k, p, from, mid);
+                left.fork();
+                new FloatMergeTask(a, aLo, n1, b, bLo, n2, dst, k, p, mid, to).compute();
+                left.join();
+                return;
+            }
+
+            int n = n1 + n2;
+            int k0 = (int) ((long) n * from / p), k1 = (int) ((long) n * to / p);
+            int i0 = coRank(k0, a, aLo, n1, b, bLo, n2), i1 = coRank(k1, a, aLo, n1, b, bLo, n2);
+            sequentialMerge(a, aLo + i0, i1 - i0, b, bLo + k0 - i0, (k1 - i1) - (k0 - i0), dst, k + k0);
+        }
+    }
+
+}
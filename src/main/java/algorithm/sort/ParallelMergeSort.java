@@ -1,15 +1,40 @@
 package algorithm.sort;
 
+import java.util.Comparator;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RecursiveAction;
 
 /**
  * 归并排序的多线程版本
+ * <p>
+ * parallelMergeSort(K[])是最直观的实现: 每次调用新建线程池, 左右两半都fork, 且每次归并之后都要拷贝回原数组
+ * <p>
+ * 生产环境请使用parallelSort():
+ * <p>
+ * - 1.使用公共线程池ForkJoinPool.commonPool()或调用方传入的线程池, 不再每次新建线程池
+ * <p>
+ * - 2.仅fork左半边, 右半边由当前线程直接计算, 不浪费工作线程
+ * <p>
+ * - 3.像MergeSort.advancedSort()一样交替使用源数组和辅助数组(ping-pong), 不再将归并结果拷贝回原数组
+ * <p>
+ * - 4.若左半边最大值不大于右半边最小值, 则跳过归并
+ * <p>
+ * - 5.归并本身也是并行的: 使用ParallelMerge按co-rank将一次归并切分为多段独立的归并
+ * <p>
+ * - 6.子数组小于阈值时使用单线程的MergeSort.advancedSort()
+ *
+ * 另外为int[], long[], double[], float[]提供了基本类型的重载: 直接使用<比较, 不装箱也不调用compareTo;
+ * double[]和float[]排序前先将NaN移到末尾(与Arrays.sort()相同), 其余元素之间才使用<比较
  *
  * @author zk
  */
 public class ParallelMergeSort extends BaseSort {
 
+    /**
+     * parallelSort()中子数组小于该值则不再拆分任务, 直接使用单线程归并排序
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+
     @SuppressWarnings("unchecked")
     public static <K extends Comparable<K>> void parallelMergeSort(K[] arr) {
         K[] aux = (K[]) new Comparable[arr.length];
@@ -112,4 +137,348 @@ public class ParallelMergeSort extends BaseSort {
                 exch(a, j, j - 1);
     }
 
+    /**
+     * 使用比较器c的并行归并排序, 等价于parallelSort(arr, c)
+     */
+    public static <T> void parallelMergeSort(T[] arr, Comparator<? super T> c) {
+        parallelSort(arr, c);
+    }
+
+    /**
+     * 并行归并排序(生产模式, 使用公共线程池)
+     */
+    public static <K extends Comparable<K>> void parallelSort(K[] a) {
+        parallelSort(a, Comparator.naturalOrder(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 并行归并排序(生产模式, 使用指定的线程池)
+     */
+    public static <K extends Comparable<K>> void parallelSort(K[] a, ForkJoinPool pool) {
+        parallelSort(a, Comparator.naturalOrder(), pool);
+    }
+
+    /**
+     * 使用比较器c的并行归并排序(生产模式, 使用公共线程池)
+     */
+    public static <T> void parallelSort(T[] a, Comparator<? super T> c) {
+        parallelSort(a, c, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 使用比较器c的并行归并排序(生产模式, 稳定)
+     *
+     * @param a    待排序数组
+     * @param c    比较器
+     * @param pool 执行排序的线程池
+     */
+    public static <T> void parallelSort(T[] a, Comparator<? super T> c, ForkJoinPool pool) {
+        T[] aux = a.clone();
+        pool.invoke(new ComparatorSortTask<>(aux, a, 0, a.length - 1, c));
+    }
+
+    /**
+     * 将src[lo...hi]排序并放入dst[lo...hi]
+     * <p>
+     * 与MergeSort.advancedSort()相同, 调用前两个数组在该区间内的元素相同, 子任务交替使用两个数组
+     */
+    private static class ComparatorSortTask<T> extends RecursiveAction {
+
+        private final T[] src;
+
+        private final T[] dst;
+
+        private final int lo;
+
+        private final int hi;
+
+        private final Comparator<? super T> c;
+
+        ComparatorSortTask(T[] src, T[] dst, int lo, int hi, Comparator<? super T> c) {
+            this.src = src;
+            this.dst = dst;
+            this.lo = lo;
+            this.hi = hi;
+            this.c = c;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo < SEQUENTIAL_THRESHOLD) {
+                MergeSort.advancedSort(src, dst, lo, hi, c);
+                return;
+            }
+
+            // 仅fork左半边, 右半边由当前线程计算
+            int mid = lo + (hi - lo) / 2;
+            ComparatorSortTask<T> left = new ComparatorSortTask<>(dst, src, lo, mid, c);
+            left.fork();
+            new ComparatorSortTask<>(dst, src, mid + 1, hi, c).compute();
+            left.join();
+
+            // 两半已经整体有序, 跳过归并
+            if (!less(src[mid + 1], src[mid], c)) {
+                System.arraycopy(src, lo, dst, lo, hi - lo + 1);
+                return;
+            }
+            ParallelMerge.merge(src, lo, mid, src, mid + 1, hi, dst, lo, c);
+        }
+    }
+
+    /**
+     * int数组的并行归并排序, 等价于parallelSort(arr)
+     */
+    public static void parallelMergeSort(int[] arr) {
+        parallelSort(arr);
+    }
+
+    /**
+     * int数组的并行归并排序(生产模式, 使用公共线程池)
+     */
+    public static void parallelSort(int[] a) {
+        parallelSort(a, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * int数组的并行归并排序(生产模式)
+     *
+     * @param a    待排序数组
+     * @param pool 执行排序的线程池
+     */
+    public static void parallelSort(int[] a, ForkJoinPool pool) {
+        int[] aux = a.clone();
+        pool.invoke(new IntSortTask(aux, a, 0, a.length - 1));
+    }
+
+    private static class IntSortTask extends RecursiveAction {
+
+        private final int[] src;
+
+        private final int[] dst;
+
+        private final int lo;
+
+        private final int hi;
+
+        IntSortTask(int[] src, int[] dst, int lo, int hi) {
+            this.src = src;
+            this.dst = dst;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo < SEQUENTIAL_THRESHOLD) {
+                MergeSort.advancedSort(src, dst, lo, hi);
+                return;
+            }
+
+            int mid = lo + (hi - lo) / 2;
+            IntSortTask left = new IntSortTask(dst, src, lo, mid);
+            left.fork();
+            new IntSortTask(dst, src, mid + 1, hi).compute();
+            left.join();
+
+            if (!(src[mid + 1] < src[mid])) {
+                System.arraycopy(src, lo, dst, lo, hi - lo + 1);
+                return;
+            }
+            ParallelMerge.merge(src, lo, mid, src, mid + 1, hi, dst, lo);
+        }
+    }
+
+    /**
+     * long数组的并行归并排序, 等价于parallelSort(arr)
+     */
+    public static void parallelMergeSort(long[] arr) {
+        parallelSort(arr);
+    }
+
+    /**
+     * long数组的并行归并排序(生产模式, 使用公共线程池)
+     */
+    public static void parallelSort(long[] a) {
+        parallelSort(a, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * long数组的并行归并排序(生产模式)
+     *
+     * @param a    待排序数组
+     * @param pool 执行排序的线程池
+     */
+    public static void parallelSort(long[] a, ForkJoinPool pool) {
+        long[] aux = a.clone();
+        pool.invoke(new LongSortTask(aux, a, 0, a.length - 1));
+    }
+
+    private static class LongSortTask extends RecursiveAction {
+
+        private final long[] src;
+
+        private final long[] dst;
+
+        private final int lo;
+
+        private final int hi;
+
+        LongSortTask(long[] src, long[] dst, int lo, int hi) {
+            this.src = src;
+            this.dst = dst;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo < SEQUENTIAL_THRESHOLD) {
+                MergeSort.advancedSort(src, dst, lo, hi);
+                return;
+            }
+
+            int mid = lo + (hi - lo) / 2;
+            LongSortTask left = new LongSortTask(dst, src, lo, mid);
+            left.fork();
+            new LongSortTask(dst, src, mid + 1, hi).compute();
+            left.join();
+
+            if (!(src[mid + 1] < src[mid])) {
+                System.arraycopy(src, lo, dst, lo, hi - lo + 1);
+                return;
+            }
+            ParallelMerge.merge(src, lo, mid, src, mid + 1, hi, dst, lo);
+        }
+    }
+
+    /**
+     * double数组的并行归并排序, 等价于parallelSort(arr)
+     */
+    public static void parallelMergeSort(double[] arr) {
+        parallelSort(arr);
+    }
+
+    /**
+     * double数组的并行归并排序(生产模式, 使用公共线程池)
+     */
+    public static void parallelSort(double[] a) {
+        parallelSort(a, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * double数组的并行归并排序(生产模式)
+     *
+     * @param a    待排序数组
+     * @param pool 执行排序的线程池
+     */
+    public static void parallelSort(double[] a, ForkJoinPool pool) {
+        // NaN先移到末尾, 只排序其余的元素: 含NaN的有序段无法并行归并
+        int hi = moveNaNsToEnd(a, 0, a.length - 1);
+        double[] aux = a.clone();
+        pool.invoke(new DoubleSortTask(aux, a, 0, hi));
+    }
+
+    private static class DoubleSortTask extends RecursiveAction {
+
+        private final double[] src;
+
+        private final double[] dst;
+
+        private final int lo;
+
+        private final int hi;
+
+        DoubleSortTask(double[] src, double[] dst, int lo, int hi) {
+            this.src = src;
+            this.dst = dst;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo < SEQUENTIAL_THRESHOLD) {
+                MergeSort.advancedSort(src, dst, lo, hi);
+                return;
+            }
+
+            int mid = lo + (hi - lo) / 2;
+            DoubleSortTask left = new DoubleSortTask(dst, src, lo, mid);
+            left.fork();
+            new DoubleSortTask(dst, src, mid + 1, hi).compute();
+            left.join();
+
+            if (!(src[mid + 1] < src[mid])) {
+                System.arraycopy(src, lo, dst, lo, hi - lo + 1);
+                return;
+            }
+            ParallelMerge.merge(src, lo, mid, src, mid + 1, hi, dst, lo);
+        }
+    }
+
+    /**
+     * float数组的并行归并排序, 等价于parallelSort(arr)
+     */
+    public static void parallelMergeSort(float[] arr) {
+        parallelSort(arr);
+    }
+
+    /**
+     * float数组的并行归并排序(生产模式, 使用公共线程池)
+     */
+    public static void parallelSort(float[] a) {
+        parallelSort(a, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * float数组的并行归并排序(生产模式)
+     *
+     * @param a    待排序数组
+     * @param pool 执行排序的线程池
+     */
+    public static void parallelSort(float[] a, ForkJoinPool pool) {
+        // NaN先移到末尾, 只排序其余的元素: 含NaN的有序段无法并行归并
+        int hi = moveNaNsToEnd(a, 0, a.length - 1);
+        float[] aux = a.clone();
+        pool.invoke(new FloatSortTask(aux, a, 0, hi));
+    }
+
+    private static class FloatSortTask extends RecursiveAction {
+
+        private final float[] src;
+
+        private final float[] dst;
+
+        private final int lo;
+
+        private final int hi;
+
+        FloatSortTask(float[] src, float[] dst, int lo, int hi) {
+            this.src = src;
+            this.dst = dst;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo < SEQUENTIAL_THRESHOLD) {
+                MergeSort.advancedSort(src, dst, lo, hi);
+                return;
+            }
+
+            int mid = lo + (hi - lo) / 2;
+            FloatSortTask left = new FloatSortTask(dst, src, lo, mid);
+            left.fork();
+            new FloatSortTask(dst, src, mid + 1, hi).compute();
+            left.join();
+
+            if (!(src[mid + 1] < src[mid])) {
+                System.arraycopy(src, lo, dst, lo, hi - lo + 1);
+                return;
+            }
+            ParallelMerge.merge(src, lo, mid, src, mid + 1, hi, dst, lo);
+        }
+    }
+
 }
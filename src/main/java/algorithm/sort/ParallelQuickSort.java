@@ -0,0 +1,488 @@
+package algorithm.sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 快速排序的多线程版本
+ * <p>
+ * 快排切分之后的左右两个子数组互不相关, 天然适合使用ForkJoin并行处理:
+ * <p>
+ * - 1.沿用QuickSort中的三取样(median3)和三向切分, 将子数组切分为 < key, = key, > key 三部分
+ * <p>
+ * - 2.较小的一侧作为新任务fork到线程池中, 当前线程继续循环切分较大的一侧(不会浪费工作线程)
+ * <p>
+ * - 3.子数组长度不超过阈值threshold时, 直接使用QuickSort.threeWaySort()单线程排序
+ * <p>
+ * - 4.与IntroSort相同, 切分深度超过2lgN时改为堆排序, 最坏时间O(NlgN), 每个任务fork的子任务也不超过2lgN个
+ * <p>
+ * double[]和float[]排序前先将NaN移到末尾(与Arrays.sort()相同), 其余元素之间才使用<比较
+ * <p>
+ * 排序原地进行, 除任务对象外不需要额外的空间
+ * <p>
+ * 默认使用ForkJoinPool.commonPool(), 也可以传入调用方自己的线程池以及切换为单线程排序的阈值
+ *
+ * @author zk
+ */
+public class ParallelQuickSort extends BaseSort {
+
+    /**
+     * 默认的单线程排序阈值: 子数组长度不超过该值时不再拆分任务
+     */
+    public static final int DEFAULT_THRESHOLD = 1 << 13;
+
+    private ParallelQuickSort() {
+    }
+
+    public static <K extends Comparable<K>> void parallelQuickSort(K[] a) {
+        parallelQuickSort(a, ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    public static <K extends Comparable<K>> void parallelQuickSort(K[] a, ForkJoinPool pool) {
+        parallelQuickSort(a, pool, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * 并行快排
+     *
+     * @param a         待排序数组
+     * @param pool      执行排序的线程池
+     * @param threshold 子数组长度不超过该值时使用单线程排序
+     */
+    public static <K extends Comparable<K>> void parallelQuickSort(K[] a, ForkJoinPool pool, int threshold) {
+        checkThreshold(threshold);
+        pool.invoke(new QuickSortTask<>(a, 0, a.length - 1, threshold, IntroSort.depthLimit(a.length)));
+    }
+
+    private static void checkThreshold(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("threshold must be positive: " + threshold);
+        }
+    }
+
+    private static class QuickSortTask<K extends Comparable<K>> extends RecursiveAction {
+
+        private final K[] a;
+
+        private final int lo;
+
+        private final int hi;
+
+        private final int threshold;
+
+        /**
+         * 剩余的切分深度, 用尽后改为堆排序
+         */
+        private final int depth;
+
+        QuickSortTask(K[] a, int lo, int hi, int threshold, int depth) {
+            this.a = a;
+            this.lo = lo;
+            this.hi = hi;
+            this.threshold = threshold;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            List<QuickSortTask<K>> forked = new ArrayList<>();
+            int lo = this.lo, hi = this.hi, depth = this.depth;
+
+            while (hi - lo + 1 > threshold && depth > 0) {
+                depth--;
+                // 三取样切分, 并将轴放在lo的位置
+                int m = QuickSort.median3(a, lo, lo + (hi - lo + 1) / 2, hi);
+                exch(a, m, lo);
+
+                // 三向切分: a[lo...lt-1] < key = a[lt...gt] < a[gt+1...hi]
+                int lt = lo, gt = hi, i = lo + 1;
+                K key = a[lo];
+                while (i <= gt) {
+                    int cmp = a[i].compareTo(key);
+                    if (cmp < 0) exch(a, lt++, i++);
+                    else if (cmp > 0) exch(a, i, gt--);
+                    else ++i;
+                }
+
+                // 较小的一侧交给其他线程, 当前线程继续处理较大的一侧
+                QuickSortTask<K> task;
+                if (lt - lo < hi - gt) {
+                    task = new QuickSortTask<>(a, lo, lt - 1, threshold, depth);
+                    lo = gt + 1;
+                } else {
+                    task = new QuickSortTask<>(a, gt + 1, hi, threshold, depth);
+                    hi = lt - 1;
+                }
+                task.fork();
+                forked.add(task);
+            }
+
+            // 切分深度用尽(轴选择得很差)时改为堆排序, 否则使用单线程的三向切分快排
+            if (hi - lo + 1 > threshold) HeapSort.sort(a, lo, hi, Comparator.naturalOrder());
+            else QuickSort.threeWaySort(a, lo, hi);
+            for (QuickSortTask<K> task : forked) {
+                task.join();
+            }
+        }
+    }
+
+    /**
+     * int数组的并行快排(使用公共线程池)
+     */
+    public static void parallelQuickSort(int[] a) {
+        parallelQuickSort(a, ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * int数组的并行快排(使用指定的线程池)
+     */
+    public static void parallelQuickSort(int[] a, ForkJoinPool pool) {
+        parallelQuickSort(a, pool, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * int数组的并行快排
+     *
+     * @param a         待排序数组
+     * @param pool      执行排序的线程池
+     * @param threshold 子数组长度不超过该值时使用单线程排序
+     */
+    public static void parallelQuickSort(int[] a, ForkJoinPool pool, int threshold) {
+        checkThreshold(threshold);
+        pool.invoke(new IntQuickSortTask(a, 0, a.length - 1, threshold, IntroSort.depthLimit(a.length)));
+    }
+
+    private static class IntQuickSortTask extends RecursiveAction {
+
+        private final int[] a;
+
+        private final int lo;
+
+        private final int hi;
+
+        private final int threshold;
+
+        /**
+         * 剩余的切分深度, 用尽后改为堆排序
+         */
+        private final int depth;
+
+        IntQuickSortTask(int[] a, int lo, int hi, int threshold, int depth) {
+            this.a = a;
+            this.lo = lo;
+            this.hi = hi;
+            this.threshold = threshold;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            List<IntQuickSortTask> forked = new ArrayList<>();
+            int lo = this.lo, hi = this.hi, depth = this.depth;
+
+            while (hi - lo + 1 > threshold && depth > 0) {
+                depth--;
+                int m = QuickSort.median3(a, lo, lo + (hi - lo + 1) / 2, hi);
+                exch(a, m, lo);
+
+                int lt = lo, gt = hi, i = lo + 1;
+                int key = a[lo];
+                while (i <= gt) {
+                    if (a[i] < key) exch(a, lt++, i++);
+                    else if (key < a[i]) exch(a, i, gt--);
+                    else ++i;
+                }
+
+                IntQuickSortTask task;
+                if (lt - lo < hi - gt) {
+                    task = new IntQuickSortTask(a, lo, lt - 1, threshold, depth);
+                    lo = gt + 1;
+                } else {
+                    task = new IntQuickSortTask(a, gt + 1, hi, threshold, depth);
+                    hi = lt - 1;
+                }
+                task.fork();
+                forked.add(task);
+            }
+
+            // 切分深度用尽(轴选择得很差)时改为堆排序, 否则使用单线程的三向切分快排
+            if (hi - lo + 1 > threshold) HeapSort.sort(a, lo, hi);
+            else QuickSort.threeWaySort(a, lo, hi);
+            for (IntQuickSortTask task : forked) {
+                task.join();
+            }
+        }
+    }
+
+    /**
+     * long数组的并行快排(使用公共线程池)
+     */
+    public static void parallelQuickSort(long[] a) {
+        parallelQuickSort(a, ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * long数组的并行快排(使用指定的线程池)
+     */
+    public static void parallelQuickSort(long[] a, ForkJoinPool pool) {
+        parallelQuickSort(a, pool, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * long数组的并行快排
+     *
+     * @param a         待排序数组
+     * @param pool      执行排序的线程池
+     * @param threshold 子数组长度不超过该值时使用单线程排序
+     */
+    public static void parallelQuickSort(long[] a, ForkJoinPool pool, int threshold) {
+        checkThreshold(threshold);
+        pool.invoke(new LongQuickSortTask(a, 0, a.length - 1, threshold, IntroSort.depthLimit(a.length)));
+    }
+
+    private static class LongQuickSortTask extends RecursiveAction {
+
+        private final long[] a;
+
+        private final int lo;
+
+        private final int hi;
+
+        private final int threshold;
+
+        /**
+         * 剩余的切分深度, 用尽后改为堆排序
+         */
+        private final int depth;
+
+        LongQuickSortTask(long[] a, int lo, int hi, int threshold, int depth) {
+            this.a = a;
+            this.lo = lo;
+            this.hi = hi;
+            this.threshold = threshold;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            List<LongQuickSortTask> forked = new ArrayList<>();
+            int lo = this.lo, hi = this.hi, depth = this.depth;
+
+            while (hi - lo + 1 > threshold && depth > 0) {
+                depth--;
+                int m = QuickSort.median3(a, lo, lo + (hi - lo + 1) / 2, hi);
+                exch(a, m, lo);
+
+                int lt = lo, gt = hi, i = lo + 1;
+                long key = a[lo];
+                while (i <= gt) {
+                    if (a[i] < key) exch(a, lt++, i++);
+                    else if (key < a[i]) exch(a, i, gt--);
+                    else ++i;
+                }
+
+                LongQuickSortTask task;
+                if (lt - lo < hi - gt) {
+                    task = new LongQuickSortTask(a, lo, lt - 1, threshold, depth);
+                    lo = gt + 1;
+                } else {
+                    task = new LongQuickSortTask(a, gt + 1, hi, threshold, depth);
+                    hi = lt - 1;
+                }
+                task.fork();
+                forked.add(task);
+            }
+
+            // 切分深度用尽(轴选择得很差)时改为堆排序, 否则使用单线程的三向切分快排
+            if (hi - lo + 1 > threshold) HeapSort.sort(a, lo, hi);
+            else QuickSort.threeWaySort(a, lo, hi);
+            for (LongQuickSortTask task : forked) {
+                task.join();
+            }
+        }
+    }
+
+    /**
+     * double数组的并行快排(使用公共线程池)
+     */
+    public static void parallelQuickSort(double[] a) {
+        parallelQuickSort(a, ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * double数组的并行快排(使用指定的线程池)
+     */
+    public static void parallelQuickSort(double[] a, ForkJoinPool pool) {
+        parallelQuickSort(a, pool, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * double数组的并行快排
+     *
+     * @param a         待排序数组
+     * @param pool      执行排序的线程池
+     * @param threshold 子数组长度不超过该值时使用单线程排序
+     */
+    public static void parallelQuickSort(double[] a, ForkJoinPool pool, int threshold) {
+        checkThreshold(threshold);
+        // NaN先移到末尾, 只排序其余的元素
+        int hi = moveNaNsToEnd(a, 0, a.length - 1);
+        pool.invoke(new DoubleQuickSortTask(a, 0, hi, threshold, IntroSort.depthLimit(hi + 1)));
+    }
+
+    private static class DoubleQuickSortTask extends RecursiveAction {
+
+        private final double[] a;
+
+        private final int lo;
+
+        private final int hi;
+
+        private final int threshold;
+
+        /**
+         * 剩余的切分深度, 用尽后改为堆排序
+         */
+        private final int depth;
+
+        DoubleQuickSortTask(double[] a, int lo, int hi, int threshold, int depth) {
+            this.a = a;
+            this.lo = lo;
+            this.hi = hi;
+            this.threshold = threshold;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            List<DoubleQuickSortTask> forked = new ArrayList<>();
+            int lo = this.lo, hi = this.hi, depth = this.depth;
+
+            while (hi - lo + 1 > threshold && depth > 0) {
+                depth--;
+                int m = QuickSort.median3(a, lo, lo + (hi - lo + 1) / 2, hi);
+                exch(a, m, lo);
+
+                int lt = lo, gt = hi, i = lo + 1;
+                double key = a[lo];
+                while (i <= gt) {
+                    if (a[i] < key) exch(a, lt++, i++);
+                    else if (key < a[i]) exch(a, i, gt--);
+                    else ++i;
+                }
+
+                DoubleQuickSortTask task;
+                if (lt - lo < hi - gt) {
+                    task = new DoubleQuickSortTask(a, lo, lt - 1, threshold, depth);
+                    lo = gt + 1;
+                } else {
+                    task = new DoubleQuickSortTask(a, gt + 1, hi, threshold, depth);
+                    hi = lt - 1;
+                }
+                task.fork();
+                forked.add(task);
+            }
+
+            // 切分深度用尽(轴选择得很差)时改为堆排序, 否则使用单线程的三向切分快排
+            if (hi - lo + 1 > threshold) HeapSort.sort(a, lo, hi);
+            else QuickSort.threeWaySort(a, lo, hi);
+            for (DoubleQuickSortTask task : forked) {
+                task.join();
+            }
+        }
+    }
+
+    /**
+     * float数组的并行快排(使用公共线程池)
+     */
+    public static void parallelQuickSort(float[] a) {
+        parallelQuickSort(a, ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * float数组的并行快排(使用指定的线程池)
+     */
+    public static void parallelQuickSort(float[] a, ForkJoinPool pool) {
+        parallelQuickSort(a, pool, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * float数组的并行快排
+     *
+     * @param a         待排序数组
+     * @param pool      执行排序的线程池
+     * @param threshold 子数组长度不超过该值时使用单线程排序
+     */
+    public static void parallelQuickSort(float[] a, ForkJoinPool pool, int threshold) {
+        checkThreshold(threshold);
+        // NaN先移到末尾, 只排序其余的元素
+        int hi = moveNaNsToEnd(a, 0, a.length - 1);
+        pool.invoke(new FloatQuickSortTask(a, 0, hi, threshold, IntroSort.depthLimit(hi + 1)));
+    }
+
+    private static class FloatQuickSortTask extends RecursiveAction {
+
+        private final float[] a;
+
+        private final int lo;
+
+        private final int hi;
+
+        private final int threshold;
+
+        /**
+         * 剩余的切分深度, 用尽后改为堆排序
+         */
+        private final int depth;
+
+        FloatQuickSortTask(float[] a, int lo, int hi, int threshold, int depth) {
+            this.a = a;
+            this.lo = lo;
+            this.hi = hi;
+            this.threshold = threshold;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            List<FloatQuickSortTask> forked = new ArrayList<>();
+            int lo = this.lo, hi = this.hi, depth = this.depth;
+
+            while (hi - lo + 1 > threshold && depth > 0) {
+                depth--;
+                int m = QuickSort.median3(a, lo, lo + (hi - lo + 1) / 2, hi);
+                exch(a, m, lo);
+
+                int lt = lo, gt = hi, i = lo + 1;
+                float key = a[lo];
+                while (i <= gt) {
+                    if (a[i] < key) exch(a, lt++, i++);
+                    else if (key < a[i]) exch(a, i, gt--);
+                    else ++i;
+                }
+
+                FloatQuickSortTask task;
+                if (lt - lo < hi - gt) {
+                    task = new FloatQuickSortTask(a, lo, lt - 1, threshold, depth);
+                    lo = gt + 1;
+                } else {
+                    task = new FloatQuickSortTask(a, gt + 1, hi, threshold, depth);
+                    hi = lt - 1;
+                }
+                task.fork();
+                forked.add(task);
+            }
+
+            // 切分深度用尽(轴选择得很差)时改为堆排序, 否则使用单线程的三向切分快排
+            if (hi - lo + 1 > threshold) HeapSort.sort(a, lo, hi);
+            else QuickSort.threeWaySort(a, lo, hi);
+            for (FloatQuickSortTask task : forked) {
+                task.join();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,471 @@
+package algorithm.sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 基数排序的多线程版本(MSD, 从最高位开始)
+ * <p>
+ * 每一位取8个bit(256个桶), 符号位取反使负数排在前面:
+ * <p>
+ * - 1.将子数组切分为多块, 每个线程统计自己那一块的直方图(各线程之间不共享计数器)
+ * <p>
+ * - 2.对所有块的直方图计算全局前缀和: 第c块中第d个桶的起始位置 = 所有块中小于d的桶的总数 + 前c-1块中第d个桶的数量
+ * <p>
+ * - 3.各块按照自己的起始位置并行分配到辅助数组中(块内顺序不变, 因此是稳定的)
+ * <p>
+ * - 4.对每个桶按下一位并行递归; 桶较小时改为单线程的MSD基数排序, 桶非常小时直接使用InsertionSort
+ * <p>
+ * 若子数组中所有元素在某一位上都相同, 则跳过这一位的分配
+ * <p>
+ * float和double先转换为与数值顺序一致的整数(同RadixSort), 排序后再转换回来
+ *
+ * @author zk
+ */
+public class ParallelRadixSort extends BaseSort {
+
+    /**
+     * 每一位的bit数以及桶的数量
+     */
+    private static final int DIGIT_BITS = 8;
+
+    private static final int RADIX = 1 << DIGIT_BITS;
+
+    private static final int MASK = RADIX - 1;
+
+    /**
+     * 子数组小于该值时使用单线程的MSD基数排序
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 16;
+
+    /**
+     * 统计直方图和分配时每一块的最小长度
+     */
+    private static final int MIN_CHUNK = 1 << 14;
+
+    /**
+     * 桶小于该值时直接使用插入排序
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    private ParallelRadixSort() {
+    }
+
+    /**
+     * 同时执行一组任务并等待全部完成
+     */
+    private static void runAll(List<Runnable> actions) {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(actions.size());
+        for (Runnable action : actions) {
+            tasks.add(ForkJoinTask.adapt(action));
+        }
+        ForkJoinTask.invokeAll(tasks);
+    }
+
+    /**
+     * 长度为n的子数组切分的块数: 不超过当前线程池的并行度, 且每块不少于MIN_CHUNK
+     * <p>
+     * 公共线程池的任务可能由调用线程直接执行, 此时取公共线程池的并行度
+     */
+    private static int chunks(int n) {
+        ForkJoinPool pool = ForkJoinTask.getPool();
+        int parallelism = pool != null ? pool.getParallelism() : ForkJoinPool.getCommonPoolParallelism();
+        return Math.max(1, Math.min(parallelism, n / MIN_CHUNK));
+    }
+
+    private static int digit(int v, int shift) {
+        return ((v ^ Integer.MIN_VALUE) >>> shift) & MASK;
+    }
+
+    private static int digit(long v, int shift) {
+        return (int) ((v ^ Long.MIN_VALUE) >>> shift) & MASK;
+    }
+
+    /**
+     * float数组的并行基数排序(使用公共线程池)
+     */
+    public static void parallelSort(float[] a) {
+        parallelSort(a, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * float数组的并行基数排序: 转换为有序的int后排序, 再转换回来
+     */
+    public static void parallelSort(float[] a, ForkJoinPool pool) {
+        int[] keys = new int[a.length];
+        for (int i = 0; i < a.length; i++) {
+            keys[i] = RadixSort.flip(Float.floatToIntBits(a[i]));
+        }
+        parallelSort(keys, pool);
+        for (int i = 0; i < a.length; i++) {
+            a[i] = Float.intBitsToFloat(RadixSort.flip(keys[i]));
+        }
+    }
+
+    /**
+     * double数组的并行基数排序(使用公共线程池)
+     */
+    public static void parallelSort(double[] a) {
+        parallelSort(a, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * double数组的并行基数排序: 转换为有序的long后排序, 再转换回来
+     */
+    public static void parallelSort(double[] a, ForkJoinPool pool) {
+        long[] keys = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            keys[i] = RadixSort.flip(Double.doubleToLongBits(a[i]));
+        }
+        parallelSort(keys, pool);
+        for (int i = 0; i < a.length; i++) {
+            a[i] = Double.longBitsToDouble(RadixSort.flip(keys[i]));
+        }
+    }
+
+    /**
+     * int数组的并行基数排序(使用公共线程池)
+     */
+    public static void parallelSort(int[] a) {
+        parallelSort(a, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * int数组的并行MSD基数排序
+     *
+     * @param a    待排序数组
+     * @param pool 执行排序的线程池
+     */
+    public static void parallelSort(int[] a, ForkJoinPool pool) {
+        if (a.length <= INSERTION_SORT_THRESHOLD) {
+            InsertionSort.sort(a, 0, a.length - 1);
+            return;
+        }
+        pool.invoke(new IntRadixTask(a, a, new int[a.length], 0, a.length, Integer.SIZE - DIGIT_BITS));
+    }
+
+    /**
+     * 按shift位对src[lo...hi-1]排序, 结果放入a[lo...hi-1]中; dst为本轮分配的目标数组(a或辅助数组中的另一个)
+     */
+    private static class IntRadixTask extends RecursiveAction {
+
+        private final int[] a, src, dst;
+
+        private final int lo, hi, shift;
+
+        IntRadixTask(int[] a, int[] src, int[] dst, int lo, int hi, int shift) {
+            this.a = a;
+            this.src = src;
+            this.dst = dst;
+            this.lo = lo;
+            this.hi = hi;
+            this.shift = shift;
+        }
+
+        @Override
+        protected void compute() {
+            int n = hi - lo;
+            if (n < SEQUENTIAL_THRESHOLD) {
+                msd(a, src, dst, lo, hi, shift);
+                return;
+            }
+
+            // 1.每一块各自统计直方图
+            int p = chunks(n);
+            int[][] count = new int[p][RADIX];
+            List<Runnable> actions = new ArrayList<>(p);
+            for (int c = 0; c < p; c++) {
+                int[] cnt = count[c];
+                int from = lo + (int) ((long) n * c / p), to = lo + (int) ((long) n * (c + 1) / p);
+                actions.add(() -> {
+                    for (int i = from; i < to; i++) {
+                        cnt[digit(src[i], shift)]++;
+                    }
+                });
+            }
+            runAll(actions);
+
+            // 2.全局前缀和, 同时记录每个桶的边界
+            int[] bucket = new int[RADIX + 1];
+            bucket[0] = lo;
+            for (int d = 0, pos = lo; d < RADIX; d++) {
+                for (int c = 0; c < p; c++) {
+                    int t = count[c][d];
+                    count[c][d] = pos;
+                    pos += t;
+                }
+                bucket[d + 1] = pos;
+            }
+
+            int d0 = digit(src[lo], shift);
+            if (bucket[d0 + 1] - bucket[d0] == n) {
+                // 所有元素在这一位上都相同, 跳过分配
+                next(src, dst, lo, hi);
+                return;
+            }
+
+            // 3.各块并行分配到dst中
+            actions.clear();
+            for (int c = 0; c < p; c++) {
+                int[] offset = count[c];
+                int from = lo + (int) ((long) n * c / p), to = lo + (int) ((long) n * (c + 1) / p);
+                actions.add(() -> {
+                    for (int i = from; i < to; i++) {
+                        int v = src[i];
+                        dst[offset[digit(v, shift)]++] = v;
+                    }
+                });
+            }
+            runAll(actions);
+
+            // 4.每个桶按下一位并行递归
+            actions.clear();
+            for (int d = 0; d < RADIX; d++) {
+                int from = bucket[d], to = bucket[d + 1];
+                if (from < to) {
+                    actions.add(() -> next(dst, src, from, to));
+                }
+            }
+            runAll(actions);
+        }
+
+        /**
+         * 数据在src[lo...hi-1]中, 按下一位继续排序
+         */
+        private void next(int[] src, int[] dst, int lo, int hi) {
+            if (shift == 0) {
+                if (src != a) {
+                    System.arraycopy(src, lo, a, lo, hi - lo);
+                }
+            } else {
+                new IntRadixTask(a, src, dst, lo, hi, shift - DIGIT_BITS).compute();
+            }
+        }
+    }
+
+    /**
+     * 单线程的MSD基数排序: 按shift位对src[lo...hi-1]排序, 结果放入a[lo...hi-1]中
+     */
+    private static void msd(int[] a, int[] src, int[] dst, int lo, int hi, int shift) {
+        if (hi - lo <= INSERTION_SORT_THRESHOLD) {
+            if (src != a) {
+                System.arraycopy(src, lo, a, lo, hi - lo);
+            }
+            InsertionSort.sort(a, lo, hi - 1);
+            return;
+        }
+
+        int[] count = new int[RADIX + 1];
+        for (int i = lo; i < hi; i++) {
+            count[digit(src[i], shift) + 1]++;
+        }
+
+        if (count[digit(src[lo], shift) + 1] == hi - lo) {
+            // 所有元素在这一位上都相同, 跳过分配
+            if (shift > 0) {
+                msd(a, src, dst, lo, hi, shift - DIGIT_BITS);
+            } else if (src != a) {
+                System.arraycopy(src, lo, a, lo, hi - lo);
+            }
+            return;
+        }
+
+        // count[d]为第d个桶的起始位置
+        count[0] = lo;
+        for (int d = 0; d < RADIX; d++) {
+            count[d + 1] += count[d];
+        }
+        int[] bucket = count.clone();
+        for (int i = lo; i < hi; i++) {
+            int v = src[i];
+            dst[count[digit(v, shift)]++] = v;
+        }
+
+        if (shift == 0) {
+            if (dst != a) {
+                System.arraycopy(dst, lo, a, lo, hi - lo);
+            }
+            return;
+        }
+        for (int d = 0; d < RADIX; d++) {
+            if (bucket[d] < bucket[d + 1]) {
+                msd(a, dst, src, bucket[d], bucket[d + 1], shift - DIGIT_BITS);
+            }
+        }
+    }
+
+    /**
+     * long数组的并行基数排序(使用公共线程池)
+     */
+    public static void parallelSort(long[] a) {
+        parallelSort(a, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * long数组的并行MSD基数排序
+     *
+     * @param a    待排序数组
+     * @param pool 执行排序的线程池
+     */
+    public static void parallelSort(long[] a, ForkJoinPool pool) {
+        if (a.length <= INSERTION_SORT_THRESHOLD) {
+            InsertionSort.sort(a, 0, a.length - 1);
+            return;
+        }
+        pool.invoke(new LongRadixTask(a, a, new long[a.length], 0, a.length, Long.SIZE - DIGIT_BITS));
+    }
+
+    /**
+     * 按shift位对src[lo...hi-1]排序, 结果放入a[lo...hi-1]中; dst为本轮分配的目标数组(a或辅助数组中的另一个)
+     */
+    private static class LongRadixTask extends RecursiveAction {
+
+        private final long[] a, src, dst;
+
+        private final int lo, hi, shift;
+
+        LongRadixTask(long[] a, long[] src, long[] dst, int lo, int hi, int shift) {
+            this.a = a;
+            this.src = src;
+            this.dst = dst;
+            this.lo = lo;
+            this.hi = hi;
+            this.shift = shift;
+        }
+
+        @Override
+        protected void compute() {
+            int n = hi - lo;
+            if (n < SEQUENTIAL_THRESHOLD) {
+                msd(a, src, dst, lo, hi, shift);
+                return;
+            }
+
+            // 1.每一块各自统计直方图
+            int p = chunks(n);
+            int[][] count = new int[p][RADIX];
+            List<Runnable> actions = new ArrayList<>(p);
+            for (int c = 0; c < p; c++) {
+                int[] cnt = count[c];
+                int from = lo + (int) ((long) n * c / p), to = lo + (int) ((long) n * (c + 1) / p);
+                actions.add(() -> {
+                    for (int i = from; i < to; i++) {
+                        cnt[digit(src[i], shift)]++;
+                    }
+                });
+            }
+            runAll(actions);
+
+            // 2.全局前缀和, 同时记录每个桶的边界
+            int[] bucket = new int[RADIX + 1];
+            bucket[0] = lo;
+            for (int d = 0, pos = lo; d < RADIX; d++) {
+                for (int c = 0; c < p; c++) {
+                    int t = count[c][d];
+                    count[c][d] = pos;
+                    pos += t;
+                }
+                bucket[d + 1] = pos;
+            }
+
+            int d0 = digit(src[lo], shift);
+            if (bucket[d0 + 1] - bucket[d0] == n) {
+                // 所有元素在这一位上都相同, 跳过分配
+                next(src, dst, lo, hi);
+                return;
+            }
+
+            // 3.各块并行分配到dst中
+            actions.clear();
+            for (int c = 0; c < p; c++) {
+                int[] offset = count[c];
+                int from = lo + (int) ((long) n * c / p), to = lo + (int) ((long) n * (c + 1) / p);
+                actions.add(() -> {
+                    for (int i = from; i < to; i++) {
+                        long v = src[i];
+                        dst[offset[digit(v, shift)]++] = v;
+                    }
+                });
+            }
+            runAll(actions);
+
+            // 4.每个桶按下一位并行递归
+            actions.clear();
+            for (int d = 0; d < RADIX; d++) {
+                int from = bucket[d], to = bucket[d + 1];
+                if (from < to) {
+                    actions.add(() -> next(dst, src, from, to));
+                }
+            }
+            runAll(actions);
+        }
+
+        /**
+         * 数据在src[lo...hi-1]中, 按下一位继续排序
+         */
+        private void next(long[] src, long[] dst, int lo, int hi) {
+            if (shift == 0) {
+                if (src != a) {
+                    System.arraycopy(src, lo, a, lo, hi - lo);
+                }
+            } else {
+                new LongRadixTask(a, src, dst, lo, hi, shift - DIGIT_BITS).compute();
+            }
+        }
+    }
+
+    /**
+     * 单线程的MSD基数排序: 按shift位对src[lo...hi-1]排序, 结果放入a[lo...hi-1]中
+     */
+    private static void msd(long[] a, long[] src, long[] dst, int lo, int hi, int shift) {
+        if (hi - lo <= INSERTION_SORT_THRESHOLD) {
+            if (src != a) {
+                System.arraycopy(src, lo, a, lo, hi - lo);
+            }
+            InsertionSort.sort(a, lo, hi - 1);
+            return;
+        }
+
+        int[] count = new int[RADIX + 1];
+        for (int i = lo; i < hi; i++) {
+            count[digit(src[i], shift) + 1]++;
+        }
+
+        if (count[digit(src[lo], shift) + 1] == hi - lo) {
+            // 所有元素在这一位上都相同, 跳过分配
+            if (shift > 0) {
+                msd(a, src, dst, lo, hi, shift - DIGIT_BITS);
+            } else if (src != a) {
+                System.arraycopy(src, lo, a, lo, hi - lo);
+            }
+            return;
+        }
+
+        // count[d]为第d个桶的起始位置
+        count[0] = lo;
+        for (int d = 0; d < RADIX; d++) {
+            count[d + 1] += count[d];
+        }
+        int[] bucket = count.clone();
+        for (int i = lo; i < hi; i++) {
+            long v = src[i];
+            dst[count[digit(v, shift)]++] = v;
+        }
+
+        if (shift == 0) {
+            if (dst != a) {
+                System.arraycopy(dst, lo, a, lo, hi - lo);
+            }
+            return;
+        }
+        for (int d = 0; d < RADIX; d++) {
+            if (bucket[d] < bucket[d + 1]) {
+                msd(a, dst, src, bucket[d], bucket[d + 1], shift - DIGIT_BITS);
+            }
+        }
+    }
+
+}
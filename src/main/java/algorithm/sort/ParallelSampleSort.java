@@ -0,0 +1,252 @@
+package algorithm.sort;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 并行样本排序(Sample Sort)
+ * <p>
+ * ParallelMergeSort顶层的几次归并需要遍历整个数组lgP次, 且越往上并行度越依赖于归并的切分;
+ * 样本排序只对数组做一次分配, 之后各个桶完全独立地排序, 没有顶层的归并:
+ * <p>
+ * - 1.选取分割元素: 随机抽取B * OVERSAMPLING个样本并排序, 每隔OVERSAMPLING个取一个, 得到B-1个分割元素(过采样使各桶大小更均匀)
+ * <p>
+ * - 2.分割元素按Eytzinger布局组成一棵完全二叉搜索树: 结点j的孩子为2j和2j+1, 元素分类时只需循环lgB次
+ * j = 2j + (splitter[j] < x ? 1 : 0), 循环次数固定, 没有难以预测的分支
+ * <p>
+ * - 3.将数组切分为多块, 各线程并行地对自己那一块分类: 记录每个元素的桶号, 并统计自己的直方图
+ * <p>
+ * - 4.对所有块的直方图计算全局前缀和, 得到每一块在每个桶中的起始位置, 各线程按照自己的起始位置并行地将元素移动到辅助数组中
+ * <p>
+ * - 5.各桶拷贝回原数组并使用IntroSort并行排序
+ * <p>
+ * 大量重复的元素会进入同一个桶, 使该桶较大, 但桶内仍使用IntroSort, 总时间仍为O(NlgN)
+ * <p>
+ * 需要O(N)的辅助数组以及N个字节的桶号数组; 样本排序不是稳定的排序
+ *
+ * @author zk
+ */
+@SuppressWarnings("unchecked")
+public class ParallelSampleSort extends BaseSort {
+
+    /**
+     * 数组小于该值时直接使用单线程的IntroSort
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 15;
+
+    /**
+     * 每个桶的过采样倍数
+     */
+    private static final int OVERSAMPLING = 16;
+
+    /**
+     * 每个线程对应的桶数: 桶多于线程数, 使工作窃取可以平衡大小不一的桶
+     */
+    private static final int BUCKETS_PER_THREAD = 4;
+
+    /**
+     * 桶数的上限(桶号使用byte保存)
+     */
+    static final int MAX_BUCKETS = 256;
+
+    /**
+     * 每个桶的期望最小长度
+     */
+    private static final int MIN_BUCKET_SIZE = 1 << 12;
+
+    /**
+     * 分类和移动时每一块的最小长度
+     */
+    private static final int MIN_CHUNK = 1 << 14;
+
+    private ParallelSampleSort() {
+    }
+
+    /**
+     * 并行样本排序(使用公共线程池)
+     */
+    public static <K extends Comparable<K>> void parallelSort(K[] a) {
+        parallelSort(a, Comparator.naturalOrder(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 并行样本排序(使用指定的线程池)
+     */
+    public static <K extends Comparable<K>> void parallelSort(K[] a, ForkJoinPool pool) {
+        parallelSort(a, Comparator.naturalOrder(), pool);
+    }
+
+    /**
+     * 使用比较器c的并行样本排序(使用公共线程池)
+     */
+    public static <T> void parallelSort(T[] a, Comparator<? super T> c) {
+        parallelSort(a, c, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 使用比较器c的并行样本排序
+     *
+     * @param a    待排序数组
+     * @param c    比较器
+     * @param pool 执行排序的线程池
+     */
+    public static <T> void parallelSort(T[] a, Comparator<? super T> c, ForkJoinPool pool) {
+        if (a.length < SEQUENTIAL_THRESHOLD) {
+            IntroSort.sort(a, c);
+            return;
+        }
+        pool.invoke(new SampleSortTask<>(a, c, buckets(a.length, pool.getParallelism())));
+    }
+
+    /**
+     * 桶数: 2的幂, 约为线程数的BUCKETS_PER_THREAD倍, 且每个桶的期望长度不小于MIN_BUCKET_SIZE
+     */
+    static int buckets(int n, int parallelism) {
+        int b = Math.min(parallelism * BUCKETS_PER_THREAD, n / MIN_BUCKET_SIZE);
+        return Math.max(2, Math.min(MAX_BUCKETS, Integer.highestOneBit(Math.max(b, 1))));
+    }
+
+    /**
+     * 同时执行一组任务并等待全部完成
+     */
+    private static void runAll(List<Runnable> actions) {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(actions.size());
+        for (Runnable action : actions) {
+            tasks.add(ForkJoinTask.adapt(action));
+        }
+        ForkJoinTask.invokeAll(tasks);
+    }
+
+    /**
+     * 长度为n的数组切分的块数: 不超过当前线程池的并行度, 且每块不少于MIN_CHUNK
+     */
+    private static int chunks(int n) {
+        ForkJoinPool pool = ForkJoinTask.getPool();
+        int parallelism = pool != null ? pool.getParallelism() : ForkJoinPool.getCommonPoolParallelism();
+        return Math.max(1, Math.min(parallelism, n / MIN_CHUNK));
+    }
+
+    /**
+     * 选取b-1个分割元素, 按Eytzinger布局放入tree[1...b-1]
+     */
+    static <T> T[] splitters(T[] a, int b, Comparator<? super T> c) {
+        int n = a.length, m = b * OVERSAMPLING;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        T[] sample = Arrays.copyOf(a, m);
+        for (int i = 0; i < m; i++) {
+            sample[i] = a[random.nextInt(n)];
+        }
+        IntroSort.sort(sample, c);
+
+        T[] tree = Arrays.copyOf(a, b);
+        tree[0] = null;
+        fill(tree, sample, 1, 0, b - 1);
+        return tree;
+    }
+
+    /**
+     * 中序遍历树结点j, 依次放入第rank个分割元素(第rank个分割元素为sample[(rank+1) * OVERSAMPLING - 1]), 返回下一个rank
+     */
+    private static <T> int fill(T[] tree, T[] sample, int j, int rank, int b) {
+        if (j > b) return rank;
+        rank = fill(tree, sample, 2 * j, rank, b);
+        tree[j] = sample[(rank + 1) * OVERSAMPLING - 1];
+        return fill(tree, sample, 2 * j + 1, rank + 1, b);
+    }
+
+    /**
+     * 在分割元素树中查找x所属的桶: 不大于第i个分割元素且大于第i-1个的元素属于第i个桶
+     */
+    static <T> int classify(T[] tree, int b, T x, Comparator<? super T> c) {
+        int j = 1;
+        while (j < b) {
+            j = 2 * j + (c.compare(tree[j], x) < 0 ? 1 : 0);
+        }
+        return j - b;
+    }
+
+    private static class SampleSortTask<T> extends RecursiveAction {
+
+        private final T[] a;
+
+        private final Comparator<? super T> c;
+
+        private final int b;
+
+        SampleSortTask(T[] a, Comparator<? super T> c, int b) {
+            this.a = a;
+            this.c = c;
+            this.b = b;
+        }
+
+        @Override
+        protected void compute() {
+            int n = a.length;
+            T[] tree = splitters(a, b, c);
+
+            // 1.每一块并行分类, 记录桶号并统计直方图
+            int p = chunks(n);
+            byte[] bucketOf = new byte[n];
+            int[][] count = new int[p][b];
+            List<Runnable> actions = new ArrayList<>(p);
+            for (int t = 0; t < p; t++) {
+                int[] cnt = count[t];
+                int from = (int) ((long) n * t / p), to = (int) ((long) n * (t + 1) / p);
+                actions.add(() -> {
+                    for (int i = from; i < to; i++) {
+                        int k = classify(tree, b, a[i], c);
+                        bucketOf[i] = (byte) k;
+                        cnt[k]++;
+                    }
+                });
+            }
+            runAll(actions);
+
+            // 2.全局前缀和, 同时记录每个桶的边界
+            int[] bucket = new int[b + 1];
+            for (int k = 0, pos = 0; k < b; k++) {
+                for (int t = 0; t < p; t++) {
+                    int size = count[t][k];
+                    count[t][k] = pos;
+                    pos += size;
+                }
+                bucket[k + 1] = pos;
+            }
+
+            // 3.各块按照自己的起始位置并行移动到辅助数组
+            T[] aux = (T[]) Array.newInstance(a.getClass().getComponentType(), n);
+            actions.clear();
+            for (int t = 0; t < p; t++) {
+                int[] offset = count[t];
+                int from = (int) ((long) n * t / p), to = (int) ((long) n * (t + 1) / p);
+                actions.add(() -> {
+                    for (int i = from; i < to; i++) {
+                        aux[offset[bucketOf[i] & 0xFF]++] = a[i];
+                    }
+                });
+            }
+            runAll(actions);
+
+            // 4.各桶拷贝回原数组并行排序
+            actions.clear();
+            for (int k = 0; k < b; k++) {
+                int from = bucket[k], to = bucket[k + 1];
+                if (from < to) {
+                    actions.add(() -> {
+                        System.arraycopy(aux, from, a, from, to - from);
+                        IntroSort.sort(a, from, to - 1, IntroSort.depthLimit(to - from), c);
+                    });
+                }
+            }
+            runAll(actions);
+        }
+    }
+
+}
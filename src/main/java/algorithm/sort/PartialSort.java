@@ -0,0 +1,405 @@
+package algorithm.sort;
+
+import java.util.Comparator;
+
+/**
+ * 部分排序与选择
+ * <p>
+ * 只需要最小(或最大)的k个元素, 或者排序后第k个位置的元素时, 不需要将整个数组排序:
+ * <p>
+ * - 1.nthElement(a, k): 快速选择(Quickselect), 基于QuickSort的切分, 每次只在包含第k个位置的一侧继续切分, 平均时间O(N);
+ * 切分次数超过2lgN时说明轴选择得很差, 改用中位数的中位数(median of medians)选轴, 保证最坏时间为O(N)
+ * <p>
+ * - 2.partialSort(a, k): 先选出第k-1个元素, 使最小的k个元素位于a[0...k-1], 再对这k个元素进行内省排序, 时间O(N + klgk)
+ * <p>
+ * 需要最大的k个元素时可以使用逆序的比较器; 对于数据流(元素个数未知或无法全部放入内存), 使用TopK
+ * <p>
+ * 部分排序和选择都不是稳定的
+ * <p>
+ * 另外为int[], long[], double[], float[]提供了基本类型的重载: 直接使用<比较, 不装箱也不调用compareTo;
+ * double[]和float[]先将NaN移到末尾(与Arrays.sort()相同), 只在其余元素之间使用<比较
+ *
+ * @author zk
+ */
+public class PartialSort extends BaseSort {
+
+    /**
+     * 子数组切换为插排的阈值
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private PartialSort() {
+    }
+
+    public static <K extends Comparable<K>> K nthElement(K[] a, int k) {
+        return nthElement(a, k, Comparator.naturalOrder());
+    }
+
+    /**
+     * 使用比较器c选出数组a中第k小(从0开始)的元素, 并使a[0...k-1] <= a[k] <= a[k+1...]
+     *
+     * @param a 数组
+     * @param k 排序后的位置
+     * @param c 比较器
+     * @return 排序后位于a[k]的元素
+     */
+    public static <T> T nthElement(T[] a, int k, Comparator<? super T> c) {
+        checkIndex(k, a.length);
+        select(a, 0, a.length - 1, k, c);
+        return a[k];
+    }
+
+    public static <K extends Comparable<K>> void partialSort(K[] a, int k) {
+        partialSort(a, k, Comparator.naturalOrder());
+    }
+
+    /**
+     * 使用比较器c将数组a中最小的k个元素按顺序放到a[0...k-1], 其余元素的顺序未定义
+     *
+     * @param a 数组
+     * @param k 需要的元素个数
+     * @param c 比较器
+     */
+    public static <T> void partialSort(T[] a, int k, Comparator<? super T> c) {
+        checkCount(k, a.length);
+        if (k == 0) return;
+        int hi = k - 1;
+        if (k < a.length) {
+            select(a, 0, a.length - 1, k - 1, c);
+            // a[k-1]已经在最终位置, 只需排序a[0...k-2]
+            hi--;
+        }
+        IntroSort.sort(a, 0, hi, IntroSort.depthLimit(hi + 1), c);
+    }
+
+    /**
+     * 在a[lo...hi]中选择第k个元素(k为绝对位置)
+     * <p>
+     * 结束后a[k]为排序后的元素, a[lo...k-1] <= a[k] <= a[k+1...hi]
+     */
+    static <T> void select(T[] a, int lo, int hi, int k, Comparator<? super T> c) {
+        select(a, lo, hi, k, IntroSort.depthLimit(hi - lo + 1), c);
+    }
+
+    /**
+     * @param budget 允许的三取样切分次数, 用尽后改用中位数的中位数选轴
+     */
+    static <T> void select(T[] a, int lo, int hi, int k, int budget, Comparator<? super T> c) {
+        while (hi - lo + 1 > INSERTION_SORT_THRESHOLD) {
+            int j;
+            if (budget-- > 0) {
+                j = QuickSort.advancedPartition(a, lo, hi, c);
+            } else {
+                exch(a, lo, medianOfMedians(a, lo, hi, c));
+                j = QuickSort.pivotPartition(a, lo, hi, c);
+            }
+
+            if (j == k) return;
+            if (k < j) hi = j - 1;
+            else lo = j + 1;
+        }
+        InsertionSort.sort(a, lo, hi, c);
+    }
+
+    /**
+     * 中位数的中位数: 每5个元素一组取中位数并移到a[lo...]前部, 再递归地选出这些中位数的中位数, 返回其位置
+     * <p>
+     * 以它为轴切分时, 两侧都至少有约3/10的元素, 因此选择的最坏时间为O(N)
+     */
+    private static <T> int medianOfMedians(T[] a, int lo, int hi, Comparator<? super T> c) {
+        int store = lo;
+        for (int i = lo; i <= hi; i += 5) {
+            int end = Math.min(i + 4, hi);
+            InsertionSort.sort(a, i, end, c);
+            exch(a, store++, i + (end - i) / 2);
+        }
+        int mid = lo + (store - 1 - lo) / 2;
+        select(a, lo, store - 1, mid, c);
+        return mid;
+    }
+
+    private static void checkIndex(int k, int length) {
+        if (k < 0 || k >= length) {
+            throw new IllegalArgumentException("k " + k + " out of range [0, " + length + ")");
+        }
+    }
+
+    private static void checkCount(int k, int length) {
+        if (k < 0 || k > length) {
+            throw new IllegalArgumentException("k " + k + " out of range [0, " + length + "]");
+        }
+    }
+
+    /**
+     * 选出int数组a中第k小(从0开始)的元素, 并使a[0...k-1] <= a[k] <= a[k+1...]
+     *
+     * @param a 数组
+     * @param k 排序后的位置
+     * @return 排序后位于a[k]的元素
+     */
+    public static int nthElement(int[] a, int k) {
+        checkIndex(k, a.length);
+        select(a, 0, a.length - 1, k);
+        return a[k];
+    }
+
+    /**
+     * 将int数组a中最小的k个元素按顺序放到a[0...k-1], 其余元素的顺序未定义
+     */
+    public static void partialSort(int[] a, int k) {
+        checkCount(k, a.length);
+        if (k == 0) return;
+        int hi = k - 1;
+        if (k < a.length) {
+            select(a, 0, a.length - 1, k - 1);
+            hi--;
+        }
+        IntroSort.sort(a, 0, hi, IntroSort.depthLimit(hi + 1));
+    }
+
+    /**
+     * 在a[lo...hi]中选择第k个元素(k为绝对位置)
+     */
+    static void select(int[] a, int lo, int hi, int k) {
+        select(a, lo, hi, k, IntroSort.depthLimit(hi - lo + 1));
+    }
+
+    static void select(int[] a, int lo, int hi, int k, int budget) {
+        while (hi - lo + 1 > INSERTION_SORT_THRESHOLD) {
+            int j;
+            if (budget-- > 0) {
+                j = QuickSort.advancedPartition(a, lo, hi);
+            } else {
+                exch(a, lo, medianOfMedians(a, lo, hi));
+                j = QuickSort.pivotPartition(a, lo, hi);
+            }
+
+            if (j == k) return;
+            if (k < j) hi = j - 1;
+            else lo = j + 1;
+        }
+        InsertionSort.sort(a, lo, hi);
+    }
+
+    /**
+     * 中位数的中位数: 每5个元素一组取中位数并移到a[lo...]前部, 再递归地选出这些中位数的中位数, 返回其位置
+     */
+    private static int medianOfMedians(int[] a, int lo, int hi) {
+        int store = lo;
+        for (int i = lo; i <= hi; i += 5) {
+            int end = Math.min(i + 4, hi);
+            InsertionSort.sort(a, i, end);
+            exch(a, store++, i + (end - i) / 2);
+        }
+        int mid = lo + (store - 1 - lo) / 2;
+        select(a, lo, store - 1, mid);
+        return mid;
+    }
+
+    /**
+     * 选出long数组a中第k小(从0开始)的元素, 并使a[0...k-1] <= a[k] <= a[k+1...]
+     *
+     * @param a 数组
+     * @param k 排序后的位置
+     * @return 排序后位于a[k]的元素
+     */
+    public static long nthElement(long[] a, int k) {
+        checkIndex(k, a.length);
+        select(a, 0, a.length - 1, k);
+        return a[k];
+    }
+
+    /**
+     * 将long数组a中最小的k个元素按顺序放到a[0...k-1], 其余元素的顺序未定义
+     */
+    public static void partialSort(long[] a, int k) {
+        checkCount(k, a.length);
+        if (k == 0) return;
+        int hi = k - 1;
+        if (k < a.length) {
+            select(a, 0, a.length - 1, k - 1);
+            hi--;
+        }
+        IntroSort.sort(a, 0, hi, IntroSort.depthLimit(hi + 1));
+    }
+
+    /**
+     * 在a[lo...hi]中选择第k个元素(k为绝对位置)
+     */
+    static void select(long[] a, int lo, int hi, int k) {
+        select(a, lo, hi, k, IntroSort.depthLimit(hi - lo + 1));
+    }
+
+    static void select(long[] a, int lo, int hi, int k, int budget) {
+        while (hi - lo + 1 > INSERTION_SORT_THRESHOLD) {
+            int j;
+            if (budget-- > 0) {
+                j = QuickSort.advancedPartition(a, lo, hi);
+            } else {
+                exch(a, lo, medianOfMedians(a, lo, hi));
+                j = QuickSort.pivotPartition(a, lo, hi);
+            }
+
+            if (j == k) return;
+            if (k < j) hi = j - 1;
+            else lo = j + 1;
+        }
+        InsertionSort.sort(a, lo, hi);
+    }
+
+    /**
+     * 中位数的中位数: 每5个元素一组取中位数并移到a[lo...]前部, 再递归地选出这些中位数的中位数, 返回其位置
+     */
+    private static int medianOfMedians(long[] a, int lo, int hi) {
+        int store = lo;
+        for (int i = lo; i <= hi; i += 5) {
+            int end = Math.min(i + 4, hi);
+            InsertionSort.sort(a, i, end);
+            exch(a, store++, i + (end - i) / 2);
+        }
+        int mid = lo + (store - 1 - lo) / 2;
+        select(a, lo, store - 1, mid);
+        return mid;
+    }
+
+    /**
+     * 选出double数组a中第k小(从0开始)的元素, 并使a[0...k-1] <= a[k] <= a[k+1...]
+     *
+     * @param a 数组
+     * @param k 排序后的位置
+     * @return 排序后位于a[k]的元素
+     */
+    public static double nthElement(double[] a, int k) {
+        checkIndex(k, a.length);
+        // NaN先移到末尾, 只在其余元素中选择; k落在NaN的位置时结果为NaN
+        int hi = moveNaNsToEnd(a, 0, a.length - 1);
+        if (k <= hi) select(a, 0, hi, k);
+        return a[k];
+    }
+
+    /**
+     * 将double数组a中最小的k个元素按顺序放到a[0...k-1], 其余元素的顺序未定义
+     */
+    public static void partialSort(double[] a, int k) {
+        checkCount(k, a.length);
+        // NaN先移到末尾: 前k个位置中只有前m个需要排序, 其余为NaN
+        int n = moveNaNsToEnd(a, 0, a.length - 1) + 1, m = Math.min(k, n);
+        if (m == 0) return;
+        int hi = m - 1;
+        if (m < n) {
+            select(a, 0, n - 1, m - 1);
+            hi--;
+        }
+        IntroSort.sort(a, 0, hi, IntroSort.depthLimit(hi + 1));
+    }
+
+    /**
+     * 在a[lo...hi]中选择第k个元素(k为绝对位置)
+     */
+    static void select(double[] a, int lo, int hi, int k) {
+        select(a, lo, hi, k, IntroSort.depthLimit(hi - lo + 1));
+    }
+
+    static void select(double[] a, int lo, int hi, int k, int budget) {
+        while (hi - lo + 1 > INSERTION_SORT_THRESHOLD) {
+            int j;
+            if (budget-- > 0) {
+                j = QuickSort.advancedPartition(a, lo, hi);
+            } else {
+                exch(a, lo, medianOfMedians(a, lo, hi));
+                j = QuickSort.pivotPartition(a, lo, hi);
+            }
+
+            if (j == k) return;
+            if (k < j) hi = j - 1;
+            else lo = j + 1;
+        }
+        InsertionSort.sort(a, lo, hi);
+    }
+
+    /**
+     * 中位数的中位数: 每5个元素一组取中位数并移到a[lo...]前部, 再递归地选出这些中位数的中位数, 返回其位置
+     */
+    private static int medianOfMedians(double[] a, int lo, int hi) {
+        int store = lo;
+        for (int i = lo; i <= hi; i += 5) {
+            int end = Math.min(i + 4, hi);
+            InsertionSort.sort(a, i, end);
+            exch(a, store++, i + (end - i) / 2);
+        }
+        int mid = lo + (store - 1 - lo) / 2;
+        select(a, lo, store - 1, mid);
+        return mid;
+    }
+
+    /**
+     * 选出float数组a中第k小(从0开始)的元素, 并使a[0...k-1] <= a[k] <= a[k+1...]
+     *
+     * @param a 数组
+     * @param k 排序后的位置
+     * @return 排序后位于a[k]的元素
+     */
+    public static float nthElement(float[] a, int k) {
+        checkIndex(k, a.length);
+        // NaN先移到末尾, 只在其余元素中选择; k落在NaN的位置时结果为NaN
+        int hi = moveNaNsToEnd(a, 0, a.length - 1);
+        if (k <= hi) select(a, 0, hi, k);
+        return a[k];
+    }
+
+    /**
+     * 将float数组a中最小的k个元素按顺序放到a[0...k-1], 其余元素的顺序未定义
+     */
+    public static void partialSort(float[] a, int k) {
+        checkCount(k, a.length);
+        // NaN先移到末尾: 前k个位置中只有前m个需要排序, 其余为NaN
+        int n = moveNaNsToEnd(a, 0, a.length - 1) + 1, m = Math.min(k, n);
+        if (m == 0) return;
+        int hi = m - 1;
+        if (m < n) {
+            select(a, 0, n - 1, m - 1);
+            hi--;
+        }
+        IntroSort.sort(a, 0, hi, IntroSort.depthLimit(hi + 1));
+    }
+
+    /**
+     * 在a[lo...hi]中选择第k个元素(k为绝对位置)
+     */
+    static void select(float[] a, int lo, int hi, int k) {
+        select(a, lo, hi, k, IntroSort.depthLimit(hi - lo + 1));
+    }
+
+    static void select(float[] a, int lo, int hi, int k, int budget) {
+        while (hi - lo + 1 > INSERTION_SORT_THRESHOLD) {
+            int j;
+            if (budget-- > 0) {
+                j = QuickSort.advancedPartition(a, lo, hi);
+            } else {
+                exch(a, lo, medianOfMedians(a, lo, hi));
+                j = QuickSort.pivotPartition(a, lo, hi);
+            }
+
+            if (j == k) return;
+            if (k < j) hi = j - 1;
+            else lo = j + 1;
+        }
+        InsertionSort.sort(a, lo, hi);
+    }
+
+    /**
+     * 中位数的中位数: 每5个元素一组取中位数并移到a[lo...]前部, 再递归地选出这些中位数的中位数, 返回其位置
+     */
+    private static int medianOfMedians(float[] a, int lo, int hi) {
+        int store = lo;
+        for (int i = lo; i <= hi; i += 5) {
+            int end = Math.min(i + 4, hi);
+            InsertionSort.sort(a, i, end);
+            exch(a, store++, i + (end - i) / 2);
+        }
+        int mid = lo + (store - 1 - lo) / 2;
+        select(a, lo, store - 1, mid);
+        return mid;
+    }
+
+}
@@ -2,6 +2,10 @@ package algorithm.sort;
 
 import algorithm.util.random.StdRandom;
 
+import java.util.Comparator;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
 /**
  * 快速排序
  * <p>
@@ -25,6 +29,16 @@ import algorithm.util.random.StdRandom;
  * <p>
  * 2.选择合适的key(轴元素), 如使用left, mid, right的中位数
  * (为了保证排序的统一性, 可以将中位数和最左侧left元素交换, 从而保证排序算法不变)
+ * <p>
+ * 另外为int[], long[], double[], float[]提供了基本类型的重载: 直接使用<比较, 不装箱也不调用compareTo;
+ * double[]和float[]排序前先将NaN移到末尾(与Arrays.sort()相同), 其余元素之间才使用<比较
+ * <p>
+ * 除单轴的Hoare切分, 挖坑法和三向切分外, 还提供了双轴快排dualPivotSort()和消除分支预测失败的块切分快排blockSort()
+ * <p>
+ * 注意: advancedSort()没有打乱数组, 也没有限制递归深度, 对于逆序等特殊输入会退化为O(N^2)甚至栈溢出, 需要最坏情况保证时请使用IntroSort;
+ * 基本类型的threeWaySort()和blockSort()限制了递归深度(超过后改为堆排序), 最坏时间O(NlgN), 栈深度O(lgN)
+ * <p>
+ * 记录可以通过Comparator排序; 若能提取出int/long键, 使用sortByIntKey()/sortByLongKey()仅比较基本类型键, 速度更快
  *
  * @author zk
  */
@@ -35,6 +49,11 @@ public class QuickSort extends BaseSort {
      */
     private static final int INSERTION_SORT_THRESHOLD = 8;
 
+    /**
+     * 块切分时每个块的大小
+     */
+    private static final int BLOCK = 128;
+
     private QuickSort() {
     }
 
@@ -227,7 +246,7 @@ public class QuickSort extends BaseSort {
      *
      * @return 中位数元素index
      */
-    private static <K extends Comparable<K>> int median3(K[] a, int i, int j, int k) {
+    static <K extends Comparable<K>> int median3(K[] a, int i, int j, int k) {
         return (less(a[i], a[j]) ?
                 (less(a[j], a[k]) ? j : less(a[i], a[k]) ? k : i) :
                 (less(a[k], a[j]) ? j : less(a[k], a[i]) ? k : i));
@@ -320,7 +339,7 @@ public class QuickSort extends BaseSort {
      * @param lo 排序左边界
      * @param hi 排序右边界
      */
-    private static <K extends Comparable<K>> void threeWaySort(K[] a, int lo, int hi) {
+    static <K extends Comparable<K>> void threeWaySort(K[] a, int lo, int hi) {
         if (hi <= lo) return;
 
         // 子数组长度小于阈值, 使用插排
@@ -350,4 +369,1162 @@ public class QuickSort extends BaseSort {
         threeWaySort(a, gt + 1, hi);
     }
 
+    /**
+     * 双轴快排(Yaroslavskiy): 选择两个轴p <= q, 将数组切分为 < p, [p, q], > q 三部分
+     * <p>
+     * 两个轴取子数组三等分点处的元素, 因此有序和逆序的输入也能被均匀切分;
+     * 每轮切分之后子数组的规模缩小为约1/3, 且每个元素平均被移动的次数少于单轴快排;
+     * 与blockSort()相同, 切分深度超过2lgN时改用堆排序
+     */
+    public static <K extends Comparable<K>> void dualPivotSort(K[] a) {
+        dualPivotSort(a, 0, a.length - 1, IntroSort.depthLimit(a.length));
+    }
+
+    static <K extends Comparable<K>> void dualPivotSort(K[] a, int lo, int hi, int depth) {
+        if (hi - lo + 1 <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(a, lo, hi);
+            return;
+        }
+        if (depth-- == 0) {
+            HeapSort.sort(a, lo, hi, Comparator.naturalOrder());
+            return;
+        }
+
+        // 以三等分点处的两个元素作为轴, 较小的放在a[lo], 较大的放在a[hi]
+        int third = (hi - lo) / 3;
+        int m1 = lo + third, m2 = hi - third;
+        if (less(a[m2], a[m1])) {
+            exch(a, m1, hi);
+            exch(a, m2, lo);
+        } else {
+            exch(a, m1, lo);
+            exch(a, m2, hi);
+        }
+        K p = a[lo], q = a[hi];
+
+        // a[lo+1...lt-1] < p, p <= a[lt...i-1] <= q, a[gt+1...hi-1] > q
+        int lt = lo + 1, gt = hi - 1, i = lo + 1;
+        while (i <= gt) {
+            if (less(a[i], p)) exch(a, lt++, i++);
+            else if (less(q, a[i])) exch(a, i, gt--);
+            else i++;
+        }
+        exch(a, lo, --lt);
+        exch(a, hi, ++gt);
+
+        dualPivotSort(a, lo, lt - 1, depth);
+        // 两个轴相等时中间部分全部等于轴, 无需排序
+        if (less(p, q)) dualPivotSort(a, lt + 1, gt - 1, depth);
+        dualPivotSort(a, gt + 1, hi, depth);
+    }
+
+    /**
+     * 块切分快排(BlockQuicksort):
+     * <p>
+     * 普通的Hoare切分中, 每次比较后是否交换取决于比较结果, 对于随机数据分支预测失败的概率接近1/2;
+     * 块切分先对左右两侧各BLOCK个元素只做比较, 把需要交换的元素的偏移量记录到缓冲区中(不使用分支),
+     * 然后再统一交换, 从而消除了比较与交换之间的条件分支
+     * <p>
+     * 左侧记录不小于轴的元素, 右侧记录不大于轴的元素, 与Hoare切分相同, 大量重复的元素也能被均匀切分;
+     * 切分深度超过2lgN时改用堆排序(同IntroSort)
+     */
+    public static <K extends Comparable<K>> void blockSort(K[] a) {
+        blockSort(a, 0, a.length - 1, IntroSort.depthLimit(a.length), new int[BLOCK], new int[BLOCK]);
+    }
+
+    private static <K extends Comparable<K>> void blockSort(K[] a, int lo, int hi, int depth, int[] offL, int[] offR) {
+        while (hi - lo + 1 > INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                HeapSort.sort(a, lo, hi, Comparator.naturalOrder());
+                return;
+            }
+
+            int j = blockPartition(a, lo, hi, offL, offR);
+            // 此时, a[lo .. j-1] <= key <= a[j .. hi]
+            if (j - lo < hi - j) {
+                blockSort(a, lo, j - 1, depth, offL, offR);
+                lo = j;
+            } else {
+                blockSort(a, j, hi, depth, offL, offR);
+                hi = j - 1;
+            }
+        }
+        insertionSort(a, lo, hi);
+    }
+
+    /**
+     * 以三取样中位数的值为轴进行块切分, 返回切分位置j: a[lo...j-1] <= key <= a[j...hi]
+     */
+    private static <K extends Comparable<K>> int blockPartition(K[] a, int lo, int hi, int[] offL, int[] offR) {
+        K key = a[median3(a, lo, lo + (hi - lo) / 2, hi)];
+
+        // 未处理的区间为a[l...r]
+        int l = lo, r = hi;
+        int numL = 0, numR = 0, startL = 0, startR = 0;
+        while (r - l + 1 > 2 * BLOCK) {
+            // 左侧块: 记录不小于key的元素的偏移量
+            if (numL == 0) {
+                startL = 0;
+                for (int k = 0; k < BLOCK; k++) {
+                    offL[numL] = k;
+                    numL += less(a[l + k], key) ? 0 : 1;
+                }
+            }
+            // 右侧块: 记录不大于key的元素的偏移量
+            if (numR == 0) {
+                startR = 0;
+                for (int k = 0; k < BLOCK; k++) {
+                    offR[numR] = k;
+                    numR += less(key, a[r - k]) ? 0 : 1;
+                }
+            }
+
+            // 统一交换
+            int num = Math.min(numL, numR);
+            for (int k = 0; k < num; k++) {
+                exch(a, l + offL[startL + k], r - offR[startR + k]);
+            }
+            numL -= num;
+            numR -= num;
+            startL += num;
+            startR += num;
+
+            // 块中需要交换的元素都已处理完毕
+            if (numL == 0) l += BLOCK;
+            if (numR == 0) r -= BLOCK;
+        }
+
+        // 剩余不超过两个块(以及未处理完的块), 使用带边界检查的Hoare切分
+        while (true) {
+            while (l <= r && less(a[l], key)) l++;
+            while (l <= r && less(key, a[r])) r--;
+            if (l >= r) break;
+            exch(a, l++, r--);
+        }
+        return l;
+    }
+
+    /**
+     * 使用比较器c的优化快排
+     *
+     * @param a 待排序数组
+     * @param c 比较器
+     */
+    public static <T> void advancedSort(T[] a, Comparator<? super T> c) {
+        advancedSort(a, 0, a.length - 1, c);
+    }
+
+    private static <T> void advancedSort(T[] a, int lo, int hi, Comparator<? super T> c) {
+        if (hi - lo + 1 <= INSERTION_SORT_THRESHOLD) {
+            InsertionSort.sort(a, lo, hi, c);
+            return;
+        }
+
+        int j = advancedPartition(a, lo, hi, c);
+        advancedSort(a, lo, j - 1, c);
+        advancedSort(a, j + 1, hi, c);
+    }
+
+    static <T> int advancedPartition(T[] a, int lo, int hi, Comparator<? super T> c) {
+        int n = hi - lo + 1, m = median3(a, lo, lo + n / 2, hi, c);
+        exch(a, m, lo);
+        return pivotPartition(a, lo, hi, c);
+    }
+
+    /**
+     * 切分: 以a[lo]为轴, 将a[lo...hi]切分为a[lo...j-1] <= a[j] <= a[j+1...hi], 返回j
+     * <p>
+     * 左右指针遇到等于轴的元素都会停下交换, 因此大量重复的元素也能被均匀切分
+     */
+    static <T> int pivotPartition(T[] a, int lo, int hi, Comparator<? super T> c) {
+        int i = lo, j = hi + 1;
+        T key = a[lo];
+
+        while (less(a[++i], key, c)) {
+            if (i == hi) {
+                exch(a, lo, hi);
+                return hi;
+            }
+        }
+
+        while (less(key, a[--j], c)) {
+            if (j == lo + 1) return lo;
+        }
+
+        while (i < j) {
+            exch(a, i, j);
+            while (less(a[++i], key, c)) ;
+            while (less(key, a[--j], c)) ;
+        }
+
+        exch(a, lo, j);
+        return j;
+    }
+
+    private static <T> int median3(T[] a, int i, int j, int k, Comparator<? super T> c) {
+        return (less(a[i], a[j], c) ?
+                (less(a[j], a[k], c) ? j : less(a[i], a[k], c) ? k : i) :
+                (less(a[k], a[j], c) ? j : less(a[k], a[i], c) ? k : i));
+    }
+
+    /**
+     * 按照记录的int键进行排序(不稳定)
+     * <p>
+     * 预先将每个记录的键提取到int数组中, 切分时仅比较基本类型的键, 交换时记录随键一起交换
+     *
+     * @param a   待排序数组
+     * @param key 键提取函数
+     */
+    public static <T> void sortByIntKey(T[] a, ToIntFunction<? super T> key) {
+        int len = a.length;
+        int[] keys = new int[len];
+        for (int i = 0; i < len; i++) {
+            keys[i] = key.applyAsInt(a[i]);
+        }
+        sort(keys, a, 0, len - 1);
+    }
+
+    /**
+     * 对键数组keys进行快排, 记录数组a随键一起交换
+     * <p>
+     * 以三取样中位数的值为轴进行Hoare切分: 左右指针遇到等于轴的键都会停下交换,
+     * 因此有序、逆序以及大量重复的键都能被均匀切分
+     * <p>
+     * 先递归较小的一侧, 较大的一侧在循环中继续切分, 保证栈深度不超过O(lgN)
+     */
+    private static void sort(int[] keys, Object[] a, int lo, int hi) {
+        while (hi - lo + 1 > INSERTION_SORT_THRESHOLD) {
+            int key = keys[median3(keys, lo, lo + (hi - lo) / 2, hi)];
+
+            int i = lo - 1, j = hi + 1;
+            while (true) {
+                while (keys[++i] < key) ;
+                while (key < keys[--j]) ;
+                if (i >= j) break;
+                exch(keys, i, j);
+                exch(a, i, j);
+            }
+
+            // 此时, keys[lo .. j] <= key <= keys[j+1 .. hi]
+            if (j - lo < hi - j) {
+                sort(keys, a, lo, j);
+                lo = j + 1;
+            } else {
+                sort(keys, a, j + 1, hi);
+                hi = j;
+            }
+        }
+        InsertionSort.sort(keys, a, lo, hi);
+    }
+
+    /**
+     * 按照记录的long键进行排序(不稳定)
+     * <p>
+     * 预先将每个记录的键提取到long数组中, 切分时仅比较基本类型的键, 交换时记录随键一起交换
+     *
+     * @param a   待排序数组
+     * @param key 键提取函数
+     */
+    public static <T> void sortByLongKey(T[] a, ToLongFunction<? super T> key) {
+        int len = a.length;
+        long[] keys = new long[len];
+        for (int i = 0; i < len; i++) {
+            keys[i] = key.applyAsLong(a[i]);
+        }
+        sort(keys, a, 0, len - 1);
+    }
+
+    /**
+     * 对键数组keys进行快排, 记录数组a随键一起交换
+     * <p>
+     * 以三取样中位数的值为轴进行Hoare切分: 左右指针遇到等于轴的键都会停下交换,
+     * 因此有序、逆序以及大量重复的键都能被均匀切分
+     * <p>
+     * 先递归较小的一侧, 较大的一侧在循环中继续切分, 保证栈深度不超过O(lgN)
+     */
+    private static void sort(long[] keys, Object[] a, int lo, int hi) {
+        while (hi - lo + 1 > INSERTION_SORT_THRESHOLD) {
+            long key = keys[median3(keys, lo, lo + (hi - lo) / 2, hi)];
+
+            int i = lo - 1, j = hi + 1;
+            while (true) {
+                while (keys[++i] < key) ;
+                while (key < keys[--j]) ;
+                if (i >= j) break;
+                exch(keys, i, j);
+                exch(a, i, j);
+            }
+
+            // 此时, keys[lo .. j] <= key <= keys[j+1 .. hi]
+            if (j - lo < hi - j) {
+                sort(keys, a, lo, j);
+                lo = j + 1;
+            } else {
+                sort(keys, a, j + 1, hi);
+                hi = j;
+            }
+        }
+        InsertionSort.sort(keys, a, lo, hi);
+    }
+
+    /**
+     * int数组的优化快排(三取样切分 + 小数组插排)
+     */
+    public static void advancedSort(int[] a) {
+        advancedSort(a, 0, a.length - 1);
+    }
+
+    /**
+     * int数组的三向切分快排
+     */
+    public static void threeWaySort(int[] a) {
+        threeWaySort(a, 0, a.length - 1);
+    }
+
+    private static void advancedSort(int[] a, int lo, int hi) {
+        if (hi - lo + 1 <= INSERTION_SORT_THRESHOLD) {
+            InsertionSort.sort(a, lo, hi);
+            return;
+        }
+
+        int j = advancedPartition(a, lo, hi);
+        advancedSort(a, lo, j - 1);
+        advancedSort(a, j + 1, hi);
+    }
+
+    static int advancedPartition(int[] a, int lo, int hi) {
+        int n = hi - lo + 1, m = median3(a, lo, lo + n / 2, hi);
+        exch(a, m, lo);
+        return pivotPartition(a, lo, hi);
+    }
+
+    /**
+     * 切分: 以a[lo]为轴, 将a[lo...hi]切分为a[lo...j-1] <= a[j] <= a[j+1...hi], 返回j
+     * <p>
+     * 左右指针遇到等于轴的元素都会停下交换, 因此大量重复的元素也能被均匀切分
+     */
+    static int pivotPartition(int[] a, int lo, int hi) {
+        int i = lo, j = hi + 1;
+        int key = a[lo];
+
+        while (a[++i] < key) {
+            if (i == hi) {
+                exch(a, lo, hi);
+                return hi;
+            }
+        }
+
+        while (key < a[--j]) {
+            if (j == lo + 1) return lo;
+        }
+
+        while (i < j) {
+            exch(a, i, j);
+            while (a[++i] < key) ;
+            while (key < a[--j]) ;
+        }
+
+        exch(a, lo, j);
+        return j;
+    }
+
+    static int median3(int[] a, int i, int j, int k) {
+        return (a[i] < a[j] ?
+                (a[j] < a[k] ? j : a[i] < a[k] ? k : i) :
+                (a[k] < a[j] ? j : a[k] < a[i] ? k : i));
+    }
+
+    static void threeWaySort(int[] a, int lo, int hi) {
+        threeWaySort(a, lo, hi, IntroSort.depthLimit(hi - lo + 1));
+    }
+
+    /**
+     * 与blockSort()相同: 递归深度超过depth时改为堆排序, 只递归较短的一侧, 较长的一侧继续循环
+     */
+    static void threeWaySort(int[] a, int lo, int hi, int depth) {
+        while (hi - lo + 1 > INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                HeapSort.sort(a, lo, hi);
+                return;
+            }
+
+            int m = median3(a, lo, lo + (hi - lo + 1) / 2, hi);
+            exch(a, m, lo);
+
+            int lt = lo, gt = hi, i = lo + 1;
+            int key = a[lo];
+
+            while (i <= gt) {
+                if (a[i] < key) exch(a, lt++, i++);
+                else if (key < a[i]) exch(a, i, gt--);
+                else ++i;
+            }
+
+            if (lt - lo < hi - gt) {
+                threeWaySort(a, lo, lt - 1, depth);
+                lo = gt + 1;
+            } else {
+                threeWaySort(a, gt + 1, hi, depth);
+                hi = lt - 1;
+            }
+        }
+        InsertionSort.sort(a, lo, hi);
+    }
+
+    /**
+     * long数组的优化快排(三取样切分 + 小数组插排)
+     */
+    public static void advancedSort(long[] a) {
+        advancedSort(a, 0, a.length - 1);
+    }
+
+    /**
+     * long数组的三向切分快排
+     */
+    public static void threeWaySort(long[] a) {
+        threeWaySort(a, 0, a.length - 1);
+    }
+
+    private static void advancedSort(long[] a, int lo, int hi) {
+        if (hi - lo + 1 <= INSERTION_SORT_THRESHOLD) {
+            InsertionSort.sort(a, lo, hi);
+            return;
+        }
+
+        int j = advancedPartition(a, lo, hi);
+        advancedSort(a, lo, j - 1);
+        advancedSort(a, j + 1, hi);
+    }
+
+    static int advancedPartition(long[] a, int lo, int hi) {
+        int n = hi - lo + 1, m = median3(a, lo, lo + n / 2, hi);
+        exch(a, m, lo);
+        return pivotPartition(a, lo, hi);
+    }
+
+    /**
+     * 切分: 以a[lo]为轴, 将a[lo...hi]切分为a[lo...j-1] <= a[j] <= a[j+1...hi], 返回j
+     * <p>
+     * 左右指针遇到等于轴的元素都会停下交换, 因此大量重复的元素也能被均匀切分
+     */
+    static int pivotPartition(long[] a, int lo, int hi) {
+        int i = lo, j = hi + 1;
+        long key = a[lo];
+
+        while (a[++i] < key) {
+            if (i == hi) {
+                exch(a, lo, hi);
+                return hi;
+            }
+        }
+
+        while (key < a[--j]) {
+            if (j == lo + 1) return lo;
+        }
+
+        while (i < j) {
+            exch(a, i, j);
+            while (a[++i] < key) ;
+            while (key < a[--j]) ;
+        }
+
+        exch(a, lo, j);
+        return j;
+    }
+
+    static int median3(long[] a, int i, int j, int k) {
+        return (a[i] < a[j] ?
+                (a[j] < a[k] ? j : a[i] < a[k] ? k : i) :
+                (a[k] < a[j] ? j : a[k] < a[i] ? k : i));
+    }
+
+    static void threeWaySort(long[] a, int lo, int hi) {
+        threeWaySort(a, lo, hi, IntroSort.depthLimit(hi - lo + 1));
+    }
+
+    /**
+     * 与blockSort()相同: 递归深度超过depth时改为堆排序, 只递归较短的一侧, 较长的一侧继续循环
+     */
+    static void threeWaySort(long[] a, int lo, int hi, int depth) {
+        while (hi - lo + 1 > INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                HeapSort.sort(a, lo, hi);
+                return;
+            }
+
+            int m = median3(a, lo, lo + (hi - lo + 1) / 2, hi);
+            exch(a, m, lo);
+
+            int lt = lo, gt = hi, i = lo + 1;
+            long key = a[lo];
+
+            while (i <= gt) {
+                if (a[i] < key) exch(a, lt++, i++);
+                else if (key < a[i]) exch(a, i, gt--);
+                else ++i;
+            }
+
+            if (lt - lo < hi - gt) {
+                threeWaySort(a, lo, lt - 1, depth);
+                lo = gt + 1;
+            } else {
+                threeWaySort(a, gt + 1, hi, depth);
+                hi = lt - 1;
+            }
+        }
+        InsertionSort.sort(a, lo, hi);
+    }
+
+    /**
+     * double数组的优化快排(三取样切分 + 小数组插排)
+     */
+    public static void advancedSort(double[] a) {
+        advancedSort(a, 0, moveNaNsToEnd(a, 0, a.length - 1));
+    }
+
+    /**
+     * double数组的三向切分快排
+     */
+    public static void threeWaySort(double[] a) {
+        threeWaySort(a, 0, moveNaNsToEnd(a, 0, a.length - 1));
+    }
+
+    private static void advancedSort(double[] a, int lo, int hi) {
+        if (hi - lo + 1 <= INSERTION_SORT_THRESHOLD) {
+            InsertionSort.sort(a, lo, hi);
+            return;
+        }
+
+        int j = advancedPartition(a, lo, hi);
+        advancedSort(a, lo, j - 1);
+        advancedSort(a, j + 1, hi);
+    }
+
+    static int advancedPartition(double[] a, int lo, int hi) {
+        int n = hi - lo + 1, m = median3(a, lo, lo + n / 2, hi);
+        exch(a, m, lo);
+        return pivotPartition(a, lo, hi);
+    }
+
+    /**
+     * 切分: 以a[lo]为轴, 将a[lo...hi]切分为a[lo...j-1] <= a[j] <= a[j+1...hi], 返回j
+     * <p>
+     * 左右指针遇到等于轴的元素都会停下交换, 因此大量重复的元素也能被均匀切分
+     */
+    static int pivotPartition(double[] a, int lo, int hi) {
+        int i = lo, j = hi + 1;
+        double key = a[lo];
+
+        while (a[++i] < key) {
+            if (i == hi) {
+                exch(a, lo, hi);
+                return hi;
+            }
+        }
+
+        while (key < a[--j]) {
+            if (j == lo + 1) return lo;
+        }
+
+        while (i < j) {
+            exch(a, i, j);
+            while (a[++i] < key) ;
+            while (key < a[--j]) ;
+        }
+
+        exch(a, lo, j);
+        return j;
+    }
+
+    static int median3(double[] a, int i, int j, int k) {
+        return (a[i] < a[j] ?
+                (a[j] < a[k] ? j : a[i] < a[k] ? k : i) :
+                (a[k] < a[j] ? j : a[k] < a[i] ? k : i));
+    }
+
+    static void threeWaySort(double[] a, int lo, int hi) {
+        threeWaySort(a, lo, hi, IntroSort.depthLimit(hi - lo + 1));
+    }
+
+    /**
+     * 与blockSort()相同: 递归深度超过depth时改为堆排序, 只递归较短的一侧, 较长的一侧继续循环
+     */
+    static void threeWaySort(double[] a, int lo, int hi, int depth) {
+        while (hi - lo + 1 > INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                HeapSort.sort(a, lo, hi);
+                return;
+            }
+
+            int m = median3(a, lo, lo + (hi - lo + 1) / 2, hi);
+            exch(a, m, lo);
+
+            int lt = lo, gt = hi, i = lo + 1;
+            double key = a[lo];
+
+            while (i <= gt) {
+                if (a[i] < key) exch(a, lt++, i++);
+                else if (key < a[i]) exch(a, i, gt--);
+                else ++i;
+            }
+
+            if (lt - lo < hi - gt) {
+                threeWaySort(a, lo, lt - 1, depth);
+                lo = gt + 1;
+            } else {
+                threeWaySort(a, gt + 1, hi, depth);
+                hi = lt - 1;
+            }
+        }
+        InsertionSort.sort(a, lo, hi);
+    }
+
+    /**
+     * float数组的优化快排(三取样切分 + 小数组插排)
+     */
+    public static void advancedSort(float[] a) {
+        advancedSort(a, 0, moveNaNsToEnd(a, 0, a.length - 1));
+    }
+
+    /**
+     * float数组的三向切分快排
+     */
+    public static void threeWaySort(float[] a) {
+        threeWaySort(a, 0, moveNaNsToEnd(a, 0, a.length - 1));
+    }
+
+    private static void advancedSort(float[] a, int lo, int hi) {
+        if (hi - lo + 1 <= INSERTION_SORT_THRESHOLD) {
+            InsertionSort.sort(a, lo, hi);
+            return;
+        }
+
+        int j = advancedPartition(a, lo, hi);
+        advancedSort(a, lo, j - 1);
+        advancedSort(a, j + 1, hi);
+    }
+
+    static int advancedPartition(float[] a, int lo, int hi) {
+        int n = hi - lo + 1, m = median3(a, lo, lo + n / 2, hi);
+        exch(a, m, lo);
+        return pivotPartition(a, lo, hi);
+    }
+
+    /**
+     * 切分: 以a[lo]为轴, 将a[lo...hi]切分为a[lo...j-1] <= a[j] <= a[j+1...hi], 返回j
+     * <p>
+     * 左右指针遇到等于轴的元素都会停下交换, 因此大量重复的元素也能被均匀切分
+     */
+    static int pivotPartition(float[] a, int lo, int hi) {
+        int i = lo, j = hi + 1;
+        float key = a[lo];
+
+        while (a[++i] < key) {
+            if (i == hi) {
+                exch(a, lo, hi);
+                return hi;
+            }
+        }
+
+        while (key < a[--j]) {
+            if (j == lo + 1) return lo;
+        }
+
+        while (i < j) {
+            exch(a, i, j);
+            while (a[++i] < key) ;
+            while (key < a[--j]) ;
+        }
+
+        exch(a, lo, j);
+        return j;
+    }
+
+    static int median3(float[] a, int i, int j, int k) {
+        return (a[i] < a[j] ?
+                (a[j] < a[k] ? j : a[i] < a[k] ? k : i) :
+                (a[k] < a[j] ? j : a[k] < a[i] ? k : i));
+    }
+
+    static void threeWaySort(float[] a, int lo, int hi) {
+        threeWaySort(a, lo, hi, IntroSort.depthLimit(hi - lo + 1));
+    }
+
+    /**
+     * 与blockSort()相同: 递归深度超过depth时改为堆排序, 只递归较短的一侧, 较长的一侧继续循环
+     */
+    static void threeWaySort(float[] a, int lo, int hi, int depth) {
+        while (hi - lo + 1 > INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                HeapSort.sort(a, lo, hi);
+                return;
+            }
+
+            int m = median3(a, lo, lo + (hi - lo + 1) / 2, hi);
+            exch(a, m, lo);
+
+            int lt = lo, gt = hi, i = lo + 1;
+            float key = a[lo];
+
+            while (i <= gt) {
+                if (a[i] < key) exch(a, lt++, i++);
+                else if (key < a[i]) exch(a, i, gt--);
+                else ++i;
+            }
+
+            if (lt - lo < hi - gt) {
+                threeWaySort(a, lo, lt - 1, depth);
+                lo = gt + 1;
+            } else {
+                threeWaySort(a, gt + 1, hi, depth);
+                hi = lt - 1;
+            }
+        }
+        InsertionSort.sort(a, lo, hi);
+    }
+
+    /**
+     * int数组的双轴快排
+     */
+    public static void dualPivotSort(int[] a) {
+        dualPivotSort(a, 0, a.length - 1, IntroSort.depthLimit(a.length));
+    }
+
+    static void dualPivotSort(int[] a, int lo, int hi, int depth) {
+        if (hi - lo + 1 <= INSERTION_SORT_THRESHOLD) {
+            InsertionSort.sort(a, lo, hi);
+            return;
+        }
+        if (depth-- == 0) {
+            HeapSort.sort(a, lo, hi);
+            return;
+        }
+
+        int third = (hi - lo) / 3;
+        int m1 = lo + third, m2 = hi - third;
+        if (a[m2] < a[m1]) {
+            exch(a, m1, hi);
+            exch(a, m2, lo);
+        } else {
+            exch(a, m1, lo);
+            exch(a, m2, hi);
+        }
+        int p = a[lo], q = a[hi];
+
+        int lt = lo + 1, gt = hi - 1, i = lo + 1;
+        while (i <= gt) {
+            if (a[i] < p) exch(a, lt++, i++);
+            else if (q < a[i]) exch(a, i, gt--);
+            else i++;
+        }
+        exch(a, lo, --lt);
+        exch(a, hi, ++gt);
+
+        dualPivotSort(a, lo, lt - 1, depth);
+        if (p < q) dualPivotSort(a, lt + 1, gt - 1, depth);
+        dualPivotSort(a, gt + 1, hi, depth);
+    }
+
+    /**
+     * int数组的块切分快排
+     */
+    public static void blockSort(int[] a) {
+        blockSort(a, 0, a.length - 1, IntroSort.depthLimit(a.length), new int[BLOCK], new int[BLOCK]);
+    }
+
+    private static void blockSort(int[] a, int lo, int hi, int depth, int[] offL, int[] offR) {
+        while (hi - lo + 1 > INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                HeapSort.sort(a, lo, hi);
+                return;
+            }
+
+            int j = blockPartition(a, lo, hi, offL, offR);
+            if (j - lo < hi - j) {
+                blockSort(a, lo, j - 1, depth, offL, offR);
+                lo = j;
+            } else {
+                blockSort(a, j, hi, depth, offL, offR);
+                hi = j - 1;
+            }
+        }
+        InsertionSort.sort(a, lo, hi);
+    }
+
+    private static int blockPartition(int[] a, int lo, int hi, int[] offL, int[] offR) {
+        int key = a[median3(a, lo, lo + (hi - lo) / 2, hi)];
+
+        int l = lo, r = hi;
+        int numL = 0, numR = 0, startL = 0, startR = 0;
+        while (r - l + 1 > 2 * BLOCK) {
+            if (numL == 0) {
+                startL = 0;
+                for (int k = 0; k < BLOCK; k++) {
+                    offL[numL] = k;
+                    numL += a[l + k] < key ? 0 : 1;
+                }
+            }
+            if (numR == 0) {
+                startR = 0;
+                for (int k = 0; k < BLOCK; k++) {
+                    offR[numR] = k;
+                    numR += key < a[r - k] ? 0 : 1;
+                }
+            }
+
+            int num = Math.min(numL, numR);
+            for (int k = 0; k < num; k++) {
+                exch(a, l + offL[startL + k], r - offR[startR + k]);
+            }
+            numL -= num;
+            numR -= num;
+            startL += num;
+            startR += num;
+
+            if (numL == 0) l += BLOCK;
+            if (numR == 0) r -= BLOCK;
+        }
+
+        while (true) {
+            while (l <= r && a[l] < key) l++;
+            while (l <= r && key < a[r]) r--;
+            if (l >= r) break;
+            exch(a, l++, r--);
+        }
+        return l;
+    }
+
+    /**
+     * long数组的双轴快排
+     */
+    public static void dualPivotSort(long[] a) {
+        dualPivotSort(a, 0, a.length - 1, IntroSort.depthLimit(a.length));
+    }
+
+    static void dualPivotSort(long[] a, int lo, int hi, int depth) {
+        if (hi - lo + 1 <= INSERTION_SORT_THRESHOLD) {
+            InsertionSort.sort(a, lo, hi);
+            return;
+        }
+        if (depth-- == 0) {
+            HeapSort.sort(a, lo, hi);
+            return;
+        }
+
+        int third = (hi - lo) / 3;
+        int m1 = lo + third, m2 = hi - third;
+        if (a[m2] < a[m1]) {
+            exch(a, m1, hi);
+            exch(a, m2, lo);
+        } else {
+            exch(a, m1, lo);
+            exch(a, m2, hi);
+        }
+        long p = a[lo], q = a[hi];
+
+        int lt = lo + 1, gt = hi - 1, i = lo + 1;
+        while (i <= gt) {
+            if (a[i] < p) exch(a, lt++, i++);
+            else if (q < a[i]) exch(a, i, gt--);
+            else i++;
+        }
+        exch(a, lo, --lt);
+        exch(a, hi, ++gt);
+
+        dualPivotSort(a, lo, lt - 1, depth);
+        if (p < q) dualPivotSort(a, lt + 1, gt - 1, depth);
+        dualPivotSort(a, gt + 1, hi, depth);
+    }
+
+    /**
+     * long数组的块切分快排
+     */
+    public static void blockSort(long[] a) {
+        blockSort(a, 0, a.length - 1, IntroSort.depthLimit(a.length), new int[BLOCK], new int[BLOCK]);
+    }
+
+    private static void blockSort(long[] a, int lo, int hi, int depth, int[] offL, int[] offR) {
+        while (hi - lo + 1 > INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                HeapSort.sort(a, lo, hi);
+                return;
+            }
+
+            int j = blockPartition(a, lo, hi, offL, offR);
+            if (j - lo < hi - j) {
+                blockSort(a, lo, j - 1, depth, offL, offR);
+                lo = j;
+            } else {
+                blockSort(a, j, hi, depth, offL, offR);
+                hi = j - 1;
+            }
+        }
+        InsertionSort.sort(a, lo, hi);
+    }
+
+    private static int blockPartition(long[] a, int lo, int hi, int[] offL, int[] offR) {
+        long key = a[median3(a, lo, lo + (hi - lo) / 2, hi)];
+
+        int l = lo, r = hi;
+        int numL = 0, numR = 0, startL = 0, startR = 0;
+        while (r - l + 1 > 2 * BLOCK) {
+            if (numL == 0) {
+                startL = 0;
+                for (int k = 0; k < BLOCK; k++) {
+                    offL[numL] = k;
+                    numL += a[l + k] < key ? 0 : 1;
+                }
+            }
+            if (numR == 0) {
+                startR = 0;
+                for (int k = 0; k < BLOCK; k++) {
+                    offR[numR] = k;
+                    numR += key < a[r - k] ? 0 : 1;
+                }
+            }
+
+            int num = Math.min(numL, numR);
+            for (int k = 0; k < num; k++) {
+                exch(a, l + offL[startL + k], r - offR[startR + k]);
+            }
+            numL -= num;
+            numR -= num;
+            startL += num;
+            startR += num;
+
+            if (numL == 0) l += BLOCK;
+            if (numR == 0) r -= BLOCK;
+        }
+
+        while (true) {
+            while (l <= r && a[l] < key) l++;
+            while (l <= r && key < a[r]) r--;
+            if (l >= r) break;
+            exch(a, l++, r--);
+        }
+        return l;
+    }
+
+    /**
+     * double数组的双轴快排
+     */
+    public static void dualPivotSort(double[] a) {
+        dualPivotSort(a, 0, moveNaNsToEnd(a, 0, a.length - 1), IntroSort.depthLimit(a.length));
+    }
+
+    static void dualPivotSort(double[] a, int lo, int hi, int depth) {
+        if (hi - lo + 1 <= INSERTION_SORT_THRESHOLD) {
+            InsertionSort.sort(a, lo, hi);
+            return;
+        }
+        if (depth-- == 0) {
+            HeapSort.sort(a, lo, hi);
+            return;
+        }
+
+        int third = (hi - lo) / 3;
+        int m1 = lo + third, m2 = hi - third;
+        if (a[m2] < a[m1]) {
+            exch(a, m1, hi);
+            exch(a, m2, lo);
+        } else {
+            exch(a, m1, lo);
+            exch(a, m2, hi);
+        }
+        double p = a[lo], q = a[hi];
+
+        int lt = lo + 1, gt = hi - 1, i = lo + 1;
+        while (i <= gt) {
+            if (a[i] < p) exch(a, lt++, i++);
+            else if (q < a[i]) exch(a, i, gt--);
+            else i++;
+        }
+        exch(a, lo, --lt);
+        exch(a, hi, ++gt);
+
+        dualPivotSort(a, lo, lt - 1, depth);
+        if (p < q) dualPivotSort(a, lt + 1, gt - 1, depth);
+        dualPivotSort(a, gt + 1, hi, depth);
+    }
+
+    /**
+     * double数组的块切分快排
+     */
+    public static void blockSort(double[] a) {
+        blockSort(a, 0, moveNaNsToEnd(a, 0, a.length - 1), IntroSort.depthLimit(a.length), new int[BLOCK], new int[BLOCK]);
+    }
+
+    private static void blockSort(double[] a, int lo, int hi, int depth, int[] offL, int[] offR) {
+        while (hi - lo + 1 > INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                HeapSort.sort(a, lo, hi);
+                return;
+            }
+
+            int j = blockPartition(a, lo, hi, offL, offR);
+            if (j - lo < hi - j) {
+                blockSort(a, lo, j - 1, depth, offL, offR);
+                lo = j;
+            } else {
+                blockSort(a, j, hi, depth, offL, offR);
+                hi = j - 1;
+            }
+        }
+        InsertionSort.sort(a, lo, hi);
+    }
+
+    private static int blockPartition(double[] a, int lo, int hi, int[] offL, int[] offR) {
+        double key = a[median3(a, lo, lo + (hi - lo) / 2, hi)];
+
+        int l = lo, r = hi;
+        int numL = 0, numR = 0, startL = 0, startR = 0;
+        while (r - l + 1 > 2 * BLOCK) {
+            if (numL == 0) {
+                startL = 0;
+                for (int k = 0; k < BLOCK; k++) {
+                    offL[numL] = k;
+                    numL += a[l + k] < key ? 0 : 1;
+                }
+            }
+            if (numR == 0) {
+                startR = 0;
+                for (int k = 0; k < BLOCK; k++) {
+                    offR[numR] = k;
+                    numR += key < a[r - k] ? 0 : 1;
+                }
+            }
+
+            int num = Math.min(numL, numR);
+            for (int k = 0; k < num; k++) {
+                exch(a, l + offL[startL + k], r - offR[startR + k]);
+            }
+            numL -= num;
+            numR -= num;
+            startL += num;
+            startR += num;
+
+            if (numL == 0) l += BLOCK;
+            if (numR == 0) r -= BLOCK;
+        }
+
+        while (true) {
+            while (l <= r && a[l] < key) l++;
+            while (l <= r && key < a[r]) r--;
+            if (l >= r) break;
+            exch(a, l++, r--);
+        }
+        return l;
+    }
+
+    /**
+     * float数组的双轴快排
+     */
+    public static void dualPivotSort(float[] a) {
+        dualPivotSort(a, 0, moveNaNsToEnd(a, 0, a.length - 1), IntroSort.depthLimit(a.length));
+    }
+
+    static void dualPivotSort(float[] a, int lo, int hi, int depth) {
+        if (hi - lo + 1 <= INSERTION_SORT_THRESHOLD) {
+            InsertionSort.sort(a, lo, hi);
+            return;
+        }
+        if (depth-- == 0) {
+            HeapSort.sort(a, lo, hi);
+            return;
+        }
+
+        int third = (hi - lo) / 3;
+        int m1 = lo + third, m2 = hi - third;
+        if (a[m2] < a[m1]) {
+            exch(a, m1, hi);
+            exch(a, m2, lo);
+        } else {
+            exch(a, m1, lo);
+            exch(a, m2, hi);
+        }
+        float p = a[lo], q = a[hi];
+
+        int lt = lo + 1, gt = hi - 1, i = lo + 1;
+        while (i <= gt) {
+            if (a[i] < p) exch(a, lt++, i++);
+            else if (q < a[i]) exch(a, i, gt--);
+            else i++;
+        }
+        exch(a, lo, --lt);
+        exch(a, hi, ++gt);
+
+        dualPivotSort(a, lo, lt - 1, depth);
+        if (p < q) dualPivotSort(a, lt + 1, gt - 1, depth);
+        dualPivotSort(a, gt + 1, hi, depth);
+    }
+
+    /**
+     * float数组的块切分快排
+     */
+    public static void blockSort(float[] a) {
+        blockSort(a, 0, moveNaNsToEnd(a, 0, a.length - 1), IntroSort.depthLimit(a.length), new int[BLOCK], new int[BLOCK]);
+    }
+
+    private static void blockSort(float[] a, int lo, int hi, int depth, int[] offL, int[] offR) {
+        while (hi - lo + 1 > INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                HeapSort.sort(a, lo, hi);
+                return;
+            }
+
+            int j = blockPartition(a, lo, hi, offL, offR);
+            if (j - lo < hi - j) {
+                blockSort(a, lo, j - 1, depth, offL, offR);
+                lo = j;
+            } else {
+                blockSort(a, j, hi, depth, offL, offR);
+                hi = j - 1;
+            }
+        }
+        InsertionSort.sort(a, lo, hi);
+    }
+
+    private static int blockPartition(float[] a, int lo, int hi, int[] offL, int[] offR) {
+        float key = a[median3(a, lo, lo + (hi - lo) / 2, hi)];
+
+        int l = lo, r = hi;
+        int numL = 0, numR = 0, startL = 0, startR = 0;
+        while (r - l + 1 > 2 * BLOCK) {
+            if (numL == 0) {
+                startL = 0;
+                for (int k = 0; k < BLOCK; k++) {
+                    offL[numL] = k;
+                    numL += a[l + k] < key ? 0 : 1;
+                }
+            }
+            if (numR == 0) {
+                startR = 0;
+                for (int k = 0; k < BLOCK; k++) {
+                    offR[numR] = k;
+                    numR += key < a[r - k] ? 0 : 1;
+                }
+            }
+
+            int num = Math.min(numL, numR);
+            for (int k = 0; k < num; k++) {
+                exch(a, l + offL[startL + k], r - offR[startR + k]);
+            }
+            numL -= num;
+            numR -= num;
+            startL += num;
+            startR += num;
+
+            if (numL == 0) l += BLOCK;
+            if (numR == 0) r -= BLOCK;
+        }
+
+        while (true) {
+            while (l <= r && a[l] < key) l++;
+            while (l <= r && key < a[r]) r--;
+            if (l >= r) break;
+            exch(a, l++, r--);
+        }
+        return l;
+    }
+
 }
@@ -25,29 +25,63 @@ package algorithm.sort;
  * <p>
  * 空间: 基数排序的空间复杂度为O(n+k)，其中k为桶的数量
  * (一般来说n>>k，因此额外空间需要大概n个左右)
+ * <p>
+ * sort(int[], max)为十进制的实现, 仅用于演示; 对于完整的32/64位数据请使用sort(int[]), sort(long[]), sort(float[]), sort(double[]):
+ * <p>
+ * - 1.以二进制位作为一位: int每位8个bit(4轮), long每位11个bit(6轮), 使用位运算代替除法和取模
+ * <p>
+ * - 2.将符号位取反, 使负数排在正数之前; float和double先转换为与数值顺序一致的整数(负数除符号位外全部取反)
+ * <p>
+ * - 3.一次遍历同时统计所有位的直方图
+ * <p>
+ * - 4.若所有元素在某一位上都相同(例如时间戳的高位), 则跳过这一轮
+ * <p>
+ * 浮点数中-0.0排在0.0之前, NaN排在最后, 与Arrays.sort()一致
+ * <p>
+ * 对于列式数据, sort(keys, values)在对键排序的同时按相同的方式重排平行的数据数组, sortedPermutation(keys)则只返回排序排列
  *
  * @author zk
  */
 public class RadixSort extends BaseSort {
 
-    private static final int[] RADIX_DICT = {1, 10, 100, 1000, 10000, 1000000, 1000000, 10000000, 100000000, 100000000};
+    private static final int[] RADIX_DICT = {1, 10, 100, 1000, 10000, 100000, 1000000, 10000000, 100000000, 1000000000};
+
+    /**
+     * 十进制的每一位共有10种取值
+     */
+    private static final int DECIMAL = 10;
+
+    /**
+     * int的每一位取8个bit, 共4轮
+     */
+    private static final int INT_DIGIT_BITS = 8;
+
+    /**
+     * long的每一位取11个bit, 共6轮(比8个bit少两轮, 且2048个计数器仍能放入L1缓存)
+     */
+    private static final int LONG_DIGIT_BITS = 11;
+
+    /**
+     * 数组长度小于该值时直接使用插入排序
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 64;
 
     /**
-     * 基数排序
+     * 基数排序(十进制, 仅适用于非负整数)
      *
      * @param arr 要排序的数组
      * @param max 数组中最大的数有几位
      */
     public static void sort(int[] arr, int max) {
         // count数组用来计数
-        int[] count = new int[arr.length];
+        int[] count = new int[DECIMAL];
         // bucket用来当桶
         int[] bucket = new int[arr.length];
 
         // k表示第几位，1代表个位，2代表十位，3代表百位, ...
         for (int k = 1; k <= max; k++) {
             // 把count置空，防止上次循环的数据影响
-            for (int i = 0; i < arr.length; i++) {
+            for (int i = 0; i < DECIMAL; i++) {
                 count[i] = 0;
             }
 
@@ -58,7 +92,7 @@ public class RadixSort extends BaseSort {
             }
 
             // 利用count[i]来确定放置数据的位置
-            for (int i = 1; i < arr.length; i++) {
+            for (int i = 1; i < DECIMAL; i++) {
                 count[i] = count[i] + count[i - 1];
             }
             // 执行完此循环之后的count[i]就是第i个桶右边界的位置
@@ -78,6 +112,311 @@ public class RadixSort extends BaseSort {
         }
     }
 
+
+    /**
+     * int数组的LSD基数排序(支持负数)
+     */
+    public static void sort(int[] a) {
+        if (a.length < INSERTION_SORT_THRESHOLD) {
+            InsertionSort.sort(a, 0, a.length - 1);
+            return;
+        }
+
+        final int radix = 1 << INT_DIGIT_BITS, mask = radix - 1;
+        final int passes = (Integer.SIZE + INT_DIGIT_BITS - 1) / INT_DIGIT_BITS;
+        int n = a.length;
+
+        // 一次遍历统计所有位的直方图, 符号位取反使负数排在前面
+        int[][] count = new int[passes][radix];
+        for (int v : a) {
+            int key = v ^ Integer.MIN_VALUE;
+            for (int d = 0; d < passes; d++) {
+                count[d][(key >>> (d * INT_DIGIT_BITS)) & mask]++;
+            }
+        }
+
+        int[] src = a, dst = new int[n];
+        for (int d = 0; d < passes; d++) {
+            int shift = d * INT_DIGIT_BITS;
+            int[] c = count[d];
+            // 所有元素在这一位上都相同, 跳过
+            if (c[((src[0] ^ Integer.MIN_VALUE) >>> shift) & mask] == n) {
+                continue;
+            }
+
+            // 计数转换为每个桶的起始位置
+            for (int i = 0, sum = 0; i < radix; i++) {
+                int t = c[i];
+                c[i] = sum;
+                sum += t;
+            }
+            for (int v : src) {
+                dst[c[((v ^ Integer.MIN_VALUE) >>> shift) & mask]++] = v;
+            }
+            int[] t = src;
+            src = dst;
+            dst = t;
+        }
+        if (src != a) {
+            System.arraycopy(src, 0, a, 0, n);
+        }
+    }
+
+    /**
+     * long数组的LSD基数排序(支持负数)
+     */
+    public static void sort(long[] a) {
+        if (a.length < INSERTION_SORT_THRESHOLD) {
+            InsertionSort.sort(a, 0, a.length - 1);
+            return;
+        }
+
+        final int radix = 1 << LONG_DIGIT_BITS, mask = radix - 1;
+        final int passes = (Long.SIZE + LONG_DIGIT_BITS - 1) / LONG_DIGIT_BITS;
+        int n = a.length;
+
+        int[][] count = new int[passes][radix];
+        for (long v : a) {
+            long key = v ^ Long.MIN_VALUE;
+            for (int d = 0; d < passes; d++) {
+                count[d][(int) (key >>> (d * LONG_DIGIT_BITS)) & mask]++;
+            }
+        }
+
+        long[] src = a, dst = new long[n];
+        for (int d = 0; d < passes; d++) {
+            int shift = d * LONG_DIGIT_BITS;
+            int[] c = count[d];
+            if (c[(int) ((src[0] ^ Long.MIN_VALUE) >>> shift) & mask] == n) {
+                continue;
+            }
+
+            for (int i = 0, sum = 0; i < radix; i++) {
+                int t = c[i];
+                c[i] = sum;
+                sum += t;
+            }
+            for (long v : src) {
+                dst[c[(int) ((v ^ Long.MIN_VALUE) >>> shift) & mask]++] = v;
+            }
+            long[] t = src;
+            src = dst;
+            dst = t;
+        }
+        if (src != a) {
+            System.arraycopy(src, 0, a, 0, n);
+        }
+    }
+
+    /**
+     * float数组的基数排序: 转换为有序的int后排序, 再转换回来
+     */
+    public static void sort(float[] a) {
+        int[] keys = new int[a.length];
+        for (int i = 0; i < a.length; i++) {
+            keys[i] = flip(Float.floatToIntBits(a[i]));
+        }
+        sort(keys);
+        for (int i = 0; i < a.length; i++) {
+            a[i] = Float.intBitsToFloat(flip(keys[i]));
+        }
+    }
+
+    /**
+     * double数组的基数排序: 转换为有序的long后排序, 再转换回来
+     */
+    public static void sort(double[] a) {
+        long[] keys = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            keys[i] = flip(Double.doubleToLongBits(a[i]));
+        }
+        sort(keys);
+        for (int i = 0; i < a.length; i++) {
+            a[i] = Double.longBitsToDouble(flip(keys[i]));
+        }
+    }
+
+    /**
+     * 返回int数组keys的排序排列perm(稳定): keys[perm[0]] <= keys[perm[1]] <= ..., keys本身不变
+     */
+    public static int[] sortedPermutation(int[] keys) {
+        return sortWithIndex(keys.clone());
+    }
+
+    /**
+     * 按键排序: 对keys排序, 同时将平行的int数组values按相同的方式重排(稳定)
+     */
+    public static void sort(int[] keys, int[] values) {
+        checkLength(keys.length, values.length);
+        permute(values, sortWithIndex(keys));
+    }
+
+    /**
+     * 按键排序: 对keys排序, 同时将平行的long数组values按相同的方式重排(稳定)
+     */
+    public static void sort(int[] keys, long[] values) {
+        checkLength(keys.length, values.length);
+        permute(values, sortWithIndex(keys));
+    }
+
+    /**
+     * 按键排序: 对keys排序, 同时将平行的数组values按相同的方式重排(稳定)
+     */
+    public static <T> void sort(int[] keys, T[] values) {
+        checkLength(keys.length, values.length);
+        permute(values, sortWithIndex(keys));
+    }
+
+    /**
+     * 对keys进行LSD基数排序, 同时携带每个键的原始位置, 返回排序排列
+     */
+    private static int[] sortWithIndex(int[] keys) {
+        final int radix = 1 << INT_DIGIT_BITS, mask = radix - 1;
+        final int passes = (Integer.SIZE + INT_DIGIT_BITS - 1) / INT_DIGIT_BITS;
+        int n = keys.length;
+
+        int[][] count = new int[passes][radix];
+        for (int v : keys) {
+            int key = v ^ Integer.MIN_VALUE;
+            for (int d = 0; d < passes; d++) {
+                count[d][(key >>> (d * INT_DIGIT_BITS)) & mask]++;
+            }
+        }
+
+        int[] src = keys, dst = new int[n];
+        int[] idx = new int[n], idxDst = new int[n];
+        for (int i = 0; i < n; i++) {
+            idx[i] = i;
+        }
+        for (int d = 0; d < passes && n > 0; d++) {
+            int shift = d * INT_DIGIT_BITS;
+            int[] c = count[d];
+            if (c[((src[0] ^ Integer.MIN_VALUE) >>> shift) & mask] == n) {
+                continue;
+            }
+
+            for (int i = 0, sum = 0; i < radix; i++) {
+                int t = c[i];
+                c[i] = sum;
+                sum += t;
+            }
+            for (int i = 0; i < n; i++) {
+                int pos = c[((src[i] ^ Integer.MIN_VALUE) >>> shift) & mask]++;
+                dst[pos] = src[i];
+                idxDst[pos] = idx[i];
+            }
+            int[] t = src;
+            src = dst;
+            dst = t;
+            int[] ti = idx;
+            idx = idxDst;
+            idxDst = ti;
+        }
+        if (src != keys) {
+            System.arraycopy(src, 0, keys, 0, n);
+        }
+        return idx;
+    }
+
+    /**
+     * 返回long数组keys的排序排列perm(稳定): keys[perm[0]] <= keys[perm[1]] <= ..., keys本身不变
+     */
+    public static int[] sortedPermutation(long[] keys) {
+        return sortWithIndex(keys.clone());
+    }
+
+    /**
+     * 按键排序: 对keys排序, 同时将平行的int数组values按相同的方式重排(稳定)
+     */
+    public static void sort(long[] keys, int[] values) {
+        checkLength(keys.length, values.length);
+        permute(values, sortWithIndex(keys));
+    }
+
+    /**
+     * 按键排序: 对keys排序, 同时将平行的long数组values按相同的方式重排(稳定)
+     */
+    public static void sort(long[] keys, long[] values) {
+        checkLength(keys.length, values.length);
+        permute(values, sortWithIndex(keys));
+    }
+
+    /**
+     * 按键排序: 对keys排序, 同时将平行的数组values按相同的方式重排(稳定)
+     */
+    public static <T> void sort(long[] keys, T[] values) {
+        checkLength(keys.length, values.length);
+        permute(values, sortWithIndex(keys));
+    }
+
+    /**
+     * 对keys进行LSD基数排序, 同时携带每个键的原始位置, 返回排序排列
+     */
+    private static int[] sortWithIndex(long[] keys) {
+        final int radix = 1 << LONG_DIGIT_BITS, mask = radix - 1;
+        final int passes = (Long.SIZE + LONG_DIGIT_BITS - 1) / LONG_DIGIT_BITS;
+        int n = keys.length;
+
+        int[][] count = new int[passes][radix];
+        for (long v : keys) {
+            long key = v ^ Long.MIN_VALUE;
+            for (int d = 0; d < passes; d++) {
+                count[d][(int) (key >>> (d * LONG_DIGIT_BITS)) & mask]++;
+            }
+        }
+
+        long[] src = keys, dst = new long[n];
+        int[] idx = new int[n], idxDst = new int[n];
+        for (int i = 0; i < n; i++) {
+            idx[i] = i;
+        }
+        for (int d = 0; d < passes && n > 0; d++) {
+            int shift = d * LONG_DIGIT_BITS;
+            int[] c = count[d];
+            if (c[(int) ((src[0] ^ Long.MIN_VALUE) >>> shift) & mask] == n) {
+                continue;
+            }
+
+            for (int i = 0, sum = 0; i < radix; i++) {
+                int t = c[i];
+                c[i] = sum;
+                sum += t;
+            }
+            for (int i = 0; i < n; i++) {
+                int pos = c[(int) ((src[i] ^ Long.MIN_VALUE) >>> shift) & mask]++;
+                dst[pos] = src[i];
+                idxDst[pos] = idx[i];
+            }
+            long[] t = src;
+            src = dst;
+            dst = t;
+            int[] ti = idx;
+            idx = idxDst;
+            idxDst = ti;
+        }
+        if (src != keys) {
+            System.arraycopy(src, 0, keys, 0, n);
+        }
+        return idx;
+    }
+
+    private static void checkLength(int keys, int values) {
+        if (keys != values) {
+            throw new IllegalArgumentException("keys length " + keys + " != values length " + values);
+        }
+    }
+
+    /**
+     * 负数除符号位以外全部取反, 使浮点数的位表示与数值的大小顺序一致(该变换是自身的逆变换)
+     */
+    static int flip(int bits) {
+        return bits ^ ((bits >> 31) & Integer.MAX_VALUE);
+    }
+
+    static long flip(long bits) {
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
     /**
      * 此函数返回整型数i的第k位是什么
      *
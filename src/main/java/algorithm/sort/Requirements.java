@@ -0,0 +1,98 @@
+package algorithm.sort;
+
+/**
+ * 调用者对排序的要求, 供Sorts.sort()选择满足要求的最快实现
+ * <p>
+ * 对象不可变, 每个方法都返回新的对象, 例如:
+ * <p>
+ * Requirements.ANY.stable().sequential()
+ * <p>
+ * 稳定性只对对象数组生效: 基本类型数组中相等的元素无法区分
+ *
+ * @author zk
+ * @see Sorts
+ */
+public final class Requirements {
+
+    /**
+     * 没有任何要求
+     */
+    public static final Requirements ANY = new Requirements(false, false, false, Sorter.Memory.LINEAR);
+
+    private final boolean stable;
+
+    private final boolean inPlace;
+
+    private final boolean sequential;
+
+    private final Sorter.Memory maxExtraMemory;
+
+    private Requirements(boolean stable, boolean inPlace, boolean sequential, Sorter.Memory maxExtraMemory) {
+        this.stable = stable;
+        this.inPlace = inPlace;
+        this.sequential = sequential;
+        this.maxExtraMemory = maxExtraMemory;
+    }
+
+    /**
+     * 要求稳定排序
+     */
+    public Requirements stable() {
+        return new Requirements(true, inPlace, sequential, maxExtraMemory);
+    }
+
+    /**
+     * 要求原地排序
+     */
+    public Requirements inPlace() {
+        return new Requirements(stable, true, sequential, maxExtraMemory);
+    }
+
+    /**
+     * 要求在调用线程中排序, 不使用线程池
+     */
+    public Requirements sequential() {
+        return new Requirements(stable, inPlace, true, maxExtraMemory);
+    }
+
+    /**
+     * 限制额外空间的量级
+     */
+    public Requirements maxExtraMemory(Sorter.Memory memory) {
+        return new Requirements(stable, inPlace, sequential, memory);
+    }
+
+    public boolean isStable() {
+        return stable;
+    }
+
+    public boolean isInPlace() {
+        return inPlace;
+    }
+
+    public boolean isSequential() {
+        return sequential;
+    }
+
+    public Sorter.Memory getMaxExtraMemory() {
+        return maxExtraMemory;
+    }
+
+    /**
+     * 排序s能否以满足要求的方式排序键类型为type的数组
+     */
+    public boolean accepts(Sorter s, Sorter.KeyType type) {
+        return s.supports(type)
+                && (!stable || type != Sorter.KeyType.OBJECT || s.isStable())
+                && (!inPlace || s.isInPlace())
+                && (!sequential || !s.isParallel())
+                && s.extraMemory().compareTo(maxExtraMemory) <= 0;
+    }
+
+    @Override
+    public String toString() {
+        return "Requirements{stable=" + stable + ", inPlace=" + inPlace
+                + ", sequential=" + sequential + ", maxExtraMemory=" + maxExtraMemory + '}';
+    }
+
+}
@@ -1,5 +1,7 @@
 package algorithm.sort;
 
+import java.util.Comparator;
+
 /**
  * 选择排序
  *
@@ -79,4 +81,22 @@ public class SelectSort extends BaseSort {
 
     }
 
+    /**
+     * 使用比较器c的选择排序
+     *
+     * @param a 待排序数组
+     * @param c 比较器
+     */
+    public static <T> void sort(T[] a, Comparator<? super T> c) {
+        for (int i = 0, len = a.length; i < len; i++) {
+            int min = i;
+            for (int j = i + 1; j < len; j++) {
+                if (less(a[j], a[min], c)) {
+                    min = j;
+                }
+            }
+            exch(a, i, min);
+        }
+    }
+
 }
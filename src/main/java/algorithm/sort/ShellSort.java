@@ -1,5 +1,7 @@
 package algorithm.sort;
 
+import java.util.Comparator;
+
 /**
  * 希尔排序法又叫“缩小增量排序法”, 是对直接插入排序法的优化:
  *
@@ -9,31 +11,196 @@ package algorithm.sort;
  *
  * 只不过这时候，整个序列基本上是有序的，需要交换的数据已经非常少了，提高效率
  *
+ * 增量序列由不可变的GapSequence指定(默认为Ciura序列), 不同线程可以使用不同的序列同时排序; 插入时使用覆盖代替交换
+ *
+ * 原地排序, 不需要额外空间, 适合作为低内存的后备排序
+ *
+ * 另外为int[], long[], double[], float[]提供了基本类型的重载: 直接使用<比较, 不装箱也不调用compareTo;
+ * double[]和float[]排序前先将NaN移到末尾(与Arrays.sort()相同), 其余元素之间才使用<比较
+ *
  * @author zk
  */
 public class ShellSort extends BaseSort {
 
     /**
-     * 构建希尔排序递增序列的步长系数
+     * 使用Ciura序列的希尔排序
      */
-    public static int step = 3;
-
     public static <K extends Comparable<K>> void sort(K[] a) {
-        int h = 1, len = a.length;
-
-        // 构建插排的步长h
-        // 1, 4, 13, 40, 121, 364, 1093, ...
-        while (h < len / step) h = step * h + 1;
-        System.out.println(String.format("Array length: %s, Shell sort max step: %s", len, h));
-
-        while (h >= 1) {
-            // 根据h序列自: ... -> 121 -> 40 -> 13 -> 4 -> 1 进行插排
-            for (int i = h; i < len; ++i) {
-                for (int j = i; j >= h && less(a[j], a[j - h]); j -= h) {
-                    exch(a, j, j - h);
+        sort(a, 0, a.length - 1, GapSequence.CIURA, Comparator.naturalOrder());
+    }
+
+    /**
+     * 使用步长序列gaps的希尔排序
+     */
+    public static <K extends Comparable<K>> void sort(K[] a, GapSequence gaps) {
+        sort(a, 0, a.length - 1, gaps, Comparator.naturalOrder());
+    }
+
+    /**
+     * 使用比较器c的希尔排序
+     *
+     * @param a 待排序数组
+     * @param c 比较器
+     */
+    public static <T> void sort(T[] a, Comparator<? super T> c) {
+        sort(a, 0, a.length - 1, GapSequence.CIURA, c);
+    }
+
+    /**
+     * 使用步长序列gaps和比较器c的希尔排序
+     *
+     * @param a    待排序数组
+     * @param gaps 步长序列
+     * @param c    比较器
+     */
+    public static <T> void sort(T[] a, GapSequence gaps, Comparator<? super T> c) {
+        sort(a, 0, a.length - 1, gaps, c);
+    }
+
+    /**
+     * 使用步长序列gaps和比较器c排序a[lo...hi]子区间
+     */
+    static <T> void sort(T[] a, int lo, int hi, GapSequence gaps, Comparator<? super T> c) {
+        int[] g = gaps.gaps;
+        // 根据步长序列自: ... -> 132 -> 57 -> 23 -> 10 -> 4 -> 1 进行插排
+        for (int k = gaps.start(hi - lo + 1); k >= 0; k--) {
+            int h = g[k];
+            for (int i = lo + h; i <= hi; i++) {
+                T cur = a[i];
+                int j = i;
+                for (; j - h >= lo && less(cur, a[j - h], c); j -= h) {
+                    a[j] = a[j - h];
+                }
+                a[j] = cur;
+            }
+        }
+    }
+
+    /**
+     * int数组的希尔排序(使用Ciura序列)
+     */
+    public static void sort(int[] a) {
+        sort(a, 0, a.length - 1, GapSequence.CIURA);
+    }
+
+    /**
+     * 使用步长序列gaps的int数组希尔排序
+     */
+    public static void sort(int[] a, GapSequence gaps) {
+        sort(a, 0, a.length - 1, gaps);
+    }
+
+    /**
+     * 使用步长序列gaps排序int数组a[lo...hi]子区间
+     */
+    static void sort(int[] a, int lo, int hi, GapSequence gaps) {
+        int[] g = gaps.gaps;
+        for (int k = gaps.start(hi - lo + 1); k >= 0; k--) {
+            int h = g[k];
+            for (int i = lo + h; i <= hi; i++) {
+                int cur = a[i];
+                int j = i;
+                for (; j - h >= lo && cur < a[j - h]; j -= h) {
+                    a[j] = a[j - h];
+                }
+                a[j] = cur;
+            }
+        }
+    }
+
+    /**
+     * long数组的希尔排序(使用Ciura序列)
+     */
+    public static void sort(long[] a) {
+        sort(a, 0, a.length - 1, GapSequence.CIURA);
+    }
+
+    /**
+     * 使用步长序列gaps的long数组希尔排序
+     */
+    public static void sort(long[] a, GapSequence gaps) {
+        sort(a, 0, a.length - 1, gaps);
+    }
+
+    /**
+     * 使用步长序列gaps排序long数组a[lo...hi]子区间
+     */
+    static void sort(long[] a, int lo, int hi, GapSequence gaps) {
+        int[] g = gaps.gaps;
+        for (int k = gaps.start(hi - lo + 1); k >= 0; k--) {
+            int h = g[k];
+            for (int i = lo + h; i <= hi; i++) {
+                long cur = a[i];
+                int j = i;
+                for (; j - h >= lo && cur < a[j - h]; j -= h) {
+                    a[j] = a[j - h];
+                }
+                a[j] = cur;
+            }
+        }
+    }
+
+    /**
+     * double数组的希尔排序(使用Ciura序列)
+     */
+    public static void sort(double[] a) {
+        sort(a, 0, moveNaNsToEnd(a, 0, a.length - 1), GapSequence.CIURA);
+    }
+
+    /**
+     * 使用步长序列gaps的double数组希尔排序
+     */
+    public static void sort(double[] a, GapSequence gaps) {
+        sort(a, 0, moveNaNsToEnd(a, 0, a.length - 1), gaps);
+    }
+
+    /**
+     * 使用步长序列gaps排序double数组a[lo...hi]子区间
+     */
+    static void sort(double[] a, int lo, int hi, GapSequence gaps) {
+        int[] g = gaps.gaps;
+        for (int k = gaps.start(hi - lo + 1); k >= 0; k--) {
+            int h = g[k];
+            for (int i = lo + h; i <= hi; i++) {
+                double cur = a[i];
+                int j = i;
+                for (; j - h >= lo && cur < a[j - h]; j -= h) {
+                    a[j] = a[j - h];
+                }
+                a[j] = cur;
+            }
+        }
+    }
+
+    /**
+     * float数组的希尔排序(使用Ciura序列)
+     */
+    public static void sort(float[] a) {
+        sort(a, 0, moveNaNsToEnd(a, 0, a.length - 1), GapSequence.CIURA);
+    }
+
+    /**
+     * 使用步长序列gaps的float数组希尔排序
+     */
+    public static void sort(float[] a, GapSequence gaps) {
+        sort(a, 0, moveNaNsToEnd(a, 0, a.length - 1), gaps);
+    }
+
+    /**
+     * 使用步长序列gaps排序float数组a[lo...hi]子区间
+     */
+    static void sort(float[] a, int lo, int hi, GapSequence gaps) {
+        int[] g = gaps.gaps;
+        for (int k = gaps.start(hi - lo + 1); k >= 0; k--) {
+            int h = g[k];
+            for (int i = lo + h; i <= hi; i++) {
+                float cur = a[i];
+                int j = i;
+                for (; j - h >= lo && cur < a[j - h]; j -= h) {
+                    a[j] = a[j - h];
                 }
+                a[j] = cur;
             }
-            h /= step;
         }
     }
 
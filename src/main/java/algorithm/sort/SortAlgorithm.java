@@ -0,0 +1,305 @@
+package algorithm.sort;
+
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static algorithm.sort.Sorter.KeyType.DOUBLE;
+import static algorithm.sort.Sorter.KeyType.INT;
+import static algorithm.sort.Sorter.KeyType.LONG;
+import static algorithm.sort.Sorter.KeyType.OBJECT;
+
+/**
+ * 本包中各排序的Sorter实现及其能力描述
+ * <p>
+ * | 排序              | 稳定 | 原地 | 并行 | 自适应 | 额外空间 | 键类型
+ * <p>
+ * | INSERTION         | 是   | 是   | 否   | 是     | O(1)     | 全部
+ * <p>
+ * | SHELL             | 否   | 是   | 否   | 是     | O(1)     | 全部
+ * <p>
+ * | HEAP              | 否   | 是   | 否   | 否     | O(1)     | 全部
+ * <p>
+ * | INTRO             | 否   | 是   | 否   | 否     | O(lgN)   | 全部
+ * <p>
+ * | THREE_WAY_QUICK   | 否   | 是   | 否   | 否     | O(lgN)   | 基本类型
+ * <p>
+ * | MERGE             | 是   | 否   | 否   | 是     | O(N)     | 全部
+ * <p>
+ * | TIM               | 是   | 否   | 否   | 是     | O(N)     | 对象
+ * <p>
+ * | RADIX             | 是   | 否   | 否   | 否     | O(N)     | 基本类型
+ * <p>
+ * | COUNT             | 是   | 否   | 否   | 否     | O(N + K) | int
+ * <p>
+ * | PARALLEL_MERGE    | 是   | 否   | 是   | 否     | O(N)     | 全部
+ * <p>
+ * | PARALLEL_SAMPLE   | 否   | 否   | 是   | 否     | O(N)     | 对象
+ * <p>
+ * | PARALLEL_RADIX    | 是   | 否   | 是   | 否     | O(N)     | 基本类型
+ * <p>
+ * COUNT的K为键的值域, 值域过大时CountSort自动改为基数排序
+ * <p>
+ * MERGE的自适应指: 两半已经有序(a[mid] <= a[mid+1])时跳过归并
+ *
+ * @author zk
+ */
+public enum SortAlgorithm implements Sorter {
+
+    INSERTION(Flags.STABLE | Flags.IN_PLACE | Flags.ADAPTIVE, Memory.CONSTANT, EnumSet.allOf(KeyType.class)) {
+        @Override
+        public <T> void sort(T[] a, Comparator<? super T> c) {
+            InsertionSort.sort(a, c);
+        }
+
+        @Override
+        public void sort(int[] a) {
+            InsertionSort.sort(a);
+        }
+
+        @Override
+        public void sort(long[] a) {
+            InsertionSort.sort(a);
+        }
+
+        @Override
+        public void sort(double[] a) {
+            InsertionSort.sort(a);
+        }
+    },
+
+    SHELL(Flags.IN_PLACE | Flags.ADAPTIVE, Memory.CONSTANT, EnumSet.allOf(KeyType.class)) {
+        @Override
+        public <T> void sort(T[] a, Comparator<? super T> c) {
+            ShellSort.sort(a, c);
+        }
+
+        @Override
+        public void sort(int[] a) {
+            ShellSort.sort(a);
+        }
+
+        @Override
+        public void sort(long[] a) {
+            ShellSort.sort(a);
+        }
+
+        @Override
+        public void sort(double[] a) {
+            ShellSort.sort(a);
+        }
+    },
+
+    HEAP(Flags.IN_PLACE, Memory.CONSTANT, EnumSet.allOf(KeyType.class)) {
+        @Override
+        public <T> void sort(T[] a, Comparator<? super T> c) {
+            HeapSort.sort(a, c);
+        }
+
+        @Override
+        public void sort(int[] a) {
+            HeapSort.sort(a);
+        }
+
+        @Override
+        public void sort(long[] a) {
+            HeapSort.sort(a);
+        }
+
+        @Override
+        public void sort(double[] a) {
+            HeapSort.sort(a);
+        }
+    },
+
+    INTRO(Flags.IN_PLACE, Memory.LOGARITHMIC, EnumSet.allOf(KeyType.class)) {
+        @Override
+        public <T> void sort(T[] a, Comparator<? super T> c) {
+            IntroSort.sort(a, c);
+        }
+
+        @Override
+        public void sort(int[] a) {
+            IntroSort.sort(a);
+        }
+
+        @Override
+        public void sort(long[] a) {
+            IntroSort.sort(a);
+        }
+
+        @Override
+        public void sort(double[] a) {
+            IntroSort.sort(a);
+        }
+    },
+
+    THREE_WAY_QUICK(Flags.IN_PLACE, Memory.LOGARITHMIC, EnumSet.of(INT, LONG, DOUBLE)) {
+        @Override
+        public void sort(int[] a) {
+            QuickSort.threeWaySort(a);
+        }
+
+        @Override
+        public void sort(long[] a) {
+            QuickSort.threeWaySort(a);
+        }
+
+        @Override
+        public void sort(double[] a) {
+            QuickSort.threeWaySort(a);
+        }
+    },
+
+    MERGE(Flags.STABLE | Flags.ADAPTIVE, Memory.LINEAR, EnumSet.allOf(KeyType.class)) {
+        @Override
+        public <T> void sort(T[] a, Comparator<? super T> c) {
+            MergeSort.advancedSort(a, c);
+        }
+
+        @Override
+        public void sort(int[] a) {
+            MergeSort.advancedSort(a);
+        }
+
+        @Override
+        public void sort(long[] a) {
+            MergeSort.advancedSort(a);
+        }
+
+        @Override
+        public void sort(double[] a) {
+            MergeSort.advancedSort(a);
+        }
+    },
+
+    TIM(Flags.STABLE | Flags.ADAPTIVE, Memory.LINEAR, EnumSet.of(OBJECT)) {
+        @Override
+        public <T> void sort(T[] a, Comparator<? super T> c) {
+            TimSort.sort(a, c);
+        }
+    },
+
+    RADIX(Flags.STABLE, Memory.LINEAR, EnumSet.of(INT, LONG, DOUBLE)) {
+        @Override
+        public void sort(int[] a) {
+            RadixSort.sort(a);
+        }
+
+        @Override
+        public void sort(long[] a) {
+            RadixSort.sort(a);
+        }
+
+        @Override
+        public void sort(double[] a) {
+            RadixSort.sort(a);
+        }
+    },
+
+    COUNT(Flags.STABLE, Memory.LINEAR, EnumSet.of(INT)) {
+        @Override
+        public void sort(int[] a) {
+            CountSort.sort(a);
+        }
+    },
+
+    PARALLEL_MERGE(Flags.STABLE | Flags.PARALLEL, Memory.LINEAR, EnumSet.allOf(KeyType.class)) {
+        @Override
+        public <T> void sort(T[] a, Comparator<? super T> c) {
+            ParallelMergeSort.parallelSort(a, c);
+        }
+
+        @Override
+        public void sort(int[] a) {
+            ParallelMergeSort.parallelSort(a);
+        }
+
+        @Override
+        public void sort(long[] a) {
+            ParallelMergeSort.parallelSort(a);
+        }
+
+        @Override
+        public void sort(double[] a) {
+            ParallelMergeSort.parallelSort(a);
+        }
+    },
+
+    PARALLEL_SAMPLE(Flags.PARALLEL, Memory.LINEAR, EnumSet.of(OBJECT)) {
+        @Override
+        public <T> void sort(T[] a, Comparator<? super T> c) {
+            ParallelSampleSort.parallelSort(a, c);
+        }
+    },
+
+    PARALLEL_RADIX(Flags.STABLE | Flags.PARALLEL, Memory.LINEAR, EnumSet.of(INT, LONG, DOUBLE)) {
+        @Override
+        public void sort(int[] a) {
+            ParallelRadixSort.parallelSort(a);
+        }
+
+        @Override
+        public void sort(long[] a) {
+            ParallelRadixSort.parallelSort(a);
+        }
+
+        @Override
+        public void sort(double[] a) {
+            ParallelRadixSort.parallelSort(a);
+        }
+    };
+
+    /**
+     * 能力的位标志
+     */
+    private static final class Flags {
+        static final int STABLE = 1;
+        static final int IN_PLACE = 1 << 1;
+        static final int PARALLEL = 1 << 2;
+        static final int ADAPTIVE = 1 << 3;
+    }
+
+    private final int flags;
+
+    private final Memory extraMemory;
+
+    private final Set<KeyType> keyTypes;
+
+    SortAlgorithm(int flags, Memory extraMemory, Set<KeyType> keyTypes) {
+        this.flags = flags;
+        this.extraMemory = extraMemory;
+        this.keyTypes = keyTypes;
+    }
+
+    @Override
+    public boolean isStable() {
+        return (flags & Flags.STABLE) != 0;
+    }
+
+    @Override
+    public boolean isInPlace() {
+        return (flags & Flags.IN_PLACE) != 0;
+    }
+
+    @Override
+    public boolean isParallel() {
+        return (flags & Flags.PARALLEL) != 0;
+    }
+
+    @Override
+    public boolean isAdaptive() {
+        return (flags & Flags.ADAPTIVE) != 0;
+    }
+
+    @Override
+    public Memory extraMemory() {
+        return extraMemory;
+    }
+
+    @Override
+    public boolean supports(KeyType type) {
+        return keyTypes.contains(type);
+    }
+
+}
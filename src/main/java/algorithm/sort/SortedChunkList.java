@@ -0,0 +1,539 @@
+package algorithm.sort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 分块有序数组: 元素陆续到达时保持有序的容器
+ * <p>
+ * 使用InsertionSort.binaryInsertSort()或twoPathInsertSort()维护有序数组时, 每次插入都要移动O(N)个元素;
+ * 这里将元素保存在多个长度不超过CHUNK_SIZE的有序块中(类似B+树的叶子层):
+ * <p>
+ * - 1.先在各块的最大元素中二分查找元素所属的块, 再在块内二分查找插入位置, 只需移动块内的元素
+ * <p>
+ * - 2.块满时对半拆分, 块的目录(chunks/maxes/sizes)中只移动O(N / CHUNK_SIZE)个引用
+ * <p>
+ * - 3.toArray()/迭代时按块顺序导出, 即为有序的结果
+ * <p>
+ * 插入时间: O(lgN + CHUNK_SIZE), 块的目录移动为O(N / CHUNK_SIZE)但只在拆分时发生, 每CHUNK_SIZE / 2次插入才拆分一次
+ * <p>
+ * 相等的元素插入到已有元素之后, 因此导出的顺序对于相等的元素与插入顺序一致(稳定)
+ * <p>
+ * 另外为int, long, double提供了基本类型的版本(OfInt, OfLong, OfDouble): 直接使用<比较, 不装箱(NaN的排序位置未定义)
+ *
+ * @author zk
+ */
+@SuppressWarnings("unchecked")
+public class SortedChunkList<T> implements Iterable<T> {
+
+    /**
+     * 每一块的容量
+     */
+    static final int CHUNK_SIZE = 1 << 10;
+
+    /**
+     * 块目录的初始容量
+     */
+    private static final int INITIAL_CHUNKS = 16;
+
+    private final Comparator<? super T> c;
+
+    private Object[][] chunks = new Object[INITIAL_CHUNKS][];
+
+    /**
+     * 每一块的最大元素(即最后一个元素), 用于二分查找元素所在的块
+     */
+    private Object[] maxes = new Object[INITIAL_CHUNKS];
+
+    private int[] sizes = new int[INITIAL_CHUNKS];
+
+    private int count;
+
+    private int size;
+
+    public SortedChunkList(Comparator<? super T> c) {
+        this.c = c;
+    }
+
+    public static <K extends Comparable<K>> SortedChunkList<K> naturalOrder() {
+        return new SortedChunkList<>(Comparator.naturalOrder());
+    }
+
+    /**
+     * 插入元素x, 相等的元素按插入顺序排列
+     */
+    public void add(T x) {
+        if (count == 0) {
+            chunks[0] = new Object[CHUNK_SIZE];
+            chunks[0][0] = maxes[0] = x;
+            sizes[0] = count = size = 1;
+            return;
+        }
+
+        // 第一个最大元素大于x的块; 都不大于x时插入最后一块
+        int k = upperBound(maxes, count, x);
+        if (k == count) k--;
+        Object[] chunk = chunks[k];
+        int n = sizes[k];
+        int pos = upperBound(chunk, n, x);
+        System.arraycopy(chunk, pos, chunk, pos + 1, n - pos);
+        chunk[pos] = x;
+        sizes[k] = ++n;
+        maxes[k] = chunk[n - 1];
+        size++;
+
+        if (n == CHUNK_SIZE) split(k);
+    }
+
+    public void addAll(Iterable<? extends T> xs) {
+        for (T x : xs) add(x);
+    }
+
+    /**
+     * 将第k块对半拆分为两块
+     */
+    private void split(int k) {
+        if (count == chunks.length) {
+            int capacity = count * 2;
+            chunks = Arrays.copyOf(chunks, capacity);
+            maxes = Arrays.copyOf(maxes, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+        }
+        System.arraycopy(chunks, k + 1, chunks, k + 2, count - k - 1);
+        System.arraycopy(maxes, k + 1, maxes, k + 2, count - k - 1);
+        System.arraycopy(sizes, k + 1, sizes, k + 2, count - k - 1);
+        count++;
+
+        Object[] left = chunks[k], right = new Object[CHUNK_SIZE];
+        int half = CHUNK_SIZE / 2;
+        System.arraycopy(left, half, right, 0, CHUNK_SIZE - half);
+        Arrays.fill(left, half, CHUNK_SIZE, null);
+        chunks[k + 1] = right;
+        sizes[k + 1] = CHUNK_SIZE - half;
+        maxes[k + 1] = maxes[k];
+        sizes[k] = half;
+        maxes[k] = left[half - 1];
+    }
+
+    /**
+     * a[0...n-1]中第一个大于x的位置
+     */
+    private int upperBound(Object[] a, int n, T x) {
+        int lo = 0, hi = n;
+        while (lo < hi) {
+            int m = (lo + hi) >>> 1;
+            if (c.compare(x, (T) a[m]) < 0) hi = m;
+            else lo = m + 1;
+        }
+        return lo;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(chunks, 0, count, null);
+        Arrays.fill(maxes, 0, count, null);
+        count = 0;
+        size = 0;
+    }
+
+    /**
+     * 按顺序导出全部元素
+     */
+    public Object[] toArray() {
+        Object[] a = new Object[size];
+        for (int k = 0, pos = 0; k < count; k++) {
+            System.arraycopy(chunks[k], 0, a, pos, sizes[k]);
+            pos += sizes[k];
+        }
+        return a;
+    }
+
+    /**
+     * 按顺序导出全部元素到类型为a的数组中(同Collection.toArray(T[]))
+     */
+    public T[] toArray(T[] a) {
+        T[] dst = a.length >= size ? a : Arrays.copyOf(a, size);
+        for (int k = 0, pos = 0; k < count; k++) {
+            System.arraycopy(chunks[k], 0, dst, pos, sizes[k]);
+            pos += sizes[k];
+        }
+        return dst;
+    }
+
+    /**
+     * 按顺序迭代全部元素(迭代期间不能插入)
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int k, i;
+
+            @Override
+            public boolean hasNext() {
+                return k < count && i < sizes[k];
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                T x = (T) chunks[k][i++];
+                if (i == sizes[k]) {
+                    k++;
+                    i = 0;
+                }
+                return x;
+            }
+        };
+    }
+
+    /**
+     * int的分块有序数组
+     */
+    public static class OfInt {
+
+        private int[][] chunks = new int[INITIAL_CHUNKS][];
+
+        /**
+         * 每一块的最大元素(即最后一个元素), 用于二分查找元素所在的块
+         */
+        private int[] maxes = new int[INITIAL_CHUNKS];
+
+        private int[] sizes = new int[INITIAL_CHUNKS];
+
+        private int count;
+
+        private int size;
+
+        /**
+         * 插入元素x, 相等的元素按插入顺序排列
+         */
+        public void add(int x) {
+            if (count == 0) {
+                chunks[0] = new int[CHUNK_SIZE];
+                chunks[0][0] = maxes[0] = x;
+                sizes[0] = count = size = 1;
+                return;
+            }
+
+            // 第一个最大元素大于x的块; 都不大于x时插入最后一块
+            int c = upperBound(maxes, count, x);
+            if (c == count) c--;
+            int[] chunk = chunks[c];
+            int n = sizes[c];
+            int pos = upperBound(chunk, n, x);
+            System.arraycopy(chunk, pos, chunk, pos + 1, n - pos);
+            chunk[pos] = x;
+            sizes[c] = ++n;
+            maxes[c] = chunk[n - 1];
+            size++;
+
+            if (n == CHUNK_SIZE) split(c);
+        }
+
+        public void addAll(int[] a) {
+            for (int x : a) add(x);
+        }
+
+        /**
+         * 将第c块对半拆分为两块
+         */
+        private void split(int c) {
+            if (count == chunks.length) {
+                int capacity = count * 2;
+                chunks = Arrays.copyOf(chunks, capacity);
+                maxes = Arrays.copyOf(maxes, capacity);
+                sizes = Arrays.copyOf(sizes, capacity);
+            }
+            System.arraycopy(chunks, c + 1, chunks, c + 2, count - c - 1);
+            System.arraycopy(maxes, c + 1, maxes, c + 2, count - c - 1);
+            System.arraycopy(sizes, c + 1, sizes, c + 2, count - c - 1);
+            count++;
+
+            int[] left = chunks[c], right = new int[CHUNK_SIZE];
+            int half = CHUNK_SIZE / 2;
+            System.arraycopy(left, half, right, 0, CHUNK_SIZE - half);
+            chunks[c + 1] = right;
+            sizes[c + 1] = CHUNK_SIZE - half;
+            maxes[c + 1] = maxes[c];
+            sizes[c] = half;
+            maxes[c] = left[half - 1];
+        }
+
+        /**
+         * a[0...n-1]中第一个大于x的位置
+         */
+        private static int upperBound(int[] a, int n, int x) {
+            int lo = 0, hi = n;
+            while (lo < hi) {
+                int m = (lo + hi) >>> 1;
+                if (x < a[m]) hi = m;
+                else lo = m + 1;
+            }
+            return lo;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        public void clear() {
+            Arrays.fill(chunks, 0, count, null);
+            count = 0;
+            size = 0;
+        }
+
+        /**
+         * 按顺序导出全部元素
+         */
+        public int[] toArray() {
+            int[] a = new int[size];
+            for (int c = 0, pos = 0; c < count; c++) {
+                System.arraycopy(chunks[c], 0, a, pos, sizes[c]);
+                pos += sizes[c];
+            }
+            return a;
+        }
+    }
+
+    /**
+     * long的分块有序数组
+     */
+    public static class OfLong {
+
+        private long[][] chunks = new long[INITIAL_CHUNKS][];
+
+        /**
+         * 每一块的最大元素(即最后一个元素), 用于二分查找元素所在的块
+         */
+        private long[] maxes = new long[INITIAL_CHUNKS];
+
+        private int[] sizes = new int[INITIAL_CHUNKS];
+
+        private int count;
+
+        private int size;
+
+        /**
+         * 插入元素x, 相等的元素按插入顺序排列
+         */
+        public void add(long x) {
+            if (count == 0) {
+                chunks[0] = new long[CHUNK_SIZE];
+                chunks[0][0] = maxes[0] = x;
+                sizes[0] = count = size = 1;
+                return;
+            }
+
+            // 第一个最大元素大于x的块; 都不大于x时插入最后一块
+            int c = upperBound(maxes, count, x);
+            if (c == count) c--;
+            long[] chunk = chunks[c];
+            int n = sizes[c];
+            int pos = upperBound(chunk, n, x);
+            System.arraycopy(chunk, pos, chunk, pos + 1, n - pos);
+            chunk[pos] = x;
+            sizes[c] = ++n;
+            maxes[c] = chunk[n - 1];
+            size++;
+
+            if (n == CHUNK_SIZE) split(c);
+        }
+
+        public void addAll(long[] a) {
+            for (long x : a) add(x);
+        }
+
+        /**
+         * 将第c块对半拆分为两块
+         */
+        private void split(int c) {
+            if (count == chunks.length) {
+                int capacity = count * 2;
+                chunks = Arrays.copyOf(chunks, capacity);
+                maxes = Arrays.copyOf(maxes, capacity);
+                sizes = Arrays.copyOf(sizes, capacity);
+            }
+            System.arraycopy(chunks, c + 1, chunks, c + 2, count - c - 1);
+            System.arraycopy(maxes, c + 1, maxes, c + 2, count - c - 1);
+            System.arraycopy(sizes, c + 1, sizes, c + 2, count - c - 1);
+            count++;
+
+            long[] left = chunks[c], right = new long[CHUNK_SIZE];
+            int half = CHUNK_SIZE / 2;
+            System.arraycopy(left, half, right, 0, CHUNK_SIZE - half);
+            chunks[c + 1] = right;
+            sizes[c + 1] = CHUNK_SIZE - half;
+            maxes[c + 1] = maxes[c];
+            sizes[c] = half;
+            maxes[c] = left[half - 1];
+        }
+
+        /**
+         * a[0...n-1]中第一个大于x的位置
+         */
+        private static int upperBound(long[] a, int n, long x) {
+            int lo = 0, hi = n;
+            while (lo < hi) {
+                int m = (lo + hi) >>> 1;
+                if (x < a[m]) hi = m;
+                else lo = m + 1;
+            }
+            return lo;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        public void clear() {
+            Arrays.fill(chunks, 0, count, null);
+            count = 0;
+            size = 0;
+        }
+
+        /**
+         * 按顺序导出全部元素
+         */
+        public long[] toArray() {
+            long[] a = new long[size];
+            for (int c = 0, pos = 0; c < count; c++) {
+                System.arraycopy(chunks[c], 0, a, pos, sizes[c]);
+                pos += sizes[c];
+            }
+            return a;
+        }
+    }
+
+    /**
+     * double的分块有序数组
+     */
+    public static class OfDouble {
+
+        private double[][] chunks = new double[INITIAL_CHUNKS][];
+
+        /**
+         * 每一块的最大元素(即最后一个元素), 用于二分查找元素所在的块
+         */
+        private double[] maxes = new double[INITIAL_CHUNKS];
+
+        private int[] sizes = new int[INITIAL_CHUNKS];
+
+        private int count;
+
+        private int size;
+
+        /**
+         * 插入元素x, 相等的元素按插入顺序排列
+         */
+        public void add(double x) {
+            if (count == 0) {
+                chunks[0] = new double[CHUNK_SIZE];
+                chunks[0][0] = maxes[0] = x;
+                sizes[0] = count = size = 1;
+                return;
+            }
+
+            // 第一个最大元素大于x的块; 都不大于x时插入最后一块
+            int c = upperBound(maxes, count, x);
+            if (c == count) c--;
+            double[] chunk = chunks[c];
+            int n = sizes[c];
+            int pos = upperBound(chunk, n, x);
+            System.arraycopy(chunk, pos, chunk, pos + 1, n - pos);
+            chunk[pos] = x;
+            sizes[c] = ++n;
+            maxes[c] = chunk[n - 1];
+            size++;
+
+            if (n == CHUNK_SIZE) split(c);
+        }
+
+        public void addAll(double[] a) {
+            for (double x : a) add(x);
+        }
+
+        /**
+         * 将第c块对半拆分为两块
+         */
+        private void split(int c) {
+            if (count == chunks.length) {
+                int capacity = count * 2;
+                chunks = Arrays.copyOf(chunks, capacity);
+                maxes = Arrays.copyOf(maxes, capacity);
+                sizes = Arrays.copyOf(sizes, capacity);
+            }
+            System.arraycopy(chunks, c + 1, chunks, c + 2, count - c - 1);
+            System.arraycopy(maxes, c + 1, maxes, c + 2, count - c - 1);
+            System.arraycopy(sizes, c + 1, sizes, c + 2, count - c - 1);
+            count++;
+
+            double[] left = chunks[c], right = new double[CHUNK_SIZE];
+            int half = CHUNK_SIZE / 2;
+            System.arraycopy(left, half, right, 0, CHUNK_SIZE - half);
+            chunks[c + 1] = right;
+            sizes[c + 1] = CHUNK_SIZE - half;
+            maxes[c + 1] = maxes[c];
+            sizes[c] = half;
+            maxes[c] = left[half - 1];
+        }
+
+        /**
+         * a[0...n-1]中第一个大于x的位置
+         */
+        private static int upperBound(double[] a, int n, double x) {
+            int lo = 0, hi = n;
+            while (lo < hi) {
+                int m = (lo + hi) >>> 1;
+                if (x < a[m]) hi = m;
+                else lo = m + 1;
+            }
+            return lo;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        public void clear() {
+            Arrays.fill(chunks, 0, count, null);
+            count = 0;
+            size = 0;
+        }
+
+        /**
+         * 按顺序导出全部元素
+         */
+        public double[] toArray() {
+            double[] a = new double[size];
+            for (int c = 0, pos = 0; c < count; c++) {
+                System.arraycopy(chunks[c], 0, a, pos, sizes[c]);
+                pos += sizes[c];
+            }
+            return a;
+        }
+    }
+
+}
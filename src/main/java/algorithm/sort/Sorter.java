@@ -0,0 +1,90 @@
+package algorithm.sort;
+
+import java.util.Comparator;
+
+/**
+ * 排序实现及其能力描述
+ * <p>
+ * 调用者可以通过能力描述判断一个排序是否满足要求, 而不需要记住每个排序类的实现细节:
+ * <p>
+ * - isStable(): 相等的元素是否保持原有顺序(只对对象数组有意义, 基本类型数组中相等的元素无法区分)
+ * <p>
+ * - isInPlace(): 是否只在原数组上移动元素(允许O(lgN)的递归栈)
+ * <p>
+ * - isParallel(): 是否使用ForkJoin线程池并行排序
+ * <p>
+ * - isAdaptive(): 对于已经近似有序的输入是否明显更快
+ * <p>
+ * - extraMemory(): 额外空间的量级
+ * <p>
+ * 不支持的键类型调用对应的sort()方法时抛出UnsupportedOperationException, 可以先通过supports()判断
+ *
+ * @author zk
+ * @see SortAlgorithm
+ * @see Sorts
+ */
+public interface Sorter {
+
+    /**
+     * 待排序数组的键类型
+     */
+    enum KeyType {
+        OBJECT, INT, LONG, DOUBLE
+    }
+
+    /**
+     * 额外空间的量级, 按从小到大的顺序声明
+     */
+    enum Memory {
+        /**
+         * O(1)
+         */
+        CONSTANT,
+        /**
+         * O(lgN), 通常为递归栈
+         */
+        LOGARITHMIC,
+        /**
+         * O(N), 通常为辅助数组
+         */
+        LINEAR
+    }
+
+    String name();
+
+    boolean isStable();
+
+    boolean isInPlace();
+
+    boolean isParallel();
+
+    boolean isAdaptive();
+
+    Memory extraMemory();
+
+    /**
+     * 是否支持键类型为type的数组
+     */
+    boolean supports(KeyType type);
+
+    default <K extends Comparable<K>> void sort(K[] a) {
+        sort(a, Comparator.naturalOrder());
+    }
+
+    default <T> void sort(T[] a, Comparator<? super T> c) {
+        throw new UnsupportedOperationException(name() + " does not support " + KeyType.OBJECT);
+    }
+
+    default void sort(int[] a) {
+        throw new UnsupportedOperationException(name() + " does not support " + KeyType.INT);
+    }
+
+    default void sort(long[] a) {
+        throw new UnsupportedOperationException(name() + " does not support " + KeyType.LONG);
+    }
+
+    default void sort(double[] a) {
+        throw new UnsupportedOperationException(name() + " does not support " + KeyType.DOUBLE);
+    }
+
+}
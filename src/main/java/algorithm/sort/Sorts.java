@@ -0,0 +1,191 @@
+package algorithm.sort;
+
+import algorithm.sort.Sorter.KeyType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static algorithm.sort.SortAlgorithm.COUNT;
+import static algorithm.sort.SortAlgorithm.HEAP;
+import static algorithm.sort.SortAlgorithm.INSERTION;
+import static algorithm.sort.SortAlgorithm.INTRO;
+import static algorithm.sort.SortAlgorithm.MERGE;
+import static algorithm.sort.SortAlgorithm.PARALLEL_MERGE;
+import static algorithm.sort.SortAlgorithm.PARALLEL_RADIX;
+import static algorithm.sort.SortAlgorithm.PARALLEL_SAMPLE;
+import static algorithm.sort.SortAlgorithm.RADIX;
+import static algorithm.sort.SortAlgorithm.SHELL;
+import static algorithm.sort.SortAlgorithm.THREE_WAY_QUICK;
+import static algorithm.sort.SortAlgorithm.TIM;
+
+/**
+ * 排序的分发器: 根据输入的规模, 键类型和有序程度, 在满足调用者要求(Requirements)的排序中选择最快的一个
+ * <p>
+ * 选择前先使用InputProfile分析输入: 一次遍历统计run的个数和键的最值, 并在等距样本上估计逆序对和重复元素的比例
+ * <p>
+ * 按以下顺序列出候选, 选择第一个满足要求的排序:
+ * <p>
+ * - 1.N不超过INSERTION_THRESHOLD或已经有序: 插入排序
+ * <p>
+ * - 2.int键的值域适合计数(见CountSort.countable()): 计数排序
+ * <p>
+ * - 3.允许并行, N不小于PARALLEL_THRESHOLD且公共线程池的并行度大于1: 对象为并行样本排序, 并行归并排序; 基本类型为并行基数排序, 并行归并排序
+ * <p>
+ * - 4.run的个数不超过N / PRESORTED_RATIO(近似有序), 或对象数组的逆序对比例不低于REVERSED_RATIO(近似逆序, TimSort会翻转下降的run):
+ * 对象为TimSort, 归并排序, 希尔排序; 基本类型为内省排序(三取样的轴在近似有序的输入上切分均匀, 实测快于基数排序和归并排序)
+ * <p>
+ * - 5.基本类型且N不小于RADIX_THRESHOLD时为基数排序
+ * <p>
+ * - 6.样本中重复元素的比例不低于DUPLICATE_RATIO的基本类型数组: 三向切分快排
+ * <p>
+ * - 7.其他: 依次为内省排序, TimSort, 归并排序, 堆排序, 希尔排序
+ * <p>
+ * 插入排序满足所有要求, 因此总能选出一个排序; 但是同时要求稳定和原地的大对象数组只能使用O(N^2)的插入排序
+ *
+ * @author zk
+ * @see Sorter
+ * @see Requirements
+ */
+public final class Sorts {
+
+    static final int INSERTION_THRESHOLD = 32;
+
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    static final int RADIX_THRESHOLD = 1 << 10;
+
+    /**
+     * run的个数不超过N / PRESORTED_RATIO时视为近似有序
+     */
+    static final int PRESORTED_RATIO = 64;
+
+    /**
+     * 逆序对比例不低于该值时视为近似逆序
+     */
+    static final double REVERSED_RATIO = 0.95;
+
+    /**
+     * 样本中重复元素的比例不低于该值时视为大量重复
+     */
+    static final double DUPLICATE_RATIO = 0.5;
+
+    private Sorts() {
+    }
+
+    /**
+     * 按照要求r排序a
+     *
+     * @return 实际使用的排序
+     */
+    public static <K extends Comparable<K>> Sorter sort(K[] a, Requirements r) {
+        return sort(a, Comparator.naturalOrder(), r);
+    }
+
+    /**
+     * 按照要求r使用比较器c排序a
+     *
+     * @return 实际使用的排序
+     */
+    public static <T> Sorter sort(T[] a, Comparator<? super T> c, Requirements r) {
+        Sorter s = choose(KeyType.OBJECT, InputProfile.analyze(a, c), r, parallelism());
+        s.sort(a, c);
+        return s;
+    }
+
+    /**
+     * 按照要求r排序int数组a
+     *
+     * @return 实际使用的排序
+     */
+    public static Sorter sort(int[] a, Requirements r) {
+        Sorter s = choose(KeyType.INT, InputProfile.analyze(a), r, parallelism());
+        s.sort(a);
+        return s;
+    }
+
+    /**
+     * 按照要求r排序long数组a
+     *
+     * @return 实际使用的排序
+     */
+    public static Sorter sort(long[] a, Requirements r) {
+        Sorter s = choose(KeyType.LONG, InputProfile.analyze(a), r, parallelism());
+        s.sort(a);
+        return s;
+    }
+
+    /**
+     * 按照要求r排序double数组a
+     *
+     * @return 实际使用的排序
+     */
+    public static Sorter sort(double[] a, Requirements r) {
+        Sorter s = choose(KeyType.DOUBLE, InputProfile.analyze(a), r, parallelism());
+        s.sort(a);
+        return s;
+    }
+
+    /**
+     * 不分析输入时的选择: 视输入为随机的
+     */
+    public static Sorter choose(KeyType type, int n, Requirements r) {
+        return choose(type, InputProfile.unknown(n), r, parallelism());
+    }
+
+    /**
+     * 在满足要求r的排序中选择最快的一个
+     *
+     * @param type        键类型
+     * @param p           输入的概况
+     * @param r           要求
+     * @param parallelism 可用的并行度
+     */
+    static Sorter choose(KeyType type, InputProfile p, Requirements r, int parallelism) {
+        List<Sorter> candidates = new ArrayList<>();
+        int n = p.length();
+        boolean object = type == KeyType.OBJECT;
+        if (n <= INSERTION_THRESHOLD || p.isSorted()) {
+            candidates.add(INSERTION);
+        }
+        if (type == KeyType.INT && !Double.isNaN(p.range())
+                && CountSort.countable((int) p.min(), (int) p.max(), n, CountSort.DEFAULT_MEMORY_BUDGET)) {
+            candidates.add(COUNT);
+        }
+        if (parallelism > 1 && n >= PARALLEL_THRESHOLD) {
+            candidates.add(object ? PARALLEL_SAMPLE : PARALLEL_RADIX);
+            candidates.add(PARALLEL_MERGE);
+        }
+        if (p.runs() <= n / PRESORTED_RATIO || (object && p.inversionRatio() >= REVERSED_RATIO)) {
+            if (object) {
+                candidates.add(TIM);
+                candidates.add(MERGE);
+                candidates.add(SHELL);
+            } else {
+                candidates.add(INTRO);
+            }
+        }
+        if (!object && n >= RADIX_THRESHOLD) {
+            candidates.add(RADIX);
+        }
+        if (!object && p.duplicateRatio() >= DUPLICATE_RATIO) {
+            candidates.add(THREE_WAY_QUICK);
+        }
+        candidates.add(INTRO);
+        candidates.add(TIM);
+        candidates.add(MERGE);
+        candidates.add(HEAP);
+        candidates.add(SHELL);
+
+        for (Sorter s : candidates) {
+            if (r.accepts(s, type)) return s;
+        }
+        return INSERTION;
+    }
+
+    private static int parallelism() {
+        return ForkJoinPool.getCommonPoolParallelism();
+    }
+
+}
@@ -0,0 +1,518 @@
+package algorithm.sort;
+
+import java.lang.reflect.Array;
+import java.util.Comparator;
+
+/**
+ * 自然归并排序(TimSort)
+ * <p>
+ * MergeSort.advancedSort()只在归并时检查a[mid] <= a[mid+1], sortBottomUp()则总是从长度为1的子数组开始归并;
+ * 而实际数据(例如基本有序的日志批次)中往往已经存在很长的有序片段(run), TimSort直接利用这些run:
+ * <p>
+ * - 1.从左到右找出每一个run: 非递减的run保持不变, 严格递减的run原地反转(严格递减才能保证反转后仍然稳定)
+ * <p>
+ * - 2.长度小于minRun的run使用InsertionSort.binaryInsertSort()扩展到minRun, minRun取值在[16, 32]之间,
+ * 使得run的个数恰好为(或略小于)2的幂, 归并更加平衡
+ * <p>
+ * - 3.run依次入栈, 并保持栈中run长度满足: runLen[i-2] > runLen[i-1] + runLen[i] 以及 runLen[i-1] > runLen[i],
+ * 不满足时归并相邻的run, 因此栈的深度为O(lgN), 归并也接近平衡
+ * <p>
+ * - 4.归并前先用二分找出第一段中不需要移动的前缀和第二段中不需要移动的后缀, 只把较短的一段拷贝到临时数组
+ * <p>
+ * - 5.归并时若某一段连续胜出minGallop次, 进入galloping模式: 使用指数查找 + 二分查找一次性找出连续胜出的元素并整段拷贝;
+ * minGallop会根据galloping是否有效自适应调整
+ * <p>
+ * 最好时间: O(N) 数组已经有序或逆序
+ * <p>
+ * 最坏时间: O(NlgN)
+ * <p>
+ * 空间: O(N/2) 临时数组不超过较短一段的长度
+ * <p>
+ * TimSort是稳定的排序
+ *
+ * @author zk
+ */
+@SuppressWarnings("unchecked")
+public class TimSort<T> extends BaseSort {
+
+    /**
+     * 数组长度小于该值时直接使用折半插入排序, 同时也是minRun的上界
+     */
+    private static final int MIN_MERGE = 32;
+
+    /**
+     * 进入galloping模式的初始阈值
+     */
+    private static final int MIN_GALLOP = 7;
+
+    /**
+     * 满足不变式时, 栈中run的长度至少按斐波那契数列增长, 因此int范围内的数组最多需要49个run
+     */
+    private static final int MAX_STACK_SIZE = 49;
+
+    private final T[] a;
+
+    private final Comparator<? super T> c;
+
+    /**
+     * 当前进入galloping模式的阈值
+     */
+    private int minGallop = MIN_GALLOP;
+
+    /**
+     * 归并时使用的临时数组, 按需扩容
+     */
+    private T[] tmp;
+
+    /**
+     * 待归并的run栈: 第i个run为a[runBase[i]...runBase[i]+runLen[i]-1]
+     */
+    private final int[] runBase = new int[MAX_STACK_SIZE];
+
+    private final int[] runLen = new int[MAX_STACK_SIZE];
+
+    private int stackSize = 0;
+
+    private TimSort(T[] a, Comparator<? super T> c) {
+        this.a = a;
+        this.c = c;
+    }
+
+    public static <K extends Comparable<K>> void sort(K[] a) {
+        sort(a, Comparator.naturalOrder());
+    }
+
+    /**
+     * 使用比较器c的TimSort
+     *
+     * @param a 待排序数组
+     * @param c 比较器
+     */
+    public static <T> void sort(T[] a, Comparator<? super T> c) {
+        int lo = 0, hi = a.length, remaining = hi;
+        if (remaining < 2) {
+            return;
+        }
+
+        // 小数组: 找出开头的run后, 使用折半插入排序插入剩余的元素
+        if (remaining < MIN_MERGE) {
+            int initRunLen = countRunAndMakeAscending(a, lo, hi, c);
+            InsertionSort.binaryInsertSort(a, lo, hi - 1, lo + initRunLen, c);
+            return;
+        }
+
+        TimSort<T> ts = new TimSort<>(a, c);
+        int minRun = minRunLength(remaining);
+        do {
+            int runLen = countRunAndMakeAscending(a, lo, hi, c);
+
+            // run太短时, 扩展到min(minRun, remaining)
+            if (runLen < minRun) {
+                int force = Math.min(remaining, minRun);
+                InsertionSort.binaryInsertSort(a, lo, lo + force - 1, lo + runLen, c);
+                runLen = force;
+            }
+
+            ts.pushRun(lo, runLen);
+            ts.mergeCollapse();
+
+            lo += runLen;
+            remaining -= runLen;
+        } while (remaining != 0);
+
+        ts.mergeForceCollapse();
+    }
+
+    /**
+     * 计算minRun: 取n的最高6位, 若剩余的低位中有1则加1
+     * <p>
+     * 使得n / minRun恰好为2的幂, 或略小于2的幂
+     */
+    static int minRunLength(int n) {
+        int r = 0;
+        while (n >= MIN_MERGE) {
+            r |= (n & 1);
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    /**
+     * 返回从a[lo]开始的run的长度(a[lo...hi-1]), 若该run严格递减则将其反转
+     */
+    static <T> int countRunAndMakeAscending(T[] a, int lo, int hi, Comparator<? super T> c) {
+        int runHi = lo + 1;
+        if (runHi == hi) {
+            return 1;
+        }
+
+        if (less(a[runHi++], a[lo], c)) {
+            // 严格递减
+            while (runHi < hi && less(a[runHi], a[runHi - 1], c)) runHi++;
+            reverseRange(a, lo, runHi);
+        } else {
+            // 非递减
+            while (runHi < hi && !less(a[runHi], a[runHi - 1], c)) runHi++;
+        }
+        return runHi - lo;
+    }
+
+    /**
+     * 反转a[lo...hi-1]
+     */
+    private static void reverseRange(Object[] a, int lo, int hi) {
+        hi--;
+        while (lo < hi) {
+            exch(a, lo++, hi--);
+        }
+    }
+
+    private void pushRun(int base, int len) {
+        runBase[stackSize] = base;
+        runLen[stackSize] = len;
+        stackSize++;
+    }
+
+    /**
+     * 检查栈顶的run, 归并直到满足不变式:
+     * <p>
+     * - 1.runLen[i-3] > runLen[i-2] + runLen[i-1]
+     * <p>
+     * - 2.runLen[i-2] > runLen[i-1]
+     * <p>
+     * (同时检查栈顶下的第四个run, 否则不变式在归并之后可能被破坏)
+     */
+    private void mergeCollapse() {
+        while (stackSize > 1) {
+            int n = stackSize - 2;
+            if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+                    || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                // 与较短的相邻run归并
+                if (runLen[n - 1] < runLen[n + 1]) n--;
+            } else if (runLen[n] > runLen[n + 1]) {
+                break;
+            }
+            mergeAt(n);
+        }
+    }
+
+    /**
+     * 归并栈中剩余的所有run
+     */
+    private void mergeForceCollapse() {
+        while (stackSize > 1) {
+            int n = stackSize - 2;
+            if (n > 0 && runLen[n - 1] < runLen[n + 1]) n--;
+            mergeAt(n);
+        }
+    }
+
+    /**
+     * 归并栈中第i和第i+1个run
+     */
+    private void mergeAt(int i) {
+        int base1 = runBase[i], len1 = runLen[i];
+        int base2 = runBase[i + 1], len2 = runLen[i + 1];
+
+        runLen[i] = len1 + len2;
+        if (i == stackSize - 3) {
+            runBase[i + 1] = runBase[i + 2];
+            runLen[i + 1] = runLen[i + 2];
+        }
+        stackSize--;
+
+        // 第一段中不大于a[base2]的前缀已经在最终位置
+        int k = gallopRight(a[base2], a, base1, len1, 0, c);
+        base1 += k;
+        len1 -= k;
+        if (len1 == 0) {
+            return;
+        }
+
+        // 第二段中不小于第一段最后一个元素的后缀已经在最终位置
+        len2 = gallopLeft(a[base1 + len1 - 1], a, base2, len2, len2 - 1, c);
+        if (len2 == 0) {
+            return;
+        }
+
+        // 只把较短的一段拷贝到临时数组中
+        if (len1 <= len2) {
+            mergeLo(base1, len1, base2, len2);
+        } else {
+            mergeHi(base1, len1, base2, len2);
+        }
+    }
+
+    /**
+     * 在有序的a[base...base+len-1]中查找key的插入位置k(相等时插入到最左侧): a[base+k-1] < key <= a[base+k]
+     * <p>
+     * 从hint开始以1, 3, 7, 15...的步长指数查找, 确定区间后再二分查找
+     */
+    static <T> int gallopLeft(T key, T[] a, int base, int len, int hint, Comparator<? super T> c) {
+        int lastOfs = 0, ofs = 1;
+        if (less(a[base + hint], key, c)) {
+            // 向右查找, 直到a[base+hint+lastOfs] < key <= a[base+hint+ofs]
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && less(a[base + hint + ofs], key, c)) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                // 溢出
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            lastOfs += hint;
+            ofs += hint;
+        } else {
+            // 向左查找, 直到a[base+hint-ofs] < key <= a[base+hint-lastOfs]
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && !less(a[base + hint - ofs], key, c)) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            int t = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - t;
+        }
+
+        // 此时a[base+lastOfs] < key <= a[base+ofs], 在(lastOfs, ofs]中二分查找
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (less(a[base + m], key, c)) lastOfs = m + 1;
+            else ofs = m;
+        }
+        return ofs;
+    }
+
+    /**
+     * 在有序的a[base...base+len-1]中查找key的插入位置k(相等时插入到最右侧): a[base+k-1] <= key < a[base+k]
+     */
+    static <T> int gallopRight(T key, T[] a, int base, int len, int hint, Comparator<? super T> c) {
+        int lastOfs = 0, ofs = 1;
+        if (less(key, a[base + hint], c)) {
+            // 向左查找, 直到a[base+hint-ofs] <= key < a[base+hint-lastOfs]
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && less(key, a[base + hint - ofs], c)) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            int t = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - t;
+        } else {
+            // 向右查找, 直到a[base+hint+lastOfs] <= key < a[base+hint+ofs]
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && !less(key, a[base + hint + ofs], c)) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            lastOfs += hint;
+            ofs += hint;
+        }
+
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (less(key, a[base + m], c)) ofs = m;
+            else lastOfs = m + 1;
+        }
+        return ofs;
+    }
+
+    /**
+     * 从左向右归并(第一段较短): 将第一段拷贝到临时数组
+     * <p>
+     * 调用前保证: a[base2] < a[base1], 且第一段的最后一个元素大于第二段的所有元素
+     */
+    private void mergeLo(int base1, int len1, int base2, int len2) {
+        T[] a = this.a;
+        T[] tmp = ensureCapacity(len1);
+        System.arraycopy(a, base1, tmp, 0, len1);
+
+        int cursor1 = 0, cursor2 = base2, dest = base1;
+        a[dest++] = a[cursor2++];
+        if (--len2 == 0) {
+            System.arraycopy(tmp, cursor1, a, dest, len1);
+            return;
+        }
+        if (len1 == 1) {
+            System.arraycopy(a, cursor2, a, dest, len2);
+            a[dest + len2] = tmp[cursor1];
+            return;
+        }
+
+        int minGallop = this.minGallop;
+        outer:
+        while (true) {
+            // 每段连续胜出的次数
+            int count1 = 0, count2 = 0;
+
+            // 逐个比较, 直到某一段连续胜出minGallop次
+            do {
+                if (less(a[cursor2], tmp[cursor1], c)) {
+                    a[dest++] = a[cursor2++];
+                    count2++;
+                    count1 = 0;
+                    if (--len2 == 0) break outer;
+                } else {
+                    a[dest++] = tmp[cursor1++];
+                    count1++;
+                    count2 = 0;
+                    if (--len1 == 1) break outer;
+                }
+            } while ((count1 | count2) < minGallop);
+
+            // galloping模式: 一次找出连续胜出的元素并整段拷贝, 直到效果不明显
+            do {
+                count1 = gallopRight(a[cursor2], tmp, cursor1, len1, 0, c);
+                if (count1 != 0) {
+                    System.arraycopy(tmp, cursor1, a, dest, count1);
+                    dest += count1;
+                    cursor1 += count1;
+                    len1 -= count1;
+                    if (len1 <= 1) break outer;
+                }
+                a[dest++] = a[cursor2++];
+                if (--len2 == 0) break outer;
+
+                count2 = gallopLeft(tmp[cursor1], a, cursor2, len2, 0, c);
+                if (count2 != 0) {
+                    System.arraycopy(a, cursor2, a, dest, count2);
+                    dest += count2;
+                    cursor2 += count2;
+                    len2 -= count2;
+                    if (len2 == 0) break outer;
+                }
+                a[dest++] = tmp[cursor1++];
+                if (--len1 == 1) break outer;
+
+                // galloping有效, 降低进入的阈值
+                minGallop--;
+            } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+
+            // 退出galloping模式, 提高再次进入的阈值
+            if (minGallop < 0) minGallop = 0;
+            minGallop += 2;
+        }
+        this.minGallop = Math.max(minGallop, 1);
+
+        if (len1 == 1) {
+            // 第一段只剩最后一个(最大的)元素
+            System.arraycopy(a, cursor2, a, dest, len2);
+            a[dest + len2] = tmp[cursor1];
+        } else if (len1 == 0) {
+            throw new IllegalArgumentException("Comparison method violates its general contract!");
+        } else {
+            System.arraycopy(tmp, cursor1, a, dest, len1);
+        }
+    }
+
+    /**
+     * 从右向左归并(第二段较短): 将第二段拷贝到临时数组
+     */
+    private void mergeHi(int base1, int len1, int base2, int len2) {
+        T[] a = this.a;
+        T[] tmp = ensureCapacity(len2);
+        System.arraycopy(a, base2, tmp, 0, len2);
+
+        int cursor1 = base1 + len1 - 1, cursor2 = len2 - 1, dest = base2 + len2 - 1;
+        a[dest--] = a[cursor1--];
+        if (--len1 == 0) {
+            System.arraycopy(tmp, 0, a, dest - (len2 - 1), len2);
+            return;
+        }
+        if (len2 == 1) {
+            dest -= len1;
+            cursor1 -= len1;
+            System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+            a[dest] = tmp[cursor2];
+            return;
+        }
+
+        int minGallop = this.minGallop;
+        outer:
+        while (true) {
+            int count1 = 0, count2 = 0;
+
+            do {
+                if (less(tmp[cursor2], a[cursor1], c)) {
+                    a[dest--] = a[cursor1--];
+                    count1++;
+                    count2 = 0;
+                    if (--len1 == 0) break outer;
+                } else {
+                    a[dest--] = tmp[cursor2--];
+                    count2++;
+                    count1 = 0;
+                    if (--len2 == 1) break outer;
+                }
+            } while ((count1 | count2) < minGallop);
+
+            do {
+                count1 = len1 - gallopRight(tmp[cursor2], a, base1, len1, len1 - 1, c);
+                if (count1 != 0) {
+                    dest -= count1;
+                    cursor1 -= count1;
+                    len1 -= count1;
+                    System.arraycopy(a, cursor1 + 1, a, dest + 1, count1);
+                    if (len1 == 0) break outer;
+                }
+                a[dest--] = tmp[cursor2--];
+                if (--len2 == 1) break outer;
+
+                count2 = len2 - gallopLeft(a[cursor1], tmp, 0, len2, len2 - 1, c);
+                if (count2 != 0) {
+                    dest -= count2;
+                    cursor2 -= count2;
+                    len2 -= count2;
+                    System.arraycopy(tmp, cursor2 + 1, a, dest + 1, count2);
+                    if (len2 <= 1) break outer;
+                }
+                a[dest--] = a[cursor1--];
+                if (--len1 == 0) break outer;
+
+                minGallop--;
+            } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+
+            if (minGallop < 0) minGallop = 0;
+            minGallop += 2;
+        }
+        this.minGallop = Math.max(minGallop, 1);
+
+        if (len2 == 1) {
+            // 第二段只剩第一个(最小的)元素
+            dest -= len1;
+            cursor1 -= len1;
+            System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+            a[dest] = tmp[cursor2];
+        } else if (len2 == 0) {
+            throw new IllegalArgumentException("Comparison method violates its general contract!");
+        } else {
+            System.arraycopy(tmp, 0, a, dest - (len2 - 1), len2);
+        }
+    }
+
+    /**
+     * 保证临时数组至少能容纳minCapacity个元素, 按2的幂扩容(不超过a.length / 2 + 1之外的必要大小)
+     */
+    private T[] ensureCapacity(int minCapacity) {
+        if (tmp == null || tmp.length < minCapacity) {
+            int newSize = Integer.highestOneBit(minCapacity) << 1;
+            if (newSize < 0) {
+                newSize = minCapacity;
+            } else {
+                newSize = Math.min(newSize, a.length >>> 1);
+            }
+            newSize = Math.max(newSize, minCapacity);
+            tmp = (T[]) Array.newInstance(a.getClass().getComponentType(), newSize);
+        }
+        return tmp;
+    }
+
+}
@@ -0,0 +1,130 @@
+package algorithm.sort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 数据流的Top-K收集器: 保留已见过的元素中最大的k个
+ * <p>
+ * 使用容量为k的最小堆(复用HeapSort的堆调整, 比较器取反即为最小堆), 堆顶为当前保留的k个元素中最小的一个:
+ * <p>
+ * - 1.元素不足k个时直接追加, 恰好达到k个时一次性建堆O(k)
+ * <p>
+ * - 2.之后的元素只有大于堆顶时才替换堆顶并下沉, 否则直接丢弃
+ * <p>
+ * 时间: O(Nlgk), 对于随机数据, 后期绝大多数元素只需与堆顶比较一次即被丢弃
+ * <p>
+ * 空间: O(k), 与数据流的长度无关
+ * <p>
+ * 需要最小的k个元素时使用逆序的比较器; 数据已全部在数组中时也可以使用PartialSort
+ *
+ * @author zk
+ */
+@SuppressWarnings("unchecked")
+public class TopK<T> {
+
+    private final int k;
+
+    /**
+     * 堆的比较器: c取反, 因此HeapSort的最大堆即为按c的最小堆
+     */
+    private final Comparator<? super T> heapOrder;
+
+    private final T[] heap;
+
+    private int size;
+
+    /**
+     * @param k 保留的元素个数
+     * @param c 比较器, 保留按c最大的k个元素
+     */
+    public TopK(int k, Comparator<? super T> c) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive: " + k);
+        }
+        this.k = k;
+        this.heapOrder = (x, y) -> c.compare(y, x);
+        this.heap = (T[]) new Object[k];
+    }
+
+    /**
+     * 按自然顺序保留最大的k个元素
+     */
+    public static <K extends Comparable<K>> TopK<K> largest(int k) {
+        return new TopK<>(k, Comparator.naturalOrder());
+    }
+
+    /**
+     * 按自然顺序保留最小的k个元素
+     */
+    public static <K extends Comparable<K>> TopK<K> smallest(int k) {
+        return new TopK<>(k, Comparator.reverseOrder());
+    }
+
+    /**
+     * 加入一个元素
+     *
+     * @return 元素是否被保留(之后仍可能被更大的元素挤出)
+     */
+    public boolean offer(T x) {
+        if (size < k) {
+            heap[size++] = x;
+            if (size == k) {
+                for (int i = k / 2 - 1; i >= 0; i--) {
+                    HeapSort.heapify(heap, 0, i, k, heapOrder);
+                }
+            }
+            return true;
+        }
+
+        // 不大于堆顶的元素不可能进入前k个
+        if (!BaseSort.less(x, heap[0], heapOrder)) {
+            return false;
+        }
+        heap[0] = x;
+        HeapSort.heapify(heap, 0, 0, k, heapOrder);
+        return true;
+    }
+
+    public void offerAll(Iterable<? extends T> xs) {
+        for (T x : xs) {
+            offer(x);
+        }
+    }
+
+    /**
+     * 合并另一个收集器保留的元素, 用于分段(并行)收集后汇总
+     */
+    public void merge(TopK<? extends T> other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.heap[i]);
+        }
+    }
+
+    /**
+     * 当前保留的元素个数(不超过k)
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 进入前k个的门槛: 已满k个时为保留的元素中最小的一个, 否则为null
+     */
+    public T threshold() {
+        return size == k ? heap[0] : null;
+    }
+
+    /**
+     * 返回保留的元素, 从大到小排列
+     */
+    public List<T> toList() {
+        T[] a = Arrays.copyOf(heap, size);
+        // 按取反的比较器升序, 即按c降序
+        HeapSort.sort(a, heapOrder);
+        return new ArrayList<>(Arrays.asList(a));
+    }
+
+}
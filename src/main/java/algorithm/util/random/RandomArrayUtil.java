@@ -42,6 +42,20 @@ public class RandomArrayUtil {
         return arr;
     }
 
+    /**
+     * 指定数组长度, 生成随机long数组(覆盖long全部取值范围)
+     *
+     * @param len 数组长度
+     * @return 随机数组
+     */
+    public static long[] getRandomLongArray(int len) {
+        long[] arr = new long[len];
+        for (int i = 0; i < len; i++) {
+            arr[i] = ((long) RandomUtils.getRandomInteger() << 32) ^ (RandomUtils.getRandomInteger() & 0xFFFFFFFFL);
+        }
+        return arr;
+    }
+
     /**
      * 指定floor, ceil和数组长度, 生成随机Integer数组
      *
@@ -102,6 +116,22 @@ public class RandomArrayUtil {
         return arr;
     }
 
+    /**
+     * 指定floor, ceil和数组长度, 生成随机float数组
+     *
+     * @param floor 数组中最小数
+     * @param ceil 数组中最大数
+     * @param len 数组长度
+     * @return 数组
+     */
+    public static float[] getRandomFloatArray(int floor, int ceil, int len) {
+        float[] arr = new float[len];
+        for (int i = 0; i < len; i++) {
+            arr[i] = (float) RandomUtils.getRandomDouble(floor, ceil);
+        }
+        return arr;
+    }
+
     /**
      * 指定floor, ceil和数组长度, 生成随机Double数组
      *
@@ -0,0 +1,102 @@
+package algorithm.basic;
+
+import algorithm.util.iostream.StdOut;
+import algorithm.util.random.RandomArrayUtil;
+import algorithm.util.watch.Stopwatch;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static algorithm.basic.BinarySearch.branchlessIndexOf;
+import static algorithm.basic.BinarySearch.branchlessLowerBound;
+import static algorithm.basic.BinarySearch.branchlessUpperBound;
+import static algorithm.basic.BinarySearch.indexOf;
+import static algorithm.basic.BinarySearch.lowerBound;
+import static algorithm.basic.BinarySearch.upperBound;
+
+public class BinarySearchTest {
+
+    /**
+     * 逐个比较各种查找方式的下界, 上界和精确查找, 包括重复元素, 不存在的键以及Integer.MAX_VALUE
+     */
+    @Test
+    public void searchTest() {
+        for (int n : new int[]{0, 1, 2, 15, 16, 17, 100, 272, 273, 1000, 4913, 5000}) {
+            int[] a = RandomArrayUtil.getRandomIntArray(-n, n, n);
+            if (n > 2) {
+                a[0] = Integer.MIN_VALUE;
+                a[1] = Integer.MAX_VALUE;
+            }
+            Arrays.sort(a);
+            BinarySearch.Eytzinger eytzinger = new BinarySearch.Eytzinger(a);
+            BinarySearch.STree sTree = new BinarySearch.STree(a);
+            assert eytzinger.size() == n && sTree.size() == n;
+
+            int[] keys = {Integer.MIN_VALUE, Integer.MAX_VALUE, 0};
+            keys = Arrays.copyOf(keys, keys.length + 2 * n + 3);
+            for (int i = 3, key = -n - 1; i < keys.length; i++) keys[i] = key++;
+
+            for (int key : keys) {
+                int lower = 0, upper = 0;
+                while (lower < n && a[lower] < key) lower++;
+                while (upper < n && a[upper] <= key) upper++;
+                int first = lower < n && a[lower] == key ? lower : -1;
+
+                assert lowerBound(key, a) == lower && upperBound(key, a) == upper;
+                assert branchlessLowerBound(key, a) == lower && branchlessUpperBound(key, a) == upper;
+                assert branchlessIndexOf(key, a) == first;
+                assert eytzinger.lowerBound(key) == lower : n + " " + key;
+                assert eytzinger.upperBound(key) == upper : n + " " + key;
+                assert eytzinger.indexOf(key) == first && eytzinger.contains(key) == (first >= 0);
+                assert sTree.lowerBound(key) == lower : n + " " + key;
+                assert sTree.upperBound(key) == upper : n + " " + key;
+                assert sTree.indexOf(key) == first && sTree.contains(key) == (first >= 0);
+
+                int i = indexOf(key, a);
+                assert first < 0 ? i == -1 : a[i] == key;
+            }
+        }
+    }
+
+    /**
+     * 在一千万个有序元素中查找一千万个随机的键(约一半存在), 比较各种查找方式
+     */
+    @Test
+    public void compareSearch() {
+        int n = 10000000;
+        int[] a = RandomArrayUtil.getRandomIntArray(0, 2 * n, n);
+        Arrays.sort(a);
+        int[] keys = RandomArrayUtil.getRandomIntArray(0, 2 * n, n);
+
+        Stopwatch stopwatch = new Stopwatch();
+        BinarySearch.Eytzinger eytzinger = new BinarySearch.Eytzinger(a);
+        StdOut.printf("%s (%.2f seconds)\n", "build Eytzinger:", stopwatch.elapsedTime());
+        stopwatch = new Stopwatch();
+        BinarySearch.STree sTree = new BinarySearch.STree(a);
+        StdOut.printf("%s (%.2f seconds)\n", "build S-tree:", stopwatch.elapsedTime());
+        System.out.println();
+
+        long found = 0;
+        stopwatch = new Stopwatch();
+        for (int key : keys) if (indexOf(key, a) >= 0) found++;
+        StdOut.printf("%s (%.2f seconds)\n", "indexOf:", stopwatch.elapsedTime());
+
+        long branchless = 0;
+        stopwatch = new Stopwatch();
+        for (int key : keys) if (branchlessIndexOf(key, a) >= 0) branchless++;
+        StdOut.printf("%s (%.2f seconds)\n", "branchlessIndexOf:", stopwatch.elapsedTime());
+
+        long inEytzinger = 0;
+        stopwatch = new Stopwatch();
+        for (int key : keys) if (eytzinger.contains(key)) inEytzinger++;
+        StdOut.printf("%s (%.2f seconds)\n", "Eytzinger.contains:", stopwatch.elapsedTime());
+
+        long inSTree = 0;
+        stopwatch = new Stopwatch();
+        for (int key : keys) if (sTree.contains(key)) inSTree++;
+        StdOut.printf("%s (%.2f seconds)\n", "STree.contains:", stopwatch.elapsedTime());
+
+        assert found == branchless && found == inEytzinger && found == inSTree;
+    }
+
+}
@@ -0,0 +1,157 @@
+package algorithm.sort;
+
+import algorithm.util.iostream.StdOut;
+import algorithm.util.random.RandomArrayUtil;
+import algorithm.util.watch.Stopwatch;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+
+import static algorithm.sort.BaseSort.checksum;
+import static algorithm.sort.BaseSort.isSorted;
+import static algorithm.sort.BaseSort.isSortedPermutation;
+import static algorithm.sort.BaseSort.parallelIsSorted;
+
+public class BaseSortTest {
+
+    @Test
+    public void isSortedTest() {
+        assert isSorted(new int[]{1, 2, 2, 3}) && !isSorted(new int[]{1, 3, 2});
+        assert isSorted(new double[]{-1.5, 0, 0, 2.5}) && !isSorted(new double[]{2.5, 0});
+        assert isSorted(new int[]{3, 1, 2, 4}, 1, 3) && !isSorted(new int[]{3, 1, 2, 4}, 0, 3);
+        assert isSorted(new int[0]) && isSorted(new double[]{1});
+        assert isSorted(new Integer[]{3, 2, 1}, Comparator.reverseOrder());
+        assert isSorted(new Integer[]{9, 1, 2, 9}, 1, 2, Comparator.naturalOrder());
+    }
+
+    @Test
+    public void nanIsSortedTest() {
+        // NaN只能出现在末尾
+        assert !isSorted(new double[]{3.0, Double.NaN, 1.0});
+        assert !isSorted(new double[]{Double.NaN, 1.0});
+        assert isSorted(new double[]{1.0, 3.0, Double.NaN, Double.NaN});
+        assert isSorted(new double[]{0.0, -0.0, 1.0});
+        assert !isSorted(new float[]{3f, Float.NaN, 1f}) && isSorted(new float[]{1f, Float.NaN});
+
+        double[] a = {3.0, Double.NaN, 1.0};
+        long sum = checksum(a);
+        assert !isSortedPermutation(a, sum);
+        Arrays.sort(a);
+        assert isSortedPermutation(a, sum);
+
+        int n = BaseSort.PARALLEL_CHECK_THRESHOLD * 4;
+        double[] b = RandomArrayUtil.getRandomDoubleArray(0, 1, n);
+        Arrays.sort(b);
+        b[n / 3] = Double.NaN;
+        assert !parallelIsSorted(b);
+    }
+
+    /**
+     * 逆序分别出现在块内部和块的分界处时都能被发现
+     */
+    @Test
+    public void parallelIsSortedTest() {
+        int n = BaseSort.PARALLEL_CHECK_THRESHOLD * 8 + 3;
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            int[] a = new int[n];
+            for (int i = 0; i < n; i++) a[i] = i;
+            assert parallelIsSorted(a) && parallelIsSorted(a, pool);
+
+            // 所有分界点都在中点附近, 逐一破坏每个位置附近的顺序
+            for (int p : new int[]{1, n / 2, n / 2 + 1, n / 4, n / 4 + 1, n / 8, n - 1}) {
+                int[] b = a.clone();
+                BaseSort.exch(b, p - 1, p);
+                assert !parallelIsSorted(b, pool) : p;
+            }
+
+            long[] c = RandomArrayUtil.getRandomLongArray(n);
+            Arrays.sort(c);
+            assert parallelIsSorted(c, pool);
+            c[n / 2] = Long.MIN_VALUE;
+            assert !parallelIsSorted(c, pool);
+
+            double[] d = RandomArrayUtil.getRandomDoubleArray(0, 1, n);
+            assert !parallelIsSorted(d, pool);
+            Arrays.sort(d);
+            assert parallelIsSorted(d, pool);
+
+            float[] e = RandomArrayUtil.getRandomFloatArray(0, 1, n);
+            Arrays.sort(e);
+            assert parallelIsSorted(e, pool);
+
+            Integer[] f = Arrays.stream(a).boxed().toArray(Integer[]::new);
+            assert parallelIsSorted(f, Comparator.naturalOrder(), pool);
+            assert !parallelIsSorted(f, Comparator.reverseOrder(), pool);
+
+            assert parallelIsSorted(new int[0]) && parallelIsSorted(new int[]{1});
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void checksumTest() {
+        int[] a = RandomArrayUtil.getRandomIntArray(-1000, 1000, 10000);
+        long sum = checksum(a);
+        int[] sorted = a.clone();
+        Arrays.sort(sorted);
+        assert isSortedPermutation(sorted, sum);
+
+        // 有序但丢失或替换了元素
+        int[] wrong = sorted.clone();
+        wrong[0]--;
+        assert isSorted(wrong) && !isSortedPermutation(wrong, sum);
+        assert !isSortedPermutation(Arrays.copyOf(sorted, sorted.length - 1), sum);
+        assert !isSortedPermutation(a, sum) || isSorted(a);
+
+        // 0不是混合函数的不动点: 多出的0也会被发现
+        assert checksum(new int[]{0}) != checksum(new int[0]);
+        assert checksum(new long[]{0, 0}) != checksum(new long[]{0});
+
+        double[] b = RandomArrayUtil.getRandomDoubleArray(0, 1000, 10000);
+        long sumB = checksum(b);
+        Arrays.sort(b);
+        assert isSortedPermutation(b, sumB);
+        b[0] -= 1;
+        assert !isSortedPermutation(b, sumB);
+
+        float[] c = RandomArrayUtil.getRandomFloatArray(0, 1000, 1000);
+        long sumC = checksum(c);
+        Arrays.sort(c);
+        assert isSortedPermutation(c, sumC);
+
+        Integer[] d = RandomArrayUtil.getRandomBoxedIntArray(0, 1000, 1000);
+        long sumD = checksum(d);
+        Arrays.sort(d, Comparator.reverseOrder());
+        assert isSortedPermutation(d, Comparator.reverseOrder(), sumD);
+        d[0] = d[0] + 1;
+        assert !isSortedPermutation(d, Comparator.reverseOrder(), sumD);
+    }
+
+    /**
+     * 对一亿个有序的int比较顺序检查, 并行检查以及计算校验和的时间
+     */
+    @Test
+    public void compareIsSorted() {
+        int n = 100000000;
+        int[] a = new int[n];
+        for (int i = 0; i < n; i++) a[i] = i;
+
+        Stopwatch stopwatch = new Stopwatch();
+        assert isSorted(a);
+        StdOut.printf("%s (%.2f seconds)\n", "isSorted:", stopwatch.elapsedTime());
+
+        stopwatch = new Stopwatch();
+        assert parallelIsSorted(a);
+        StdOut.printf("%s (%.2f seconds)\n", "parallelIsSorted:", stopwatch.elapsedTime());
+
+        stopwatch = new Stopwatch();
+        long sum = checksum(a);
+        StdOut.printf("%s (%.2f seconds)\n", "checksum:", stopwatch.elapsedTime());
+        assert isSortedPermutation(a, sum);
+    }
+
+}
@@ -6,6 +6,7 @@ import algorithm.util.watch.Stopwatch;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Comparator;
 
 import static algorithm.sort.BaseSort.isSorted;
 import static algorithm.sort.BaseSort.show;
@@ -50,6 +51,14 @@ public class BubbleSortTest {
         assert isSorted(a);
     }
 
+    @Test
+    public void comparatorSortTest() {
+        Integer[] a = RandomArrayUtil.getRandomBoxedIntArray(0, 1000, 20);
+        sort(a, Comparator.reverseOrder());
+        show(a);
+        assert isSorted(a, Comparator.reverseOrder());
+    }
+
     /**
      * 对冒泡排序的各种方法进行性能测试
      *
@@ -4,6 +4,7 @@ import algorithm.util.random.RandomArrayUtil;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 import static algorithm.sort.BaseSort.isSorted;
 import static algorithm.sort.BucketSort.sort;
@@ -18,4 +19,53 @@ public class BucketSortTest {
         System.out.println(Arrays.toString(a));
         assert isSorted(a);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void nanBucketSortTest() {
+        // 第一个元素为NaN时也要排序其余的元素, NaN在末尾
+        double[] a = {Double.NaN, 3, 1, Double.NaN, 2};
+        sort(a);
+        assert a[0] == 1 && a[1] == 2 && a[2] == 3 && Double.isNaN(a[3]) && Double.isNaN(a[4]);
+
+        double[] b = RandomArrayUtil.getRandomDoubleArray(-1000, 1000, 100000);
+        for (int i = 0; i < b.length; i += 31) b[i] = Double.NaN;
+        double[] expect = b.clone();
+        Arrays.sort(expect);
+        BucketSort.parallelSort(b);
+        assert Arrays.equals(b, expect);
+    }
+
+    @Test
+    public void adaptiveBucketSortTest() {
+        double[] a = RandomArrayUtil.getRandomDoubleArray(-1000, 1000, 1000000);
+        double[] expect = a.clone();
+        Arrays.sort(expect);
+        sort(a);
+        assert Arrays.equals(a, expect);
+
+        // 分布极不均匀: 大部分元素落入同一个桶
+        double[] b = RandomArrayUtil.getRandomDoubleArray(0, 1, 100000);
+        b[0] = 1e9;
+        sort(b, 10);
+        assert isSorted(b);
+
+        double[] c = {3.0, 3.0, 3.0};
+        sort(c);
+        assert isSorted(c);
+    }
+
+    @Test
+    public void parallelBucketSortTest() {
+        double[] a = RandomArrayUtil.getRandomDoubleArray(0, 1000, 1000000);
+        double[] expect = a.clone();
+        Arrays.sort(expect);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            BucketSort.parallelSort(a, 100000, pool);
+        } finally {
+            pool.shutdown();
+        }
+        assert Arrays.equals(a, expect);
+    }
+
+}
@@ -4,6 +4,7 @@ import algorithm.util.random.RandomArrayUtil;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 import static algorithm.sort.BaseSort.isSorted;
 import static algorithm.sort.CountSort.sort;
@@ -25,4 +26,101 @@ public class CountSortTest {
         System.out.println(Arrays.toString(a));
         assert isSorted(a);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void sortByKeyTest() {
+        int[] keys = RandomArrayUtil.getRandomIntArray(-50, 50, 100000);
+        int[] perm = CountSort.sortedPermutation(keys);
+        for (int i = 1; i < perm.length; i++) {
+            // 稳定排序: 键相同时保持原始顺序
+            assert keys[perm[i - 1]] < keys[perm[i]] || (keys[perm[i - 1]] == keys[perm[i]] && perm[i - 1] < perm[i]);
+        }
+
+        // 平行数组: 值为原始位置
+        int[] sortedKeys = keys.clone();
+        long[] ids = new long[keys.length];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+        }
+        sort(sortedKeys, ids);
+        for (int i = 0; i < ids.length; i++) {
+            assert ids[i] == perm[i];
+            assert sortedKeys[i] == keys[perm[i]];
+        }
+    }
+
+    @Test
+    public void wideRangeTest() {
+        // 值域超过int范围, 自动改为基数排序
+        int[] a = RandomArrayUtil.getRandomIntArray(100000);
+        a[0] = Integer.MIN_VALUE;
+        a[1] = Integer.MAX_VALUE;
+        int[] expect = a.clone();
+        Arrays.sort(expect);
+        sort(a);
+        assert Arrays.equals(a, expect);
+
+        int[] b = {Integer.MAX_VALUE, Integer.MIN_VALUE, 0};
+        sort(b);
+        assert isSorted(b);
+
+        // 数组足够长且内存预算不限时, 值域仍不能超过数组的最大长度, 否则max - min + 1溢出
+        assert !CountSort.countable(Integer.MIN_VALUE, Integer.MAX_VALUE, 1 << 30, Long.MAX_VALUE);
+        assert !CountSort.countable(0, Integer.MAX_VALUE - 8, Integer.MAX_VALUE, Long.MAX_VALUE);
+        assert CountSort.countable(0, Integer.MAX_VALUE - 9, Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    @Test
+    public void smallTypeSortTest() {
+        int[] ints = RandomArrayUtil.getRandomIntArray(-40000, 40000, 100000);
+        byte[] a = new byte[ints.length];
+        short[] b = new short[ints.length];
+        char[] c = new char[ints.length];
+        for (int i = 0; i < ints.length; i++) {
+            a[i] = (byte) ints[i];
+            b[i] = (short) ints[i];
+            c[i] = (char) ints[i];
+        }
+        byte[] expectA = a.clone();
+        short[] expectB = b.clone();
+        char[] expectC = c.clone();
+        Arrays.sort(expectA);
+        Arrays.sort(expectB);
+        Arrays.sort(expectC);
+
+        sort(a);
+        sort(b);
+        sort(c);
+        assert Arrays.equals(a, expectA);
+        assert Arrays.equals(b, expectB);
+        assert Arrays.equals(c, expectC);
+    }
+
+    @Test
+    public void parallelSortTest() {
+        int[] a = RandomArrayUtil.getRandomIntArray(0, 100000, 1000000);
+        int[] expect = a.clone();
+        Arrays.sort(expect);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            CountSort.parallelSort(a, pool);
+            assert Arrays.equals(a, expect);
+
+            int[] b = RandomArrayUtil.getRandomIntArray(1000000);
+            CountSort.parallelSort(b, pool);
+            assert isSorted(b);
+
+            // 预算只够一个或两个直方图时减少统计直方图的块数, 结果不变
+            for (long budget : new long[]{500000, 900000}) {
+                int[] c = RandomArrayUtil.getRandomIntArray(0, 100000, 1000000);
+                int[] expectC = c.clone();
+                Arrays.sort(expectC);
+                CountSort.parallelSort(c, pool, budget);
+                assert Arrays.equals(c, expectC);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+}
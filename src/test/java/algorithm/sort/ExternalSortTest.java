@@ -0,0 +1,126 @@
+package algorithm.sort;
+
+import algorithm.util.iostream.BinaryIn;
+import algorithm.util.iostream.BinaryOut;
+import algorithm.util.iostream.In;
+import algorithm.util.random.RandomArrayUtil;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Scanner;
+
+public class ExternalSortTest {
+
+    private static byte[] toBytes(int[] a) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryOut out = new BinaryOut(bytes);
+        for (int x : a) out.write(x);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    private static byte[] toBytes(long[] a) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryOut out = new BinaryOut(bytes);
+        for (long x : a) out.write(x);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    private static int[] readInts(byte[] bytes, int n) {
+        BinaryIn in = new BinaryIn(new ByteArrayInputStream(bytes));
+        int[] a = new int[n];
+        for (int i = 0; i < n; i++) a[i] = in.readInt();
+        assert in.isEmpty();
+        return a;
+    }
+
+    private static long[] readLongs(byte[] bytes, int n) {
+        BinaryIn in = new BinaryIn(new ByteArrayInputStream(bytes));
+        long[] a = new long[n];
+        for (int i = 0; i < n; i++) a[i] = in.readLong();
+        assert in.isEmpty();
+        return a;
+    }
+
+    /**
+     * 块大小远小于数据量: 产生多个有序段, 并且有序段个数超过fanIn, 需要多趟归并
+     */
+    @Test
+    public void sortIntsTest() throws IOException {
+        File tmpDir = Files.createTempDirectory("external-sort").toFile();
+        for (int n : new int[]{0, 1, 999, 1000, 1001, 100000}) {
+            int[] a = RandomArrayUtil.getRandomIntArray(n);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            BinaryIn in = new BinaryIn(new ByteArrayInputStream(toBytes(a)));
+            long count = ExternalSort.sortInts(in, new BinaryOut(bytes), 1000, 4, tmpDir);
+
+            Arrays.sort(a);
+            assert count == n;
+            assert Arrays.equals(readInts(bytes.toByteArray(), n), a);
+        }
+        // 临时文件都已删除
+        assert tmpDir.list().length == 0;
+        tmpDir.delete();
+    }
+
+    @Test
+    public void sortLongsTest() throws IOException {
+        long[] a = RandomArrayUtil.getRandomLongArray(50000);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryIn in = new BinaryIn(new ByteArrayInputStream(toBytes(a)));
+        long count = ExternalSort.sortLongs(in, new BinaryOut(bytes), 4096, 3, null);
+
+        Arrays.sort(a);
+        assert count == a.length;
+        assert Arrays.equals(readLongs(bytes.toByteArray(), a.length), a);
+    }
+
+    /**
+     * 从文本输入流读入
+     */
+    @Test
+    public void sortTextTest() throws IOException {
+        int[] a = RandomArrayUtil.getRandomIntArray(-1000, 1000, 10000);
+        StringBuilder text = new StringBuilder();
+        for (int x : a) text.append(x).append('\n');
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        In in = new In(new Scanner(text.toString()));
+        long count = ExternalSort.sortInts(in, new BinaryOut(bytes), 777, 8, null);
+
+        Arrays.sort(a);
+        assert count == a.length;
+        assert Arrays.equals(readInts(bytes.toByteArray(), a.length), a);
+    }
+
+    /**
+     * 对磁盘上的一千万个int(40MB)排序, 每个有序段一百万个元素
+     */
+    @Test
+    public void compareSort() throws IOException {
+        int n = 10000000;
+        File input = File.createTempFile("input", ".bin");
+        File output = File.createTempFile("output", ".bin");
+        input.deleteOnExit();
+        output.deleteOnExit();
+        Files.write(input.toPath(), toBytes(RandomArrayUtil.getRandomIntArray(n)));
+
+        long startTime = System.currentTimeMillis();
+        BinaryOut out = new BinaryOut(output.getPath());
+        ExternalSort.sortInts(new BinaryIn(input.getPath()), out, 1 << 20, ExternalSort.DEFAULT_FAN_IN, null);
+        out.close();
+        long endTime = System.currentTimeMillis();
+        System.out.println("ExternalSort time is: " + (endTime - startTime) + " milliseconds");
+
+        assert BaseSort.isSorted(readInts(Files.readAllBytes(output.toPath()), n));
+        input.delete();
+        output.delete();
+    }
+
+}
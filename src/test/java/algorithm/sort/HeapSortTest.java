@@ -3,6 +3,9 @@ package algorithm.sort;
 import algorithm.util.random.RandomArrayUtil;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Comparator;
+
 import static algorithm.sort.BaseSort.isSorted;
 import static algorithm.sort.BaseSort.show;
 import static algorithm.sort.HeapSort.sort;
@@ -16,4 +19,82 @@ public class HeapSortTest {
         show(a);
         assert isSorted(a);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void primitiveSortTest() {
+        int[] a = RandomArrayUtil.getRandomIntArray(0, 1000, 1000);
+        sort(a);
+        assert isSorted(a);
+
+        long[] b = RandomArrayUtil.getRandomLongArray(1000);
+        sort(b);
+        assert isSorted(b);
+
+        double[] c = RandomArrayUtil.getRandomDoubleArray(0, 1000, 1000);
+        sort(c);
+        assert isSorted(c);
+
+        float[] d = RandomArrayUtil.getRandomFloatArray(0, 1000, 1000);
+        sort(d);
+        assert isSorted(d);
+    }
+
+    @Test
+    public void comparatorSortTest() {
+        Integer[] a = RandomArrayUtil.getRandomBoxedIntArray(0, 1000, 50);
+        sort(a, Comparator.reverseOrder());
+        show(a);
+        assert isSorted(a, Comparator.reverseOrder());
+    }
+
+    /**
+     * d叉堆排序
+     */
+    @Test
+    public void aritySortTest() {
+        for (int arity : new int[]{2, 3, 4, 8}) {
+            int[] a = RandomArrayUtil.getRandomIntArray(100000);
+            int[] expect = Arrays.copyOf(a, a.length);
+            Arrays.sort(expect);
+            sort(a, arity);
+            assert Arrays.equals(a, expect);
+
+            long[] b = RandomArrayUtil.getRandomLongArray(1000);
+            sort(b, arity);
+            assert isSorted(b);
+
+            double[] c = RandomArrayUtil.getRandomDoubleArray(0, 1000, 1000);
+            sort(c, arity);
+            assert isSorted(c);
+
+            float[] d = RandomArrayUtil.getRandomFloatArray(0, 1000, 1000);
+            sort(d, arity);
+            assert isSorted(d);
+
+            Integer[] e = RandomArrayUtil.getRandomBoxedIntArray(0, 1000, 1000);
+            sort(e, arity);
+            assert isSorted(e);
+
+            Integer[] f = RandomArrayUtil.getRandomBoxedIntArray(0, 1000, 1000);
+            sort(f, arity, Comparator.reverseOrder());
+            assert isSorted(f, Comparator.reverseOrder());
+        }
+    }
+
+    /**
+     * 比较二叉堆, 4叉堆, 8叉堆在一千万个随机int上的表现
+     */
+    @Test
+    public void compareSort() {
+        int[] a = RandomArrayUtil.getRandomIntArray(10000000);
+        for (int arity : new int[]{2, 4, 8}) {
+            int[] b = Arrays.copyOf(a, a.length);
+            long startTime = System.currentTimeMillis();
+            sort(b, arity);
+            long endTime = System.currentTimeMillis();
+            System.out.println("HeapSort arity " + arity + " time is: " + (endTime - startTime) + " milliseconds");
+            assert isSorted(b);
+        }
+    }
+
+}
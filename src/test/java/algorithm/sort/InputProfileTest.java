@@ -0,0 +1,80 @@
+package algorithm.sort;
+
+import algorithm.util.random.RandomArrayUtil;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+public class InputProfileTest {
+
+    @Test
+    public void runsTest() {
+        InputProfile p = InputProfile.analyze(new int[]{1, 2, 3, 2, 5, 4, 3});
+        assert p.length() == 7 && p.runs() == 4 && !p.isSorted();
+        assert p.min() == 1 && p.max() == 5 && p.range() == 4;
+
+        assert InputProfile.analyze(new long[]{1, 1, 2, 3}).isSorted();
+        assert InputProfile.analyze(new double[]{3, 2, 1}).runs() == 3;
+        assert InputProfile.analyze(new Integer[]{3, 2, 1}).runs() == 3;
+        assert Double.isNaN(InputProfile.analyze(new Integer[]{3, 2, 1}).range());
+
+        InputProfile empty = InputProfile.analyze(new int[0]);
+        assert empty.length() == 0 && empty.runs() == 0 && empty.isSorted();
+        assert InputProfile.analyze(new int[]{7}).runs() == 1;
+    }
+
+    /**
+     * NaN与排序结果一致视为最大: 逆序数组中穿插的NaN不能让它被判断为有序, NaN也不参与最值
+     */
+    @Test
+    public void nanTest() {
+        int n = 10000;
+        double[] a = new double[n];
+        for (int i = 0; i < n; i++) a[i] = (i & 1) == 0 ? Double.NaN : n - i;
+        InputProfile p = InputProfile.analyze(a);
+        assert !p.isSorted() && p.runs() == n / 2 + 1 : p;
+        assert p.inversionRatio() > 0.4 : p;
+        assert p.min() == 1 && p.max() == n - 1 : p;
+
+        assert InputProfile.analyze(new double[]{1, 2, Double.NaN, Double.NaN}).isSorted();
+        assert InputProfile.analyze(new double[]{Double.NaN, 1}).runs() == 2;
+        assert Double.isNaN(InputProfile.analyze(new double[]{Double.NaN, Double.NaN}).range());
+    }
+
+    @Test
+    public void inversionTest() {
+        int n = 100000;
+        int[] sorted = new int[n], reversed = new int[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = i;
+            reversed[i] = n - i;
+        }
+        assert InputProfile.analyze(sorted).inversionRatio() == 0;
+        assert InputProfile.analyze(reversed).inversionRatio() == 1;
+        assert InputProfile.analyze(reversed).estimatedInversions() == (long) n * (n - 1) / 2;
+
+        double ratio = InputProfile.analyze(RandomArrayUtil.getRandomIntArray(0, 1000000000, n)).inversionRatio();
+        assert ratio > 0.4 && ratio < 0.6 : ratio;
+
+        Integer[] boxed = Arrays.stream(reversed).boxed().toArray(Integer[]::new);
+        assert InputProfile.analyze(boxed).inversionRatio() == 1;
+        assert InputProfile.analyze(boxed, Comparator.reverseOrder()).inversionRatio() == 0;
+    }
+
+    @Test
+    public void duplicateTest() {
+        int n = 100000;
+        assert InputProfile.analyze(RandomArrayUtil.getRandomIntArray(0, 10, n)).duplicateRatio() > 0.9;
+        assert InputProfile.analyze(RandomArrayUtil.getRandomIntArray(0, 1000000000, n)).duplicateRatio() < 0.1;
+
+        long[] b = new long[n];
+        Arrays.fill(b, 42);
+        InputProfile p = InputProfile.analyze(b);
+        assert p.duplicateRatio() == 1 && p.inversionRatio() == 0 && p.range() == 0;
+
+        Integer[] c = RandomArrayUtil.getRandomBoxedIntArray(0, 10, n);
+        assert InputProfile.analyze(c).duplicateRatio() > 0.9;
+    }
+
+}
@@ -6,6 +6,7 @@ import algorithm.util.watch.Stopwatch;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Comparator;
 
 import static algorithm.sort.BaseSort.isSorted;
 import static algorithm.sort.BaseSort.show;
@@ -57,6 +58,33 @@ public class InsertionSortTest {
         assert isSorted(a);
     }
 
+    @Test
+    public void primitiveSortTest() {
+        int[] a = RandomArrayUtil.getRandomIntArray(0, 1000, 50);
+        sort(a);
+        assert isSorted(a);
+
+        long[] b = RandomArrayUtil.getRandomLongArray(50);
+        sort(b);
+        assert isSorted(b);
+
+        double[] c = RandomArrayUtil.getRandomDoubleArray(0, 1000, 50);
+        sort(c);
+        assert isSorted(c);
+
+        float[] d = RandomArrayUtil.getRandomFloatArray(0, 1000, 50);
+        sort(d);
+        assert isSorted(d);
+    }
+
+    @Test
+    public void comparatorSortTest() {
+        Integer[] a = RandomArrayUtil.getRandomBoxedIntArray(0, 1000, 50);
+        sort(a, Comparator.reverseOrder());
+        show(a);
+        assert isSorted(a, Comparator.reverseOrder());
+    }
+
     /**
      * 对插入排序的各种方法进行性能测试
      *
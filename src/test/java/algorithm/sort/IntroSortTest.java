@@ -0,0 +1,113 @@
+package algorithm.sort;
+
+import algorithm.util.random.RandomArrayUtil;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import static algorithm.sort.BaseSort.isSorted;
+import static algorithm.sort.IntroSort.sort;
+
+public class IntroSortTest {
+
+    @Test
+    public void sortTest() {
+        Integer[] a = RandomArrayUtil.getRandomBoxedIntArray(0, 1000, 100000);
+        sort(a);
+        assert isSorted(a);
+
+        Integer[] b = RandomArrayUtil.getRandomBoxedIntArray(0, 1000, 100000);
+        sort(b, Comparator.reverseOrder());
+        assert isSorted(b, Comparator.reverseOrder());
+    }
+
+    @Test
+    public void primitiveSortTest() {
+        int[] a = RandomArrayUtil.getRandomIntArray(1000000);
+        sort(a);
+        assert isSorted(a);
+
+        long[] b = RandomArrayUtil.getRandomLongArray(1000000);
+        sort(b);
+        assert isSorted(b);
+
+        double[] c = RandomArrayUtil.getRandomDoubleArray(0, 1000, 1000000);
+        sort(c);
+        assert isSorted(c);
+
+        float[] d = RandomArrayUtil.getRandomFloatArray(0, 1000, 1000000);
+        sort(d);
+        assert isSorted(d);
+    }
+
+    /**
+     * 有序, 逆序, 全部相等, 先升后降(organ pipe)的输入都应当在O(NlgN)内完成且不会栈溢出
+     */
+    @Test
+    public void patternSortTest() {
+        int n = 1000000;
+        int[][] patterns = new int[4][n];
+        for (int i = 0; i < n; i++) {
+            patterns[0][i] = i;
+            patterns[1][i] = n - i;
+            patterns[2][i] = 7;
+            patterns[3][i] = Math.min(i, n - i);
+        }
+        for (int[] a : patterns) {
+            sort(a);
+            assert isSorted(a);
+        }
+    }
+
+    /**
+     * 切分深度用尽后改用堆排序
+     */
+    @Test
+    public void heapSortFallbackTest() {
+        int[] a = RandomArrayUtil.getRandomIntArray(100000);
+        int[] expect = a.clone();
+        Arrays.sort(expect);
+        IntroSort.sort(a, 0, a.length - 1, 1);
+        assert Arrays.equals(a, expect);
+
+        Integer[] b = RandomArrayUtil.getRandomBoxedIntArray(100000);
+        IntroSort.sort(b, 0, b.length - 1, 0, Comparator.naturalOrder());
+        assert isSorted(b);
+    }
+
+    /**
+     * 比较内省排序, 三向切分快排和堆排序在随机数组和逆序数组上的表现
+     * <p>
+     * (QuickSort.advancedSort()在逆序数组上会退化为O(N^2), 因此不参与比较)
+     */
+    @Test
+    public void compareSort() {
+        int n = 100000;
+        int[] random = RandomArrayUtil.getRandomIntArray(n);
+        int[] descending = new int[n];
+        for (int i = 0; i < n; i++) {
+            descending[i] = n - i;
+        }
+
+        for (int[] input : new int[][]{random, descending}) {
+            int[] a = input.clone(), b = input.clone(), c = input.clone();
+
+            long startTime = System.currentTimeMillis();
+            sort(a);
+            long endTime = System.currentTimeMillis();
+            System.out.println("IntroSort time is: " + (endTime - startTime) + " milliseconds");
+
+            startTime = System.currentTimeMillis();
+            QuickSort.threeWaySort(b);
+            endTime = System.currentTimeMillis();
+            System.out.println("QuickSort.threeWaySort time is: " + (endTime - startTime) + " milliseconds");
+
+            startTime = System.currentTimeMillis();
+            HeapSort.sort(c);
+            endTime = System.currentTimeMillis();
+            System.out.println("HeapSort time is: " + (endTime - startTime) + " milliseconds");
+        }
+    }
+
+}
@@ -0,0 +1,163 @@
+package algorithm.sort;
+
+import algorithm.util.iostream.BinaryIn;
+import algorithm.util.iostream.BinaryOut;
+import algorithm.util.random.RandomArrayUtil;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+public class KWayMergeTest {
+
+    @Test
+    public void primitiveMergeTest() {
+        for (int k : new int[]{1, 2, 3, 7, 100}) {
+            int[][] runs = new int[k][];
+            for (int i = 0; i < k; i++) {
+                runs[i] = RandomArrayUtil.getRandomIntArray(0, 1000, i * 37 % 500);
+                Arrays.sort(runs[i]);
+            }
+            int[] merged = KWayMerge.merge(runs);
+            int[] expect = Arrays.stream(runs).flatMapToInt(Arrays::stream).sorted().toArray();
+            assert Arrays.equals(merged, expect);
+        }
+
+        long[] a = {1, 4, 9}, b = {2, 3, 10};
+        assert Arrays.equals(KWayMerge.merge(a, b), new long[]{1, 2, 3, 4, 9, 10});
+        double[] c = {0.5, 1.5}, d = {};
+        assert Arrays.equals(KWayMerge.merge(c, d), new double[]{0.5, 1.5});
+        float[] e = {3f}, f = {1f, 2f};
+        assert Arrays.equals(KWayMerge.merge(e, f), new float[]{1f, 2f, 3f});
+        assert KWayMerge.merge(new int[0][]).length == 0;
+    }
+
+    /**
+     * 有序源中的NaN排在末尾, 归并结果中的NaN也在末尾(与Arrays.sort()一致)
+     */
+    @Test
+    public void nanMergeTest() {
+        double[] a = {1.0, Double.NaN}, b = {0.5, 2.0};
+        assert Arrays.equals(KWayMerge.merge(a, b), new double[]{0.5, 1.0, 2.0, Double.NaN});
+        float[] c = {Float.NaN}, d = {1f, 3f, Float.NaN}, e = {2f};
+        assert Arrays.equals(KWayMerge.merge(c, d, e), new float[]{1f, 2f, 3f, Float.NaN, Float.NaN});
+
+        double[][] runs = new double[5][];
+        for (int i = 0; i < runs.length; i++) {
+            runs[i] = RandomArrayUtil.getRandomDoubleArray(-100, 100, 200 + i);
+            for (int j = i; j < runs[i].length; j += 7) runs[i][j] = Double.NaN;
+            Arrays.sort(runs[i]);
+        }
+        double[] expect = Arrays.stream(runs).flatMapToDouble(Arrays::stream).sorted().toArray();
+        assert Arrays.equals(KWayMerge.merge(runs), expect);
+    }
+
+    /**
+     * 相等的元素按有序源的下标顺序输出
+     */
+    @Test
+    public void stableMergeTest() {
+        int k = 50;
+        int[][][] runs = new int[k][][];
+        for (int i = 0; i < k; i++) {
+            int[] keys = RandomArrayUtil.getRandomIntArray(0, 20, 200);
+            Arrays.sort(keys);
+            runs[i] = new int[keys.length][];
+            for (int j = 0; j < keys.length; j++) {
+                runs[i][j] = new int[]{keys[j], i, j};
+            }
+        }
+        int[][] merged = KWayMerge.merge(Comparator.comparingInt((int[] r) -> r[0]), runs);
+        assert merged.length == k * 200;
+        for (int i = 1; i < merged.length; i++) {
+            int[] p = merged[i - 1], q = merged[i];
+            assert p[0] < q[0] || p[0] == q[0] && (p[1] < q[1] || p[1] == q[1] && p[2] < q[2]);
+        }
+
+        Integer[] x = {1, 3, 5}, y = {2, 4, 6};
+        assert Arrays.equals(KWayMerge.merge(x, y), new Integer[]{1, 2, 3, 4, 5, 6});
+    }
+
+    @Test
+    public void iteratorMergeTest() {
+        List<Iterator<Integer>> sources = new ArrayList<>();
+        List<Integer> expect = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Integer[] run = RandomArrayUtil.getRandomBoxedIntArray(0, 100, i * 10);
+            Arrays.sort(run, Comparator.reverseOrder());
+            sources.add(Arrays.asList(run).iterator());
+            expect.addAll(Arrays.asList(run));
+        }
+        expect.sort(Comparator.reverseOrder());
+
+        Iterator<Integer> it = KWayMerge.merge(sources, Comparator.reverseOrder());
+        List<Integer> merged = new ArrayList<>();
+        while (it.hasNext()) {
+            merged.add(it.next());
+        }
+        assert merged.equals(expect);
+        assert !KWayMerge.merge(new ArrayList<Iterator<Integer>>()).hasNext();
+    }
+
+    @Test
+    public void binaryMergeTest() {
+        int k = 20;
+        List<BinaryIn> ins = new ArrayList<>();
+        List<Long> expect = new ArrayList<>();
+        for (int i = 0; i < k; i++) {
+            long[] run = RandomArrayUtil.getRandomLongArray(i * 50);
+            Arrays.sort(run);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            BinaryOut out = new BinaryOut(bytes);
+            for (long x : run) {
+                out.write(x);
+                expect.add(x);
+            }
+            out.close();
+            ins.add(new BinaryIn(new ByteArrayInputStream(bytes.toByteArray())));
+        }
+        expect.sort(Comparator.naturalOrder());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryOut out = new BinaryOut(bytes);
+        long count = KWayMerge.mergeLongs(ins, out);
+        out.close();
+
+        assert count == expect.size();
+        BinaryIn in = new BinaryIn(new ByteArrayInputStream(bytes.toByteArray()));
+        for (long x : expect) {
+            assert in.readLong() == x;
+        }
+        assert in.isEmpty();
+    }
+
+    /**
+     * 比较败者树多路归并和ParallelMerge的两两归并: 归并256个有序段, 共一千万个int
+     */
+    @Test
+    public void compareMerge() {
+        int k = 256, n = 10000000 / k;
+        int[][] runs = new int[k][];
+        for (int i = 0; i < k; i++) {
+            runs[i] = RandomArrayUtil.getRandomIntArray(n);
+            Arrays.sort(runs[i]);
+        }
+
+        long startTime = System.currentTimeMillis();
+        int[] a = KWayMerge.merge(runs);
+        long endTime = System.currentTimeMillis();
+        System.out.println("KWayMerge time is: " + (endTime - startTime) + " milliseconds");
+
+        startTime = System.currentTimeMillis();
+        int[] b = ParallelMerge.merge(runs);
+        endTime = System.currentTimeMillis();
+        System.out.println("ParallelMerge time is: " + (endTime - startTime) + " milliseconds");
+        assert Arrays.equals(a, b);
+    }
+
+}
@@ -5,13 +5,21 @@ import algorithm.util.random.RandomArrayUtil;
 import algorithm.util.watch.Stopwatch;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static algorithm.sort.BaseSort.isSorted;
 import static algorithm.sort.BaseSort.show;
 import static algorithm.sort.MergeSort.advancedSort;
 import static algorithm.sort.MergeSort.sortTopDown;
 import static algorithm.sort.MergeSort.sortBottomUp;
+import static algorithm.sort.MergeSort.sortByIntKey;
+import static algorithm.sort.MergeSort.sortByLongKey;
 
 public class MergeSortTest {
 
@@ -39,6 +47,101 @@ public class MergeSortTest {
         assert isSorted(a);
     }
 
+    @Test
+    public void primitiveAdvancedSortTest() {
+        int[] a = RandomArrayUtil.getRandomIntArray(0, 1000, 1000);
+        advancedSort(a);
+        assert isSorted(a);
+
+        long[] b = RandomArrayUtil.getRandomLongArray(1000);
+        advancedSort(b);
+        assert isSorted(b);
+
+        double[] c = RandomArrayUtil.getRandomDoubleArray(0, 1000, 1000);
+        advancedSort(c);
+        assert isSorted(c);
+
+        float[] d = RandomArrayUtil.getRandomFloatArray(0, 1000, 1000);
+        advancedSort(d);
+        assert isSorted(d);
+    }
+
+    @Test
+    public void comparatorSortTest() {
+        Integer[] a = RandomArrayUtil.getRandomBoxedIntArray(0, 1000, 1000);
+        advancedSort(a, Comparator.reverseOrder());
+        assert isSorted(a, Comparator.reverseOrder());
+    }
+
+    @Test
+    public void sortByKeyTest() {
+        // 记录: {键, 原始位置}
+        int[] keys = RandomArrayUtil.getRandomIntArray(0, 100, 1000);
+        int[][] a = new int[keys.length][];
+        for (int i = 0; i < keys.length; i++) {
+            a[i] = new int[]{keys[i], i};
+        }
+
+        int[][] b = a.clone();
+        sortByIntKey(a, r -> r[0]);
+        sortByLongKey(b, r -> -(long) r[0]);
+        for (int i = 1; i < a.length; i++) {
+            // 稳定排序: 键相同时保持原始顺序
+            assert a[i - 1][0] < a[i][0] || (a[i - 1][0] == a[i][0] && a[i - 1][1] < a[i][1]);
+            assert b[i - 1][0] >= b[i][0];
+        }
+    }
+
+    /**
+     * 调用者传入的辅助数组按需扩容, 并在多次排序之间复用
+     */
+    @Test
+    public void scratchBufferTest() {
+        Object[] aux = null;
+        for (int n : new int[]{10, 1000, 100, 5000}) {
+            Integer[] a = RandomArrayUtil.getRandomBoxedIntArray(0, 1000, n);
+            Integer[] b = Arrays.copyOf(a, n), c = Arrays.copyOf(a, n);
+            Object[] prev = aux;
+            aux = advancedSort(a, aux);
+            assert aux.length >= n && (prev == null || prev.length < n || aux == prev);
+            aux = sortTopDown(b, aux);
+            aux = sortBottomUp(c, aux);
+            assert isSorted(a) && isSorted(b) && isSorted(c);
+        }
+
+        Integer[] d = RandomArrayUtil.getRandomBoxedIntArray(0, 1000, 1000);
+        aux = advancedSort(d, aux, Comparator.reverseOrder());
+        assert isSorted(d, Comparator.reverseOrder());
+    }
+
+    /**
+     * 多个线程同时排序时互不干扰
+     */
+    @Test
+    public void concurrentSortTest() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                boolean sorted = true;
+                for (int i = 0; i < 20; i++) {
+                    Integer[] a = RandomArrayUtil.getRandomBoxedIntArray(0, 1000, 20000);
+                    Integer[] b = Arrays.copyOf(a, a.length), c = Arrays.copyOf(a, a.length);
+                    sortTopDown(a);
+                    sortBottomUp(b);
+                    advancedSort(c);
+                    sorted &= isSorted(a) && isSorted(b) && isSorted(c);
+                }
+                return sorted;
+            }));
+        }
+        for (Future<Boolean> result : results) {
+            assert result.get();
+        }
+        executor.shutdown();
+    }
+
     /**
      * 对归并排序的各种方法进行性能测试
      *
@@ -4,10 +4,13 @@ import algorithm.util.random.RandomArrayUtil;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 import static algorithm.sort.ParallelMergeSort.parallelMergeSort;
+import static algorithm.sort.ParallelMergeSort.parallelSort;
 
 public class ParallelMergeSortTest {
 
@@ -42,6 +45,89 @@ public class ParallelMergeSortTest {
         assert BaseSort.isSorted(res);
     }
 
+    @Test
+    public void primitiveParallelMergeSortTest() {
+        int[] a = RandomArrayUtil.getRandomIntArray(0, 1000, 100000);
+        parallelMergeSort(a);
+        assert BaseSort.isSorted(a);
+
+        long[] b = RandomArrayUtil.getRandomLongArray(100000);
+        parallelMergeSort(b);
+        assert BaseSort.isSorted(b);
+
+        double[] c = RandomArrayUtil.getRandomDoubleArray(0, 1000, 100000);
+        parallelMergeSort(c);
+        assert BaseSort.isSorted(c);
+
+        float[] d = RandomArrayUtil.getRandomFloatArray(0, 1000, 100000);
+        parallelMergeSort(d);
+        assert BaseSort.isSorted(d);
+    }
+
+    @Test
+    public void comparatorParallelMergeSortTest() {
+        Integer[] a = RandomArrayUtil.getRandomBoxedIntArray(100000);
+        parallelMergeSort(a, Comparator.reverseOrder());
+        assert BaseSort.isSorted(a, Comparator.reverseOrder());
+    }
+
+    @Test
+    public void parallelSortTest() {
+        Integer[] a = RandomArrayUtil.getRandomBoxedIntArray(1000000);
+        parallelSort(a);
+        assert BaseSort.isSorted(a);
+
+        int[] b = RandomArrayUtil.getRandomIntArray(1000000);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            parallelSort(b, pool);
+        } finally {
+            pool.shutdown();
+        }
+        assert BaseSort.isSorted(b);
+    }
+
+    @Test
+    public void nanParallelSortTest() {
+        // 含NaN时应与Arrays.sort()一致: NaN在末尾, 其余元素有序, 且不能越界
+        for (int n : new int[]{70000, 150000}) {
+            double[] a = RandomArrayUtil.getRandomDoubleArray(-1000, 1000, n);
+            float[] b = RandomArrayUtil.getRandomFloatArray(-1000, 1000, n);
+            for (int i = 0; i < n; i += 97) {
+                a[i] = Double.NaN;
+                b[i] = Float.NaN;
+            }
+            double[] expectA = a.clone();
+            float[] expectB = b.clone();
+            Arrays.sort(expectA);
+            Arrays.sort(expectB);
+
+            parallelSort(a);
+            parallelSort(b);
+            assert Arrays.equals(a, expectA);
+            assert Arrays.equals(b, expectB);
+        }
+
+        double[] allNaN = {Double.NaN, Double.NaN};
+        parallelSort(allNaN);
+        assert Double.isNaN(allNaN[0]) && Double.isNaN(allNaN[1]);
+    }
+
+    @Test
+    public void parallelSortStableTest() {
+        // 记录: {键, 原始位置}, 数组足够大以触发并行归并
+        int[] keys = RandomArrayUtil.getRandomIntArray(0, 100, 200000);
+        int[][] a = new int[keys.length][];
+        for (int i = 0; i < keys.length; i++) {
+            a[i] = new int[]{keys[i], i};
+        }
+
+        parallelSort(a, Comparator.comparingInt(r -> r[0]));
+        for (int i = 1; i < a.length; i++) {
+            assert a[i - 1][0] < a[i][0] || (a[i - 1][0] == a[i][0] && a[i - 1][1] < a[i][1]);
+        }
+    }
+
     /**
      * 比较单线程归并排序, ForkJoin并发排序和Stream流排序
      *
@@ -65,6 +151,8 @@ public class ParallelMergeSortTest {
      * Parallel time is: 16 processors is 28884 milliseconds
      * ParallelStream time is: 1606 milliseconds
      *
+     * 其中Parallel为parallelMergeSort(), Production parallel为parallelSort()
+     *
      */
     @Test
     public void compareSort() {
@@ -73,6 +161,7 @@ public class ParallelMergeSortTest {
 
         Integer[] arr1 = RandomArrayUtil.getRandomBoxedIntArray(sortSize);
         Integer[] arr2 = Arrays.copyOf(arr1, arr1.length);
+        Integer[] arr4 = Arrays.copyOf(arr1, arr1.length);
         List<Integer> arr3 = Arrays.stream(arr1).collect(Collectors.toList());
         System.out.println("Arrays created!");
 
@@ -88,6 +177,12 @@ public class ParallelMergeSortTest {
         System.out.println("Parallel time is: " + Runtime.getRuntime().availableProcessors() + " processors is " + (endTime - startTime) + " milliseconds");
         assert BaseSort.isSorted(arr1);
 
+        startTime = System.currentTimeMillis();
+        parallelSort(arr4);
+        endTime = System.currentTimeMillis();
+        System.out.println("Production parallel time is: " + (endTime - startTime) + " milliseconds");
+        assert BaseSort.isSorted(arr4);
+
         startTime = System.currentTimeMillis();
         int[] res = arr3.stream().parallel().mapToInt(Integer::intValue).sorted().toArray();
         endTime = System.currentTimeMillis();
@@ -0,0 +1,136 @@
+package algorithm.sort;
+
+import algorithm.util.random.RandomArrayUtil;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelMergeTest {
+
+    @Test
+    public void mergeTest() {
+        int[] a = RandomArrayUtil.getRandomIntArray(300000);
+        int[] b = RandomArrayUtil.getRandomIntArray(100000);
+        Arrays.sort(a);
+        Arrays.sort(b);
+
+        int[] res = ParallelMerge.merge(a, b);
+        assert res.length == a.length + b.length;
+        assert BaseSort.isSorted(res);
+
+        double[] c = RandomArrayUtil.getRandomDoubleArray(0, 1000, 200000);
+        Arrays.sort(c);
+        assert BaseSort.isSorted(ParallelMerge.merge(c, new double[0]));
+    }
+
+    @Test
+    public void nanMergeTest() {
+        // Arrays.sort()的结果中NaN在末尾, 归并后NaN仍应全部在末尾
+        double[] a = RandomArrayUtil.getRandomDoubleArray(0, 1000, 100000);
+        double[] b = RandomArrayUtil.getRandomDoubleArray(0, 1000, 60000);
+        for (int i = 0; i < a.length; i += 50) a[i] = Double.NaN;
+        for (int i = 0; i < b.length; i += 70) b[i] = Double.NaN;
+        Arrays.sort(a);
+        Arrays.sort(b);
+
+        double[] res = ParallelMerge.merge(a, b);
+        double[] expect = new double[res.length];
+        System.arraycopy(a, 0, expect, 0, a.length);
+        System.arraycopy(b, 0, expect, a.length, b.length);
+        Arrays.sort(expect);
+        assert Arrays.equals(res, expect);
+
+        float[] c = {1f, 2f, Float.NaN};
+        float[] d = {0f, 3f, Float.NaN, Float.NaN};
+        float[] merged = ParallelMerge.merge(c, d);
+        assert Arrays.equals(merged, new float[]{0f, 1f, 2f, 3f, Float.NaN, Float.NaN, Float.NaN});
+    }
+
+    @Test
+    public void stableMergeTest() {
+        // 记录: {键, 所属段, 段内位置}, 相等的键中第一段的记录必须在前
+        int[][] a = records(RandomArrayUtil.getRandomIntArray(0, 50, 100000), 0);
+        int[][] b = records(RandomArrayUtil.getRandomIntArray(0, 50, 100000), 1);
+        Comparator<int[]> c = Comparator.comparingInt(r -> r[0]);
+        Arrays.sort(a, c);
+        Arrays.sort(b, c);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            int[][] res = new int[a.length + b.length][];
+            ParallelMerge.merge(a, 0, a.length - 1, b, 0, b.length - 1, res, 0, c, pool);
+            for (int i = 1; i < res.length; i++) {
+                assert res[i - 1][0] < res[i][0] || (res[i - 1][0] == res[i][0]
+                        && (res[i - 1][1] < res[i][1] || (res[i - 1][1] == res[i][1] && res[i - 1][2] < res[i][2])));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void mergeRunsTest() {
+        long[][] runs = new long[7][];
+        for (int r = 0; r < runs.length; r++) {
+            runs[r] = RandomArrayUtil.getRandomLongArray(r * 20000);
+            Arrays.sort(runs[r]);
+        }
+        long[] res = ParallelMerge.merge(runs);
+        assert res.length == 21 * 20000;
+        assert BaseSort.isSorted(res);
+
+        Integer[] a = RandomArrayUtil.getRandomBoxedIntArray(100000);
+        int[] bounds = {0, 100, 30000, 30000, 77777, 100000};
+        for (int r = 0; r + 1 < bounds.length; r++) {
+            Arrays.sort(a, bounds[r], bounds[r + 1]);
+        }
+        ParallelMerge.mergeRuns(a, bounds, Comparator.naturalOrder(), ForkJoinPool.commonPool());
+        assert BaseSort.isSorted(a);
+    }
+
+    /**
+     * 对象数组的k路归并: 结果数组的类型与各段相同
+     */
+    @Test
+    public void genericMergeRunsTest() {
+        String[][] runs = new String[5][];
+        for (int r = 0; r < runs.length; r++) {
+            int[] keys = RandomArrayUtil.getRandomIntArray(0, 100000, r * 5000);
+            runs[r] = Arrays.stream(keys).mapToObj(k -> String.format("%06d", k)).toArray(String[]::new);
+            Arrays.sort(runs[r]);
+        }
+        String[] res = ParallelMerge.merge(Comparator.naturalOrder(), runs);
+        assert res.length == 10 * 5000;
+        assert BaseSort.isSorted(res);
+
+        String[] expect = Arrays.stream(runs).flatMap(Arrays::stream).sorted().toArray(String[]::new);
+        assert Arrays.equals(res, expect);
+
+        // 稳定: 相等的键按段的顺序排列
+        int[][] a = records(RandomArrayUtil.getRandomIntArray(0, 50, 30000), 0);
+        int[][] b = records(RandomArrayUtil.getRandomIntArray(0, 50, 30000), 1);
+        int[][] d = records(RandomArrayUtil.getRandomIntArray(0, 50, 30000), 2);
+        Comparator<int[]> c = Comparator.comparingInt(r -> r[0]);
+        Arrays.sort(a, c);
+        Arrays.sort(b, c);
+        Arrays.sort(d, c);
+        int[][] merged = ParallelMerge.merge(c, a, b, d);
+        for (int i = 1; i < merged.length; i++) {
+            assert merged[i - 1][0] < merged[i][0] || (merged[i - 1][0] == merged[i][0]
+                    && merged[i - 1][1] <= merged[i][1]);
+        }
+
+        assert ParallelMerge.merge(Comparator.<String>naturalOrder(), new String[0][]).length == 0;
+    }
+
+    private static int[][] records(int[] keys, int run) {
+        int[][] res = new int[keys.length][];
+        for (int i = 0; i < keys.length; i++) {
+            res[i] = new int[]{keys[i], run, i};
+        }
+        return res;
+    }
+
+}
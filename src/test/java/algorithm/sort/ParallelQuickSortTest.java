@@ -0,0 +1,165 @@
+package algorithm.sort;
+
+import algorithm.util.random.RandomArrayUtil;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static algorithm.sort.ParallelQuickSort.parallelQuickSort;
+
+public class ParallelQuickSortTest {
+
+    @Test
+    public void parallelQuickSortTest() {
+        Integer[] a = RandomArrayUtil.getRandomBoxedIntArray(1000000);
+        parallelQuickSort(a);
+        assert BaseSort.isSorted(a);
+
+        // 大量重复元素
+        Integer[] b = RandomArrayUtil.getRandomBoxedIntArray(0, 100, 1000000);
+        parallelQuickSort(b);
+        assert BaseSort.isSorted(b);
+    }
+
+    @Test
+    public void primitiveParallelQuickSortTest() {
+        int[] a = RandomArrayUtil.getRandomIntArray(1000000);
+        parallelQuickSort(a);
+        assert BaseSort.isSorted(a);
+
+        long[] b = RandomArrayUtil.getRandomLongArray(1000000);
+        parallelQuickSort(b);
+        assert BaseSort.isSorted(b);
+
+        double[] c = RandomArrayUtil.getRandomDoubleArray(0, 1000, 1000000);
+        parallelQuickSort(c);
+        assert BaseSort.isSorted(c);
+
+        float[] d = RandomArrayUtil.getRandomFloatArray(0, 1000, 1000000);
+        parallelQuickSort(d);
+        assert BaseSort.isSorted(d);
+    }
+
+    @Test
+    public void customPoolTest() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            int[] a = RandomArrayUtil.getRandomIntArray(0, 1000, 100000);
+            parallelQuickSort(a, pool, 64);
+            assert BaseSort.isSorted(a);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void nanParallelQuickSortTest() {
+        double[] a = RandomArrayUtil.getRandomDoubleArray(-1000, 1000, 200000);
+        float[] b = RandomArrayUtil.getRandomFloatArray(-1000, 1000, 200000);
+        for (int i = 0; i < a.length; i += 13) {
+            a[i] = Double.NaN;
+            b[i] = Float.NaN;
+        }
+        double[] expectA = a.clone();
+        float[] expectB = b.clone();
+        Arrays.sort(expectA);
+        Arrays.sort(expectB);
+
+        parallelQuickSort(a);
+        parallelQuickSort(b);
+        assert Arrays.equals(a, expectA);
+        assert Arrays.equals(b, expectB);
+    }
+
+    /**
+     * McIlroy的对抗输入: 元素的值在第一次参与比较时才确定, 总是让轴尽量接近最值;
+     * 没有切分深度限制时比较次数为O(N^2), 改为堆排序后为O(NlgN)
+     */
+    @Test
+    public void adversaryTest() {
+        int n = 1 << 14;
+        Adversary[] a = Adversary.create(n);
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            parallelQuickSort(a, pool, 1);
+        } finally {
+            pool.shutdown();
+        }
+        assert BaseSort.isSorted(a);
+        assert Adversary.comparisons < 64L * n * 14 : Adversary.comparisons;
+    }
+
+    private static final class Adversary implements Comparable<Adversary> {
+
+        private static final int GAS = Integer.MAX_VALUE;
+
+        private static int[] values;
+
+        private static int solid, candidate;
+
+        private static long comparisons;
+
+        private final int id;
+
+        private Adversary(int id) {
+            this.id = id;
+        }
+
+        static Adversary[] create(int n) {
+            values = new int[n];
+            Arrays.fill(values, GAS);
+            solid = 0;
+            candidate = 0;
+            comparisons = 0;
+            Adversary[] a = new Adversary[n];
+            for (int i = 0; i < n; i++) a[i] = new Adversary(i);
+            return a;
+        }
+
+        @Override
+        public int compareTo(Adversary o) {
+            comparisons++;
+            int x = id, y = o.id;
+            if (values[x] == GAS && values[y] == GAS) {
+                if (x == candidate) values[x] = solid++;
+                else values[y] = solid++;
+            }
+            if (values[x] == GAS) candidate = x;
+            else if (values[y] == GAS) candidate = y;
+            return Integer.compare(values[x], values[y]);
+        }
+    }
+
+    /**
+     * 比较单线程快排, ForkJoin并行快排和Stream流排序
+     */
+    @Test
+    public void compareSort() {
+        // 排序大小
+        final int sortSize = 100000000;
+
+        int[] arr1 = RandomArrayUtil.getRandomIntArray(sortSize);
+        int[] arr2 = Arrays.copyOf(arr1, arr1.length);
+        int[] arr3 = Arrays.copyOf(arr1, arr1.length);
+        System.out.println("Arrays created!");
+
+        long startTime = System.currentTimeMillis();
+        QuickSort.advancedSort(arr2);
+        long endTime = System.currentTimeMillis();
+        System.out.println("Sequent time is: " + (endTime - startTime) + " milliseconds");
+        assert BaseSort.isSorted(arr2);
+
+        startTime = System.currentTimeMillis();
+        parallelQuickSort(arr1);
+        endTime = System.currentTimeMillis();
+        System.out.println("Parallel time is: " + Runtime.getRuntime().availableProcessors() + " processors is " + (endTime - startTime) + " milliseconds");
+        assert BaseSort.isSorted(arr1);
+
+        startTime = System.currentTimeMillis();
+        int[] res = Arrays.stream(arr3).parallel().sorted().toArray();
+        endTime = System.currentTimeMillis();
+        System.out.println("ParallelStream time is: " + (endTime - startTime) + " milliseconds");
+        assert BaseSort.isSorted(res);
+    }
+}
@@ -0,0 +1,88 @@
+package algorithm.sort;
+
+import algorithm.util.random.RandomArrayUtil;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static algorithm.sort.ParallelRadixSort.parallelSort;
+
+public class ParallelRadixSortTest {
+
+    @Test
+    public void parallelSortTest() {
+        int[] a = RandomArrayUtil.getRandomIntArray(1000000);
+        int[] expect = a.clone();
+        Arrays.sort(expect);
+        parallelSort(a);
+        assert Arrays.equals(a, expect);
+
+        // 大量重复元素
+        int[] b = RandomArrayUtil.getRandomIntArray(-100, 100, 1000000);
+        parallelSort(b);
+        assert BaseSort.isSorted(b);
+
+        long[] c = RandomArrayUtil.getRandomLongArray(1000000);
+        long[] expectC = c.clone();
+        Arrays.sort(expectC);
+        parallelSort(c);
+        assert Arrays.equals(c, expectC);
+    }
+
+    @Test
+    public void floatingPointSortTest() {
+        double[] a = RandomArrayUtil.getRandomDoubleArray(-1000, 1000, 500000);
+        a[0] = Double.NaN;
+        a[1] = -0.0;
+        double[] expect = a.clone();
+        Arrays.sort(expect);
+        parallelSort(a);
+        assert Arrays.equals(a, expect);
+
+        float[] b = RandomArrayUtil.getRandomFloatArray(-1000, 1000, 500000);
+        float[] expectB = b.clone();
+        Arrays.sort(expectB);
+        parallelSort(b);
+        assert Arrays.equals(b, expectB);
+    }
+
+    @Test
+    public void customPoolTest() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            int[] a = RandomArrayUtil.getRandomIntArray(1000000);
+            parallelSort(a, pool);
+            assert BaseSort.isSorted(a);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * 比较单线程基数排序, 并行基数排序和Arrays.parallelSort()
+     */
+    @Test
+    public void compareSort() {
+        int[] a = RandomArrayUtil.getRandomIntArray(20000000);
+        int[] b = a.clone();
+        int[] c = a.clone();
+
+        long startTime = System.currentTimeMillis();
+        RadixSort.sort(a);
+        long endTime = System.currentTimeMillis();
+        System.out.println("RadixSort time is: " + (endTime - startTime) + " milliseconds");
+
+        startTime = System.currentTimeMillis();
+        parallelSort(b);
+        endTime = System.currentTimeMillis();
+        System.out.println("ParallelRadixSort time is: " + (endTime - startTime) + " milliseconds");
+        assert BaseSort.isSorted(b);
+
+        startTime = System.currentTimeMillis();
+        Arrays.parallelSort(c);
+        endTime = System.currentTimeMillis();
+        System.out.println("Arrays.parallelSort time is: " + (endTime - startTime) + " milliseconds");
+    }
+
+}
@@ -0,0 +1,100 @@
+package algorithm.sort;
+
+import algorithm.util.random.RandomArrayUtil;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+
+import static algorithm.sort.BaseSort.isSorted;
+import static algorithm.sort.ParallelSampleSort.parallelSort;
+
+public class ParallelSampleSortTest {
+
+    @Test
+    public void parallelSortTest() {
+        for (int n : new int[]{0, 1, 1000, 100000, 1000000}) {
+            Integer[] a = RandomArrayUtil.getRandomBoxedIntArray(n);
+            Integer[] expect = Arrays.copyOf(a, n);
+            Arrays.sort(expect);
+            parallelSort(a);
+            assert Arrays.equals(a, expect);
+        }
+
+        Integer[] b = RandomArrayUtil.getRandomBoxedIntArray(0, 1000, 500000);
+        parallelSort(b, Comparator.reverseOrder());
+        assert isSorted(b, Comparator.reverseOrder());
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        Integer[] c = RandomArrayUtil.getRandomBoxedIntArray(500000);
+        parallelSort(c, pool);
+        assert isSorted(c);
+        pool.shutdown();
+    }
+
+    /**
+     * 有序, 逆序, 全部相等以及大量重复的输入
+     */
+    @Test
+    public void patternSortTest() {
+        int n = 300000;
+        Integer[][] patterns = new Integer[4][n];
+        for (int i = 0; i < n; i++) {
+            patterns[0][i] = i;
+            patterns[1][i] = n - i;
+            patterns[2][i] = 7;
+            patterns[3][i] = i % 3;
+        }
+        for (Integer[] a : patterns) {
+            parallelSort(a);
+            assert isSorted(a);
+        }
+    }
+
+    /**
+     * 分割元素树的中序遍历有序, 且分类结果与线性查找一致
+     */
+    @Test
+    public void classifyTest() {
+        int b = 16;
+        Integer[] a = RandomArrayUtil.getRandomBoxedIntArray(0, 1000000, 100000);
+        Integer[] tree = ParallelSampleSort.splitters(a, b, Comparator.naturalOrder());
+
+        Integer[] sorted = Arrays.copyOfRange(tree, 1, b);
+        Arrays.sort(sorted);
+        for (Integer x : a) {
+            int k = 0;
+            while (k < b - 1 && sorted[k] < x) k++;
+            assert ParallelSampleSort.classify(tree, b, x, Comparator.naturalOrder()) == k;
+        }
+        assert ParallelSampleSort.buckets(1 << 20, 64) == ParallelSampleSort.MAX_BUCKETS;
+        assert ParallelSampleSort.buckets(1 << 15, 64) == 8;
+    }
+
+    /**
+     * 比较样本排序, 并行归并排序和Arrays.parallelSort()在一千万个随机Integer上的表现
+     */
+    @Test
+    public void compareSort() {
+        Integer[] a = RandomArrayUtil.getRandomBoxedIntArray(10000000);
+        Integer[] b = Arrays.copyOf(a, a.length), c = Arrays.copyOf(a, a.length);
+
+        long startTime = System.currentTimeMillis();
+        parallelSort(a);
+        long endTime = System.currentTimeMillis();
+        System.out.println("ParallelSampleSort time is: " + (endTime - startTime) + " milliseconds");
+
+        startTime = System.currentTimeMillis();
+        ParallelMergeSort.parallelSort(b);
+        endTime = System.currentTimeMillis();
+        System.out.println("ParallelMergeSort time is: " + (endTime - startTime) + " milliseconds");
+
+        startTime = System.currentTimeMillis();
+        Arrays.parallelSort(c);
+        endTime = System.currentTimeMillis();
+        System.out.println("Arrays.parallelSort time is: " + (endTime - startTime) + " milliseconds");
+        assert Arrays.equals(a, c);
+    }
+
+}
@@ -0,0 +1,140 @@
+package algorithm.sort;
+
+import algorithm.util.random.RandomArrayUtil;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import static algorithm.sort.PartialSort.nthElement;
+import static algorithm.sort.PartialSort.partialSort;
+
+public class PartialSortTest {
+
+    @Test
+    public void nthElementTest() {
+        int[] a = RandomArrayUtil.getRandomIntArray(100000);
+        int[] expect = Arrays.copyOf(a, a.length);
+        Arrays.sort(expect);
+        for (int k : new int[]{0, 1, 500, 50000, 99999}) {
+            assert nthElement(a, k) == expect[k];
+            for (int i = 0; i < k; i++) assert a[i] <= a[k];
+            for (int i = k + 1; i < a.length; i++) assert a[k] <= a[i];
+        }
+
+        long[] b = RandomArrayUtil.getRandomLongArray(10000);
+        long[] eb = Arrays.copyOf(b, b.length);
+        Arrays.sort(eb);
+        assert nthElement(b, 1234) == eb[1234];
+
+        double[] c = RandomArrayUtil.getRandomDoubleArray(0, 1000, 10000);
+        double[] ec = Arrays.copyOf(c, c.length);
+        Arrays.sort(ec);
+        assert nthElement(c, 5000) == ec[5000];
+
+        float[] d = RandomArrayUtil.getRandomFloatArray(0, 1000, 10000);
+        float[] ed = Arrays.copyOf(d, d.length);
+        Arrays.sort(ed);
+        assert nthElement(d, 9999) == ed[9999];
+
+        Integer[] e = RandomArrayUtil.getRandomBoxedIntArray(0, 100, 10000);
+        Integer[] ee = Arrays.copyOf(e, e.length);
+        Arrays.sort(ee, Comparator.reverseOrder());
+        assert nthElement(e, 10, Comparator.reverseOrder()).equals(ee[10]);
+    }
+
+    @Test
+    public void partialSortTest() {
+        int[] a = RandomArrayUtil.getRandomIntArray(0, 1000, 100000);
+        int[] expect = Arrays.copyOf(a, a.length);
+        Arrays.sort(expect);
+        for (int k : new int[]{0, 1, 17, 1000, 100000}) {
+            int[] b = Arrays.copyOf(a, a.length);
+            partialSort(b, k);
+            assert Arrays.equals(b, 0, k, expect, 0, k);
+        }
+
+        Integer[] c = RandomArrayUtil.getRandomBoxedIntArray(100000);
+        Integer[] ec = Arrays.copyOf(c, c.length);
+        Arrays.sort(ec, Comparator.reverseOrder());
+        partialSort(c, 1000, Comparator.reverseOrder());
+        assert Arrays.equals(c, 0, 1000, ec, 0, 1000);
+    }
+
+    /**
+     * 切分次数用尽后改用中位数的中位数选轴
+     */
+    @Test
+    public void nanTest() {
+        // NaN视为大于其他所有值(与Arrays.sort()相同)
+        int n = 100000;
+        double[] d = RandomArrayUtil.getRandomDoubleArray(0, 1, n);
+        float[] f = RandomArrayUtil.getRandomFloatArray(0, 1, n);
+        for (int i = 0; i < n; i += 10) {
+            d[i] = Double.NaN;
+            f[i] = Float.NaN;
+        }
+        double[] expectD = d.clone();
+        float[] expectF = f.clone();
+        Arrays.sort(expectD);
+        Arrays.sort(expectF);
+
+        for (int k : new int[]{0, 45000, n - n / 10 - 1, n - n / 10, n - 1}) {
+            assert Double.compare(nthElement(d.clone(), k), expectD[k]) == 0 : k;
+            assert Float.compare(nthElement(f.clone(), k), expectF[k]) == 0 : k;
+        }
+        for (int k : new int[]{0, 5000, n - n / 10, n - 100, n}) {
+            double[] c = d.clone();
+            partialSort(c, k);
+            assert Arrays.equals(Arrays.copyOf(c, k), Arrays.copyOf(expectD, k)) : k;
+            float[] e = f.clone();
+            partialSort(e, k);
+            assert Arrays.equals(Arrays.copyOf(e, k), Arrays.copyOf(expectF, k)) : k;
+        }
+    }
+
+    @Test
+    public void medianOfMediansTest() {
+        int[] a = RandomArrayUtil.getRandomIntArray(0, 1000, 100000);
+        int[] expect = Arrays.copyOf(a, a.length);
+        Arrays.sort(expect);
+        for (int k : new int[]{0, 33333, 99999}) {
+            int[] b = Arrays.copyOf(a, a.length);
+            PartialSort.select(b, 0, b.length - 1, k, 0);
+            assert b[k] == expect[k];
+        }
+
+        Integer[] c = RandomArrayUtil.getRandomBoxedIntArray(0, 10, 10000);
+        Integer[] ec = Arrays.copyOf(c, c.length);
+        Arrays.sort(ec);
+        PartialSort.select(c, 0, c.length - 1, 7777, 0, Comparator.naturalOrder());
+        assert c[7777].equals(ec[7777]);
+    }
+
+    /**
+     * 比较在五千万个int中取最小的1000个: partialSort, 完整的IntroSort和Arrays.sort
+     */
+    @Test
+    public void compareSort() {
+        int n = 50000000, k = 1000;
+        int[] a = RandomArrayUtil.getRandomIntArray(n);
+        int[] b = Arrays.copyOf(a, n), c = Arrays.copyOf(a, n);
+
+        long startTime = System.currentTimeMillis();
+        partialSort(a, k);
+        long endTime = System.currentTimeMillis();
+        System.out.println("PartialSort.partialSort time is: " + (endTime - startTime) + " milliseconds");
+
+        startTime = System.currentTimeMillis();
+        IntroSort.sort(b);
+        endTime = System.currentTimeMillis();
+        System.out.println("IntroSort time is: " + (endTime - startTime) + " milliseconds");
+
+        startTime = System.currentTimeMillis();
+        Arrays.sort(c);
+        endTime = System.currentTimeMillis();
+        System.out.println("Arrays.sort time is: " + (endTime - startTime) + " milliseconds");
+        assert Arrays.equals(a, 0, k, c, 0, k);
+    }
+
+}
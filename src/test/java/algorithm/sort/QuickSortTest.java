@@ -6,14 +6,19 @@ import algorithm.util.watch.Stopwatch;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Comparator;
 
 import static algorithm.sort.BaseSort.isSorted;
 import static algorithm.sort.BaseSort.show;
 import static algorithm.sort.QuickSort.advancedSort;
 import static algorithm.sort.QuickSort.advancedSort2;
+import static algorithm.sort.QuickSort.blockSort;
+import static algorithm.sort.QuickSort.dualPivotSort;
 import static algorithm.sort.QuickSort.sort;
 import static algorithm.sort.QuickSort.sort2;
 import static algorithm.sort.QuickSort.threeWaySort;
+import static algorithm.sort.QuickSort.sortByIntKey;
+import static algorithm.sort.QuickSort.sortByLongKey;
 
 public class QuickSortTest {
 
@@ -58,6 +63,176 @@ public class QuickSortTest {
         assert isSorted(a);
     }
 
+    @Test
+    public void primitiveAdvancedSortTest() {
+        int[] a = RandomArrayUtil.getRandomIntArray(0, 1000, 1000);
+        advancedSort(a);
+        assert isSorted(a);
+
+        long[] b = RandomArrayUtil.getRandomLongArray(1000);
+        advancedSort(b);
+        assert isSorted(b);
+
+        double[] c = RandomArrayUtil.getRandomDoubleArray(0, 1000, 1000);
+        advancedSort(c);
+        assert isSorted(c);
+
+        float[] d = RandomArrayUtil.getRandomFloatArray(0, 1000, 1000);
+        advancedSort(d);
+        assert isSorted(d);
+    }
+
+    @Test
+    public void primitiveThreeWaySortTest() {
+        int[] a = RandomArrayUtil.getRandomIntArray(0, 1000, 1000);
+        threeWaySort(a);
+        assert isSorted(a);
+
+        long[] b = RandomArrayUtil.getRandomLongArray(1000);
+        threeWaySort(b);
+        assert isSorted(b);
+
+        double[] c = RandomArrayUtil.getRandomDoubleArray(0, 1000, 1000);
+        threeWaySort(c);
+        assert isSorted(c);
+
+        float[] d = RandomArrayUtil.getRandomFloatArray(0, 1000, 1000);
+        threeWaySort(d);
+        assert isSorted(d);
+
+        // 递归深度用尽后改为堆排序
+        int[] e = RandomArrayUtil.getRandomIntArray(0, 1000, 100000);
+        int[] expect = e.clone();
+        Arrays.sort(expect);
+        QuickSort.threeWaySort(e, 0, e.length - 1, 1);
+        assert Arrays.equals(e, expect);
+
+        long[] f = RandomArrayUtil.getRandomLongArray(100000);
+        QuickSort.threeWaySort(f, 0, f.length - 1, 0);
+        assert isSorted(f);
+    }
+
+    @Test
+    public void dualPivotSortTest() {
+        Integer[] a = RandomArrayUtil.getRandomBoxedIntArray(0, 100, 1000);
+        dualPivotSort(a);
+        assert isSorted(a);
+
+        int[] b = RandomArrayUtil.getRandomIntArray(0, 1000, 100000);
+        dualPivotSort(b);
+        assert isSorted(b);
+
+        long[] c = RandomArrayUtil.getRandomLongArray(100000);
+        dualPivotSort(c);
+        assert isSorted(c);
+
+        double[] d = RandomArrayUtil.getRandomDoubleArray(0, 1000, 100000);
+        dualPivotSort(d);
+        assert isSorted(d);
+
+        float[] e = RandomArrayUtil.getRandomFloatArray(0, 1000, 100000);
+        dualPivotSort(e);
+        assert isSorted(e);
+
+        // 切分深度用尽后改为堆排序
+        int[] f = RandomArrayUtil.getRandomIntArray(100000);
+        int[] expect = f.clone();
+        Arrays.sort(expect);
+        QuickSort.dualPivotSort(f, 0, f.length - 1, 1);
+        assert Arrays.equals(f, expect);
+
+        Integer[] g = RandomArrayUtil.getRandomBoxedIntArray(0, 100, 10000);
+        QuickSort.dualPivotSort(g, 0, g.length - 1, 0);
+        assert isSorted(g);
+    }
+
+    @Test
+    public void blockSortTest() {
+        Integer[] a = RandomArrayUtil.getRandomBoxedIntArray(0, 100, 10000);
+        blockSort(a);
+        assert isSorted(a);
+
+        int[] b = RandomArrayUtil.getRandomIntArray(100000);
+        blockSort(b);
+        assert isSorted(b);
+
+        long[] c = RandomArrayUtil.getRandomLongArray(100000);
+        blockSort(c);
+        assert isSorted(c);
+
+        double[] d = RandomArrayUtil.getRandomDoubleArray(0, 1000, 100000);
+        blockSort(d);
+        assert isSorted(d);
+
+        float[] e = RandomArrayUtil.getRandomFloatArray(0, 1000, 100000);
+        blockSort(e);
+        assert isSorted(e);
+
+        // 有序, 逆序和全部相等的输入
+        int n = 100000;
+        int[] asc = new int[n], desc = new int[n], same = new int[n];
+        for (int i = 0; i < n; i++) {
+            asc[i] = i;
+            desc[i] = n - i;
+            same[i] = 1;
+        }
+        blockSort(asc);
+        blockSort(desc);
+        blockSort(same);
+        assert isSorted(asc) && isSorted(desc) && isSorted(same);
+    }
+
+    @Test
+    public void nanSortTest() {
+        // NaN先移到末尾, 其余元素仍然有序
+        double[] a = RandomArrayUtil.getRandomDoubleArray(-1000, 1000, 10000);
+        float[] b = RandomArrayUtil.getRandomFloatArray(-1000, 1000, 10000);
+        for (int i = 0; i < a.length; i += 37) {
+            a[i] = Double.NaN;
+            b[i] = Float.NaN;
+        }
+        long sumA = BaseSort.checksum(a), sumB = BaseSort.checksum(b);
+
+        double[][] ds = {a.clone(), a.clone(), a.clone(), a.clone()};
+        advancedSort(ds[0]);
+        threeWaySort(ds[1]);
+        dualPivotSort(ds[2]);
+        blockSort(ds[3]);
+        for (double[] d : ds) assert BaseSort.isSortedPermutation(d, sumA);
+
+        float[][] fs = {b.clone(), b.clone(), b.clone(), b.clone()};
+        advancedSort(fs[0]);
+        threeWaySort(fs[1]);
+        dualPivotSort(fs[2]);
+        blockSort(fs[3]);
+        for (float[] f : fs) assert BaseSort.isSortedPermutation(f, sumB);
+    }
+
+    @Test
+    public void comparatorSortTest() {
+        Integer[] a = RandomArrayUtil.getRandomBoxedIntArray(0, 1000, 1000);
+        advancedSort(a, Comparator.reverseOrder());
+        assert isSorted(a, Comparator.reverseOrder());
+    }
+
+    @Test
+    public void sortByKeyTest() {
+        // 记录: {键, 原始位置}
+        int[] keys = RandomArrayUtil.getRandomIntArray(0, 100, 1000);
+        int[][] a = new int[keys.length][];
+        for (int i = 0; i < keys.length; i++) {
+            a[i] = new int[]{keys[i], i};
+        }
+
+        int[][] b = a.clone();
+        sortByIntKey(a, r -> r[0]);
+        sortByLongKey(b, r -> -(long) r[0]);
+        for (int i = 1; i < a.length; i++) {
+            assert a[i - 1][0] <= a[i][0];
+            assert b[i - 1][0] >= b[i][0];
+        }
+    }
+
     /**
      * 对快排的各种方法进行性能测试
      *
@@ -86,6 +261,8 @@ public class QuickSortTest {
      *
      * 快速排序的性能优胜者是: advancedSort
      *
+     * (dualPivotSort和blockSort是之后加入的, 上面的结果中没有包含)
+     *
      */
     @Test
     public void compareSort() {
@@ -95,6 +272,8 @@ public class QuickSortTest {
         Integer[] a13 = Arrays.copyOf(a11, a11.length);
         Integer[] a14 = Arrays.copyOf(a11, a11.length);
         Integer[] a15 = Arrays.copyOf(a11, a11.length);
+        Integer[] a16 = Arrays.copyOf(a11, a11.length);
+        Integer[] a17 = Arrays.copyOf(a11, a11.length);
 
         // 大量重复数组
         Integer[] a21 = RandomArrayUtil.getRandomBoxedIntArray(0, 1000, 5000000);
@@ -102,6 +281,8 @@ public class QuickSortTest {
         Integer[] a23 = Arrays.copyOf(a21, a21.length);
         Integer[] a24 = Arrays.copyOf(a21, a21.length);
         Integer[] a25 = Arrays.copyOf(a21, a21.length);
+        Integer[] a26 = Arrays.copyOf(a21, a21.length);
+        Integer[] a27 = Arrays.copyOf(a21, a21.length);
 
         System.out.println("Array created!");
 
@@ -149,6 +330,56 @@ public class QuickSortTest {
         assert isSorted(a15);
         assert isSorted(a25);
         System.out.println();
+
+        stopwatch = new Stopwatch();
+        dualPivotSort(a16);
+        StdOut.printf("%s (%.2f seconds)\n", "dualPivotSort [random]:", stopwatch.elapsedTime());
+        dualPivotSort(a26);
+        StdOut.printf("%s (%.2f seconds)\n", "dualPivotSort [random + duplicate]:", stopwatch.elapsedTime());
+        assert isSorted(a16);
+        assert isSorted(a26);
+        System.out.println();
+
+        stopwatch = new Stopwatch();
+        blockSort(a17);
+        StdOut.printf("%s (%.2f seconds)\n", "blockSort [random]:", stopwatch.elapsedTime());
+        blockSort(a27);
+        StdOut.printf("%s (%.2f seconds)\n", "blockSort [random + duplicate]:", stopwatch.elapsedTime());
+        assert isSorted(a17);
+        assert isSorted(a27);
+        System.out.println();
+    }
+
+    /**
+     * 对基本类型数组比较各种切分方式: 对于随机的int键, 单轴切分的主要开销来自分支预测失败
+     */
+    @Test
+    public void comparePrimitiveSort() {
+        int[] a = RandomArrayUtil.getRandomIntArray(10000000);
+
+        int[] b = Arrays.copyOf(a, a.length);
+        Stopwatch stopwatch = new Stopwatch();
+        advancedSort(b);
+        StdOut.printf("%s (%.2f seconds)\n", "advancedSort [int]:", stopwatch.elapsedTime());
+        assert isSorted(b);
+
+        b = Arrays.copyOf(a, a.length);
+        stopwatch = new Stopwatch();
+        threeWaySort(b);
+        StdOut.printf("%s (%.2f seconds)\n", "threeWaySort [int]:", stopwatch.elapsedTime());
+        assert isSorted(b);
+
+        b = Arrays.copyOf(a, a.length);
+        stopwatch = new Stopwatch();
+        dualPivotSort(b);
+        StdOut.printf("%s (%.2f seconds)\n", "dualPivotSort [int]:", stopwatch.elapsedTime());
+        assert isSorted(b);
+
+        b = Arrays.copyOf(a, a.length);
+        stopwatch = new Stopwatch();
+        blockSort(b);
+        StdOut.printf("%s (%.2f seconds)\n", "blockSort [int]:", stopwatch.elapsedTime());
+        assert isSorted(b);
     }
 
 }
\ No newline at end of file
@@ -17,4 +17,102 @@ public class RadixSortTest {
         System.out.println(Arrays.toString(a));;
         assert isSorted(a);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void primitiveSortTest() {
+        int[] a = RandomArrayUtil.getRandomIntArray(-100000, 100000, 100000);
+        int[] expect = a.clone();
+        Arrays.sort(expect);
+        sort(a);
+        assert Arrays.equals(a, expect);
+
+        long[] b = RandomArrayUtil.getRandomLongArray(100000);
+        b[0] = Long.MIN_VALUE;
+        b[1] = Long.MAX_VALUE;
+        long[] expectB = b.clone();
+        Arrays.sort(expectB);
+        sort(b);
+        assert Arrays.equals(b, expectB);
+
+        float[] c = RandomArrayUtil.getRandomFloatArray(-1000, 1000, 100000);
+        c[0] = -0.0f;
+        c[1] = 0.0f;
+        c[2] = Float.NaN;
+        c[3] = Float.NEGATIVE_INFINITY;
+        float[] expectC = c.clone();
+        Arrays.sort(expectC);
+        sort(c);
+        assert Arrays.equals(c, expectC);
+
+        double[] d = RandomArrayUtil.getRandomDoubleArray(-1000, 1000, 100000);
+        d[0] = -0.0;
+        d[1] = Double.NaN;
+        d[2] = Double.MAX_VALUE;
+        double[] expectD = d.clone();
+        Arrays.sort(expectD);
+        sort(d);
+        assert Arrays.equals(d, expectD);
+    }
+
+    /**
+     * 比较基数排序与Arrays.sort()对64位时间戳的排序
+     * <p>
+     * 时间戳的高位基本相同, 基数排序会跳过这些轮次
+     */
+    @Test
+    public void compareSort() {
+        long now = System.currentTimeMillis();
+        long[] a = RandomArrayUtil.getRandomLongArray(10000000);
+        for (int i = 0; i < a.length; i++) {
+            // 最近一年内的毫秒时间戳
+            a[i] = now - Math.floorMod(a[i], 365L * 24 * 3600 * 1000);
+        }
+        long[] b = a.clone();
+
+        long startTime = System.currentTimeMillis();
+        sort(a);
+        long endTime = System.currentTimeMillis();
+        System.out.println("RadixSort time is: " + (endTime - startTime) + " milliseconds");
+        assert isSorted(a);
+
+        startTime = System.currentTimeMillis();
+        Arrays.sort(b);
+        endTime = System.currentTimeMillis();
+        System.out.println("Arrays.sort time is: " + (endTime - startTime) + " milliseconds");
+    }
+
+    @Test
+    public void sortByKeyTest() {
+        int[] keys = RandomArrayUtil.getRandomIntArray(-50, 50, 100000);
+        int[] perm = RadixSort.sortedPermutation(keys);
+        for (int i = 1; i < perm.length; i++) {
+            // 稳定排序: 键相同时保持原始顺序
+            assert keys[perm[i - 1]] < keys[perm[i]] || (keys[perm[i - 1]] == keys[perm[i]] && perm[i - 1] < perm[i]);
+        }
+
+        // 平行数组: 值为原始位置
+        int[] sortedKeys = keys.clone();
+        long[] ids = new long[keys.length];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+        }
+        sort(sortedKeys, ids);
+        for (int i = 0; i < ids.length; i++) {
+            assert ids[i] == perm[i];
+            assert sortedKeys[i] == keys[perm[i]];
+        }
+
+        long[] longKeys = RandomArrayUtil.getRandomLongArray(100000);
+        long[] sortedLongKeys = longKeys.clone();
+        String[] names = new String[longKeys.length];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = String.valueOf(longKeys[i]);
+        }
+        sort(sortedLongKeys, names);
+        assert isSorted(sortedLongKeys);
+        for (int i = 0; i < names.length; i++) {
+            assert names[i].equals(String.valueOf(sortedLongKeys[i]));
+        }
+    }
+
+}
@@ -6,6 +6,7 @@ import algorithm.util.watch.Stopwatch;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Comparator;
 
 import static algorithm.sort.BaseSort.isSorted;
 import static algorithm.sort.BaseSort.show;
@@ -36,6 +37,14 @@ public class SelectSortTest {
         assert isSorted(a);
     }
 
+    @Test
+    public void comparatorSortTest() {
+        Integer[] a = RandomArrayUtil.getRandomBoxedIntArray(0, 1000, 20);
+        sort(a, Comparator.reverseOrder());
+        show(a);
+        assert isSorted(a, Comparator.reverseOrder());
+    }
+
     /**
      * 对选择排序的各种方法进行性能测试
      *
@@ -6,136 +6,117 @@ import algorithm.util.watch.Stopwatch;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Comparator;
 
 import static algorithm.sort.BaseSort.isSorted;
 import static algorithm.sort.ShellSort.sort;
 
 public class ShellSortTest {
 
+    @Test
+    public void primitiveSortTest() {
+        int[] a = RandomArrayUtil.getRandomIntArray(0, 1000, 1000);
+        sort(a);
+        assert isSorted(a);
+
+        long[] b = RandomArrayUtil.getRandomLongArray(1000);
+        sort(b);
+        assert isSorted(b);
+
+        double[] c = RandomArrayUtil.getRandomDoubleArray(0, 1000, 1000);
+        sort(c);
+        assert isSorted(c);
+
+        float[] d = RandomArrayUtil.getRandomFloatArray(0, 1000, 1000);
+        sort(d);
+        assert isSorted(d);
+    }
+
+    @Test
+    public void comparatorSortTest() {
+        Integer[] a = RandomArrayUtil.getRandomBoxedIntArray(0, 1000, 1000);
+        sort(a, Comparator.reverseOrder());
+        assert isSorted(a, Comparator.reverseOrder());
+    }
+
+    @Test
+    public void gapSequenceTest() {
+        assert Arrays.equals(GapSequence.CIURA.gaps(1000), new int[]{701, 301, 132, 57, 23, 10, 4, 1});
+        assert Arrays.equals(GapSequence.TOKUDA.gaps(300), new int[]{233, 103, 46, 20, 9, 4, 1});
+        assert Arrays.equals(GapSequence.SEDGEWICK.gaps(600), new int[]{505, 209, 109, 41, 19, 5, 1});
+        assert Arrays.equals(GapSequence.PRATT.gaps(13), new int[]{12, 9, 8, 6, 4, 3, 2, 1});
+        assert Arrays.equals(GapSequence.KNUTH.gaps(100), new int[]{40, 13, 4, 1});
+        assert Arrays.equals(GapSequence.ofFactor(7).gaps(400), new int[]{57, 8, 1});
+        assert Arrays.equals(GapSequence.CIURA.gaps(0), new int[]{1});
+
+        for (GapSequence gaps : new GapSequence[]{GapSequence.CIURA, GapSequence.TOKUDA,
+                GapSequence.SEDGEWICK, GapSequence.PRATT, GapSequence.ofFactor(10000000)}) {
+            int[] g = gaps.gaps(Integer.MAX_VALUE);
+            for (int i = 1; i < g.length; i++) {
+                assert g[i - 1] > g[i];
+            }
+            assert g[g.length - 1] == 1;
+
+            Integer[] a = RandomArrayUtil.getRandomBoxedIntArray(0, 1000, 3000);
+            sort(a, gaps);
+            assert isSorted(a);
+
+            int[] b = RandomArrayUtil.getRandomIntArray(0, 1000, 3000);
+            sort(b, gaps);
+            assert isSorted(b);
+        }
+    }
+
+    @Test
+    public void rangeSortTest() {
+        int[] a = RandomArrayUtil.getRandomIntArray(0, 1000, 1000);
+        int[] b = Arrays.copyOf(a, a.length);
+        sort(a, 100, 899, GapSequence.SEDGEWICK);
+        Arrays.sort(b, 100, 900);
+        assert Arrays.equals(a, b);
+    }
+
     /**
-     * 将不同step值的希尔排序进行比较, 并与插入排序进行比较
-     *
-     * 结果如下:
-     *
-     * Step: 3
-     * Array length: 100000, Shell sort max step: 88573
-     * [random]: (0.06 seconds)
-     * Array length: 100000, Shell sort max step: 88573
-     * [random + duplicate]: (0.07 seconds)
-     *
-     * Step: 7
-     * Array length: 100000, Shell sort max step: 19608
-     * [random]: (0.04 seconds)
-     * Array length: 100000, Shell sort max step: 19608
-     * [random + duplicate]: (0.07 seconds)
-     *
-     * Step: 19
-     * Array length: 100000, Shell sort max step: 7240
-     * [random]: (0.08 seconds)
-     * Array length: 100000, Shell sort max step: 7240
-     * [random + duplicate]: (0.13 seconds)
-     *
-     * Step: 97
-     * Array length: 100000, Shell sort max step: 9507
-     * [random]: (0.31 seconds)
-     * Array length: 100000, Shell sort max step: 9507
-     * [random + duplicate]: (0.60 seconds)
-     *
-     * Step: 10000000
-     * Array length: 100000, Shell sort max step: 1
-     * [random]: (16.98 seconds)
-     * Array length: 100000, Shell sort max step: 1
-     * [random + duplicate]: (28.00 seconds)
+     * 将不同步长序列的希尔排序进行比较, 并与插入排序进行比较
      *
-     * Insertion Sort:
-     * [random]: (22.34 seconds)
-     * [random + duplicate]: (33.75 seconds)
-     *
-     * 实验证明, 对于递增系数巨大的希尔排序, 性能会恶化到与插入排序性能相似!
+     * 其中ofFactor(step)即原先的h = step * h + 1序列
      *
+     * 对于递增系数巨大的序列(如ofFactor(10000000), 实际只使用步长1), 性能会恶化到与插入排序性能相似!
      */
     @Test
-    public void compareStep() {
+    public void compareGapSequence() {
         // 正常随机数组
-        Integer[] a11 = RandomArrayUtil.getRandomBoxedIntArray(0, 1000000, 100000);
-        Integer[] a12 = Arrays.copyOf(a11, a11.length);
-        Integer[] a13 = Arrays.copyOf(a11, a11.length);
-        Integer[] a14 = Arrays.copyOf(a11, a11.length);
-        Integer[] a15 = Arrays.copyOf(a11, a11.length);
-        Integer[] a16 = Arrays.copyOf(a11, a11.length);
-
+        Integer[] a1 = RandomArrayUtil.getRandomBoxedIntArray(0, 1000000, 100000);
         // 大量重复数组
-        Integer[] a21 = RandomArrayUtil.getRandomBoxedIntArray(0, 100, 100000);
-        Integer[] a22 = Arrays.copyOf(a21, a21.length);
-        Integer[] a23 = Arrays.copyOf(a21, a21.length);
-        Integer[] a24 = Arrays.copyOf(a21, a21.length);
-        Integer[] a25 = Arrays.copyOf(a21, a21.length);
-        Integer[] a26 = Arrays.copyOf(a21, a21.length);
+        Integer[] a2 = RandomArrayUtil.getRandomBoxedIntArray(0, 100, 100000);
 
         System.out.println("Array created!");
 
-        ShellSort.step = 3;
-        System.out.println("Step: " + ShellSort.step);
-        Stopwatch stopwatch = new Stopwatch();
-        sort(a11);
-        StdOut.printf("%s (%.2f seconds)\n", "[random]:", stopwatch.elapsedTime());
-        sort(a21);
-        StdOut.printf("%s (%.2f seconds)\n", "[random + duplicate]:", stopwatch.elapsedTime());
-        assert isSorted(a11);
-        assert isSorted(a21);
-        System.out.println();
-
-        ShellSort.step = 7;
-        System.out.println("Step: " + ShellSort.step);
-        stopwatch = new Stopwatch();
-        sort(a12);
-        StdOut.printf("%s (%.2f seconds)\n", "[random]:", stopwatch.elapsedTime());
-        sort(a22);
-        StdOut.printf("%s (%.2f seconds)\n", "[random + duplicate]:", stopwatch.elapsedTime());
-        assert isSorted(a12);
-        assert isSorted(a22);
-        System.out.println();
-
-        ShellSort.step = 19;
-        System.out.println("Step: " + ShellSort.step);
-        stopwatch = new Stopwatch();
-        sort(a13);
-        StdOut.printf("%s (%.2f seconds)\n", "[random]:", stopwatch.elapsedTime());
-        sort(a23);
-        StdOut.printf("%s (%.2f seconds)\n", "[random + duplicate]:", stopwatch.elapsedTime());
-        assert isSorted(a13);
-        assert isSorted(a23);
-        System.out.println();
-
-        ShellSort.step = 97;
-        System.out.println("Step: " + ShellSort.step);
-        stopwatch = new Stopwatch();
-        sort(a14);
-        StdOut.printf("%s (%.2f seconds)\n", "[random]:", stopwatch.elapsedTime());
-        sort(a24);
-        StdOut.printf("%s (%.2f seconds)\n", "[random + duplicate]:", stopwatch.elapsedTime());
-        assert isSorted(a14);
-        assert isSorted(a24);
-        System.out.println();
-
-        ShellSort.step = 10000000;
-        System.out.println("Step: " + ShellSort.step);
-        stopwatch = new Stopwatch();
-        sort(a15);
-        StdOut.printf("%s (%.2f seconds)\n", "[random]:", stopwatch.elapsedTime());
-        sort(a25);
-        StdOut.printf("%s (%.2f seconds)\n", "[random + duplicate]:", stopwatch.elapsedTime());
-        assert isSorted(a15);
-        assert isSorted(a25);
-        System.out.println();
+        GapSequence[] sequences = {GapSequence.CIURA, GapSequence.TOKUDA, GapSequence.SEDGEWICK, GapSequence.PRATT,
+                GapSequence.ofFactor(3), GapSequence.ofFactor(7), GapSequence.ofFactor(19),
+                GapSequence.ofFactor(97), GapSequence.ofFactor(10000000)};
+        for (GapSequence gaps : sequences) {
+            Integer[] b1 = Arrays.copyOf(a1, a1.length), b2 = Arrays.copyOf(a2, a2.length);
+            System.out.println("Gap sequence: " + gaps);
+            Stopwatch stopwatch = new Stopwatch();
+            sort(b1, gaps);
+            StdOut.printf("%s (%.2f seconds)\n", "[random]:", stopwatch.elapsedTime());
+            stopwatch = new Stopwatch();
+            sort(b2, gaps);
+            StdOut.printf("%s (%.2f seconds)\n", "[random + duplicate]:", stopwatch.elapsedTime());
+            assert isSorted(b1);
+            assert isSorted(b2);
+            System.out.println();
+        }
 
         System.out.println("Insertion Sort:");
-        stopwatch = new Stopwatch();
-        InsertionSort.sort(a16);
+        Stopwatch stopwatch = new Stopwatch();
+        InsertionSort.sort(a1);
         StdOut.printf("%s (%.2f seconds)\n", "[random]:", stopwatch.elapsedTime());
-        InsertionSort.sort(a26);
+        stopwatch = new Stopwatch();
+        InsertionSort.sort(a2);
         StdOut.printf("%s (%.2f seconds)\n", "[random + duplicate]:", stopwatch.elapsedTime());
-        assert isSorted(a16);
-        assert isSorted(a26);
+        assert isSorted(a1);
+        assert isSorted(a2);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,144 @@
+package algorithm.sort;
+
+import algorithm.util.iostream.StdOut;
+import algorithm.util.random.RandomArrayUtil;
+import algorithm.util.watch.Stopwatch;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+public class SortedChunkListTest {
+
+    @Test
+    public void sortTest() {
+        // 跨越多次拆分
+        int n = SortedChunkList.CHUNK_SIZE * 20 + 7;
+        Integer[] a = RandomArrayUtil.getRandomBoxedIntArray(0, 1000, n);
+        SortedChunkList<Integer> list = SortedChunkList.naturalOrder();
+        list.addAll(Arrays.asList(a));
+        assert list.size() == n;
+
+        Integer[] expect = Arrays.copyOf(a, n);
+        Arrays.sort(expect);
+        assert Arrays.equals(list.toArray(new Integer[0]), expect);
+        assert Arrays.equals(list.toArray(), expect);
+
+        int i = 0;
+        for (Integer x : list) {
+            assert x.equals(expect[i++]);
+        }
+        assert i == n;
+
+        list.clear();
+        assert list.isEmpty() && list.toArray().length == 0 && !list.iterator().hasNext();
+        list.add(1);
+        assert list.size() == 1;
+    }
+
+    @Test
+    public void comparatorTest() {
+        Integer[] a = RandomArrayUtil.getRandomBoxedIntArray(0, 100000, 5000);
+        SortedChunkList<Integer> list = new SortedChunkList<>(Comparator.reverseOrder());
+        list.addAll(Arrays.asList(a));
+        assert BaseSort.isSorted(list.toArray(new Integer[0]), Comparator.reverseOrder());
+    }
+
+    /**
+     * 相等的元素按插入顺序导出
+     */
+    @Test
+    public void stableTest() {
+        int[] keys = RandomArrayUtil.getRandomIntArray(0, 10, 10000);
+        SortedChunkList<int[]> list = new SortedChunkList<>(Comparator.comparingInt(r -> r[0]));
+        for (int i = 0; i < keys.length; i++) {
+            list.add(new int[]{keys[i], i});
+        }
+        int[][] b = list.toArray(new int[0][]);
+        for (int i = 1; i < b.length; i++) {
+            assert b[i - 1][0] < b[i][0] || (b[i - 1][0] == b[i][0] && b[i - 1][1] < b[i][1]);
+        }
+    }
+
+    @Test
+    public void primitiveTest() {
+        int n = SortedChunkList.CHUNK_SIZE * 10 + 3;
+
+        int[] a = RandomArrayUtil.getRandomIntArray(0, 100, n);
+        SortedChunkList.OfInt ints = new SortedChunkList.OfInt();
+        ints.addAll(a);
+        Arrays.sort(a);
+        assert ints.size() == n && Arrays.equals(ints.toArray(), a);
+
+        long[] b = RandomArrayUtil.getRandomLongArray(n);
+        SortedChunkList.OfLong longs = new SortedChunkList.OfLong();
+        longs.addAll(b);
+        Arrays.sort(b);
+        assert Arrays.equals(longs.toArray(), b);
+
+        double[] c = RandomArrayUtil.getRandomDoubleArray(0, 1000, n);
+        SortedChunkList.OfDouble doubles = new SortedChunkList.OfDouble();
+        doubles.addAll(c);
+        Arrays.sort(c);
+        assert Arrays.equals(doubles.toArray(), c);
+
+        // 递增与递减的插入顺序
+        SortedChunkList.OfInt asc = new SortedChunkList.OfInt(), desc = new SortedChunkList.OfInt();
+        for (int i = 0; i < n; i++) {
+            asc.add(i);
+            desc.add(n - 1 - i);
+        }
+        assert Arrays.equals(asc.toArray(), desc.toArray());
+        assert BaseSort.isSorted(asc.toArray());
+
+        ints.clear();
+        assert ints.isEmpty() && ints.toArray().length == 0;
+    }
+
+    /**
+     * 逐个插入乱序到达的元素并保持有序:
+     * <p>
+     * 1.十万个随机元素: 折半插入排序(每次插入移动O(N)个元素)与分块有序数组
+     * <p>
+     * 2.一千万个近似有序的事件(时间戳在一个窗口内乱序): 分块有序数组与整体排序
+     */
+    @Test
+    public void compareInsert() {
+        int n = 100000;
+        Integer[] a = RandomArrayUtil.getRandomBoxedIntArray(0, 100000000, n);
+        Integer[] b = Arrays.copyOf(a, n);
+
+        Stopwatch stopwatch = new Stopwatch();
+        InsertionSort.binaryInsertSort(a);
+        StdOut.printf("%s (%.2f seconds)\n", "binaryInsertSort [random 100000]:", stopwatch.elapsedTime());
+        assert BaseSort.isSorted(a);
+
+        stopwatch = new Stopwatch();
+        SortedChunkList<Integer> list = SortedChunkList.naturalOrder();
+        for (Integer x : b) list.add(x);
+        StdOut.printf("%s (%.2f seconds)\n", "SortedChunkList [random 100000]:", stopwatch.elapsedTime());
+        assert Arrays.equals(list.toArray(new Integer[0]), a);
+        System.out.println();
+
+        n = 10000000;
+        Random random = new Random();
+        long[] events = new long[n];
+        for (int i = 0; i < n; i++) {
+            events[i] = i * 10L + random.nextInt(100000);
+        }
+        long[] sorted = Arrays.copyOf(events, n);
+
+        stopwatch = new Stopwatch();
+        SortedChunkList.OfLong longs = new SortedChunkList.OfLong();
+        longs.addAll(events);
+        long[] result = longs.toArray();
+        StdOut.printf("%s (%.2f seconds)\n", "SortedChunkList.OfLong [events 10000000]:", stopwatch.elapsedTime());
+
+        stopwatch = new Stopwatch();
+        Arrays.sort(sorted);
+        StdOut.printf("%s (%.2f seconds)\n", "Arrays.sort [events 10000000]:", stopwatch.elapsedTime());
+        assert Arrays.equals(result, sorted);
+    }
+
+}
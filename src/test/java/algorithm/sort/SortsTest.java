@@ -0,0 +1,228 @@
+package algorithm.sort;
+
+import algorithm.sort.Sorter.KeyType;
+import algorithm.sort.Sorter.Memory;
+import algorithm.util.iostream.StdOut;
+import algorithm.util.random.RandomArrayUtil;
+import algorithm.util.watch.Stopwatch;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import static algorithm.sort.BaseSort.isSorted;
+
+public class SortsTest {
+
+    /**
+     * 每个排序对其支持的键类型都能正确排序, 声明稳定的排序确实稳定
+     */
+    @Test
+    public void sortAlgorithmTest() {
+        int n = 3000;
+        for (SortAlgorithm s : SortAlgorithm.values()) {
+            if (s.supports(KeyType.OBJECT)) {
+                int[] keys = RandomArrayUtil.getRandomIntArray(0, 100, n);
+                int[][] a = new int[n][];
+                for (int i = 0; i < n; i++) {
+                    a[i] = new int[]{keys[i], i};
+                }
+                s.sort(a, Comparator.comparingInt(x -> x[0]));
+                for (int i = 1; i < n; i++) {
+                    assert a[i - 1][0] <= a[i][0] : s;
+                    assert !s.isStable() || a[i - 1][0] < a[i][0] || a[i - 1][1] < a[i][1] : s;
+                }
+                Integer[] b = RandomArrayUtil.getRandomBoxedIntArray(0, 1000, n);
+                s.sort(b);
+                assert isSorted(b) : s;
+            }
+            if (s.supports(KeyType.INT)) {
+                int[] a = RandomArrayUtil.getRandomIntArray(-1000, 1000, n);
+                s.sort(a);
+                assert isSorted(a) : s;
+            }
+            if (s.supports(KeyType.LONG)) {
+                long[] a = RandomArrayUtil.getRandomLongArray(n);
+                s.sort(a);
+                assert isSorted(a) : s;
+            }
+            if (s.supports(KeyType.DOUBLE)) {
+                double[] a = RandomArrayUtil.getRandomDoubleArray(-1000, 1000, n);
+                s.sort(a);
+                assert isSorted(a) : s;
+            }
+        }
+    }
+
+    /**
+     * 含NaN的double数组: 无论选择哪个排序, NaN都在末尾且其余元素有序(与Arrays.sort()一致)
+     */
+    @Test
+    public void nanSortTest() {
+        double[] a = RandomArrayUtil.getRandomDoubleArray(-1000, 1000, 3000);
+        for (int i = 0; i < a.length; i += 29) a[i] = Double.NaN;
+        long sum = BaseSort.checksum(a);
+        for (SortAlgorithm s : SortAlgorithm.values()) {
+            if (s.supports(KeyType.DOUBLE)) {
+                double[] b = a.clone();
+                s.sort(b);
+                assert BaseSort.isSortedPermutation(b, sum) : s;
+            }
+        }
+
+        double[] c = {3, Double.NaN, 1};
+        Sorts.sort(c, Requirements.ANY);
+        assert c[0] == 1 && c[1] == 3 && Double.isNaN(c[2]);
+
+        double[] d = {5, 4, 3, Double.NaN, 2, 1};
+        MergeSort.advancedSort(d);
+        assert isSorted(d) && Double.isNaN(d[5]);
+
+        // 逆序且穿插NaN的数组不是有序的, 不能选择插入排序
+        double[] e = new double[20000];
+        for (int i = 0; i < e.length; i++) e[i] = (i & 1) == 0 ? Double.NaN : e.length - i;
+        assert Sorts.sort(e, Requirements.ANY) != SortAlgorithm.INSERTION;
+        assert isSorted(Arrays.copyOf(e, e.length / 2)) && Double.isNaN(e[e.length - 1]);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void unsupportedTest() {
+        SortAlgorithm.TIM.sort(new int[]{2, 1});
+    }
+
+    @Test
+    public void requirementsTest() {
+        assert Requirements.ANY.accepts(SortAlgorithm.INTRO, KeyType.OBJECT);
+        assert !Requirements.ANY.stable().accepts(SortAlgorithm.INTRO, KeyType.OBJECT);
+        // 基本类型不区分稳定性
+        assert Requirements.ANY.stable().accepts(SortAlgorithm.INTRO, KeyType.INT);
+        assert !Requirements.ANY.inPlace().accepts(SortAlgorithm.MERGE, KeyType.INT);
+        assert !Requirements.ANY.sequential().accepts(SortAlgorithm.PARALLEL_MERGE, KeyType.INT);
+        assert !Requirements.ANY.maxExtraMemory(Memory.CONSTANT).accepts(SortAlgorithm.INTRO, KeyType.INT);
+        assert !Requirements.ANY.accepts(SortAlgorithm.TIM, KeyType.INT);
+        assert !Requirements.ANY.stable().isInPlace() && Requirements.ANY.stable().isStable();
+    }
+
+    /**
+     * 随机的概况: 逆序对约为一半, 没有重复元素, 值域未知
+     */
+    private static InputProfile random(int n) {
+        return InputProfile.unknown(n);
+    }
+
+    private static InputProfile profile(int n, int runs, double inversionRatio, double duplicateRatio) {
+        return new InputProfile(n, runs - 1, inversionRatio, duplicateRatio, Double.NaN, Double.NaN);
+    }
+
+    @Test
+    public void chooseTest() {
+        Requirements any = Requirements.ANY;
+        int big = Sorts.PARALLEL_THRESHOLD * 4;
+
+        assert Sorts.choose(KeyType.OBJECT, profile(10, 5, 0.5, 0), any, 1) == SortAlgorithm.INSERTION;
+        assert Sorts.choose(KeyType.OBJECT, profile(big, 1, 0, 0), any, 1) == SortAlgorithm.INSERTION;
+        assert Sorts.choose(KeyType.OBJECT, profile(big, 10, 0.01, 0), any, 1) == SortAlgorithm.TIM;
+        assert Sorts.choose(KeyType.OBJECT, profile(big, big / 2, 0.99, 0), any, 1) == SortAlgorithm.TIM;
+        assert Sorts.choose(KeyType.OBJECT, profile(big, 10, 0.01, 0), any.inPlace(), 1) == SortAlgorithm.SHELL;
+        assert Sorts.choose(KeyType.INT, profile(big, 10, 0.01, 0), any, 1) == SortAlgorithm.INTRO;
+        assert Sorts.choose(KeyType.INT, profile(big, 10, 0.01, 0), any.maxExtraMemory(Memory.CONSTANT), 1)
+                == SortAlgorithm.HEAP;
+
+        assert Sorts.choose(KeyType.OBJECT, random(big), any, 1) == SortAlgorithm.INTRO;
+        assert Sorts.choose(KeyType.OBJECT, random(big), any.stable(), 1) == SortAlgorithm.TIM;
+        assert Sorts.choose(KeyType.OBJECT, random(big), any.stable().inPlace(), 1) == SortAlgorithm.INSERTION;
+        assert Sorts.choose(KeyType.INT, random(big), any, 1) == SortAlgorithm.RADIX;
+        assert Sorts.choose(KeyType.LONG, random(big), any.inPlace(), 1) == SortAlgorithm.INTRO;
+        assert Sorts.choose(KeyType.DOUBLE, random(big), any.maxExtraMemory(Memory.CONSTANT), 1) == SortAlgorithm.HEAP;
+
+        // 大量重复: 原地时使用三向切分
+        InputProfile duplicates = profile(big, big / 2, 0.4, 0.9);
+        assert Sorts.choose(KeyType.LONG, duplicates, any, 1) == SortAlgorithm.RADIX;
+        assert Sorts.choose(KeyType.LONG, duplicates, any.inPlace(), 1) == SortAlgorithm.THREE_WAY_QUICK;
+        assert Sorts.choose(KeyType.OBJECT, duplicates, any, 1) == SortAlgorithm.INTRO;
+
+        // 值域较小的int键: 计数排序
+        InputProfile dense = new InputProfile(big, big / 2, 0.5, 0.9, -100, 1000);
+        assert Sorts.choose(KeyType.INT, dense, any, 8) == SortAlgorithm.COUNT;
+        assert Sorts.choose(KeyType.LONG, dense, any, 1) == SortAlgorithm.RADIX;
+        assert Sorts.choose(KeyType.INT, new InputProfile(big, big / 2, 0.5, 0, 0, 1e9), any, 1) == SortAlgorithm.RADIX;
+
+        assert Sorts.choose(KeyType.OBJECT, random(big), any, 8) == SortAlgorithm.PARALLEL_SAMPLE;
+        assert Sorts.choose(KeyType.OBJECT, random(big), any.stable(), 8) == SortAlgorithm.PARALLEL_MERGE;
+        assert Sorts.choose(KeyType.INT, random(big), any, 8) == SortAlgorithm.PARALLEL_RADIX;
+        assert Sorts.choose(KeyType.INT, random(big), any.sequential(), 8) == SortAlgorithm.RADIX;
+        assert Sorts.choose(KeyType.INT, big, any.sequential()) == SortAlgorithm.RADIX;
+    }
+
+    @Test
+    public void sortTest() {
+        Integer[] a = RandomArrayUtil.getRandomBoxedIntArray(0, 1000, 10000);
+        Sorter s = Sorts.sort(a, Requirements.ANY.stable());
+        assert isSorted(a) && s.isStable();
+
+        // 已经有序的数组: 插入排序只需O(N)
+        assert Sorts.sort(a, Requirements.ANY) == SortAlgorithm.INSERTION;
+
+        Integer[] b = RandomArrayUtil.getRandomBoxedIntArray(0, 1000, 10000);
+        Sorts.sort(b, Comparator.reverseOrder(), Requirements.ANY.inPlace());
+        assert isSorted(b, Comparator.reverseOrder());
+
+        int[] c = RandomArrayUtil.getRandomIntArray(0, 1000, 10000);
+        Sorts.sort(c, Requirements.ANY);
+        assert isSorted(c);
+
+        long[] d = RandomArrayUtil.getRandomLongArray(10000);
+        Sorts.sort(d, Requirements.ANY.maxExtraMemory(Memory.CONSTANT));
+        assert isSorted(d);
+
+        double[] e = RandomArrayUtil.getRandomDoubleArray(0, 1000, 10000);
+        Sorts.sort(e, Requirements.ANY.inPlace());
+        assert isSorted(e);
+
+        assert Sorts.sort(new int[0], Requirements.ANY) == SortAlgorithm.INSERTION;
+
+        int[] f = RandomArrayUtil.getRandomIntArray(0, 100, 10000);
+        assert Sorts.sort(f, Requirements.ANY) == SortAlgorithm.COUNT;
+        assert isSorted(f);
+
+        long[] g = RandomArrayUtil.getRandomLongArray(10000);
+        for (int i = 0; i < g.length; i++) g[i] %= 10;
+        assert Sorts.sort(g, Requirements.ANY.inPlace()) == SortAlgorithm.THREE_WAY_QUICK;
+        assert isSorted(g);
+    }
+
+    /**
+     * 对随机数组, 近似有序数组(随机交换0.1%的元素)和大量重复的数组, 比较分发器与固定使用内省排序
+     */
+    @Test
+    public void compareSort() {
+        int n = 10000000;
+        int[] random = RandomArrayUtil.getRandomIntArray(0, 100000000, n);
+        int[] nearly = Arrays.copyOf(random, n);
+        Arrays.sort(nearly);
+        for (int i = 0; i < n / 1000; i++) {
+            int x = (int) (Math.random() * n), y = (int) (Math.random() * n);
+            BaseSort.exch(nearly, x, y);
+        }
+        int[] duplicate = RandomArrayUtil.getRandomIntArray(0, 1000, n);
+
+        String[] kinds = {"[random]", "[nearly sorted]", "[random + duplicate]"};
+        int[][] inputs = {random, nearly, duplicate};
+        for (int k = 0; k < inputs.length; k++) {
+            int[] input = inputs[k];
+            String kind = kinds[k];
+            int[] a = Arrays.copyOf(input, n), b = Arrays.copyOf(input, n);
+
+            Stopwatch stopwatch = new Stopwatch();
+            Sorter s = Sorts.sort(a, Requirements.ANY);
+            StdOut.printf("%s (%.2f seconds)\n", "Sorts.sort -> " + s.name() + " " + kind + ":", stopwatch.elapsedTime());
+
+            stopwatch = new Stopwatch();
+            IntroSort.sort(b);
+            StdOut.printf("%s (%.2f seconds)\n", "IntroSort " + kind + ":", stopwatch.elapsedTime());
+            assert isSorted(a) && isSorted(b);
+            System.out.println();
+        }
+    }
+
+}
@@ -0,0 +1,120 @@
+package algorithm.sort;
+
+import algorithm.util.random.RandomArrayUtil;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static algorithm.sort.BaseSort.isSorted;
+import static algorithm.sort.TimSort.sort;
+
+public class TimSortTest {
+
+    @Test
+    public void sortTest() {
+        Integer[] a = RandomArrayUtil.getRandomBoxedIntArray(0, 1000, 100000);
+        sort(a);
+        assert isSorted(a);
+
+        Integer[] b = RandomArrayUtil.getRandomBoxedIntArray(0, 1000, 100000);
+        sort(b, Comparator.reverseOrder());
+        assert isSorted(b, Comparator.reverseOrder());
+
+        // 小于MIN_MERGE的数组直接使用折半插入排序
+        for (int n = 0; n < 40; n++) {
+            Integer[] c = RandomArrayUtil.getRandomBoxedIntArray(0, 10, n);
+            sort(c);
+            assert isSorted(c);
+        }
+    }
+
+    /**
+     * 基本有序, 分段升序, 分段降序的输入
+     */
+    @Test
+    public void runSortTest() {
+        int n = 200000;
+        Random random = new Random();
+        Integer[][] patterns = new Integer[4][n];
+        for (int i = 0; i < n; i++) {
+            patterns[0][i] = i;
+            patterns[1][i] = n - i;
+            patterns[2][i] = i % 1000;
+            patterns[3][i] = (i / 5000) % 2 == 0 ? i % 5000 : 5000 - i % 5000;
+        }
+        // 基本有序: 少量随机交换
+        for (int i = 0; i < 100; i++) {
+            BaseSort.exch(patterns[0], random.nextInt(n), random.nextInt(n));
+        }
+
+        for (Integer[] a : patterns) {
+            Integer[] expect = a.clone();
+            Arrays.sort(expect);
+            sort(a);
+            assert Arrays.equals(a, expect);
+        }
+    }
+
+    /**
+     * 键相等的记录保持原有的相对顺序
+     */
+    @Test
+    public void stableTest() {
+        int n = 100000;
+        int[] keys = RandomArrayUtil.getRandomIntArray(0, 100, n);
+        int[][] records = new int[n][];
+        for (int i = 0; i < n; i++) {
+            records[i] = new int[]{keys[i], i};
+        }
+        // 加入一段严格递减和一段非递增的run
+        for (int i = 0; i < 1000; i++) {
+            records[i][0] = 1000 - i;
+            records[1000 + i][0] = (2000 - i) / 10;
+        }
+
+        sort(records, Comparator.comparingInt(x -> x[0]));
+        for (int i = 1; i < n; i++) {
+            assert records[i - 1][0] < records[i][0]
+                    || records[i - 1][0] == records[i][0] && records[i - 1][1] < records[i][1];
+        }
+    }
+
+    /**
+     * 比较TimSort, MergeSort.advancedSort()和Arrays.sort()在基本有序的日志批次上的表现:
+     * <p>
+     * 每个批次内的时间戳有序, 批次之间部分重叠
+     */
+    @Test
+    public void compareSort() {
+        int n = 1000000, batch = 10000;
+        Random random = new Random();
+        Long[] logs = new Long[n];
+        long base = 0;
+        for (int i = 0; i < n; i++) {
+            if (i % batch == 0) {
+                base -= random.nextInt(batch);
+            }
+            logs[i] = base + i;
+        }
+
+        Long[] a = logs.clone(), b = logs.clone(), c = logs.clone();
+
+        long startTime = System.currentTimeMillis();
+        sort(a);
+        long endTime = System.currentTimeMillis();
+        System.out.println("TimSort time is: " + (endTime - startTime) + " milliseconds");
+
+        startTime = System.currentTimeMillis();
+        MergeSort.advancedSort(b);
+        endTime = System.currentTimeMillis();
+        System.out.println("MergeSort.advancedSort time is: " + (endTime - startTime) + " milliseconds");
+
+        startTime = System.currentTimeMillis();
+        Arrays.sort(c);
+        endTime = System.currentTimeMillis();
+        System.out.println("Arrays.sort time is: " + (endTime - startTime) + " milliseconds");
+    }
+
+}
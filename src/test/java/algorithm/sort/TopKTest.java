@@ -0,0 +1,86 @@
+package algorithm.sort;
+
+import algorithm.util.random.RandomArrayUtil;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+public class TopKTest {
+
+    @Test
+    public void largestTest() {
+        Integer[] a = RandomArrayUtil.getRandomBoxedIntArray(100000);
+        TopK<Integer> top = TopK.largest(1000);
+        for (Integer x : a) {
+            top.offer(x);
+        }
+
+        Arrays.sort(a, Comparator.reverseOrder());
+        List<Integer> result = top.toList();
+        assert result.size() == 1000;
+        assert result.equals(Arrays.asList(a).subList(0, 1000));
+        assert top.threshold().equals(a[999]);
+    }
+
+    @Test
+    public void smallestTest() {
+        Integer[] a = RandomArrayUtil.getRandomBoxedIntArray(0, 100, 10000);
+        TopK<Integer> top = TopK.smallest(10);
+        top.offerAll(Arrays.asList(a));
+
+        Arrays.sort(a);
+        assert top.toList().equals(Arrays.asList(a).subList(0, 10));
+    }
+
+    /**
+     * 元素不足k个时保留全部; 分段收集后合并
+     */
+    @Test
+    public void mergeTest() {
+        TopK<Integer> top = TopK.largest(5);
+        top.offer(3);
+        top.offer(1);
+        assert top.size() == 2 && top.threshold() == null;
+        assert top.toList().equals(Arrays.asList(3, 1));
+
+        TopK<Integer> other = new TopK<>(5, Comparator.naturalOrder());
+        for (int i = 0; i < 100; i++) {
+            other.offer(i);
+        }
+        top.merge(other);
+        assert top.toList().equals(Arrays.asList(99, 98, 97, 96, 95));
+    }
+
+    /**
+     * 比较在五千万个分数中取前1000名: TopK, PartialSort和完整的Arrays.sort
+     */
+    @Test
+    public void compareSort() {
+        int n = 50000000, k = 1000;
+        double[] scores = RandomArrayUtil.getRandomDoubleArray(0, 1000000, n);
+
+        long startTime = System.currentTimeMillis();
+        TopK<Double> top = TopK.largest(k);
+        for (double score : scores) {
+            top.offer(score);
+        }
+        List<Double> result = top.toList();
+        long endTime = System.currentTimeMillis();
+        System.out.println("TopK time is: " + (endTime - startTime) + " milliseconds");
+
+        double[] b = Arrays.copyOf(scores, n);
+        startTime = System.currentTimeMillis();
+        PartialSort.nthElement(b, n - k);
+        endTime = System.currentTimeMillis();
+        System.out.println("PartialSort.nthElement time is: " + (endTime - startTime) + " milliseconds");
+
+        startTime = System.currentTimeMillis();
+        Arrays.sort(scores);
+        endTime = System.currentTimeMillis();
+        System.out.println("Arrays.sort time is: " + (endTime - startTime) + " milliseconds");
+        assert result.get(k - 1) == scores[n - k];
+    }
+
+}